@@ -0,0 +1,147 @@
+package top.asimov.pigeon.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sqlite.SQLiteDataSource;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+
+/**
+ * 节目批量入库耗时，使用临时 SQLite 文件并执行全部 Flyway 迁移。
+ *
+ * <p>每次调用写入一批节目，其中 {@code existingRatio} 比例的 ID 已在库中（模拟增量同步时的重复节目）；
+ * 与应用中的 {@code @Transactional} 一致，整批在一个事务中提交。{@code insertThroughput} 以每秒新增的
+ * 行数报告写入吞吐（结果中的 {@code insertThroughput:rows}）。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EpisodeServiceSaveBenchmark {
+
+  @Param({"50", "500", "5000"})
+  public int batchSize;
+
+  @Param({"0.5"})
+  public double existingRatio;
+
+  private Path databaseFile;
+  private SqlSession sqlSession;
+  private EpisodeService episodeService;
+  private List<Episode> batch;
+  private long sequence;
+
+  @Setup(Level.Trial)
+  public void setUpDatabase() throws IOException {
+    databaseFile = Files.createTempFile("pigeon-benchmark-", ".db");
+    SQLiteDataSource dataSource = new SQLiteDataSource();
+    dataSource.setUrl("jdbc:sqlite:" + databaseFile
+        + "?journal_mode=WAL&synchronous=NORMAL&busy_timeout=3000");
+    Flyway.configure()
+        .dataSource(dataSource)
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    MybatisConfiguration configuration = new MybatisConfiguration();
+    configuration.setMapUnderscoreToCamelCase(true);
+    configuration.setEnvironment(
+        new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.addMapper(EpisodeMapper.class);
+    SqlSessionFactory sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    sqlSession = sqlSessionFactory.openSession(false);
+    episodeService = new EpisodeService(sqlSession.getMapper(EpisodeMapper.class), null, null,
+        null, null, null, null, null, null, null);
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareBatch() {
+    int existing = (int) (batchSize * existingRatio);
+    batch = new ArrayList<>(batchSize);
+    // 复用上一批末尾已入库的 ID，其余为新 ID
+    for (long id = sequence - existing; id < sequence - existing + batchSize; id++) {
+      batch.add(buildEpisode(Math.max(id, 0)));
+    }
+    sequence += batchSize - existing;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    sqlSession.close();
+    Files.deleteIfExists(databaseFile);
+    Files.deleteIfExists(Path.of(databaseFile + "-wal"));
+    Files.deleteIfExists(Path.of(databaseFile + "-shm"));
+  }
+
+  @Benchmark
+  public void saveEpisodes() {
+    episodeService.saveEpisodes(batch);
+    sqlSession.commit();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void insertThroughput(InsertedRows insertedRows) {
+    insertedRows.rows += episodeService.saveEpisodes(batch);
+    sqlSession.commit();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class InsertedRows {
+
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rows = 0;
+    }
+  }
+
+  private static Episode buildEpisode(long index) {
+    String id = String.format("vid%08d", index);
+    return Episode.builder()
+        .id(id)
+        .channelId("UCbenchmark")
+        .title("Synthetic episode " + index)
+        .description("Synthetic description for episode " + index)
+        .publishedAt(LocalDateTime.of(2024, 1, 1, 8, 0).minusMinutes(index))
+        .defaultCoverUrl("https://i.ytimg.com/vi/" + id + "/hqdefault.jpg")
+        .maxCoverUrl("https://i.ytimg.com/vi/" + id + "/maxresdefault.jpg")
+        .duration("PT42M17S")
+        .durationSeconds(2537)
+        .downloadStatus(EpisodeStatus.READY.name())
+        .createdAt(LocalDateTime.now())
+        .build();
+  }
+}
@@ -0,0 +1,142 @@
+package top.asimov.pigeon.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.model.dto.SubtitleInfo;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+
+/**
+ * RSS 文档写出耗时：逐条写出节目的 iTunes/Podcasting 2.0 标签并编码为 UTF-8。
+ *
+ * <p>节目列表在 Setup 中构建，数据库游标与媒体链接解析以内存桩代替，输出丢弃，只测量序列化。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RssServiceBenchmark {
+
+  private static final String APP_BASE_URL = "https://pigeon.example.com";
+
+  @Param({"100", "1000", "10000"})
+  public int episodeCount;
+
+  private RssService rssService;
+  private Channel channel;
+
+  @Setup
+  public void setUp() {
+    List<Episode> episodes = buildEpisodes(episodeCount);
+    AppBaseUrlResolver appBaseUrlResolver = mock(AppBaseUrlResolver.class);
+    when(appBaseUrlResolver.requireBaseUrl()).thenReturn(APP_BASE_URL);
+    rssService = new RssService(null, new InMemoryEpisodeService(episodes), null,
+        new StubMediaService(), null, appBaseUrlResolver);
+    channel = Channel.builder()
+        .id("UCbenchmark")
+        .source("YOUTUBE")
+        .title("Benchmark Channel")
+        .description("Synthetic channel for benchmarks")
+        .coverUrl(APP_BASE_URL + "/media/cover.jpg")
+        .build();
+  }
+
+  @Benchmark
+  public Set<String> writeFeed() throws Exception {
+    return rssService.writeChannelFeed(channel, new Date(1_700_000_000_000L),
+        OutputStream.nullOutputStream());
+  }
+
+  private static List<Episode> buildEpisodes(int count) {
+    List<Episode> episodes = new ArrayList<>(count);
+    LocalDateTime publishedAt = LocalDateTime.of(2024, 1, 1, 8, 0);
+    for (int i = 0; i < count; i++) {
+      String id = String.format("vid%08d", i);
+      episodes.add(Episode.builder()
+          .id(id)
+          .channelId("UCbenchmark")
+          .title("Episode " + i + " - Weekly show & highlights")
+          .description("Line one of episode " + i + "\nLinks: https://example.com/" + i
+              + "\nSponsored by <Example>")
+          .publishedAt(publishedAt.minusHours(i))
+          .duration("PT42M17S")
+          .maxCoverUrl("https://i.ytimg.com/vi/" + id + "/maxresdefault.jpg")
+          .mediaFilePath("/data/audio/UCbenchmark/" + id + ".mp3")
+          .mediaType("audio/mpeg")
+          .downloadStatus(EpisodeStatus.COMPLETED.name())
+          .build());
+    }
+    return episodes;
+  }
+
+  private static class InMemoryEpisodeService extends EpisodeService {
+
+    private final List<Episode> episodes;
+
+    InMemoryEpisodeService(List<Episode> episodes) {
+      super(null, null, null, null, null, null, null, null, null, null);
+      this.episodes = episodes;
+    }
+
+    @Override
+    public int refreshChannelVisibility(Channel channel) {
+      return 0;
+    }
+
+    @Override
+    public void forEachVisibleCompletedEpisode(Channel channel, Consumer<Episode> consumer) {
+      episodes.forEach(consumer);
+    }
+  }
+
+  private static class StubMediaService extends MediaService {
+
+    StubMediaService() {
+      super(null, null, null, null, null);
+    }
+
+    @Override
+    public String resolveMediaUrlForRss(String appBaseUrl, Episode episode) {
+      return appBaseUrl + "/media/" + episode.getId() + ".mp3";
+    }
+
+    @Override
+    public long resolveMediaLengthForRss(Episode episode) {
+      return 48_000_000L;
+    }
+
+    @Override
+    public List<SubtitleInfo> getAvailableSubtitles(Episode episode) {
+      return List.of();
+    }
+
+    @Override
+    public String resolveChaptersUrlForRss(String appBaseUrl, Episode episode) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package top.asimov.pigeon.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import top.asimov.pigeon.config.FeedSyncProperties;
+
+/**
+ * 解析 yt-dlp {@code --flat-playlist -J} 输出的播放列表快照。
+ *
+ * <p>Setup 中生成与 yt-dlp 字段一致的合成 JSON 文件，条目顺序打乱以覆盖排序开销。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YtDlpPlaylistSnapshotServiceBenchmark {
+
+  @Param({"50000"})
+  public int entryCount;
+
+  private YtDlpPlaylistSnapshotService snapshotService;
+  private Method parseSnapshotEntries;
+  private Path snapshotFile;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    snapshotService = new YtDlpPlaylistSnapshotService(objectMapper, null, null,
+        new FeedSyncProperties());
+    parseSnapshotEntries = YtDlpPlaylistSnapshotService.class
+        .getDeclaredMethod("parseSnapshotEntries", Path.class);
+    parseSnapshotEntries.setAccessible(true);
+
+    snapshotFile = Files.createTempFile("pigeon-playlist-snapshot-", ".json");
+    writeSnapshot(objectMapper, snapshotFile, entryCount);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(snapshotFile);
+  }
+
+  @Benchmark
+  public List<?> parseSnapshotEntries() throws Exception {
+    return (List<?>) parseSnapshotEntries.invoke(snapshotService, snapshotFile);
+  }
+
+  private static void writeSnapshot(ObjectMapper objectMapper, Path file, int count)
+      throws IOException {
+    try (JsonGenerator generator = objectMapper.getFactory()
+        .createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeStringField("id", "PLbenchmark");
+      generator.writeStringField("title", "Synthetic playlist");
+      generator.writeStringField("_type", "playlist");
+      generator.writeArrayFieldStart("entries");
+      for (int i = 0; i < count; i++) {
+        // 相邻条目的 playlist_index 交错，避免输入天然有序
+        int position = i % 2 == 0 ? i + 1 : count - i + 1;
+        String id = String.format("vid%08d", i);
+        generator.writeStartObject();
+        generator.writeStringField("_type", "url");
+        generator.writeStringField("ie_key", "Youtube");
+        generator.writeStringField("id", id);
+        generator.writeStringField("url", "https://www.youtube.com/watch?v=" + id);
+        generator.writeStringField("title", "Synthetic video " + i);
+        generator.writeNumberField("duration", 600 + i % 3600);
+        generator.writeStringField("channel_id", "UCchannel" + (i % 50));
+        generator.writeStringField("channel", "Channel " + (i % 50));
+        generator.writeStringField("channel_url",
+            "https://www.youtube.com/channel/UCchannel" + (i % 50));
+        generator.writeNumberField("playlist_index", position);
+        generator.writeNumberField("timestamp", 1_700_000_000L - i * 3600L);
+        generator.writeArrayFieldStart("thumbnails");
+        generator.writeStartObject();
+        generator.writeStringField("url", "https://i.ytimg.com/vi/" + id + "/hqdefault.jpg");
+        generator.writeNumberField("width", 480);
+        generator.writeNumberField("height", 360);
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package top.asimov.pigeon.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.entity.Feed;
+
+/**
+ * 按订阅过滤条件（标题/简介关键字、时长、直播回放）筛选一批节目的耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedEpisodeVisibilityHelperBenchmark {
+
+  private static final String[] WORDS = {"Full", "Highlights", "RAW", "SmackDown", "Interview",
+      "Podcast", "Episode", "Live", "Replay", "Recap", "Shorts", "sponsored", "subscribe",
+      "watch", "more", "直播", "回放", "精华"};
+
+  @Param({"1000", "10000"})
+  public int episodeCount;
+
+  private Feed feed;
+  private List<Episode> episodes;
+
+  @Setup
+  public void setUp() {
+    feed = Channel.builder()
+        .id("UCbenchmark")
+        .titleContainKeywords("raw+highlights,interview,podcast,直播+回放")
+        .titleExcludeKeywords("shorts")
+        .descriptionExcludeKeywords("sponsored+shorts")
+        .minimumDuration(60)
+        .maximumDuration(180)
+        .excludeLiveVod(true)
+        .build();
+
+    Random random = new Random(11);
+    episodes = new ArrayList<>(episodeCount);
+    LocalDateTime publishedAt = LocalDateTime.of(2024, 1, 1, 8, 0);
+    for (int i = 0; i < episodeCount; i++) {
+      episodes.add(Episode.builder()
+          .id(String.format("vid%08d", i))
+          .title(randomText(random, 6 + random.nextInt(8)))
+          .description(randomText(random, 60 + random.nextInt(120)))
+          .publishedAt(publishedAt.minusHours(i))
+          .duration("PT" + (random.nextInt(120) + 1) + "M")
+          .durationSeconds(i % 3 == 0 ? null : 30 + random.nextInt(7200))
+          .liveVod(random.nextInt(10) == 0)
+          .build());
+    }
+  }
+
+  @Benchmark
+  public List<Episode> filterVisibleEpisodes() {
+    return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(feed, episodes);
+  }
+
+  private static String randomText(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        builder.append(' ');
+      }
+      builder.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,122 @@
+package top.asimov.pigeon.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 对比逐次解析的旧实现与预编译自动机在一批节目标题/简介上的过滤耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordExpressionMatcherBenchmark {
+
+  private static final String[] TITLE_WORDS = {"Full", "Highlights", "RAW", "SmackDown", "NXT",
+      "Interview", "Podcast", "Episode", "Live", "Replay", "Recap", "Preview", "Official",
+      "Trailer", "Behind", "the", "Scenes", "直播", "回放", "精华", "第", "期"};
+
+  private static final String[] DESCRIPTION_WORDS = {"subscribe", "follow", "us", "on",
+      "twitter", "instagram", "watch", "more", "episodes", "every", "week", "sponsored", "by",
+      "this", "video", "contains", "highlights", "from", "tonight's", "show", "links", "below",
+      "更多", "内容", "请", "关注", "频道"};
+
+  @Param({"raw+full highlights,smackdown+full highlights",
+      "interview,podcast,behind+scenes,trailer,preview,recap,直播+回放"})
+  public String containExpression;
+
+  @Param({"sponsored,shorts"})
+  public String excludeExpression;
+
+  private List<String> titles;
+  private List<String> descriptions;
+  private CompiledKeywordExpression compiledContain;
+  private CompiledKeywordExpression compiledExclude;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(7);
+    titles = new ArrayList<>();
+    descriptions = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      titles.add(randomText(random, TITLE_WORDS, 6 + random.nextInt(8)));
+      descriptions.add(randomText(random, DESCRIPTION_WORDS, 80 + random.nextInt(200)));
+    }
+    compiledContain = KeywordExpressionMatcher.compile(containExpression);
+    compiledExclude = KeywordExpressionMatcher.compile(excludeExpression);
+  }
+
+  @Benchmark
+  public void legacyTitles(Blackhole blackhole) {
+    for (String title : titles) {
+      blackhole.consume(legacyNotMatches(title, containExpression, excludeExpression));
+    }
+  }
+
+  @Benchmark
+  public void compiledTitles(Blackhole blackhole) {
+    for (String title : titles) {
+      blackhole.consume(KeywordExpressionMatcher.notMatchesKeywordFilter(
+          title, compiledContain, compiledExclude));
+    }
+  }
+
+  @Benchmark
+  public void legacyDescriptions(Blackhole blackhole) {
+    for (String description : descriptions) {
+      blackhole.consume(legacyNotMatches(description, containExpression, excludeExpression));
+    }
+  }
+
+  @Benchmark
+  public void compiledDescriptions(Blackhole blackhole) {
+    for (String description : descriptions) {
+      blackhole.consume(KeywordExpressionMatcher.notMatchesKeywordFilter(
+          description, compiledContain, compiledExclude));
+    }
+  }
+
+  /**
+   * 预编译之前的实现：每次调用都重新解析表达式并逐个关键字 contains。
+   */
+  private static boolean legacyNotMatches(String text, String containExpression,
+      String excludeExpression) {
+    String normalizedText = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    List<List<String>> containGroups = KeywordExpressionMatcher.parseExpression(containExpression);
+    if (!containGroups.isEmpty()
+        && !KeywordExpressionMatcher.matchesExpression(normalizedText, containGroups)) {
+      return true;
+    }
+    List<List<String>> excludeGroups = KeywordExpressionMatcher.parseExpression(excludeExpression);
+    return !excludeGroups.isEmpty()
+        && KeywordExpressionMatcher.matchesExpression(normalizedText, excludeGroups);
+  }
+
+  private static String randomText(Random random, String[] words, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        builder.append(' ');
+      }
+      builder.append(words[random.nextInt(words.length)]);
+    }
+    return builder.toString();
+  }
+}
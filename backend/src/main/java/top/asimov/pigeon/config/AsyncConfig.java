@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import top.asimov.pigeon.model.entity.SystemConfig;
 
 @Log4j2
 @Configuration
@@ -18,11 +19,12 @@ public class AsyncConfig {
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
     // 启用 SQLite WAL 模式后，可以支持适度的并发
-    // 设置为 3 个核心线程，平衡并发性能和资源使用
-    executor.setCorePoolSize(3);
-    executor.setMaxPoolSize(3);  // 最大 3 个线程
-    // 无队列直交付模式：提交成功即执行，避免“排队”中间状态
-    executor.setQueueCapacity(0);
+    // 初始为默认的 3 个线程，启动后由 DownloadSlotManager 按系统配置调整大小
+    executor.setCorePoolSize(SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY);
+    executor.setMaxPoolSize(SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY);
+    // 并发由 DownloadSlotManager 的槽位控制，线程池不再限流。下载结束时工作线程先释放槽位并唤醒调度器，
+    // 随后才返回线程池；留一个小的交接队列，让调度器立即提交的任务等这个线程接手，而不是被拒绝后回滚
+    executor.setQueueCapacity(SystemConfig.MAX_DOWNLOAD_CONCURRENCY);
     executor.setThreadNamePrefix("PP-Downloader-");
     executor.setKeepAliveSeconds(60); // 空闲线程保持时间
     executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()); // 拒绝策略
@@ -34,6 +36,45 @@ public class AsyncConfig {
     return executor;
   }
 
+  @Bean(name = "processOutputPumpExecutor")
+  public ThreadPoolTaskExecutor processOutputPumpExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    // 每个 yt-dlp 进程占用两个泵线程（stdout + stderr），线程只做阻塞读，开销很小
+    // 不设队列也不限线程数：排队中的泵任务等于没人读取，子进程会因管道写满而阻塞；
+    // 由调用方线程代读则回到先读完 stdout 再读 stderr 的顺序读取死锁。进程数已由下载槽位限制
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(Integer.MAX_VALUE);
+    executor.setQueueCapacity(0);
+    executor.setThreadNamePrefix("PP-OutputPump-");
+    executor.setKeepAliveSeconds(60);
+    executor.setDaemon(true);
+    executor.initialize();
+
+    log.info("进程输出泵线程池已配置: 核心线程数={}, 最大线程数不限",
+        executor.getCorePoolSize());
+
+    return executor;
+  }
+
+  @Bean(name = "feedSyncExecutor")
+  public ThreadPoolTaskExecutor feedSyncExecutor(FeedSyncProperties feedSyncProperties) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    int parallelism = Math.max(1, feedSyncProperties.getParallelism());
+
+    // 定时同步一轮提交全部到期订阅并等待完成，队列不设上限，线程数即并行度
+    executor.setCorePoolSize(parallelism);
+    executor.setMaxPoolSize(parallelism);
+    executor.setThreadNamePrefix("PP-FeedSync-");
+    executor.setKeepAliveSeconds(60);
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.initialize();
+
+    log.info("订阅同步线程池已配置: 并行度={}", parallelism);
+
+    return executor;
+  }
+
   @Bean(name = "channelSyncTaskExecutor")
   public Executor channelSyncTaskExecutor() {
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
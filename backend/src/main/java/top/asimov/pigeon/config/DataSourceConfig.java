@@ -0,0 +1,107 @@
+package top.asimov.pigeon.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.Pragma;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+import org.sqlite.SQLiteConfig.TempStore;
+
+/**
+ * SQLite 读写分离的数据源。
+ *
+ * <p>WAL 模式下读不阻塞写，但共用一个连接池时，长查询（RSS、统计、节目列表）可能占满连接让写入排队，
+ * 反之亦然。这里拆成两个连接池：只读事务和事务外的查询走只读连接池（只读方式打开并开启 query_only），
+ * 其余走单连接的写连接池，写入在连接池层面排队而不是在 SQLite 层面靠 busy_timeout 互相重试。
+ * 写连接池是进程内唯一的写连接，持有它的写事务中不应做网络请求等耗时操作。
+ * 对外暴露的主数据源按连接是否只读在首次执行语句时选择连接池。</p>
+ */
+@Log4j2
+@Configuration
+public class DataSourceConfig {
+
+  @Bean
+  @FlywayDataSource
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties,
+      SqliteDataSourceProperties sqliteProperties) {
+    SqliteDataSourceProperties.Pool pool = sqliteProperties.getWrite();
+    HikariDataSource dataSource = createDataSource(dataSourceProperties,
+        writeConfig(sqliteProperties));
+    dataSource.setPoolName("PP-Write");
+    dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+    dataSource.setMinimumIdle(1);
+    log.info("SQLite 写连接池: 连接数={}, cache_size={}, mmap_size={}",
+        pool.getMaximumPoolSize(), pool.getCacheSize(), pool.getMmapSize());
+    return dataSource;
+  }
+
+  @Bean
+  public HikariDataSource readDataSource(DataSourceProperties dataSourceProperties,
+      SqliteDataSourceProperties sqliteProperties) {
+    SqliteDataSourceProperties.Pool pool = sqliteProperties.getRead();
+    SQLiteConfig config = baseConfig(sqliteProperties, pool);
+    config.setReadOnly(true);
+    HikariDataSource dataSource = createDataSource(dataSourceProperties, config);
+    dataSource.setPoolName("PP-Read");
+    // sqlite-jdbc 不允许在连接建立后改变只读标记，连接池的只读设置须与打开方式一致
+    dataSource.setReadOnly(true);
+    dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+    dataSource.setMinimumIdle(1);
+    dataSource.setConnectionInitSql("PRAGMA query_only = ON");
+    log.info("SQLite 只读连接池: 连接数={}, cache_size={}, mmap_size={}",
+        pool.getMaximumPoolSize(), pool.getCacheSize(), pool.getMmapSize());
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+      @Qualifier("readDataSource") DataSource readDataSource) {
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+    dataSource.setTargetDataSource(writeDataSource);
+    dataSource.setReadOnlyDataSource(readDataSource);
+    // 显式给出默认值，避免启动时为探测默认值提前取连接
+    dataSource.setDefaultAutoCommit(true);
+    dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+    dataSource.afterPropertiesSet();
+    return dataSource;
+  }
+
+  private static HikariDataSource createDataSource(DataSourceProperties dataSourceProperties,
+      SQLiteConfig config) {
+    HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    dataSource.setDataSourceProperties(config.toProperties());
+    return dataSource;
+  }
+
+  private static SQLiteConfig writeConfig(SqliteDataSourceProperties sqliteProperties) {
+    SQLiteConfig config = baseConfig(sqliteProperties, sqliteProperties.getWrite());
+    config.setJournalMode(JournalMode.WAL);
+    config.setSynchronous(SynchronousMode.NORMAL);
+    return config;
+  }
+
+  private static SQLiteConfig baseConfig(SqliteDataSourceProperties sqliteProperties,
+      SqliteDataSourceProperties.Pool pool) {
+    SQLiteConfig config = new SQLiteConfig();
+    config.setBusyTimeout(sqliteProperties.getBusyTimeout());
+    config.setTempStore(TempStore.MEMORY);
+    config.setCacheSize(pool.getCacheSize());
+    config.setPragma(Pragma.MMAP_SIZE, Long.toString(pool.getMmapSize()));
+    return config;
+  }
+}
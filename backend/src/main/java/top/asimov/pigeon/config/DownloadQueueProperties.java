@@ -0,0 +1,46 @@
+package top.asimov.pigeon.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+
+/**
+ * 下载队列调度策略：不同优先级之间严格按顺序调度，同一优先级内按订阅加权轮转。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.download-queue")
+public class DownloadQueueProperties {
+
+  // 优先级从高到低，未列出的优先级排在最后
+  private List<DownloadPriority> priorityOrder = new ArrayList<>(List.of(
+      DownloadPriority.MANUAL, DownloadPriority.AUTO, DownloadPriority.BACKFILL,
+      DownloadPriority.RETRY));
+  // 每轮每个订阅可连续提交的任务数
+  private int defaultFeedWeight = 1;
+  // 按订阅 ID 覆盖权重
+  private Map<String, Integer> feedWeights = new HashMap<>();
+
+  public List<DownloadPriority> resolvePriorityOrder() {
+    List<DownloadPriority> order = new ArrayList<>();
+    if (priorityOrder != null) {
+      priorityOrder.stream().distinct().forEach(order::add);
+    }
+    for (DownloadPriority priority : DownloadPriority.values()) {
+      if (!order.contains(priority)) {
+        order.add(priority);
+      }
+    }
+    return order;
+  }
+
+  public int resolveFeedWeight(String feedId) {
+    Integer weight = feedId == null || feedWeights == null ? null : feedWeights.get(feedId);
+    return Math.max(1, weight != null ? weight : defaultFeedWeight);
+  }
+}
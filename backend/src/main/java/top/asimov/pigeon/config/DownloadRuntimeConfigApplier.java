@@ -0,0 +1,24 @@
+package top.asimov.pigeon.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.helper.DownloadSlotManager;
+import top.asimov.pigeon.model.entity.SystemConfig;
+
+@Log4j2
+@Component
+public class DownloadRuntimeConfigApplier {
+
+  private final DownloadSlotManager downloadSlotManager;
+
+  public DownloadRuntimeConfigApplier(DownloadSlotManager downloadSlotManager) {
+    this.downloadSlotManager = downloadSlotManager;
+  }
+
+  public synchronized void apply(SystemConfig config) {
+    downloadSlotManager.configure(config);
+    log.info("Runtime download config applied: concurrency={}, youtube={}, bilibili={}, adaptive={}",
+        config.getDownloadConcurrency(), config.getYoutubeDownloadConcurrency(),
+        config.getBilibiliDownloadConcurrency(), config.getAdaptiveDownloadConcurrency());
+  }
+}
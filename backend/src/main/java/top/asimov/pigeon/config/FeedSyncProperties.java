@@ -0,0 +1,59 @@
+package top.asimov.pigeon.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.model.enums.FeedSource;
+
+/**
+ * 订阅同步的并发与限流参数。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.feed-sync")
+public class FeedSyncProperties {
+
+  // 定时同步时并行刷新的订阅数
+  private int parallelism = 4;
+  // 同时运行的 yt-dlp 播放列表快照进程数，快照进程占用 CPU 与内存较多，与同步并行度分开限制
+  private int ytDlpSnapshotConcurrency = 2;
+  // 手动刷新等待同一订阅正在进行的同步的最长时间
+  private int manualRefreshWaitSeconds = 60;
+  // 播放列表快照逐行读取 yt-dlp 输出并分块比对，内存占用与播放列表长度无关
+  private boolean streamingSnapshot = true;
+  // 流式快照每块的条目数
+  private int snapshotChunkSize = 500;
+  private Map<FeedSource, RateLimit> rateLimits = defaultRateLimits();
+
+  public RateLimit resolveRateLimit(FeedSource source) {
+    RateLimit rateLimit = rateLimits == null ? null : rateLimits.get(source);
+    return rateLimit != null ? rateLimit : new RateLimit(1.0D, 1);
+  }
+
+  private static Map<FeedSource, RateLimit> defaultRateLimits() {
+    Map<FeedSource, RateLimit> limits = new EnumMap<>(FeedSource.class);
+    limits.put(FeedSource.YOUTUBE, new RateLimit(2.0D, 5));
+    // B 站接口对短时间内的密集请求更敏感
+    limits.put(FeedSource.BILIBILI, new RateLimit(0.5D, 2));
+    return limits;
+  }
+
+  @Data
+  public static class RateLimit {
+
+    // 每秒开始同步的订阅数
+    private double permitsPerSecond;
+    // 允许突发的订阅数
+    private int burst;
+
+    public RateLimit() {
+    }
+
+    public RateLimit(double permitsPerSecond, int burst) {
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package top.asimov.pigeon.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import javax.sql.DataSource;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,11 +13,12 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
   /**
-   * paging plugin
+   * read-only routing and paging plugins
    */
   @Bean
-  public MybatisPlusInterceptor mybatisPlusInterceptor() {
+  public MybatisPlusInterceptor mybatisPlusInterceptor(DataSource dataSource) {
     MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+    interceptor.addInnerInterceptor(new ReadOnlyQueryInnerInterceptor(dataSource));
     interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.SQLITE));
     return interceptor;
   }
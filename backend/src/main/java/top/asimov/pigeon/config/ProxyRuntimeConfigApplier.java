@@ -2,6 +2,7 @@ package top.asimov.pigeon.config;
 
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Component;
+import top.asimov.pigeon.helper.YoutubeServiceFactory;
 import top.asimov.pigeon.model.entity.SystemConfig;
 
 @Log4j2
@@ -9,14 +10,22 @@ import top.asimov.pigeon.model.entity.SystemConfig;
 public class ProxyRuntimeConfigApplier {
 
   private final OutboundProxyHolder proxyHolder;
+  private final YoutubeServiceFactory youtubeServiceFactory;
 
-  public ProxyRuntimeConfigApplier(OutboundProxyHolder proxyHolder) {
+  public ProxyRuntimeConfigApplier(OutboundProxyHolder proxyHolder,
+      YoutubeServiceFactory youtubeServiceFactory) {
     this.proxyHolder = proxyHolder;
+    this.youtubeServiceFactory = youtubeServiceFactory;
   }
 
   public synchronized void apply(SystemConfig config) {
+    OutboundProxyHolder.OutboundProxySettings previous = proxyHolder.current();
     proxyHolder.apply(config);
     OutboundProxyHolder.OutboundProxySettings settings = proxyHolder.current();
+    if (!settings.equals(previous)) {
+      // 代理变更后旧路由的客户端和连接不再使用
+      youtubeServiceFactory.invalidate();
+    }
     log.info("Runtime proxy config applied: enabled={}, type={}, host={}, port={}",
         settings.enabled(), settings.type(), settings.host(), settings.port());
   }
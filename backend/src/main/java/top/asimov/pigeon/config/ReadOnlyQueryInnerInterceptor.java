@@ -0,0 +1,36 @@
+package top.asimov.pigeon.config;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务外的查询标记为只读连接，由 {@link DataSourceConfig} 的主数据源路由到只读连接池。
+ *
+ * <p>仅当当前线程没有绑定连接时生效：事务内（包括写队列写线程的事务）的查询沿用已有连接，
+ * 保证读到本事务自己的写入。</p>
+ */
+public class ReadOnlyQueryInnerInterceptor implements InnerInterceptor {
+
+  private final DataSource dataSource;
+
+  public ReadOnlyQueryInnerInterceptor(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  @Override
+  public void beforeQuery(Executor executor, MappedStatement ms, Object parameter,
+      RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+    if (TransactionSynchronizationManager.getResource(dataSource) != null) {
+      return;
+    }
+    // 主数据源返回的是延迟连接，此时尚未真正取连接，只读标记决定随后从哪个连接池取
+    executor.getTransaction().getConnection().setReadOnly(true);
+  }
+}
@@ -0,0 +1,38 @@
+package top.asimov.pigeon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQLite 读写连接池参数。数据库路径仍取自 {@code spring.datasource.url}，
+ * 写连接池的超时等通用参数取自 {@code spring.datasource.hikari}。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.datasource")
+public class SqliteDataSourceProperties {
+
+  private int busyTimeout = 3000;
+  private Pool write = new Pool(1, 10000, 64L * 1024 * 1024);
+  private Pool read = new Pool(8, 2000, 256L * 1024 * 1024);
+
+  @Data
+  public static class Pool {
+
+    private int maximumPoolSize;
+    // 页缓存大小（页数），每个连接独立占用
+    private int cacheSize;
+    // 内存映射读取的字节数上限，映射页由操作系统在连接间共享
+    private long mmapSize;
+
+    public Pool() {
+    }
+
+    public Pool(int maximumPoolSize, int cacheSize, long mmapSize) {
+      this.maximumPoolSize = maximumPoolSize;
+      this.cacheSize = cacheSize;
+      this.mmapSize = mmapSize;
+    }
+  }
+}
@@ -33,6 +33,9 @@ public class StorageProperties {
     private long socketTimeoutSeconds = 30;
     private long readTimeoutSeconds = 60;
     private long presignExpireHours = 72;
+    // 预签名链接在有效期的前多少比例内复用同一个链接
+    private double presignReuseRatio = 0.5;
+    private int presignCacheMaxEntries = 10000;
 
     public Duration presignDuration() {
       long hours = presignExpireHours <= 0 ? 72 : presignExpireHours;
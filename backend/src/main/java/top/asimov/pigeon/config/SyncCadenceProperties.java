@@ -0,0 +1,55 @@
+package top.asimov.pigeon.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.util.SyncCadencePolicy;
+
+/**
+ * 订阅定时同步节奏参数，计算方式见 {@link SyncCadencePolicy}。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.sync-cadence")
+public class SyncCadenceProperties {
+
+  // 每轮最多取出的到期订阅数，其余留到下一轮
+  private int batchSize = 100;
+  // 估算发布间隔时参考的最近节目数
+  private int historySize = 20;
+  private double ewmaAlpha = 0.3D;
+  private double pollsPerUploadGap = 4.0D;
+  private double jitterRatio = 0.1D;
+  private Bounds channel = new Bounds(Duration.ofHours(1), Duration.ofHours(24));
+  // 播放列表同步需要拉取完整快照，下限比频道更宽
+  private Bounds playlist = new Bounds(Duration.ofHours(3), Duration.ofHours(24));
+
+  public SyncCadencePolicy channelPolicy() {
+    return toPolicy(channel);
+  }
+
+  public SyncCadencePolicy playlistPolicy() {
+    return toPolicy(playlist);
+  }
+
+  private SyncCadencePolicy toPolicy(Bounds bounds) {
+    return new SyncCadencePolicy(bounds.getMinInterval(), bounds.getMaxInterval(), ewmaAlpha,
+        pollsPerUploadGap, jitterRatio);
+  }
+
+  @Data
+  public static class Bounds {
+
+    private Duration minInterval;
+    private Duration maxInterval;
+
+    public Bounds() {
+    }
+
+    public Bounds(Duration minInterval, Duration maxInterval) {
+      this.minInterval = minInterval;
+      this.maxInterval = maxInterval;
+    }
+  }
+}
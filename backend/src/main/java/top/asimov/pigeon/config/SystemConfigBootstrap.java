@@ -19,15 +19,18 @@ public class SystemConfigBootstrap implements ApplicationRunner {
   private final SystemConfigService systemConfigService;
   private final StorageRuntimeConfigApplier runtimeConfigApplier;
   private final ProxyRuntimeConfigApplier proxyRuntimeConfigApplier;
+  private final DownloadRuntimeConfigApplier downloadRuntimeConfigApplier;
   private final Environment environment;
 
   public SystemConfigBootstrap(SystemConfigService systemConfigService,
       StorageRuntimeConfigApplier runtimeConfigApplier,
       ProxyRuntimeConfigApplier proxyRuntimeConfigApplier,
+      DownloadRuntimeConfigApplier downloadRuntimeConfigApplier,
       Environment environment) {
     this.systemConfigService = systemConfigService;
     this.runtimeConfigApplier = runtimeConfigApplier;
     this.proxyRuntimeConfigApplier = proxyRuntimeConfigApplier;
+    this.downloadRuntimeConfigApplier = downloadRuntimeConfigApplier;
     this.environment = environment;
   }
 
@@ -50,6 +53,7 @@ public class SystemConfigBootstrap implements ApplicationRunner {
 
     runtimeConfigApplier.apply(config);
     proxyRuntimeConfigApplier.apply(config);
+    downloadRuntimeConfigApplier.apply(config);
   }
 
   private String env(String key) {
@@ -0,0 +1,19 @@
+package top.asimov.pigeon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * YouTube 频道公开上传 Atom 订阅（feeds/videos.xml）预检参数。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.youtube-atom-feed")
+public class YoutubeAtomFeedProperties {
+
+  // 关闭后定时同步直接调用 Data API
+  private boolean enabled = true;
+  private String baseUrl = "https://www.youtube.com/feeds/videos.xml";
+  private int timeoutSeconds = 10;
+}
@@ -0,0 +1,26 @@
+package top.asimov.pigeon.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * videos.list 详情缓存参数，见 {@code YoutubeVideoDetailCache}。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "pigeon.youtube-video-cache")
+public class YoutubeVideoCacheProperties {
+
+  // 关闭后每次都直接调用 videos.list
+  private boolean enabled = true;
+  private Duration ttl = Duration.ofHours(6);
+  private int maxEntries = 5000;
+  // 同时写入 SQLite，重启后仍可命中
+  private boolean persistent = false;
+  // 未凑满 50 个 ID 时等待其他调用方加入同一批次的时间
+  private Duration batchLinger = Duration.ofMillis(50);
+  // 等待其他调用方进行中请求的最长时间
+  private Duration waitTimeout = Duration.ofSeconds(60);
+}
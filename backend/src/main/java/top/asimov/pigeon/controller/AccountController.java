@@ -27,6 +27,7 @@ import top.asimov.pigeon.service.AccountService;
 import top.asimov.pigeon.service.FeedDefaultsService;
 import top.asimov.pigeon.service.YoutubeQuotaService;
 import top.asimov.pigeon.service.YtDlpRuntimeService;
+import top.asimov.pigeon.service.storage.S3StorageService;
 import top.asimov.pigeon.util.YtDlpArgsValidator;
 
 @SaCheckLogin
@@ -38,15 +39,18 @@ public class AccountController {
   private final FeedDefaultsService feedDefaultsService;
   private final YtDlpRuntimeService ytDlpRuntimeService;
   private final YoutubeQuotaService youtubeQuotaService;
+  private final S3StorageService s3StorageService;
 
   public AccountController(AccountService accountService,
       FeedDefaultsService feedDefaultsService,
       YtDlpRuntimeService ytDlpRuntimeService,
-      YoutubeQuotaService youtubeQuotaService) {
+      YoutubeQuotaService youtubeQuotaService,
+      S3StorageService s3StorageService) {
     this.accountService = accountService;
     this.feedDefaultsService = feedDefaultsService;
     this.ytDlpRuntimeService = ytDlpRuntimeService;
     this.youtubeQuotaService = youtubeQuotaService;
+    this.s3StorageService = s3StorageService;
   }
 
   @PostMapping("/change-username")
@@ -105,6 +109,16 @@ public class AccountController {
     return SaResult.ok();
   }
 
+  @GetMapping("/system-config/storage/presign-cache")
+  public SaResult getPresignCacheStats() {
+    return SaResult.data(s3StorageService.getPresignCacheStats());
+  }
+
+  @GetMapping("/system-config/proxy/youtube-client-pool")
+  public SaResult getYoutubeClientPoolStats() {
+    return SaResult.data(accountService.getYoutubeClientPoolStats());
+  }
+
   @PostMapping("/system-config/proxy/test")
   public SaResult testSystemConfigProxy(@RequestBody SystemConfig config) {
     return SaResult.data(accountService.testProxyConfig(config));
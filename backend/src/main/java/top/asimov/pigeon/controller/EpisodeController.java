@@ -76,6 +76,16 @@ public class EpisodeController {
     return SaResult.data(episodes);
   }
 
+  @PostMapping("/progress")
+  public SaResult getEpisodeProgressByIds(@RequestBody List<String> episodeIds) {
+    return SaResult.data(episodeService.getDownloadProgressByIds(episodeIds));
+  }
+
+  @PostMapping("/queue-position")
+  public SaResult getEpisodeQueuePositionByIds(@RequestBody List<String> episodeIds) {
+    return SaResult.data(episodeService.getQueuePositionsByIds(episodeIds));
+  }
+
   @PostMapping("/batch")
   public SaResult batchEpisodes(@RequestBody EpisodeBatchRequest request) {
     episodeService.batchProcessEpisodes(request.getAction(), request.getStatus(),
@@ -1,43 +1,115 @@
 package top.asimov.pigeon.controller;
 
 import cn.dev33.satoken.apikey.annotation.SaCheckApiKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import top.asimov.pigeon.service.RssService;
+import top.asimov.pigeon.service.RssCacheService;
+import top.asimov.pigeon.service.RssCacheService.CachedRss;
 
 @RestController
 @RequestMapping("/api/rss")
 @SaCheckApiKey
 public class RssController {
 
-  private final RssService rssService;
+  private static final MediaType RSS_CONTENT_TYPE =
+      new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8);
 
-  public RssController(RssService rssService) {
-    this.rssService = rssService;
+  private final RssCacheService rssCacheService;
+
+  public RssController(RssCacheService rssCacheService) {
+    this.rssCacheService = rssCacheService;
   }
 
   @GetMapping(value = "/{channelIdentification}.xml", produces = MediaType.APPLICATION_XML_VALUE)
-  public ResponseEntity<String> getRssFeed(@PathVariable String channelIdentification) {
+  public ResponseEntity<byte[]> getRssFeed(@PathVariable String channelIdentification,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
     try {
-      String rssXml = rssService.generateRssFeed(channelIdentification);
-      return ResponseEntity.ok(rssXml);
+      return buildResponse(rssCacheService.getChannelRss(channelIdentification), acceptEncoding);
     } catch (Exception e) {
-      return ResponseEntity.internalServerError().body("无法生成 RSS feed。");
+      return errorResponse();
     }
   }
 
   @GetMapping(value = "/playlist/{playlistId}.xml", produces = MediaType.APPLICATION_XML_VALUE)
-  public ResponseEntity<String> getPlaylistRssFeed(@PathVariable String playlistId) {
+  public ResponseEntity<byte[]> getPlaylistRssFeed(@PathVariable String playlistId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
     try {
-      String rssXml = rssService.generatePlaylistRssFeed(playlistId);
-      return ResponseEntity.ok(rssXml);
+      return buildResponse(rssCacheService.getPlaylistRss(playlistId), acceptEncoding);
     } catch (Exception e) {
-      return ResponseEntity.internalServerError().body("无法生成 RSS feed。");
+      return errorResponse();
+    }
+  }
+
+  /**
+   * If-None-Match / If-Modified-Since 命中时由 Spring 自动改写为 304。
+   */
+  private ResponseEntity<byte[]> buildResponse(CachedRss rss, String acceptEncoding) {
+    boolean gzip = acceptsGzip(acceptEncoding);
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(RSS_CONTENT_TYPE)
+        .cacheControl(CacheControl.noCache())
+        .lastModified(rss.lastModified())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return builder.eTag(rss.gzipEtag())
+          .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+          .body(rss.gzipBody());
+    }
+    return builder.eTag(rss.etag()).body(rss.body());
+  }
+
+  /**
+   * 按 Accept-Encoding 的 q 值判断是否可返回 gzip：显式列出的 gzip 以自身 q 值为准，
+   * 未列出时看通配符 {@code *}；q=0 表示拒绝。
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (!StringUtils.hasText(acceptEncoding)) {
+      return false;
     }
+    Boolean gzip = null;
+    boolean wildcard = false;
+    for (String part : acceptEncoding.split(",")) {
+      String[] tokens = part.split(";");
+      String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+      boolean accepted = parseQuality(tokens) > 0;
+      if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+        gzip = gzip == null ? accepted : gzip || accepted;
+      } else if ("*".equals(coding)) {
+        wildcard = accepted;
+      }
+    }
+    return gzip != null ? gzip : wildcard;
+  }
+
+  private static double parseQuality(String[] tokens) {
+    for (int i = 1; i < tokens.length; i++) {
+      String param = tokens[i].trim();
+      if (param.length() > 1 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q')
+          && param.charAt(1) == '=') {
+        try {
+          return Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  private ResponseEntity<byte[]> errorResponse() {
+    return ResponseEntity.internalServerError()
+        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+        .body("无法生成 RSS feed。".getBytes(StandardCharsets.UTF_8));
   }
 
 }
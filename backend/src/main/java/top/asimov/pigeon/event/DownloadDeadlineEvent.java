@@ -0,0 +1,38 @@
+package top.asimov.pigeon.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 节目登记了未来的下载时间点：延迟自动下载的 auto_download_after，或失败重试的 next_retry_at。
+ */
+@Getter
+public class DownloadDeadlineEvent extends ApplicationEvent {
+
+  private final DeadlineType type;
+  private final Map<String, LocalDateTime> deadlines;
+
+  private DownloadDeadlineEvent(Object source, DeadlineType type,
+      Map<String, LocalDateTime> deadlines) {
+    super(source);
+    this.type = type;
+    this.deadlines = Map.copyOf(deadlines);
+  }
+
+  public static DownloadDeadlineEvent ofAutoDownload(Object source,
+      Map<String, LocalDateTime> deadlines) {
+    return new DownloadDeadlineEvent(source, DeadlineType.AUTO_DOWNLOAD, deadlines);
+  }
+
+  public static DownloadDeadlineEvent ofRetry(Object source, String episodeId,
+      LocalDateTime nextRetryAt) {
+    return new DownloadDeadlineEvent(source, DeadlineType.RETRY, Map.of(episodeId, nextRetryAt));
+  }
+
+  public enum DeadlineType {
+    AUTO_DOWNLOAD,
+    RETRY
+  }
+}
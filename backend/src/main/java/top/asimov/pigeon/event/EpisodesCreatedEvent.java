@@ -3,21 +3,32 @@ package top.asimov.pigeon.event;
 import java.util.List;
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 
 @Getter
 public class EpisodesCreatedEvent extends ApplicationEvent {
 
   private final List<String> episodeIds;
   private final String context;
+  private final DownloadPriority priority;
+  // 节目所属订阅，用于下载队列的订阅间轮转，未知时为 null
+  private final String feedId;
 
   public EpisodesCreatedEvent(Object source, List<String> episodeIds) {
     this(source, episodeIds, null);
   }
 
   public EpisodesCreatedEvent(Object source, List<String> episodeIds, String context) {
+    this(source, episodeIds, context, DownloadPriority.AUTO, null);
+  }
+
+  public EpisodesCreatedEvent(Object source, List<String> episodeIds, String context,
+      DownloadPriority priority, String feedId) {
     super(source);
     this.episodeIds = episodeIds;
     this.context = context;
+    this.priority = priority;
+    this.feedId = feedId;
   }
 
 }
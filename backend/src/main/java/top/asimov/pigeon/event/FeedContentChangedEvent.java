@@ -0,0 +1,40 @@
+package top.asimov.pigeon.event;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 订阅对外内容（RSS）可能发生变化：节目完成下载/被清理/被删除、订阅配置或封面更新、播放列表成员变化等。
+ */
+@Getter
+public class FeedContentChangedEvent extends ApplicationEvent {
+
+  private final List<String> feedIds;
+  private final List<String> episodeIds;
+  private final boolean global;
+
+  private FeedContentChangedEvent(Object source, Collection<String> feedIds,
+      Collection<String> episodeIds, boolean global) {
+    super(source);
+    this.feedIds = feedIds == null ? List.of() : List.copyOf(feedIds);
+    this.episodeIds = episodeIds == null ? List.of() : List.copyOf(episodeIds);
+    this.global = global;
+  }
+
+  public static FeedContentChangedEvent ofFeed(Object source, String feedId) {
+    return new FeedContentChangedEvent(source, List.of(feedId), null, false);
+  }
+
+  public static FeedContentChangedEvent ofEpisodes(Object source, Collection<String> episodeIds) {
+    return new FeedContentChangedEvent(source, null, episodeIds, false);
+  }
+
+  /**
+   * 影响所有订阅的变更，例如 Base URL 或存储方式切换。
+   */
+  public static FeedContentChangedEvent ofAll(Object source) {
+    return new FeedContentChangedEvent(source, null, null, true);
+  }
+}
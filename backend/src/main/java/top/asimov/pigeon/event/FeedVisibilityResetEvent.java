@@ -0,0 +1,18 @@
+package top.asimov.pigeon.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 订阅过滤条件变化、已入库节目的可见性被清空后发布，由后台任务分批重新计算。
+ */
+@Getter
+public class FeedVisibilityResetEvent extends ApplicationEvent {
+
+  private final String feedId;
+
+  public FeedVisibilityResetEvent(Object source, String feedId) {
+    super(source);
+    this.feedId = feedId;
+  }
+}
@@ -5,10 +5,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -20,23 +18,30 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import top.asimov.pigeon.config.MediaPathProperties;
 import top.asimov.pigeon.config.StorageProperties;
+import top.asimov.pigeon.event.DownloadDeadlineEvent;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.helper.DownloadProgressRegistry;
+import top.asimov.pigeon.helper.ProcessOutputPump;
 import top.asimov.pigeon.helper.TaskStatusHelper;
 import top.asimov.pigeon.mapper.ChannelMapper;
 import top.asimov.pigeon.mapper.EpisodeMapper;
 import top.asimov.pigeon.mapper.PlaylistMapper;
 import top.asimov.pigeon.model.dto.FeedContext;
+import top.asimov.pigeon.model.dto.SubtitleInfo;
 import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Feed;
 import top.asimov.pigeon.model.entity.FeedDefaults;
 import top.asimov.pigeon.model.entity.Playlist;
 import top.asimov.pigeon.model.enums.CookiePlatform;
+import top.asimov.pigeon.model.enums.DownloadPhase;
 import top.asimov.pigeon.model.enums.DownloadType;
 import top.asimov.pigeon.model.enums.EpisodeStatus;
 import top.asimov.pigeon.service.CookieService;
@@ -45,11 +50,13 @@ import top.asimov.pigeon.service.SystemConfigService;
 import top.asimov.pigeon.service.YtDlpProxyService;
 import top.asimov.pigeon.service.YtDlpRuntimeService;
 import top.asimov.pigeon.service.storage.S3StorageService;
+import top.asimov.pigeon.util.EpisodeAssetIndexUtil;
 import top.asimov.pigeon.util.FeedSourceUrlBuilder;
 import top.asimov.pigeon.util.MediaFileNameUtil;
 import top.asimov.pigeon.util.MediaKeyUtil;
 import top.asimov.pigeon.util.EpisodeRetryPolicy;
 import top.asimov.pigeon.util.YtDlpArgsValidator;
+import top.asimov.pigeon.util.YtDlpProgressParser;
 
 @Log4j2
 @Component
@@ -73,6 +80,9 @@ public class DownloadHandler {
   private final SystemConfigService systemConfigService;
   private final TaskStatusHelper taskStatusHelper;
   private final YtDlpProxyService ytDlpProxyService;
+  private final ProcessOutputPump processOutputPump;
+  private final DownloadProgressRegistry downloadProgressRegistry;
+  private final ApplicationEventPublisher eventPublisher;
 
   public DownloadHandler(EpisodeMapper episodeMapper, CookieService cookieService,
       ChannelMapper channelMapper, PlaylistMapper playlistMapper,
@@ -80,7 +90,9 @@ public class DownloadHandler {
       YtDlpRuntimeService ytDlpRuntimeService, FeedDefaultsService feedDefaultsService,
       StorageProperties storageProperties, S3StorageService s3StorageService,
       MediaPathProperties mediaPathProperties, SystemConfigService systemConfigService,
-      TaskStatusHelper taskStatusHelper, YtDlpProxyService ytDlpProxyService) {
+      TaskStatusHelper taskStatusHelper, YtDlpProxyService ytDlpProxyService,
+      ProcessOutputPump processOutputPump, DownloadProgressRegistry downloadProgressRegistry,
+      ApplicationEventPublisher eventPublisher) {
     this.episodeMapper = episodeMapper;
     this.cookieService = cookieService;
     this.channelMapper = channelMapper;
@@ -95,13 +107,19 @@ public class DownloadHandler {
     this.systemConfigService = systemConfigService;
     this.taskStatusHelper = taskStatusHelper;
     this.ytDlpProxyService = ytDlpProxyService;
+    this.processOutputPump = processOutputPump;
+    this.downloadProgressRegistry = downloadProgressRegistry;
+    this.eventPublisher = eventPublisher;
   }
 
-  public void download(String episodeId) {
+  /**
+   * @return 保存后的节目终态；节目不存在时返回 null
+   */
+  public Episode download(String episodeId) {
     Episode episode = episodeMapper.selectById(episodeId);
     if (episode == null) {
       log.error("找不到对应的Episode，ID: {}", episodeId);
-      return;
+      return null;
     }
 
     // 在提交阶段已标记为 DOWNLOADING；若因竞态未被设置，此处兜底设置
@@ -109,12 +127,18 @@ public class DownloadHandler {
       episode.setDownloadStatus(EpisodeStatus.DOWNLOADING.name());
       episode.setNextRetryAt(null);
       episode.setFailureNotifiedAt(null);
-      taskStatusHelper.persistEpisodeWithRetry(episode);
+      // 不必等待落盘：下载结束时的最终状态写入会与之合并或在其后提交
+      taskStatusHelper.persistEpisodeAsync(episode).whenComplete((ignored, error) -> {
+        if (error != null) {
+          log.warn("兜底标记 DOWNLOADING 失败: {}, 错误: {}", episodeId, error.getMessage());
+        }
+      });
     }
 
     String tempCookiesFile = null;
     String outputDirPath = null;
     List<String> uploadedKeys = new ArrayList<>();
+    downloadProgressRegistry.start(episodeId);
 
     try {
       FeedContext feedContext = resolveFeedContext(episode);
@@ -131,19 +155,24 @@ public class DownloadHandler {
 
       Process process = getProcess(episodeId, tempCookiesFile, outputDirPath, safeTitle, feedContext);
 
-      // 读取输出
-      try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-          BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-        String line;
-        while ((line = reader.readLine()) != null) {
-          log.debug("[yt-dlp-out] {}", line);
-        }
-        while ((line = errorReader.readLine()) != null) {
-          log.warn("[yt-dlp-err] {}", line);
-          errorLog.append(line).append("\n");
-        }
-      }
+      // 并发读取 stdout/stderr：进度行解析为结构化进度，其余输出照常记录
+      ProcessOutputPump.PumpHandle pumpHandle = processOutputPump.start(process,
+          line -> {
+            YtDlpProgressParser.ProgressLine progressLine = YtDlpProgressParser.parse(line);
+            if (progressLine != null) {
+              downloadProgressRegistry.update(episodeId, progressLine);
+              return;
+            }
+            log.debug("[yt-dlp-out] {}", line);
+          },
+          line -> {
+            log.warn("[yt-dlp-err] {}", line);
+            synchronized (errorLog) {
+              errorLog.append(line).append("\n");
+            }
+          });
       exitCode = process.waitFor();
+      pumpHandle.await();
 
       // 设置详细的错误日志
       if (exitCode != 0 && !errorLog.isEmpty()) {
@@ -162,6 +191,7 @@ public class DownloadHandler {
 
         Path mediaFilePath = Path.of(outputDirPath, safeTitle + "." + extension);
         if (downloadType == DownloadType.AUDIO) {
+          downloadProgressRegistry.markPhase(episodeId, DownloadPhase.POST_PROCESSING);
           embedAudioChaptersWithYtDlpBestEffort(episodeId, outputDirPath, safeTitle);
         }
         cleanupInfoJsonFile(outputDirPath, safeTitle, episodeId);
@@ -169,6 +199,7 @@ public class DownloadHandler {
           long downloadedSize = Files.exists(mediaFilePath) ? Files.size(mediaFilePath) : -1L;
           log.info("下载阶段完成，开始上传到 S3: episodeId={}, localFile={}, size={} bytes",
               episode.getId(), mediaFilePath, downloadedSize);
+          downloadProgressRegistry.markPhase(episodeId, DownloadPhase.UPLOADING);
           S3StorageService.UploadResult uploadResult = uploadEpisodeAssetsToS3(
               episode,
               feedContext.downloadType(),
@@ -189,6 +220,8 @@ public class DownloadHandler {
           episode.setMediaFilePath(mediaFilePath.toString());
           episode.setMediaSizeBytes(Files.exists(mediaFilePath) ? Files.size(mediaFilePath) : null);
           episode.setMediaEtag(null);
+          // 本地模式直接读文件系统，不需要资产清单
+          EpisodeAssetIndexUtil.clear(episode);
         }
         episode.setMediaType(mimeType);
         episode.setDownloadStatus(EpisodeStatus.COMPLETED.name());
@@ -220,7 +253,19 @@ public class DownloadHandler {
       }
       // 无论成功失败，都保存最终状态（使用重试机制）
       taskStatusHelper.persistEpisodeWithRetry(episode);
+      if (EpisodeStatus.COMPLETED.name().equals(episode.getDownloadStatus())) {
+        eventPublisher.publishEvent(FeedContentChangedEvent.ofEpisodes(this, List.of(episodeId)));
+      } else if (episode.getNextRetryAt() != null) {
+        // 状态落库后再登记重试计时，到期时调度器按数据库状态捞起
+        eventPublisher.publishEvent(
+            DownloadDeadlineEvent.ofRetry(this, episodeId, episode.getNextRetryAt()));
+      }
+      downloadProgressRegistry.markPhase(episodeId,
+          EpisodeStatus.COMPLETED.name().equals(episode.getDownloadStatus())
+              ? DownloadPhase.COMPLETED
+              : DownloadPhase.FAILED);
     }
+    return episode;
   }
 
   private S3StorageService.UploadResult uploadEpisodeAssetsToS3(Episode episode,
@@ -241,17 +286,23 @@ public class DownloadHandler {
     log.info("媒体文件上传成功: episodeId={}, key={}, size={} bytes",
         episode.getId(), mediaKey, mediaUpload.size());
 
-    uploadSubtitleAssetsToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
-    uploadChapterAssetToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
-    uploadThumbnailAssetsToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
+    List<SubtitleInfo> subtitles =
+        uploadSubtitleAssetsToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
+    boolean chaptersUploaded =
+        uploadChapterAssetToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
+    String thumbnailKey =
+        uploadThumbnailAssetsToS3(mediaKey, safeTitle, mediaFilePath.getParent(), uploadedKeys);
+    // 记录已上传的资产清单，RSS 生成时不必再 list/head 对象存储
+    EpisodeAssetIndexUtil.apply(episode, subtitles, chaptersUploaded, thumbnailKey);
     long elapsedMs = System.currentTimeMillis() - uploadStart;
     log.info("S3 资产上传完成: episodeId={}, elapsed={} ms, uploadedObjectCount={}",
         episode.getId(), elapsedMs, uploadedKeys.size());
     return mediaUpload;
   }
 
-  private void uploadSubtitleAssetsToS3(String mediaKey, String safeTitle, Path outputDir,
-      List<String> uploadedKeys) throws IOException {
+  private List<SubtitleInfo> uploadSubtitleAssetsToS3(String mediaKey, String safeTitle,
+      Path outputDir, List<String> uploadedKeys) throws IOException {
+    List<SubtitleInfo> uploaded = new ArrayList<>();
     Pattern subtitlePattern = Pattern.compile("^" + Pattern.quote(safeTitle) + "\\.([^.]+)\\.(vtt|srt)$");
     try (Stream<Path> stream = Files.list(outputDir)) {
       List<Path> subtitleFiles = stream
@@ -270,27 +321,31 @@ public class DownloadHandler {
         log.info("上传字幕文件到 S3: localFile={}, key={}", subtitleFile, key);
         s3StorageService.uploadFile(subtitleFile, key, contentType);
         uploadedKeys.add(key);
+        uploaded.add(new SubtitleInfo(language, format, key));
         log.info("字幕文件上传成功: key={}", key);
       }
     }
+    return uploaded;
   }
 
-  private void uploadChapterAssetToS3(String mediaKey, String safeTitle, Path outputDir,
+  private boolean uploadChapterAssetToS3(String mediaKey, String safeTitle, Path outputDir,
       List<String> uploadedKeys) {
     Path chaptersFile = outputDir.resolve(safeTitle + ".chapters.json");
     if (!Files.exists(chaptersFile) || !Files.isRegularFile(chaptersFile)) {
       log.debug("章节文件不存在，跳过上传: {}", chaptersFile);
-      return;
+      return false;
     }
     String key = MediaKeyUtil.buildEpisodeChaptersKeyByMediaKey(mediaKey);
     log.info("上传章节文件到 S3: localFile={}, key={}", chaptersFile, key);
     s3StorageService.uploadFile(chaptersFile, key, "application/json");
     uploadedKeys.add(key);
     log.info("章节文件上传成功: key={}", key);
+    return true;
   }
 
-  private void uploadThumbnailAssetsToS3(String mediaKey, String safeTitle, Path outputDir,
+  private String uploadThumbnailAssetsToS3(String mediaKey, String safeTitle, Path outputDir,
       List<String> uploadedKeys) throws IOException {
+    String thumbnailKey = null;
     Pattern thumbnailPattern = Pattern.compile("^" + Pattern.quote(safeTitle) + "\\.(jpg|jpeg|png|webp)$");
     try (Stream<Path> stream = Files.list(outputDir)) {
       List<Path> files = stream
@@ -310,9 +365,13 @@ public class DownloadHandler {
         log.info("上传缩略图到 S3: localFile={}, key={}", thumbnailFile, key);
         s3StorageService.uploadFile(thumbnailFile, key, contentType);
         uploadedKeys.add(key);
+        if (thumbnailKey == null) {
+          thumbnailKey = key;
+        }
         log.info("缩略图上传成功: key={}", key);
       }
     }
+    return thumbnailKey;
   }
 
   private void rollbackUploadedKeys(List<String> uploadedKeys) {
@@ -401,6 +460,9 @@ public class DownloadHandler {
     // 添加字幕下载选项
     addSubtitleOptions(command, feedContext);
 
+    // 结构化进度输出放在自定义参数之前，用户仍可通过自定义参数覆盖
+    command.addAll(YtDlpProgressParser.progressOptions());
+
     addCustomArgs(command, feedContext);
     ytDlpProxyService.appendCurrentProxyArgs(command);
     if (feedContext.downloadType() == DownloadType.AUDIO) {
@@ -769,20 +831,11 @@ public class DownloadHandler {
       processBuilder.environment().putAll(executionContext.environment());
       Process process = processBuilder.start();
 
-      try (BufferedReader reader = new BufferedReader(
-          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
-          BufferedReader errorReader = new BufferedReader(
-              new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-        String line;
-        while ((line = reader.readLine()) != null) {
-          log.debug("[yt-dlp-chapters-out] {}", line);
-        }
-        while ((line = errorReader.readLine()) != null) {
-          log.warn("[yt-dlp-chapters-err] {}", line);
-        }
-      }
-
+      ProcessOutputPump.PumpHandle pumpHandle = processOutputPump.start(process,
+          line -> log.debug("[yt-dlp-chapters-out] {}", line),
+          line -> log.warn("[yt-dlp-chapters-err] {}", line));
       int exitCode = process.waitFor();
+      pumpHandle.await();
       if (exitCode == 0) {
         log.info("音频章节内嵌成功: episodeId={}, file={}", episodeId, mediaFilePath);
       } else {
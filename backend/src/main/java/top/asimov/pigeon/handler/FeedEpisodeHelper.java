@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.springframework.context.ApplicationEventPublisher;
 import top.asimov.pigeon.event.EpisodesCreatedEvent;
 import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 
 public final class FeedEpisodeHelper {
 
@@ -31,9 +32,15 @@ public final class FeedEpisodeHelper {
 
   public static void publishEpisodesCreated(ApplicationEventPublisher publisher, Object source,
       List<Episode> episodes, String context) {
+    publishEpisodesCreated(publisher, source, episodes, context, DownloadPriority.AUTO, null);
+  }
+
+  public static void publishEpisodesCreated(ApplicationEventPublisher publisher, Object source,
+      List<Episode> episodes, String context, DownloadPriority priority, String feedId) {
     List<String> episodeIds = extractEpisodeIds(episodes);
     if (!episodeIds.isEmpty()) {
-      publisher.publishEvent(new EpisodesCreatedEvent(source, episodeIds, context));
+      publisher.publishEvent(
+          new EpisodesCreatedEvent(source, episodeIds, context, priority, feedId));
     }
   }
 }
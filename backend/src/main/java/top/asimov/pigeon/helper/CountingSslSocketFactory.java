@@ -0,0 +1,80 @@
+package top.asimov.pigeon.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * 统计新建 TLS 连接数的 SSLSocketFactory 包装。keep-alive 复用的连接不会再经过这里，
+ * 与请求数对比即可得到连接复用率。
+ */
+class CountingSslSocketFactory extends SSLSocketFactory {
+
+  private final SSLSocketFactory delegate;
+  private final AtomicLong connectionsOpened;
+
+  CountingSslSocketFactory(SSLSocketFactory delegate, AtomicLong connectionsOpened) {
+    this.delegate = delegate;
+    this.connectionsOpened = connectionsOpened;
+  }
+
+  @Override
+  public String[] getDefaultCipherSuites() {
+    return delegate.getDefaultCipherSuites();
+  }
+
+  @Override
+  public String[] getSupportedCipherSuites() {
+    return delegate.getSupportedCipherSuites();
+  }
+
+  @Override
+  public Socket createSocket() throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket();
+  }
+
+  // 经 HTTP 代理 CONNECT 隧道时走这个重载
+  @Override
+  public Socket createSocket(Socket socket, String host, int port, boolean autoClose)
+      throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(socket, host, port, autoClose);
+  }
+
+  @Override
+  public Socket createSocket(Socket socket, InputStream consumed, boolean autoClose)
+      throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(socket, consumed, autoClose);
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(host, port);
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+      throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(host, port, localHost, localPort);
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(host, port);
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+      int localPort) throws IOException {
+    connectionsOpened.incrementAndGet();
+    return delegate.createSocket(address, port, localAddress, localPort);
+  }
+}
@@ -0,0 +1,383 @@
+package top.asimov.pigeon.helper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.config.DownloadQueueProperties;
+import top.asimov.pigeon.event.DownloadDeadlineEvent.DeadlineType;
+import top.asimov.pigeon.helper.DownloadQueue.Entry;
+import top.asimov.pigeon.helper.DownloadTaskHelper.SubmitResult;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+import top.asimov.pigeon.model.response.EpisodeQueuePositionResponse;
+import top.asimov.pigeon.service.EpisodeService;
+import top.asimov.pigeon.util.EpisodeRetryPolicy;
+import top.asimov.pigeon.util.TimerWheel;
+
+/**
+ * 事件驱动的下载调度器：在内存中维护待下载队列和到期计时，槽位释放、新任务入队、计时到期时立即补位。
+ * 队列按 {@link DownloadPriority} 分道、同一优先级内按订阅加权轮转，策略见 {@link DownloadQueueProperties}。
+ *
+ * <p>数据库只作为任务的持久记录：内存队列耗尽且数据库中可能还有积压时才回表读取，
+ * 其余时间调度线程空转不访问数据库。{@link #reconcile()} 由定时任务低频调用，兜底处理遗漏的唤醒。</p>
+ *
+ * <p>队列与计时状态只在调度线程上访问，其他线程通过 {@link #enqueue}、{@link #schedule} 投递动作。</p>
+ */
+@Log4j2
+@Component
+public class DownloadDispatcher {
+
+  static final long TICK_MILLIS = 1000L;
+  static final int WHEEL_SIZE = 512;
+  // 内存队列耗尽时一次从数据库补充的候选数量
+  static final int REFILL_BATCH_SIZE = 200;
+  static final int DELAYED_PROMOTE_BATCH_SIZE = 100;
+  // 对账时登记这段时间内到期的计时，需大于对账间隔，超出部分留给下一次对账
+  static final Duration DEADLINE_HORIZON = Duration.ofMinutes(10);
+  static final int DEADLINE_LOAD_LIMIT = 1000;
+
+  private final DownloadSlotManager downloadSlotManager;
+  private final DownloadTaskHelper downloadTaskHelper;
+  private final EpisodeMapper episodeMapper;
+  private final EpisodeService episodeService;
+  private final LongSupplier clock;
+
+  private final ConcurrentLinkedQueue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+
+  // 以下状态只在调度线程上访问
+  private final DownloadQueue queue;
+  private final TimerWheel<Deadline> timerWheel;
+  private boolean backlogInDatabase;
+  private boolean promotionDue;
+  private boolean retryDue;
+  private boolean queueChanged;
+
+  // 供接口查询的排队快照，每轮调度后按需重建
+  private volatile QueueSnapshot queueSnapshot = QueueSnapshot.EMPTY;
+
+  private volatile boolean running;
+  private volatile Thread dispatcherThread;
+
+  @Autowired
+  public DownloadDispatcher(DownloadSlotManager downloadSlotManager,
+      @Lazy DownloadTaskHelper downloadTaskHelper, EpisodeMapper episodeMapper,
+      @Lazy EpisodeService episodeService, DownloadQueueProperties queueProperties) {
+    this(downloadSlotManager, downloadTaskHelper, episodeMapper, episodeService, queueProperties,
+        System::currentTimeMillis);
+  }
+
+  DownloadDispatcher(DownloadSlotManager downloadSlotManager,
+      DownloadTaskHelper downloadTaskHelper, EpisodeMapper episodeMapper,
+      EpisodeService episodeService, DownloadQueueProperties queueProperties, LongSupplier clock) {
+    this.downloadSlotManager = downloadSlotManager;
+    this.downloadTaskHelper = downloadTaskHelper;
+    this.episodeMapper = episodeMapper;
+    this.episodeService = episodeService;
+    this.clock = clock;
+    this.queue = new DownloadQueue(queueProperties.resolvePriorityOrder(),
+        queueProperties::resolveFeedWeight);
+    this.timerWheel = new TimerWheel<>(TICK_MILLIS, WHEEL_SIZE, clock.getAsLong());
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    Thread thread = new Thread(this::dispatchLoop, "PP-DownloadDispatcher");
+    thread.setDaemon(true);
+    dispatcherThread = thread;
+    thread.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    Thread thread = dispatcherThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /**
+   * 将节目加入待下载队列并立即尝试补位，节目应已处于 PENDING（或手动重试的 FAILED）状态。
+   *
+   * @param feedId 所属订阅，用于同一优先级内的轮转；未知时传 null
+   */
+  public void enqueue(Collection<String> episodeIds, DownloadPriority priority, String feedId) {
+    if (episodeIds == null || episodeIds.isEmpty()) {
+      return;
+    }
+    List<String> ids = episodeIds.stream().filter(Objects::nonNull).toList();
+    DownloadPriority resolvedPriority = priority != null ? priority : DownloadPriority.AUTO;
+    post(() -> ids.forEach(id -> offer(id, resolvedPriority, feedId)));
+  }
+
+  /**
+   * 将节目移出待下载队列并取消其到期计时，例如用户取消了 PENDING 任务。
+   */
+  public void cancel(Collection<String> episodeIds) {
+    if (episodeIds == null || episodeIds.isEmpty()) {
+      return;
+    }
+    List<String> ids = episodeIds.stream().filter(Objects::nonNull).toList();
+    post(() -> ids.forEach(id -> {
+      removeFromQueue(id, false);
+      for (DeadlineType type : DeadlineType.values()) {
+        timerWheel.cancel(new Deadline(type, id));
+      }
+    }));
+  }
+
+  /**
+   * 查询节目在待下载队列中的位置，不在队列中的节目不会出现在结果中。
+   */
+  public List<EpisodeQueuePositionResponse> getQueuePositions(Collection<String> episodeIds) {
+    List<EpisodeQueuePositionResponse> result = new ArrayList<>();
+    if (episodeIds == null) {
+      return result;
+    }
+    QueueSnapshot snapshot = queueSnapshot;
+    for (String episodeId : episodeIds) {
+      Integer index = snapshot.positions().get(episodeId);
+      if (index == null) {
+        continue;
+      }
+      Entry entry = snapshot.order().get(index);
+      result.add(EpisodeQueuePositionResponse.builder()
+          .episodeId(episodeId)
+          .position(index + 1)
+          .queueSize(snapshot.order().size())
+          .priority(entry.priority())
+          .build());
+    }
+    return result;
+  }
+
+  /**
+   * 登记节目的到期时间，到期后由调度线程按数据库中的最新状态提升或重试。
+   */
+  public void schedule(DeadlineType type, Map<String, LocalDateTime> deadlines) {
+    if (deadlines == null || deadlines.isEmpty()) {
+      return;
+    }
+    Map<String, LocalDateTime> copy = Map.copyOf(deadlines);
+    post(() -> copy.forEach((episodeId, deadline) ->
+        timerWheel.schedule(new Deadline(type, episodeId), toEpochMillis(deadline))));
+  }
+
+  /**
+   * 唤醒调度线程检查空闲槽位，例如下载结束归还槽位之后。
+   */
+  public void wakeUp() {
+    Thread thread = dispatcherThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * 对账：下一轮调度重新读取数据库中的待下载任务、到期的延迟下载与重试，并登记即将到期的计时。
+   */
+  public void reconcile() {
+    post(() -> {
+      backlogInDatabase = true;
+      promotionDue = true;
+      retryDue = true;
+      loadUpcomingDeadlines();
+    });
+  }
+
+  private void post(Runnable action) {
+    inbox.add(action);
+    wakeUp();
+  }
+
+  private void dispatchLoop() {
+    while (running) {
+      try {
+        runOnce();
+      } catch (Exception e) {
+        // 单轮失败不影响后续调度，未提交的任务仍留在队列或数据库中
+        log.error("下载调度失败", e);
+      }
+      if (inbox.isEmpty()) {
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS));
+      }
+    }
+  }
+
+  /**
+   * 执行一轮调度：处理投递的动作与到期计时，然后按空闲槽位提交任务。
+   */
+  void runOnce() {
+    drainInbox();
+    for (Deadline deadline : timerWheel.advance(clock.getAsLong())) {
+      if (deadline.type() == DeadlineType.AUTO_DOWNLOAD) {
+        promotionDue = true;
+      } else {
+        retryDue = true;
+      }
+    }
+    if (promotionDue) {
+      promotionDue = false;
+      // 提升后发布的 EpisodesCreatedEvent 会在提交后把节目投递回本队列
+      int promoted = episodeService.promoteDueDelayedAutoDownloadEpisodes(
+          DELAYED_PROMOTE_BATCH_SIZE);
+      if (promoted > 0) {
+        log.info("已将 {} 个到期的延迟自动下载任务提升为 PENDING", promoted);
+      }
+      promotionDue = promoted >= DELAYED_PROMOTE_BATCH_SIZE;
+      drainInbox();
+    }
+    dispatch();
+    if (queueChanged) {
+      queueChanged = false;
+      queueSnapshot = QueueSnapshot.of(queue.order());
+    }
+  }
+
+  private void drainInbox() {
+    Runnable action;
+    while ((action = inbox.poll()) != null) {
+      action.run();
+    }
+  }
+
+  private void dispatch() {
+    if (downloadSlotManager.availableSlots() <= 0) {
+      return;
+    }
+    if (retryDue) {
+      // 自动重试只有在 next_retry_at 到期后才会被捞起，退避规则见 EpisodeRetryPolicy
+      List<Episode> retries = episodeMapper.selectDueRetryEpisodes(LocalDateTime.now(),
+          EpisodeRetryPolicy.MAX_AUTO_RETRY_ATTEMPTS, REFILL_BATCH_SIZE);
+      retries.forEach(episode ->
+          offer(episode.getId(), DownloadPriority.RETRY, episode.getChannelId()));
+      retryDue = retries.size() >= REFILL_BATCH_SIZE;
+    }
+    boolean refilled = false;
+    while (true) {
+      if (!submitReady()) {
+        return;
+      }
+      // 队列中剩下的只有来源槽位已满的任务，数据库中可能还有其他来源的积压
+      if (refilled || !backlogInDatabase) {
+        return;
+      }
+      refillFromDatabase();
+      refilled = true;
+    }
+  }
+
+  /**
+   * 按队列的调度顺序提交任务。
+   *
+   * @return 全局槽位仍有空余时返回 true
+   */
+  private boolean submitReady() {
+    for (Entry entry : queue.order()) {
+      String episodeId = entry.episodeId();
+      SubmitResult result;
+      try {
+        result = downloadTaskHelper.submitDownloadTask(episodeId);
+      } catch (Exception e) {
+        log.warn("提交下载任务失败，保留在队列中等待下一轮调度: episodeId={}", episodeId, e);
+        return false;
+      }
+      switch (result) {
+        case SUBMITTED -> removeFromQueue(episodeId, true);
+        case NOT_ELIGIBLE -> removeFromQueue(episodeId, false);
+        case SOURCE_BUSY -> {
+          // 保留在队列中，其他来源的任务继续提交
+        }
+        case NO_SLOT, REJECTED -> {
+          return false;
+        }
+      }
+    }
+    return downloadSlotManager.availableSlots() > 0;
+  }
+
+  private void refillFromDatabase() {
+    // 队列中的 PENDING 任务也会被查出，多取这部分以保证能补充到新任务
+    int limit = queue.size() + REFILL_BATCH_SIZE;
+    List<Episode> pending = episodeMapper.selectPendingDispatchCandidates(limit);
+    // 原始优先级不落库，按普通自动下载排队
+    pending.forEach(episode ->
+        offer(episode.getId(), DownloadPriority.AUTO, episode.getChannelId()));
+    backlogInDatabase = pending.size() >= limit;
+    log.debug("从数据库补充待下载任务: loaded={}, queued={}, backlog={}", pending.size(),
+        queue.size(), backlogInDatabase);
+  }
+
+  private void offer(String episodeId, DownloadPriority priority, String feedId) {
+    if (queue.offer(episodeId, priority, feedId)) {
+      queueChanged = true;
+    }
+  }
+
+  private void removeFromQueue(String episodeId, boolean served) {
+    queue.remove(episodeId, served);
+    queueChanged = true;
+  }
+
+  private void loadUpcomingDeadlines() {
+    LocalDateTime until = LocalDateTime.now().plus(DEADLINE_HORIZON);
+    for (Episode episode : episodeMapper.selectUpcomingDelayedAutoDownloads(until,
+        DEADLINE_LOAD_LIMIT)) {
+      timerWheel.schedule(new Deadline(DeadlineType.AUTO_DOWNLOAD, episode.getId()),
+          toEpochMillis(episode.getAutoDownloadAfter()));
+    }
+    for (Episode episode : episodeMapper.selectUpcomingRetries(until,
+        EpisodeRetryPolicy.MAX_AUTO_RETRY_ATTEMPTS, DEADLINE_LOAD_LIMIT)) {
+      timerWheel.schedule(new Deadline(DeadlineType.RETRY, episode.getId()),
+          toEpochMillis(episode.getNextRetryAt()));
+    }
+  }
+
+  int queuedCount() {
+    return queue.size();
+  }
+
+  int scheduledCount() {
+    return timerWheel.size();
+  }
+
+  private static long toEpochMillis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private record Deadline(DeadlineType type, String episodeId) {
+
+  }
+
+  private record QueueSnapshot(List<Entry> order, Map<String, Integer> positions) {
+
+    private static final QueueSnapshot EMPTY = new QueueSnapshot(List.of(), Map.of());
+
+    private static QueueSnapshot of(List<Entry> order) {
+      Map<String, Integer> positions = new HashMap<>(order.size() * 2);
+      for (int i = 0; i < order.size(); i++) {
+        positions.put(order.get(i).episodeId(), i);
+      }
+      return new QueueSnapshot(order, positions);
+    }
+  }
+}
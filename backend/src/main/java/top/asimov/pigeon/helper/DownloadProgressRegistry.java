@@ -0,0 +1,125 @@
+package top.asimov.pigeon.helper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.model.enums.DownloadPhase;
+import top.asimov.pigeon.model.response.EpisodeDownloadProgressResponse;
+import top.asimov.pigeon.util.YtDlpProgressParser;
+
+/**
+ * 内存中的下载进度表，由下载线程写入、进度接口读取，不落库。
+ *
+ * <p>任务结束后保留一小段时间的终态快照，让前端轮询能感知到 COMPLETED/FAILED 后再回源数据库。
+ * 每次有任务结束时顺带清理过期的终态快照，没有前端轮询时表也不会持续增长。</p>
+ */
+@Component
+public class DownloadProgressRegistry {
+
+  private static final Duration FINISHED_RETENTION = Duration.ofMinutes(5);
+
+  private final Map<String, EpisodeDownloadProgressResponse> progressMap =
+      new ConcurrentHashMap<>();
+
+  public void start(String episodeId) {
+    LocalDateTime now = LocalDateTime.now();
+    progressMap.put(episodeId, EpisodeDownloadProgressResponse.builder()
+        .episodeId(episodeId)
+        .phase(DownloadPhase.STARTING)
+        .startedAt(now)
+        .updatedAt(now)
+        .build());
+  }
+
+  public void update(String episodeId, YtDlpProgressParser.ProgressLine line) {
+    if (line == null) {
+      return;
+    }
+    progressMap.computeIfPresent(episodeId, (id, current) -> {
+      EpisodeDownloadProgressResponse next = copy(current);
+      next.setPhase(line.phase());
+      next.setUpdatedAt(LocalDateTime.now());
+      if (line.phase() == DownloadPhase.POST_PROCESSING) {
+        next.setPostProcessor(line.postProcessor());
+        next.setSpeedBytesPerSecond(null);
+        next.setEtaSeconds(null);
+        return next;
+      }
+      next.setPostProcessor(null);
+      next.setDownloadedBytes(line.downloadedBytes());
+      next.setTotalBytes(line.totalBytes());
+      next.setSpeedBytesPerSecond(line.speedBytesPerSecond());
+      next.setEtaSeconds(line.etaSeconds());
+      next.setPercent(calculatePercent(line.downloadedBytes(), line.totalBytes()));
+      return next;
+    });
+  }
+
+  public void markPhase(String episodeId, DownloadPhase phase) {
+    progressMap.computeIfPresent(episodeId, (id, current) -> {
+      EpisodeDownloadProgressResponse next = copy(current);
+      next.setPhase(phase);
+      next.setPostProcessor(null);
+      next.setSpeedBytesPerSecond(null);
+      next.setEtaSeconds(null);
+      next.setUpdatedAt(LocalDateTime.now());
+      return next;
+    });
+    if (isFinished(phase)) {
+      evictExpired();
+    }
+  }
+
+  public List<EpisodeDownloadProgressResponse> getProgress(Collection<String> episodeIds) {
+    evictExpired();
+    List<EpisodeDownloadProgressResponse> result = new ArrayList<>();
+    if (episodeIds == null) {
+      return result;
+    }
+    for (String episodeId : episodeIds) {
+      EpisodeDownloadProgressResponse progress = progressMap.get(episodeId);
+      if (progress != null) {
+        result.add(copy(progress));
+      }
+    }
+    return result;
+  }
+
+  private void evictExpired() {
+    LocalDateTime threshold = LocalDateTime.now().minus(FINISHED_RETENTION);
+    progressMap.values().removeIf(progress -> isFinished(progress.getPhase())
+        && progress.getUpdatedAt().isBefore(threshold));
+  }
+
+  private boolean isFinished(DownloadPhase phase) {
+    return phase == DownloadPhase.COMPLETED || phase == DownloadPhase.FAILED;
+  }
+
+  private Double calculatePercent(Long downloadedBytes, Long totalBytes) {
+    if (downloadedBytes == null || totalBytes == null || totalBytes <= 0) {
+      return null;
+    }
+    double percent = downloadedBytes * 100D / totalBytes;
+    return Math.round(Math.min(100D, percent) * 10D) / 10D;
+  }
+
+  private EpisodeDownloadProgressResponse copy(EpisodeDownloadProgressResponse source) {
+    return EpisodeDownloadProgressResponse.builder()
+        .episodeId(source.getEpisodeId())
+        .phase(source.getPhase())
+        .postProcessor(source.getPostProcessor())
+        .downloadedBytes(source.getDownloadedBytes())
+        .totalBytes(source.getTotalBytes())
+        .percent(source.getPercent())
+        .speedBytesPerSecond(source.getSpeedBytesPerSecond())
+        .etaSeconds(source.getEtaSeconds())
+        .startedAt(source.getStartedAt())
+        .updatedAt(source.getUpdatedAt())
+        .build();
+  }
+}
@@ -0,0 +1,166 @@
+package top.asimov.pigeon.helper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+
+/**
+ * 待下载队列：按优先级分道，分道之间严格按优先级顺序调度；同一分道内按订阅加权公平排队，
+ * 每个订阅的第 n 个任务的排序标签为 起始标签 + n / 权重，标签越小越先调度，
+ * 因此权重为 w 的订阅每轮最多连续提交 w 个任务，单个大订阅无法占满下载槽位。
+ *
+ * <p>非线程安全，只由调度线程访问。</p>
+ */
+final class DownloadQueue {
+
+  // 订阅未知时（例如重启后从数据库补充的任务）共享的分组
+  static final String UNKNOWN_FEED = "";
+
+  private final List<DownloadPriority> laneOrder;
+  private final ToIntFunction<String> feedWeight;
+  private final EnumMap<DownloadPriority, Lane> lanes = new EnumMap<>(DownloadPriority.class);
+  private final Map<String, Entry> entries = new HashMap<>();
+  private long feedSequence;
+
+  DownloadQueue(List<DownloadPriority> laneOrder, ToIntFunction<String> feedWeight) {
+    this.laneOrder = List.copyOf(laneOrder);
+    this.feedWeight = feedWeight;
+    for (DownloadPriority priority : DownloadPriority.values()) {
+      lanes.put(priority, new Lane());
+    }
+  }
+
+  /**
+   * 入队；已在队列中的节目只会被提升到更高优先级，不会降级。
+   *
+   * @return 队列是否发生变化
+   */
+  boolean offer(String episodeId, DownloadPriority priority, String feedKey) {
+    Entry existing = entries.get(episodeId);
+    if (existing != null) {
+      if (rank(priority) >= rank(existing.priority())) {
+        return false;
+      }
+      remove(episodeId, false);
+    }
+    String key = feedKey != null ? feedKey : UNKNOWN_FEED;
+    Lane lane = lanes.get(priority);
+    Feed feed = lane.feeds.computeIfAbsent(key,
+        k -> new Feed(Math.max(1, feedWeight.applyAsInt(k)), feedSequence++, lane.virtualTime));
+    feed.episodeIds.add(episodeId);
+    entries.put(episodeId, new Entry(episodeId, priority, key));
+    return true;
+  }
+
+  /**
+   * 移出队列。
+   *
+   * @param served 为 true 表示任务已提交下载，计入所属订阅本轮的份额
+   */
+  void remove(String episodeId, boolean served) {
+    Entry entry = entries.remove(episodeId);
+    if (entry == null) {
+      return;
+    }
+    Lane lane = lanes.get(entry.priority());
+    Feed feed = lane.feeds.get(entry.feedKey());
+    feed.episodeIds.remove(episodeId);
+    if (served) {
+      // 虚拟时间取被服务任务的起始标签，新加入的订阅从这里开始排队
+      lane.virtualTime = Math.max(lane.virtualTime, feed.startTag);
+      feed.startTag += 1.0D / feed.weight;
+    }
+    if (feed.episodeIds.isEmpty()) {
+      lane.feeds.remove(entry.feedKey());
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * 按调度顺序返回队列中的全部任务，不修改队列状态。
+   */
+  List<Entry> order() {
+    List<Entry> result = new ArrayList<>(entries.size());
+    for (DownloadPriority priority : laneOrder) {
+      appendLaneOrder(lanes.get(priority), result);
+    }
+    return result;
+  }
+
+  private void appendLaneOrder(Lane lane, List<Entry> result) {
+    if (lane.feeds.isEmpty()) {
+      return;
+    }
+    PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator
+        .comparingDouble(Cursor::tag)
+        .thenComparingLong(cursor -> cursor.feed.sequence));
+    for (Feed feed : lane.feeds.values()) {
+      heads.add(new Cursor(feed, feed.episodeIds.iterator()));
+    }
+    while (!heads.isEmpty()) {
+      Cursor cursor = heads.poll();
+      result.add(entries.get(cursor.iterator.next()));
+      cursor.taken++;
+      if (cursor.iterator.hasNext()) {
+        heads.add(cursor);
+      }
+    }
+  }
+
+  private int rank(DownloadPriority priority) {
+    return laneOrder.indexOf(priority);
+  }
+
+  record Entry(String episodeId, DownloadPriority priority, String feedKey) {
+
+  }
+
+  private static final class Lane {
+
+    private final Map<String, Feed> feeds = new LinkedHashMap<>();
+    private double virtualTime;
+  }
+
+  private static final class Feed {
+
+    private final int weight;
+    private final long sequence;
+    private final LinkedHashSet<String> episodeIds = new LinkedHashSet<>();
+    private double startTag;
+
+    private Feed(int weight, long sequence, double startTag) {
+      this.weight = weight;
+      this.sequence = sequence;
+      this.startTag = startTag;
+    }
+  }
+
+  private static final class Cursor {
+
+    private final Feed feed;
+    private final Iterator<String> iterator;
+    private int taken;
+
+    private Cursor(Feed feed, Iterator<String> iterator) {
+      this.feed = feed;
+      this.iterator = iterator;
+    }
+
+    // 下一个任务的完成标签
+    private double tag() {
+      return feed.startTag + (double) (taken + 1) / feed.weight;
+    }
+  }
+}
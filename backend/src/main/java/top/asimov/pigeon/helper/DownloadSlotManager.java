@@ -0,0 +1,248 @@
+package top.asimov.pigeon.helper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.model.entity.SystemConfig;
+import top.asimov.pigeon.model.enums.FeedSource;
+
+/**
+ * 下载槽位管理：统一维护全局并发上限、各来源（YouTube / Bilibili）的并发上限，以及下载线程池的大小。
+ *
+ * <p>上限来自 {@link SystemConfig}，修改后无需重启即可生效；调小上限时不会打断正在执行的任务，
+ * 只是在活跃数降到新上限以下之前不再发放新的槽位。</p>
+ *
+ * <p>开启自适应模式后，配置值作为上界，实际生效的上限在 [1, 配置值] 之间调整：
+ * 主机负载过高或失败率过高时减少一个槽位；有任务因槽位不足而等待、且上次扩容带来了吞吐提升时增加一个槽位。</p>
+ */
+@Log4j2
+@Component
+public class DownloadSlotManager {
+
+  static final double HIGH_LOAD_PER_CORE = 1.5D;
+  static final double LOW_LOAD_PER_CORE = 0.8D;
+  static final double HIGH_FAILURE_RATE = 0.5D;
+  static final int MIN_FAILURE_SAMPLES = 3;
+  // 扩容后吞吐至少提升 5% 才继续扩容，否则视为已到瓶颈（通常是带宽或磁盘）
+  static final double MIN_THROUGHPUT_GAIN = 1.05D;
+
+  private final ThreadPoolTaskExecutor downloadTaskExecutor;
+  private final DoubleSupplier loadPerCoreSupplier;
+  private final LongSupplier clock;
+
+  private final Map<FeedSource, Integer> activeBySource = new EnumMap<>(FeedSource.class);
+  private final Map<FeedSource, Integer> sourceLimits = new EnumMap<>(FeedSource.class);
+  private int activeTotal;
+  private int configuredLimit = SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY;
+  private int effectiveLimit = SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY;
+  private boolean adaptiveEnabled;
+
+  // 自适应统计窗口
+  private long windowStartedAt;
+  private int windowSucceeded;
+  private int windowFailed;
+  private long windowBytes;
+  private boolean windowSaturated;
+  private double lastThroughput = -1D;
+  private int lastWindowLimit;
+
+  @Autowired
+  public DownloadSlotManager(
+      @Qualifier("downloadTaskExecutor") ThreadPoolTaskExecutor downloadTaskExecutor) {
+    this(downloadTaskExecutor, DownloadSlotManager::systemLoadPerCore, System::currentTimeMillis);
+  }
+
+  DownloadSlotManager(ThreadPoolTaskExecutor downloadTaskExecutor,
+      DoubleSupplier loadPerCoreSupplier, LongSupplier clock) {
+    this.downloadTaskExecutor = downloadTaskExecutor;
+    this.loadPerCoreSupplier = loadPerCoreSupplier;
+    this.clock = clock;
+    this.windowStartedAt = clock.getAsLong();
+  }
+
+  /**
+   * 应用系统配置中的并发设置，并同步调整下载线程池大小。
+   */
+  public synchronized void configure(SystemConfig config) {
+    int total = normalizeLimit(config.getDownloadConcurrency(),
+        SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY);
+    configuredLimit = total;
+    sourceLimits.clear();
+    putSourceLimit(FeedSource.YOUTUBE, config.getYoutubeDownloadConcurrency(), total);
+    putSourceLimit(FeedSource.BILIBILI, config.getBilibiliDownloadConcurrency(), total);
+
+    boolean adaptive = Boolean.TRUE.equals(config.getAdaptiveDownloadConcurrency());
+    if (!adaptive || !adaptiveEnabled) {
+      // 关闭自适应、或刚开启自适应时，从配置上限起步
+      effectiveLimit = total;
+      resetWindow();
+      lastThroughput = -1D;
+    } else {
+      effectiveLimit = Math.min(effectiveLimit, total);
+    }
+    adaptiveEnabled = adaptive;
+    resizeExecutor(total);
+  }
+
+  /**
+   * 为指定来源申请一个下载槽位。
+   *
+   * @return true 表示已占用槽位，任务结束后必须调用 {@link #release}
+   */
+  public synchronized boolean tryAcquire(FeedSource source) {
+    if (activeTotal >= effectiveLimit) {
+      windowSaturated = true;
+      return false;
+    }
+    Integer sourceLimit = sourceLimits.get(source);
+    int sourceActive = activeBySource.getOrDefault(source, 0);
+    if (sourceLimit != null && sourceActive >= sourceLimit) {
+      return false;
+    }
+    activeTotal++;
+    activeBySource.put(source, sourceActive + 1);
+    return true;
+  }
+
+  /**
+   * 归还未实际执行的槽位（例如状态抢占失败或线程池拒绝），不计入自适应统计。
+   */
+  public synchronized void release(FeedSource source) {
+    activeTotal = Math.max(0, activeTotal - 1);
+    activeBySource.computeIfPresent(source, (key, count) -> count > 1 ? count - 1 : null);
+  }
+
+  /**
+   * 任务执行结束后归还槽位，并记录结果供自适应模式评估。
+   */
+  public synchronized void release(FeedSource source, boolean succeeded, long downloadedBytes) {
+    release(source);
+    if (succeeded) {
+      windowSucceeded++;
+      windowBytes += Math.max(0L, downloadedBytes);
+    } else {
+      windowFailed++;
+    }
+  }
+
+  /**
+   * 当前可发放的槽位数（仅按全局上限计算，来源上限在 {@link #tryAcquire} 时判断）。
+   */
+  public synchronized int availableSlots() {
+    return Math.max(0, effectiveLimit - activeTotal);
+  }
+
+  public synchronized int getEffectiveLimit() {
+    return effectiveLimit;
+  }
+
+  public synchronized int getActiveCount() {
+    return activeTotal;
+  }
+
+  /**
+   * 结束当前统计窗口并按窗口内的表现调整生效上限，未开启自适应时只重置窗口。
+   */
+  public synchronized void adjustAdaptiveLimit() {
+    if (!adaptiveEnabled) {
+      resetWindow();
+      return;
+    }
+    long now = clock.getAsLong();
+    double elapsedSeconds = Math.max(1D, (now - windowStartedAt) / 1000D);
+    double throughput = windowBytes / elapsedSeconds;
+    int samples = windowSucceeded + windowFailed;
+    double failureRate = samples == 0 ? 0D : (double) windowFailed / samples;
+    double loadPerCore = loadPerCoreSupplier.getAsDouble();
+    boolean loadKnown = loadPerCore >= 0D;
+
+    int next = effectiveLimit;
+    String reason = null;
+    if (loadKnown && loadPerCore > HIGH_LOAD_PER_CORE) {
+      next = effectiveLimit - 1;
+      reason = "主机负载过高";
+    } else if (samples >= MIN_FAILURE_SAMPLES && failureRate >= HIGH_FAILURE_RATE) {
+      next = effectiveLimit - 1;
+      reason = "失败率过高";
+    } else if (windowSaturated && (!loadKnown || loadPerCore < LOW_LOAD_PER_CORE)) {
+      boolean grewLastWindow = lastWindowLimit > 0 && effectiveLimit > lastWindowLimit;
+      if (grewLastWindow && samples > 0 && throughput < lastThroughput * MIN_THROUGHPUT_GAIN) {
+        // 上次扩容没有带来吞吐提升，回退一步
+        next = effectiveLimit - 1;
+        reason = "扩容后吞吐未提升";
+      } else {
+        next = effectiveLimit + 1;
+        reason = "存在等待中的任务";
+      }
+    }
+    next = Math.max(1, Math.min(configuredLimit, next));
+
+    lastWindowLimit = effectiveLimit;
+    lastThroughput = throughput;
+    if (next != effectiveLimit) {
+      log.info("自适应下载并发调整: {} -> {}（{}），吞吐={} B/s，失败率={}，负载/核={}",
+          effectiveLimit, next, reason, Math.round(throughput),
+          String.format("%.2f", failureRate), loadKnown ? String.format("%.2f", loadPerCore) : "N/A");
+      effectiveLimit = next;
+    }
+    resetWindow();
+  }
+
+  private void resetWindow() {
+    windowStartedAt = clock.getAsLong();
+    windowSucceeded = 0;
+    windowFailed = 0;
+    windowBytes = 0L;
+    windowSaturated = false;
+  }
+
+  private void putSourceLimit(FeedSource source, Integer limit, int total) {
+    if (limit != null && limit > 0 && limit < total) {
+      sourceLimits.put(source, limit);
+    }
+  }
+
+  private int normalizeLimit(Integer value, int defaultValue) {
+    if (value == null || value <= 0) {
+      return defaultValue;
+    }
+    return Math.min(value, SystemConfig.MAX_DOWNLOAD_CONCURRENCY);
+  }
+
+  private void resizeExecutor(int size) {
+    int currentMax = downloadTaskExecutor.getMaxPoolSize();
+    if (size == currentMax && size == downloadTaskExecutor.getCorePoolSize()) {
+      return;
+    }
+    // ThreadPoolExecutor 要求 core <= max：扩容先调 max，缩容先调 core
+    if (size > currentMax) {
+      downloadTaskExecutor.setMaxPoolSize(size);
+      downloadTaskExecutor.setCorePoolSize(size);
+    } else {
+      downloadTaskExecutor.setCorePoolSize(size);
+      downloadTaskExecutor.setMaxPoolSize(size);
+    }
+    log.info("下载线程池已调整: 核心线程数={}, 最大线程数={}",
+        downloadTaskExecutor.getCorePoolSize(), downloadTaskExecutor.getMaxPoolSize());
+  }
+
+  /**
+   * @return 每核平均负载；平台不支持时返回负数
+   */
+  private static double systemLoadPerCore() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    double loadAverage = os.getSystemLoadAverage();
+    if (loadAverage < 0) {
+      return -1D;
+    }
+    return loadAverage / Math.max(1, os.getAvailableProcessors());
+  }
+}
@@ -1,13 +1,17 @@
 package top.asimov.pigeon.helper;
 
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import top.asimov.pigeon.handler.DownloadHandler;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+import top.asimov.pigeon.model.enums.FeedSource;
+import top.asimov.pigeon.util.BilibiliIdUtil;
 
 @Log4j2
 @Service
@@ -16,27 +20,35 @@ public class DownloadTaskHelper {
   private final ThreadPoolTaskExecutor downloadTaskExecutor;
   private final TaskStatusHelper taskStatusHelper;
   private final DownloadHandler downloadHandler;
-  private final Semaphore downloadSlots;
+  private final DownloadSlotManager downloadSlotManager;
+  private final DownloadDispatcher downloadDispatcher;
 
   @Autowired
-  public DownloadTaskHelper(ThreadPoolTaskExecutor downloadTaskExecutor,
-      @Lazy TaskStatusHelper taskStatusHelper, DownloadHandler downloadHandler) {
+  public DownloadTaskHelper(
+      @Qualifier("downloadTaskExecutor") ThreadPoolTaskExecutor downloadTaskExecutor,
+      @Lazy TaskStatusHelper taskStatusHelper, DownloadHandler downloadHandler,
+      DownloadSlotManager downloadSlotManager, @Lazy DownloadDispatcher downloadDispatcher) {
     this.downloadTaskExecutor = downloadTaskExecutor;
     this.taskStatusHelper = taskStatusHelper;
     this.downloadHandler = downloadHandler;
-    this.downloadSlots = new Semaphore(downloadTaskExecutor.getMaxPoolSize(), true);
+    this.downloadSlotManager = downloadSlotManager;
+    this.downloadDispatcher = downloadDispatcher;
   }
 
   /**
-   * 尝试提交单个下载任务
+   * 尝试提交单个下载任务，由 {@link DownloadDispatcher} 在调度线程上调用。
    *
    * @param episodeId 节目ID
-   * @return true if successful, false otherwise
+   * @return 提交结果，调度器据此决定任务是否留在队列中
    */
-  public boolean submitDownloadTask(String episodeId) {
-    if (!downloadSlots.tryAcquire()) {
-      log.debug("下载槽位已满，任务保持为原状态，等待后续补位: {}", episodeId);
-      return false;
+  public SubmitResult submitDownloadTask(String episodeId) {
+    FeedSource source = BilibiliIdUtil.resolveEpisodeSource(episodeId);
+    if (downloadSlotManager.availableSlots() <= 0) {
+      return SubmitResult.NO_SLOT;
+    }
+    if (!downloadSlotManager.tryAcquire(source)) {
+      log.debug("来源下载槽位已满，任务保持为原状态，等待后续补位: {} ({})", episodeId, source);
+      return SubmitResult.SOURCE_BUSY;
     }
 
     boolean submitted = false;
@@ -46,26 +58,48 @@ public class DownloadTaskHelper {
       if (updated) {
         // 状态更新成功后，提交到线程池
         downloadTaskExecutor.execute(() -> {
+          boolean succeeded = false;
+          long downloadedBytes = 0L;
           try {
-            downloadHandler.download(episodeId);
+            Episode result = downloadHandler.download(episodeId);
+            if (result != null
+                && EpisodeStatus.COMPLETED.name().equals(result.getDownloadStatus())) {
+              succeeded = true;
+              downloadedBytes = result.getMediaSizeBytes() == null ? 0L : result.getMediaSizeBytes();
+            }
           } finally {
-            downloadSlots.release();
+            downloadSlotManager.release(source, succeeded, downloadedBytes);
+            // 槽位空出后立即补位，不必等待下一轮对账
+            downloadDispatcher.wakeUp();
           }
         });
         submitted = true;
         log.debug("任务已提交执行: {}", episodeId);
-        return true;
+        return SubmitResult.SUBMITTED;
       }
-      return false;
+      return SubmitResult.NOT_ELIGIBLE;
     } catch (RejectedExecutionException e) {
       // 提交失败，回滚状态到PENDING（通过代理Bean调用）
       taskStatusHelper.rollbackFromDownloadingToPending(episodeId);
       log.warn("线程池不可用，任务被拒绝，状态回滚为 PENDING: {}", episodeId);
-      return false;
+      return SubmitResult.REJECTED;
     } finally {
       if (!submitted) {
-        downloadSlots.release();
+        downloadSlotManager.release(source);
       }
     }
   }
+
+  public enum SubmitResult {
+    // 已占用槽位并提交到线程池
+    SUBMITTED,
+    // 全局槽位已满
+    NO_SLOT,
+    // 该来源的槽位已满，其他来源的任务仍可提交
+    SOURCE_BUSY,
+    // 状态已不是可下载状态（已在下载、已完成或被取消），无需再调度
+    NOT_ELIGIBLE,
+    // 线程池拒绝，状态已回滚为 PENDING
+    REJECTED
+  }
 }
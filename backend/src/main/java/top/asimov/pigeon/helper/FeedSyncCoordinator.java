@@ -0,0 +1,158 @@
+package top.asimov.pigeon.helper;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.config.FeedSyncProperties.RateLimit;
+import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.model.entity.Feed;
+import top.asimov.pigeon.model.enums.FeedSource;
+import top.asimov.pigeon.model.enums.YoutubeApiCallContext;
+import top.asimov.pigeon.util.TokenBucket;
+
+/**
+ * 订阅同步协调：定时同步在线程池上并行执行，按来源令牌桶限流；同一订阅的定时同步、手动刷新与初始化互斥。
+ *
+ * <p>刷新订阅的方法本身不开事务：网络抓取与 YouTube 配额记录都在事务外执行，可以并行；
+ * 只有抓取结果的落库放在短事务中，在唯一的写连接上排队。</p>
+ */
+@Log4j2
+@Component
+public class FeedSyncCoordinator {
+
+  private final Executor feedSyncExecutor;
+  private final FeedSyncProperties feedSyncProperties;
+  private final MessageSource messageSource;
+  private final Map<FeedSource, TokenBucket> rateLimiters = new EnumMap<>(FeedSource.class);
+  // 按订阅 ID 的互斥锁，数量与订阅数同级，不做回收
+  private final Map<String, ReentrantLock> feedLocks = new ConcurrentHashMap<>();
+
+  public FeedSyncCoordinator(@Qualifier("feedSyncExecutor") Executor feedSyncExecutor,
+      FeedSyncProperties feedSyncProperties, MessageSource messageSource) {
+    this.feedSyncExecutor = feedSyncExecutor;
+    this.feedSyncProperties = feedSyncProperties;
+    this.messageSource = messageSource;
+    for (FeedSource source : FeedSource.values()) {
+      RateLimit rateLimit = feedSyncProperties.resolveRateLimit(source);
+      rateLimiters.put(source,
+          new TokenBucket(rateLimit.getPermitsPerSecond(), rateLimit.getBurst()));
+    }
+  }
+
+  /**
+   * 并行执行一轮定时同步，阻塞到本轮全部结束。正在手动刷新或初始化的订阅本轮跳过。
+   *
+   * <p>调用线程的 YouTube 配额上下文会传递给工作线程。单个订阅失败只记录日志，不影响其他订阅。</p>
+   */
+  public <F extends Feed> SyncRoundResult runScheduledRound(List<F> feeds, Consumer<F> refresher) {
+    YoutubeApiCallContext callContext = YoutubeQuotaContextHolder.get();
+    List<CompletableFuture<SyncOutcome>> futures = new ArrayList<>(feeds.size());
+    for (F feed : feeds) {
+      futures.add(CompletableFuture.supplyAsync(
+          () -> syncScheduled(feed, refresher, callContext), feedSyncExecutor));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    int synced = 0;
+    int skipped = 0;
+    int failed = 0;
+    for (CompletableFuture<SyncOutcome> future : futures) {
+      switch (future.join()) {
+        case SYNCED -> synced++;
+        case SKIPPED -> skipped++;
+        case FAILED -> failed++;
+      }
+    }
+    return new SyncRoundResult(synced, skipped, failed);
+  }
+
+  /**
+   * 在订阅互斥锁内执行手动刷新或初始化；同一订阅正在同步时最多等待
+   * {@code pigeon.feed-sync.manual-refresh-wait-seconds}，仍未结束则提示稍后再试。
+   */
+  public <T> T runExclusive(String feedId, Supplier<T> action) {
+    ReentrantLock lock = lockFor(feedId);
+    boolean locked;
+    try {
+      locked = lock.tryLock(feedSyncProperties.getManualRefreshWaitSeconds(), TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      locked = false;
+    }
+    if (!locked) {
+      throw new BusinessException(messageSource.getMessage("feed.sync.in.progress", null,
+          LocaleContextHolder.getLocale()));
+    }
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void runExclusive(String feedId, Runnable action) {
+    runExclusive(feedId, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  private <F extends Feed> SyncOutcome syncScheduled(F feed, Consumer<F> refresher,
+      YoutubeApiCallContext callContext) {
+    ReentrantLock lock = lockFor(feed.getId());
+    if (!lock.tryLock()) {
+      log.info("订阅 {} (ID: {}) 正在手动刷新或初始化，本轮定时同步跳过。", feed.getTitle(), feed.getId());
+      return SyncOutcome.SKIPPED;
+    }
+    YoutubeQuotaContextHolder.set(callContext);
+    try {
+      rateLimiterFor(feed).acquire();
+      refresher.accept(feed);
+      return SyncOutcome.SYNCED;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return SyncOutcome.FAILED;
+    } catch (Exception e) {
+      log.error("同步订阅 {} (ID: {}) 时发生错误。", feed.getTitle(), feed.getId(), e);
+      return SyncOutcome.FAILED;
+    } finally {
+      YoutubeQuotaContextHolder.clear();
+      lock.unlock();
+    }
+  }
+
+  private ReentrantLock lockFor(String feedId) {
+    return feedLocks.computeIfAbsent(feedId, key -> new ReentrantLock());
+  }
+
+  private TokenBucket rateLimiterFor(Feed feed) {
+    FeedSource source = FeedSource.BILIBILI.name().equalsIgnoreCase(feed.getSource())
+        ? FeedSource.BILIBILI
+        : FeedSource.YOUTUBE;
+    return rateLimiters.get(source);
+  }
+
+  private enum SyncOutcome {
+    SYNCED,
+    SKIPPED,
+    FAILED
+  }
+
+  public record SyncRoundResult(int synced, int skipped, int failed) {
+
+  }
+}
@@ -0,0 +1,75 @@
+package top.asimov.pigeon.helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 并发读取外部进程的 stdout 和 stderr。
+ *
+ * <p>顺序读取两个流时，如果子进程向尚未被读取的那个流写满管道缓冲区，子进程会被阻塞，
+ * 读取方又在等待另一个流的 EOF，双方互相等待导致下载“卡死”。这里为每个流分配独立的泵线程。</p>
+ */
+@Log4j2
+@Component
+public class ProcessOutputPump {
+
+  private final ThreadPoolTaskExecutor processOutputPumpExecutor;
+
+  public ProcessOutputPump(
+      @Qualifier("processOutputPumpExecutor") ThreadPoolTaskExecutor processOutputPumpExecutor) {
+    this.processOutputPumpExecutor = processOutputPumpExecutor;
+  }
+
+  /**
+   * 启动两个泵线程，逐行把 stdout/stderr 交给对应的消费者。消费者在泵线程中执行，应保持轻量。
+   */
+  public PumpHandle start(Process process, Consumer<String> stdoutConsumer,
+      Consumer<String> stderrConsumer) {
+    CompletableFuture<Void> stdout = CompletableFuture.runAsync(
+        () -> drain(process.getInputStream(), stdoutConsumer), processOutputPumpExecutor);
+    CompletableFuture<Void> stderr = CompletableFuture.runAsync(
+        () -> drain(process.getErrorStream(), stderrConsumer), processOutputPumpExecutor);
+    return new PumpHandle(stdout, stderr);
+  }
+
+  private void drain(InputStream inputStream, Consumer<String> consumer) {
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        try {
+          consumer.accept(line);
+        } catch (Exception e) {
+          // 单行处理失败不能中断读取，否则管道会再次被写满
+          log.debug("处理进程输出行失败: {}", e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      log.debug("读取进程输出流结束: {}", e.getMessage());
+    }
+  }
+
+  public record PumpHandle(CompletableFuture<Void> stdout, CompletableFuture<Void> stderr) {
+
+    /**
+     * 等待两个流都读到 EOF，应在 {@link Process#waitFor()} 之后调用，确保拿到完整输出。
+     */
+    public void await() throws InterruptedException {
+      try {
+        CompletableFuture.allOf(stdout, stderr).get();
+      } catch (ExecutionException e) {
+        log.debug("进程输出泵异常结束: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package top.asimov.pigeon.helper;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+
+/**
+ * SQLite 单写线程队列。
+ *
+ * <p>下载状态变更频繁且分散在各个下载线程上，逐条提交时每条语句都要单独取一次写连接、单独落一次盘。
+ * 这里由唯一的写线程依次取出排队的写命令，把当时已排队的命令合并为一个事务提交（组提交），
+ * 同一批内对同一节目的连续状态写入只保留合并后的最后结果。调用方拿到的 {@link CompletableFuture}
+ * 在事务提交后才完成，完成即代表已落盘。</p>
+ *
+ * <p>事务走普通的单连接写连接池，与其他写入在连接池层面排队，不另开写连接，
+ * 也不在 SQLite 层面靠重试互相等待。等待 future 的线程不能持有写事务，否则写线程拿不到连接，
+ * 因此在写事务中提交命令会直接抛出异常。</p>
+ */
+@Log4j2
+@Component
+public class SqliteWriteQueue {
+
+  private static final int MAX_BATCH_SIZE = 256;
+  private static final String EPISODE_UPDATE = "episode-update";
+  private static final String EPISODE_STATUS = "episode-status";
+  // updateById 对这些字段为空时不写入，合并时需要保留先前命令中的非空值
+  private static final List<Field> NULL_SKIPPED_EPISODE_FIELDS = resolveNullSkippedFields();
+
+  private final EpisodeMapper episodeMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<WriteCommand> queue = new LinkedBlockingQueue<>();
+  private volatile boolean running;
+  private Thread writerThread;
+
+  public SqliteWriteQueue(EpisodeMapper episodeMapper, TransactionTemplate transactionTemplate) {
+    this.episodeMapper = episodeMapper;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @PostConstruct
+  public void start() {
+    running = true;
+    writerThread = new Thread(this::drainLoop, "PP-SqliteWriter");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    synchronized (this) {
+      running = false;
+    }
+    if (writerThread != null) {
+      writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /**
+   * 提交一个按顺序执行、不参与合并的写命令，例如带条件的状态切换。
+   *
+   * @param episodeId 命令涉及的节目；为空表示可能影响任意行
+   */
+  public <T> CompletableFuture<T> submit(String episodeId, Supplier<T> write) {
+    return enqueue(new WriteCommand(episodeId, null, null, write));
+  }
+
+  /**
+   * 以 {@code updateById} 语义持久化节目，同一批内对同一节目的连续更新合并为一次写入。
+   * 提交时复制节目快照，调用方之后对原对象的修改不影响本次写入。
+   */
+  public CompletableFuture<Void> submitEpisodeUpdate(Episode episode) {
+    Episode snapshot = new Episode();
+    BeanUtils.copyProperties(episode, snapshot);
+    return enqueue(new WriteCommand(episode.getId(), EPISODE_UPDATE, snapshot, null));
+  }
+
+  /**
+   * 设置节目下载状态并清空调度字段，同一批内对同一节目的连续设置只保留最后一次。
+   */
+  public CompletableFuture<Void> submitEpisodeStatus(String episodeId, String downloadStatus) {
+    return enqueue(new WriteCommand(episodeId, EPISODE_STATUS, downloadStatus, null));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> enqueue(WriteCommand command) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      throw new IllegalStateException("写事务中不能向写队列提交命令，写线程需要的正是当前持有的写连接");
+    }
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    command.futures.add(future);
+    synchronized (this) {
+      if (running) {
+        queue.add(command);
+        return (CompletableFuture<T>) future;
+      }
+    }
+    // 停机后写线程不再取命令，直接在调用线程执行，保证下载的最终状态仍能写入
+    commitBatch(List.of(command));
+    return (CompletableFuture<T>) future;
+  }
+
+  private void drainLoop() {
+    List<WriteCommand> pending = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      try {
+        WriteCommand first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+          continue;
+        }
+        pending.add(first);
+        queue.drainTo(pending, MAX_BATCH_SIZE - 1);
+        List<WriteCommand> batch = coalesce(pending);
+        if (batch.size() < pending.size()) {
+          log.debug("写队列合并命令: {} -> {}", pending.size(), batch.size());
+        }
+        commit(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        // 单批失败已在 commit 中落到对应 future，这里只防止写线程意外退出
+        log.error("写队列处理异常", e);
+      } finally {
+        pending.clear();
+      }
+    }
+  }
+
+  /**
+   * 合并同一节目上同类的相邻命令；不可合并的命令对其涉及的行形成屏障，
+   * 未指定行的命令对所有行形成屏障。合并后的命令保留在较早命令的位置。
+   */
+  static List<WriteCommand> coalesce(List<WriteCommand> commands) {
+    List<WriteCommand> result = new ArrayList<>(commands.size());
+    Map<String, WriteCommand> mergeable = new HashMap<>();
+    for (WriteCommand command : commands) {
+      if (command.episodeId == null) {
+        mergeable.clear();
+        result.add(command);
+        continue;
+      }
+      WriteCommand previous = mergeable.get(command.episodeId);
+      if (command.kind != null && previous != null && command.kind.equals(previous.kind)) {
+        previous.mergeFrom(command);
+        continue;
+      }
+      result.add(command);
+      if (command.kind != null) {
+        mergeable.put(command.episodeId, command);
+      } else {
+        mergeable.remove(command.episodeId);
+      }
+    }
+    return result;
+  }
+
+  private void commit(List<WriteCommand> batch) {
+    if (commitBatch(batch) || batch.size() == 1) {
+      return;
+    }
+    // 整批回滚时逐条重新提交，避免个别命令拖累同批其他写入
+    for (WriteCommand command : batch) {
+      commitBatch(List.of(command));
+    }
+  }
+
+  /**
+   * 在一个事务中执行整批命令。锁等待交给连接池排队和 busy_timeout，这里不再退避重试。
+   *
+   * @return false 表示多条命令的整批提交失败，调用方尚未收到结果；
+   *     单条命令失败时异常直接交给对应 future
+   */
+  private boolean commitBatch(List<WriteCommand> batch) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        for (WriteCommand command : batch) {
+          command.result = command.execute(episodeMapper);
+        }
+      });
+    } catch (RuntimeException e) {
+      log.warn("写队列提交失败: 命令数={}, 错误={}", batch.size(), e.getMessage());
+      if (batch.size() == 1) {
+        batch.get(0).completeExceptionally(e);
+      }
+      return false;
+    }
+    batch.forEach(WriteCommand::complete);
+    return true;
+  }
+
+  /**
+   * 依次执行两次 updateById 的效果：后一次非空的字段覆盖前一次，后一次为空且会被跳过的字段沿用前一次的值。
+   */
+  static Episode mergeEpisodeUpdates(Episode earlier, Episode later) {
+    for (Field field : NULL_SKIPPED_EPISODE_FIELDS) {
+      try {
+        if (field.get(later) == null) {
+          field.set(later, field.get(earlier));
+        }
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return later;
+  }
+
+  private static List<Field> resolveNullSkippedFields() {
+    List<Field> fields = new ArrayList<>();
+    for (Field field : Episode.class.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+        continue;
+      }
+      TableField tableField = field.getAnnotation(TableField.class);
+      if (tableField != null && (!tableField.exist()
+          || tableField.updateStrategy() == FieldStrategy.ALWAYS
+          || tableField.updateStrategy() == FieldStrategy.NEVER)) {
+        continue;
+      }
+      field.setAccessible(true);
+      fields.add(field);
+    }
+    return fields;
+  }
+
+  static final class WriteCommand {
+
+    private final String episodeId;
+    // 可合并命令的类型，为空表示不可合并
+    private final String kind;
+    private final Supplier<?> write;
+    private final Collection<CompletableFuture<Object>> futures = new ArrayList<>(1);
+    private Object payload;
+    private Object result;
+
+    WriteCommand(String episodeId, String kind, Object payload, Supplier<?> write) {
+      this.episodeId = episodeId;
+      this.kind = kind;
+      this.payload = payload;
+      this.write = write;
+    }
+
+    private void mergeFrom(WriteCommand later) {
+      payload = EPISODE_UPDATE.equals(kind)
+          ? mergeEpisodeUpdates((Episode) payload, (Episode) later.payload)
+          : later.payload;
+      futures.addAll(later.futures);
+    }
+
+    private Object execute(EpisodeMapper episodeMapper) {
+      if (EPISODE_UPDATE.equals(kind)) {
+        episodeMapper.updateById((Episode) payload);
+        return null;
+      }
+      if (EPISODE_STATUS.equals(kind)) {
+        episodeMapper.updateDownloadStatusAndClearSchedulingFields(episodeId, (String) payload);
+        return null;
+      }
+      return write.get();
+    }
+
+    private void complete() {
+      futures.forEach(future -> future.complete(result));
+    }
+
+    private void completeExceptionally(Throwable error) {
+      futures.forEach(future -> future.completeExceptionally(error));
+    }
+  }
+}
@@ -1,89 +1,79 @@
 package top.asimov.pigeon.helper;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import top.asimov.pigeon.mapper.EpisodeMapper;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.enums.EpisodeStatus;
 
 /**
- * 独立的Spring Bean，专门用于处理事务性状态变更，确保REQUIRES_NEW事务生效。
+ * 下载状态机的状态变更入口，所有写入经 {@link SqliteWriteQueue} 串行化，由写线程在自己的事务中提交，
+ * 不加入调用方的事务。
  */
 @Log4j2
 @Service
 public class TaskStatusHelper {
 
+  // READY 表示未排队或已被取消，调度器不应再把它转为下载中
+  private static final List<String> DOWNLOADABLE_STATUSES = List.of(
+      EpisodeStatus.PENDING.name(), EpisodeStatus.FAILED.name());
+
   private final EpisodeMapper episodeMapper;
+  private final SqliteWriteQueue sqliteWriteQueue;
 
-  public TaskStatusHelper(EpisodeMapper episodeMapper) {
+  public TaskStatusHelper(EpisodeMapper episodeMapper, SqliteWriteQueue sqliteWriteQueue) {
     this.episodeMapper = episodeMapper;
+    this.sqliteWriteQueue = sqliteWriteQueue;
   }
 
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  @Retryable(
-      retryFor = {Exception.class},
-      maxAttempts = 5,
-      backoff = @Backoff(delay = 200, multiplier = 2, maxDelay = 2000))
   public boolean tryMarkDownloading(String episodeId) {
     try {
-      Episode episode = episodeMapper.selectById(episodeId);
-      if (episode == null) {
-        return false;
-      }
-      if (!List.of(EpisodeStatus.READY.name(), EpisodeStatus.PENDING.name(),
-              EpisodeStatus.FAILED.name())
-          .contains(episode.getDownloadStatus())) {
-        return false;
-      }
-      episodeMapper.updateDownloadStatusAndClearSchedulingFields(
-          episodeId, EpisodeStatus.DOWNLOADING.name());
-      return true;
+      return sqliteWriteQueue.submit(episodeId,
+          () -> episodeMapper.updateDownloadStatusIfCurrent(episodeId, DOWNLOADABLE_STATUSES,
+              EpisodeStatus.DOWNLOADING.name()) > 0).join();
     } catch (Exception e) {
       log.warn("标记为DOWNLOADING失败: {}", episodeId, e);
       throw e;
     }
   }
 
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  @Retryable(
-      retryFor = {Exception.class},
-      maxAttempts = 5,
-      backoff = @Backoff(delay = 200, multiplier = 2, maxDelay = 2000))
   public void rollbackFromDownloadingToPending(String episodeId) {
     try {
-      Episode episode = episodeMapper.selectById(episodeId);
-      if (episode != null && EpisodeStatus.DOWNLOADING.name()
-          .equals(episode.getDownloadStatus())) {
-        episodeMapper.updateDownloadStatusAndClearSchedulingFields(
-            episodeId, EpisodeStatus.PENDING.name());
-      }
+      sqliteWriteQueue.submit(episodeId,
+          () -> episodeMapper.updateDownloadStatusIfCurrent(episodeId,
+              List.of(EpisodeStatus.DOWNLOADING.name()), EpisodeStatus.PENDING.name())).join();
     } catch (Exception e) {
-      log.warn("从DOWNLOADING回滚到PENDING失败，将重试: {}", episodeId, e);
+      log.warn("从DOWNLOADING回滚到PENDING失败: {}", episodeId, e);
       throw e;
     }
   }
 
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
-  @Retryable(
-      retryFor = {Exception.class},
-      maxAttempts = 5,
-      backoff = @Backoff(delay = 200, multiplier = 2, maxDelay = 2000))
+  /**
+   * 持久化节目状态并等待提交完成。整批提交失败时写队列会逐条重提，单条仍失败才抛出。
+   */
   public void persistEpisodeWithRetry(Episode episode) {
     if (episode == null || episode.getId() == null) {
       return;
     }
     try {
-      episodeMapper.updateById(episode);
+      persistEpisodeAsync(episode).join();
       log.debug("成功更新 Episode 状态: {} -> {}", episode.getId(), episode.getDownloadStatus());
     } catch (Exception e) {
-      log.warn("更新 Episode 状态失败，将重试: {} -> {}, 错误: {}",
+      log.warn("更新 Episode 状态失败: {} -> {}, 错误: {}",
           episode.getId(), episode.getDownloadStatus(), e.getMessage());
       throw e;
     }
   }
+
+  /**
+   * 提交节目状态写入但不等待，与同一节目随后的写入可能合并为一次提交。
+   */
+  public CompletableFuture<Void> persistEpisodeAsync(Episode episode) {
+    if (episode == null || episode.getId() == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return sqliteWriteQueue.submitEpisodeUpdate(episode);
+  }
 }
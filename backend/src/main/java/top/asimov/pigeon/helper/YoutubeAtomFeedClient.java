@@ -0,0 +1,128 @@
+package top.asimov.pigeon.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import top.asimov.pigeon.config.OutboundProxyHolder;
+import top.asimov.pigeon.config.OutboundProxyHolder.OutboundProxySettings;
+import top.asimov.pigeon.config.ProxyExecutionScope;
+import top.asimov.pigeon.config.YoutubeAtomFeedProperties;
+
+/**
+ * 读取 YouTube 频道公开的上传 Atom 订阅（最近 15 个视频），不消耗 Data API 配额。
+ *
+ * <p>带上次响应的 ETag / Last-Modified 发起条件请求，内容未变化时服务端返回 304。</p>
+ */
+@Log4j2
+@Component
+public class YoutubeAtomFeedClient {
+
+  private static final String YOUTUBE_NAMESPACE = "http://www.youtube.com/xml/schemas/2015";
+
+  private final YoutubeAtomFeedProperties properties;
+  private final OutboundProxyHolder proxyHolder;
+
+  public YoutubeAtomFeedClient(YoutubeAtomFeedProperties properties,
+      OutboundProxyHolder proxyHolder) {
+    this.properties = properties;
+    this.proxyHolder = proxyHolder;
+  }
+
+  public AtomFeedResult fetchUploads(String channelId, Validators validators) throws IOException {
+    String url = properties.getBaseUrl() + "?channel_id="
+        + URLEncoder.encode(channelId, StandardCharsets.UTF_8);
+    HttpURLConnection connection =
+        (HttpURLConnection) URI.create(url).toURL().openConnection(resolveProxy());
+    int timeoutMillis = Math.max(1, properties.getTimeoutSeconds()) * 1000;
+    connection.setConnectTimeout(timeoutMillis);
+    connection.setReadTimeout(timeoutMillis);
+    connection.setUseCaches(false);
+    if (validators != null && StringUtils.hasText(validators.etag())) {
+      connection.setRequestProperty("If-None-Match", validators.etag());
+    }
+    if (validators != null && StringUtils.hasText(validators.lastModified())) {
+      connection.setRequestProperty("If-Modified-Since", validators.lastModified());
+    }
+
+    try {
+      int status = connection.getResponseCode();
+      if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        return new AtomFeedResult(true, List.of(), validators);
+      }
+      if (status != HttpURLConnection.HTTP_OK) {
+        throw new IOException("YouTube Atom feed request failed: HTTP " + status);
+      }
+      List<String> videoIds;
+      try (InputStream body = connection.getInputStream()) {
+        videoIds = parseVideoIds(body);
+      }
+      Validators responseValidators = new Validators(connection.getHeaderField("ETag"),
+          connection.getHeaderField("Last-Modified"));
+      return new AtomFeedResult(false, videoIds, responseValidators);
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private Proxy resolveProxy() {
+    OutboundProxySettings settings = ProxyExecutionScope.current();
+    if (settings == null) {
+      settings = proxyHolder.current();
+    }
+    return settings == null ? Proxy.NO_PROXY : settings.toJavaNetProxy();
+  }
+
+  static List<String> parseVideoIds(InputStream body) throws IOException {
+    try {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setNamespaceAware(true);
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      factory.setExpandEntityReferences(false);
+      DocumentBuilder builder = factory.newDocumentBuilder();
+      NodeList nodes = builder.parse(body).getElementsByTagNameNS(YOUTUBE_NAMESPACE, "videoId");
+      List<String> videoIds = new ArrayList<>(nodes.getLength());
+      for (int i = 0; i < nodes.getLength(); i++) {
+        String videoId = nodes.item(i).getTextContent();
+        if (StringUtils.hasText(videoId)) {
+          videoIds.add(videoId.trim());
+        }
+      }
+      return videoIds;
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new IOException("Invalid YouTube Atom feed: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 条件请求校验值。
+   */
+  public record Validators(String etag, String lastModified) {
+
+    public static final Validators NONE = new Validators(null, null);
+  }
+
+  /**
+   * @param notModified 服务端返回 304，videoIds 为空
+   * @param videoIds    订阅中的视频 ID，按发布时间倒序
+   */
+  public record AtomFeedResult(boolean notModified, List<String> videoIds,
+                               Validators validators) {
+
+  }
+}
@@ -1,7 +1,9 @@
 package top.asimov.pigeon.helper;
 
 import com.google.api.services.youtube.model.PlaylistItem;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.MessageSource;
@@ -10,6 +12,7 @@ import org.springframework.stereotype.Component;
 import top.asimov.pigeon.config.YoutubeApiKeyHolder;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.exception.YoutubeAutoSyncBlockedException;
+import top.asimov.pigeon.helper.YoutubeVideoHelper.PlaylistFetchResult;
 import top.asimov.pigeon.helper.YoutubeVideoHelper.VideoFetchConfig;
 import top.asimov.pigeon.model.entity.Episode;
 
@@ -72,6 +75,51 @@ public class YoutubeChannelHelper {
     return fetchVideosWithConditions(config, stopCondition, skipCondition);
   }
 
+  /**
+   * 增量获取频道最新一页视频：上传列表按发布时间倒序，遇到第一个已入库的视频即停止，
+   * 其后的视频均已处理过，不再请求 videos.list；首页带上次的 ETag 发起条件请求，未变化时直接返回。
+   *
+   * <p>之前因直播/预告被跳过的视频可能排在已入库视频之后，找到它们之前越过已入库视频继续向后看。</p>
+   *
+   * @param channelId      频道 ID
+   * @param firstPageEtag  上次首页响应的 ETag
+   * @param persistedVideo 判断视频是否已入库
+   * @param awaitedVideoIds 之前被跳过、仍需再次检查的视频 ID
+   */
+  public PlaylistFetchResult fetchYoutubeChannelVideosSinceKnown(String channelId,
+      String firstPageEtag, Predicate<String> persistedVideo, Set<String> awaitedVideoIds,
+      String containKeywords,
+      String excludeKeywords, String descriptionContainKeywords, String descriptionExcludeKeywords,
+      Integer minimalDuration, Integer maximumDuration) {
+    VideoFetchConfig config = new VideoFetchConfig(
+        channelId, null,
+        containKeywords, excludeKeywords,
+        descriptionContainKeywords, descriptionExcludeKeywords, minimalDuration, maximumDuration,
+        1
+    );
+    Set<String> awaiting = new HashSet<>(awaitedVideoIds);
+    Predicate<PlaylistItem> stopCondition = item -> {
+      String videoId = item.getSnippet().getResourceId().getVideoId();
+      awaiting.remove(videoId);
+      return awaiting.isEmpty() && persistedVideo.test(videoId);
+    };
+    Predicate<PlaylistItem> skipCondition = item -> !awaiting.isEmpty()
+        && persistedVideo.test(item.getSnippet().getResourceId().getVideoId());
+    try {
+      String youtubeApiKey = YoutubeApiKeyHolder.requireYoutubeApiKey(messageSource);
+      String playlistId = videoHelper.getUploadsPlaylistId(channelId, youtubeApiKey);
+      return videoHelper.fetchVideosFromPlaylistIfChanged(playlistId, config, stopCondition,
+          skipCondition, firstPageEtag);
+    } catch (Exception e) {
+      if (e instanceof YoutubeAutoSyncBlockedException autoSyncBlockedException) {
+        throw autoSyncBlockedException;
+      }
+      throw new BusinessException(
+          messageSource.getMessage("youtube.fetch.videos.error", new Object[]{e.getMessage()},
+              LocaleContextHolder.getLocale()));
+    }
+  }
+
   /**
    * 按 YouTube 返回的 page token 获取指定频道的一页历史视频。
    *
@@ -1,26 +1,46 @@
 package top.asimov.pigeon.helper;
 
 import com.google.api.client.googleapis.GoogleUtils;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.youtube.YouTube;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Component;
 import top.asimov.pigeon.config.OutboundProxyHolder;
 import top.asimov.pigeon.config.ProxyExecutionScope;
+import top.asimov.pigeon.model.response.YoutubeClientPoolStatsResponse;
 
+/**
+ * YouTube Data API 客户端工厂。
+ *
+ * <p>按生效的代理设置缓存客户端，同一路由复用同一个 transport 和 TLS 上下文，
+ * JDK 的 keep-alive 连接才能跨调用复用（SSLSocketFactory 不同的连接不会被复用）。
+ * 代理配置变更后由 {@code ProxyRuntimeConfigApplier} 清空。</p>
+ */
 @Log4j2
 @Component
 public class YoutubeServiceFactory {
 
   private static final String APPLICATION_NAME = "My YouTube App";
   private static final JacksonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+  // 临时代理（ProxyExecutionScope）也会进池，限制路由数避免无限增长
+  static final int MAX_POOLED_ROUTES = 8;
 
   private final OutboundProxyHolder proxyHolder;
+  private final Map<OutboundProxyHolder.OutboundProxySettings, YouTube> clients =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong clientsCreated = new AtomicLong();
+  private final AtomicLong clientReuses = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong connectionsOpened = new AtomicLong();
 
   public YoutubeServiceFactory(OutboundProxyHolder proxyHolder) {
     this.proxyHolder = proxyHolder;
@@ -34,15 +54,74 @@ public class YoutubeServiceFactory {
     return createClient(settings);
   }
 
+  /**
+   * 返回该路由的池化客户端，首次使用时创建。
+   */
   public YouTube createClient(OutboundProxyHolder.OutboundProxySettings settings) {
-    return createClient(settings, null);
+    OutboundProxyHolder.OutboundProxySettings route = routeOf(settings);
+    YouTube client = clients.get(route);
+    if (client != null) {
+      clientReuses.incrementAndGet();
+      return client;
+    }
+    synchronized (clients) {
+      client = clients.get(route);
+      if (client != null) {
+        clientReuses.incrementAndGet();
+        return client;
+      }
+      if (clients.size() >= MAX_POOLED_ROUTES) {
+        log.info("[YouTube API] client pool reached {} routes, clearing", MAX_POOLED_ROUTES);
+        clients.clear();
+      }
+      client = buildClient(route, request -> requests.incrementAndGet());
+      clients.put(route, client);
+      return client;
+    }
   }
 
+  /**
+   * 使用自定义请求初始化器创建独立客户端，不进池（如代理连通性测试需要单独的超时）。
+   */
   public YouTube createClient(OutboundProxyHolder.OutboundProxySettings settings,
       HttpRequestInitializer requestInitializer) {
+    return buildClient(routeOf(settings), requestInitializer);
+  }
+
+  /**
+   * 丢弃所有池化客户端，下次调用按当前代理设置重建。
+   */
+  public void invalidate() {
+    synchronized (clients) {
+      int size = clients.size();
+      clients.clear();
+      invalidations.incrementAndGet();
+      log.info("[YouTube API] client pool invalidated, dropped {} route(s)", size);
+    }
+  }
+
+  public YoutubeClientPoolStatsResponse stats() {
+    long requestCount = requests.get();
+    long opened = connectionsOpened.get();
+    double connectionReuseRatio = requestCount == 0
+        ? 0D : Math.max(0D, 1D - (double) opened / requestCount);
+    return YoutubeClientPoolStatsResponse.builder()
+        .routes(clients.size())
+        .clientsCreated(clientsCreated.get())
+        .clientReuses(clientReuses.get())
+        .invalidations(invalidations.get())
+        .requests(requestCount)
+        .connectionsOpened(opened)
+        .connectionReuseRatio(connectionReuseRatio)
+        .build();
+  }
+
+  private YouTube buildClient(OutboundProxyHolder.OutboundProxySettings route,
+      HttpRequestInitializer requestInitializer) {
     try {
-      log.info("[YouTube API] route={}", describeRoute(settings));
-      NetHttpTransport transport = buildTransport(settings);
+      log.info("[YouTube API] route={}", describeRoute(route));
+      NetHttpTransport transport = buildTransport(route);
+      clientsCreated.incrementAndGet();
       return new YouTube.Builder(transport, JSON_FACTORY, requestInitializer)
           .setApplicationName(APPLICATION_NAME)
           .build();
@@ -52,17 +131,27 @@ public class YoutubeServiceFactory {
     }
   }
 
-  private NetHttpTransport buildTransport(OutboundProxyHolder.OutboundProxySettings settings)
+  private NetHttpTransport buildTransport(OutboundProxyHolder.OutboundProxySettings route)
       throws GeneralSecurityException, IOException {
-    if (settings == null || !settings.enabled()) {
-      return GoogleNetHttpTransport.newTrustedTransport();
+    NetHttpTransport.Builder builder = new NetHttpTransport.Builder()
+        .trustCertificates(GoogleUtils.getCertificateTrustStore());
+    if (route.enabled()) {
+      builder.setProxy(route.toJavaNetProxy());
     }
-    return new NetHttpTransport.Builder()
-        .trustCertificates(GoogleUtils.getCertificateTrustStore())
-        .setProxy(settings.toJavaNetProxy())
+    return builder
+        .setSslSocketFactory(
+            new CountingSslSocketFactory(builder.getSslSocketFactory(), connectionsOpened))
         .build();
   }
 
+  private OutboundProxyHolder.OutboundProxySettings routeOf(
+      OutboundProxyHolder.OutboundProxySettings settings) {
+    if (settings == null || !settings.enabled()) {
+      return OutboundProxyHolder.OutboundProxySettings.disabled();
+    }
+    return settings;
+  }
+
   private String describeRoute(OutboundProxyHolder.OutboundProxySettings settings) {
     if (settings == null || !settings.enabled()) {
       return "direct";
@@ -0,0 +1,178 @@
+package top.asimov.pigeon.helper;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.asimov.pigeon.config.YoutubeAtomFeedProperties;
+import top.asimov.pigeon.helper.YoutubeAtomFeedClient.AtomFeedResult;
+import top.asimov.pigeon.helper.YoutubeAtomFeedClient.Validators;
+import top.asimov.pigeon.model.enums.YoutubeApiMethod;
+
+/**
+ * YouTube 频道增量同步前的零配额预检：先读频道的上传 Atom 订阅，其中的视频都已入库或已处理过时，
+ * 本轮不再调用 Data API。
+ *
+ * <p>每个频道记住最近一次完整处理过的 Atom 视频 ID（包括被过滤条件排除、未入库的视频）和条件请求校验值。
+ * 本轮待入库的新视频和因直播/预告被跳过的视频记为未决，不算处理过：之后每轮都按库中是否已存在重新判断，
+ * 同步失败或直播结束变成回放时不会漏掉。状态只在内存中，重启后每个频道多一次普通 GET。</p>
+ */
+@Log4j2
+@Component
+public class YoutubeUploadsPrecheck {
+
+  // 预检命中时省下的调用：上传列表 ID、首页 playlistItems、视频详情
+  public static final List<YoutubeApiMethod> SKIPPED_METHODS = List.of(
+      YoutubeApiMethod.CHANNELS_LIST,
+      YoutubeApiMethod.PLAYLIST_ITEMS_LIST,
+      YoutubeApiMethod.VIDEOS_LIST);
+
+  private final YoutubeAtomFeedClient atomFeedClient;
+  private final YoutubeAtomFeedProperties properties;
+  private final Map<String, ChannelState> states = new ConcurrentHashMap<>();
+
+  public YoutubeUploadsPrecheck(YoutubeAtomFeedClient atomFeedClient,
+      YoutubeAtomFeedProperties properties) {
+    this.atomFeedClient = atomFeedClient;
+    this.properties = properties;
+  }
+
+  /**
+   * 预检频道是否有新视频。
+   *
+   * @param knownIdsLookup 返回给定视频 ID 中已入库的部分
+   */
+  public Precheck check(String channelId, Function<Collection<String>, Set<String>> knownIdsLookup) {
+    if (!properties.isEnabled()) {
+      return Precheck.unavailable(channelId);
+    }
+    ChannelState state = states.get(channelId);
+    AtomFeedResult result;
+    try {
+      result = atomFeedClient.fetchUploads(channelId,
+          state == null ? Validators.NONE : state.validators());
+    } catch (IOException e) {
+      log.warn("读取频道 {} 的上传 Atom 订阅失败，回退到 Data API: {}", channelId, e.getMessage());
+      return Precheck.unavailable(channelId);
+    }
+
+    if (result.notModified()) {
+      if (state == null) {
+        return Precheck.unavailable(channelId);
+      }
+      if (state.unresolvedIds().isEmpty()) {
+        return new Precheck(channelId, Decision.UNCHANGED, state.validators(), state.entryIds(),
+            List.of());
+      }
+      // Atom 未变化，但仍有未决视频：已入库的视为处理完，其余继续走 Data API
+      Set<String> stored = knownIdsLookup.apply(state.unresolvedIds());
+      List<String> stillUnresolved = state.unresolvedIds().stream()
+          .filter(videoId -> !stored.contains(videoId))
+          .toList();
+      Precheck precheck = new Precheck(channelId,
+          stillUnresolved.isEmpty() ? Decision.UNCHANGED : Decision.CHANGED, state.validators(),
+          state.entryIds(), stillUnresolved);
+      if (precheck.unchanged()) {
+        remember(precheck, Set.of());
+      }
+      return precheck;
+    }
+
+    Set<String> handled = state == null ? Set.of() : state.handledIds();
+    List<String> candidates = result.videoIds().stream()
+        .filter(videoId -> !handled.contains(videoId))
+        .toList();
+    Set<String> known = candidates.isEmpty() ? Set.of() : knownIdsLookup.apply(candidates);
+    List<String> unknownIds = candidates.stream()
+        .filter(videoId -> !known.contains(videoId))
+        .toList();
+
+    Precheck precheck = new Precheck(channelId,
+        unknownIds.isEmpty() ? Decision.UNCHANGED : Decision.CHANGED, result.validators(),
+        Set.copyOf(result.videoIds()), unknownIds);
+    if (precheck.unchanged()) {
+      // 结论只依赖已提交的数据，可以立即记下
+      remember(precheck, Set.of());
+    }
+    return precheck;
+  }
+
+  /**
+   * Data API 同步成功后调用；处于事务中时在提交后才记下本次 Atom 的内容。
+   *
+   * @param unresolvedIds 本轮没有处理完的视频：待入库的新视频，以及因直播/预告被跳过的视频
+   */
+  public void acknowledge(Precheck precheck, Collection<String> unresolvedIds) {
+    if (precheck == null || precheck.decision() != Decision.CHANGED) {
+      return;
+    }
+    Set<String> unresolved = Set.copyOf(unresolvedIds);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      remember(precheck, unresolved);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        remember(precheck, unresolved);
+      }
+    });
+  }
+
+  /**
+   * 上一轮未决的视频 ID，包括因直播/预告被跳过、等待回放的视频。
+   */
+  public Set<String> unresolvedIds(String channelId) {
+    ChannelState state = states.get(channelId);
+    return state == null ? Set.of() : state.unresolvedIds();
+  }
+
+  public void forget(String channelId) {
+    states.remove(channelId);
+  }
+
+  private void remember(Precheck precheck, Set<String> unresolvedIds) {
+    Set<String> handled = precheck.entryIds().stream()
+        .filter(videoId -> !unresolvedIds.contains(videoId))
+        .collect(Collectors.toUnmodifiableSet());
+    Set<String> unresolved = precheck.entryIds().stream()
+        .filter(unresolvedIds::contains)
+        .collect(Collectors.toUnmodifiableSet());
+    states.put(precheck.channelId(),
+        new ChannelState(precheck.validators(), precheck.entryIds(), handled, unresolved));
+  }
+
+  public enum Decision {
+    // Atom 中没有未处理的视频，可以跳过 Data API
+    UNCHANGED,
+    // 出现新视频，需要走 Data API
+    CHANGED,
+    // 预检关闭或 Atom 读取失败，按原流程调用 Data API
+    UNAVAILABLE
+  }
+
+  public record Precheck(String channelId, Decision decision, Validators validators,
+                         Set<String> entryIds, List<String> newVideoIds) {
+
+    public static Precheck unavailable(String channelId) {
+      return new Precheck(channelId, Decision.UNAVAILABLE, Validators.NONE, Set.of(), List.of());
+    }
+
+    public boolean unchanged() {
+      return decision == Decision.UNCHANGED;
+    }
+  }
+
+  private record ChannelState(Validators validators, Set<String> entryIds, Set<String> handledIds,
+                              Set<String> unresolvedIds) {
+
+  }
+}
@@ -0,0 +1,351 @@
+package top.asimov.pigeon.helper;
+
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.model.Video;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import top.asimov.pigeon.config.OutboundProxyHolder;
+import top.asimov.pigeon.config.ProxyExecutionScope;
+import top.asimov.pigeon.config.YoutubeVideoCacheProperties;
+import top.asimov.pigeon.mapper.YoutubeVideoCacheMapper;
+import top.asimov.pigeon.model.entity.YoutubeVideoCache;
+import top.asimov.pigeon.model.enums.YoutubeApiCallContext;
+import top.asimov.pigeon.model.enums.YoutubeApiMethod;
+import top.asimov.pigeon.service.YoutubeQuotaService;
+
+/**
+ * videos.list 详情缓存，频道同步、播放列表同步和详情重试队列共用。
+ *
+ * <p>同一视频常同时出现在频道和多个播放列表中，命中 TTL 内的缓存即不再请求。缺失的 ID
+ * 进入共享待取队列，由正在取数的调用方按 50 个一批统一请求，并发请求同一 ID 只会发起一次调用。
+ * 待取队列按配额上下文和代理路由分开，调用方只会替同一上下文、同一路由的请求取数。
+ * 处于事务中的调用方不等待其他调用方的请求，直接自己取，避免持有写连接时阻塞。
+ * 直播中、即将直播的视频状态会变化，以及接口未返回的视频都不缓存。</p>
+ */
+@Log4j2
+@Component
+public class YoutubeVideoDetailCache {
+
+  // videos.list 单次最多 50 个 ID
+  static final int MAX_BATCH_SIZE = 50;
+  private static final JacksonFactory JSON_FACTORY = JacksonFactory.getDefaultInstance();
+  private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  private final YoutubeVideoCacheProperties properties;
+  private final YoutubeVideoCacheMapper cacheMapper;
+  private final YoutubeQuotaService youtubeQuotaService;
+  private final Clock clock;
+
+  private final Map<String, CachedVideo> entries = new ConcurrentHashMap<>();
+  // 配额上下文和代理路由的组合很少，按组合保留待取队列
+  private final Map<BatchRoute, BatchGroup> groups = new ConcurrentHashMap<>();
+  private final AtomicLong lastPurgeAt = new AtomicLong();
+
+  @Autowired
+  public YoutubeVideoDetailCache(YoutubeVideoCacheProperties properties,
+      YoutubeVideoCacheMapper cacheMapper, YoutubeQuotaService youtubeQuotaService) {
+    this(properties, cacheMapper, youtubeQuotaService, Clock.systemDefaultZone());
+  }
+
+  YoutubeVideoDetailCache(YoutubeVideoCacheProperties properties,
+      YoutubeVideoCacheMapper cacheMapper, YoutubeQuotaService youtubeQuotaService,
+      Clock clock) {
+    this.properties = properties;
+    this.cacheMapper = cacheMapper;
+    this.youtubeQuotaService = youtubeQuotaService;
+    this.clock = clock;
+  }
+
+  /**
+   * 按 ID 取视频详情，缓存未命中的部分通过 loader 批量请求。
+   *
+   * @return 视频 ID 到详情的映射，接口未返回的 ID 不在结果中
+   */
+  public Map<String, Video> getAll(List<String> videoIds, BatchLoader loader) throws IOException {
+    if (CollectionUtils.isEmpty(videoIds)) {
+      return Collections.emptyMap();
+    }
+    if (!properties.isEnabled()) {
+      return loadDirectly(new ArrayList<>(new LinkedHashSet<>(videoIds)), loader);
+    }
+
+    Map<String, Video> result = new LinkedHashMap<>();
+    List<String> missing = new ArrayList<>();
+    Instant now = clock.instant();
+    for (String videoId : new LinkedHashSet<>(videoIds)) {
+      CachedVideo cached = entries.get(videoId);
+      if (cached != null && cached.expiresAt().isAfter(now)) {
+        result.put(videoId, cached.video());
+      } else {
+        missing.add(videoId);
+      }
+    }
+    if (!missing.isEmpty() && properties.isPersistent()) {
+      missing.removeAll(loadPersisted(missing, result));
+    }
+    if (missing.isEmpty()) {
+      youtubeQuotaService.recordSaved(List.of(YoutubeApiMethod.VIDEOS_LIST));
+      return result;
+    }
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      Map<String, Video> loaded = loadDirectly(missing, loader);
+      store(loaded.values());
+      result.putAll(loaded);
+      return result;
+    }
+
+    BatchGroup group = groups.computeIfAbsent(
+        new BatchRoute(YoutubeQuotaContextHolder.get(), ProxyExecutionScope.current()),
+        route -> new BatchGroup());
+    Map<String, CompletableFuture<Video>> waits = new LinkedHashMap<>();
+    boolean owner = false;
+    for (String videoId : missing) {
+      CompletableFuture<Video> future = new CompletableFuture<>();
+      CompletableFuture<Video> existing = group.inFlight().putIfAbsent(videoId, future);
+      if (existing != null) {
+        waits.put(videoId, existing);
+      } else {
+        waits.put(videoId, future);
+        group.pending().add(videoId);
+        owner = true;
+      }
+    }
+
+    boolean called = false;
+    if (owner) {
+      lingerForBatch(group);
+      called = drainPending(group, loader);
+    }
+    awaitAll(waits, result);
+    if (!called) {
+      // 全部由其他调用方的请求带回
+      youtubeQuotaService.recordSaved(List.of(YoutubeApiMethod.VIDEOS_LIST));
+    }
+    return result;
+  }
+
+  private Map<String, Video> loadDirectly(List<String> videoIds, BatchLoader loader)
+      throws IOException {
+    Map<String, Video> result = new LinkedHashMap<>();
+    for (int start = 0; start < videoIds.size(); start += MAX_BATCH_SIZE) {
+      List<String> batch = videoIds.subList(start,
+          Math.min(start + MAX_BATCH_SIZE, videoIds.size()));
+      result.putAll(loader.load(batch));
+    }
+    return result;
+  }
+
+  private void lingerForBatch(BatchGroup group) {
+    long lingerMillis = properties.getBatchLinger().toMillis();
+    if (lingerMillis <= 0 || group.pending().size() >= MAX_BATCH_SIZE) {
+      return;
+    }
+    try {
+      Thread.sleep(lingerMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * 取走同组待取队列中的 ID（可能包含其他调用方的）逐批请求，返回是否实际调用了接口。
+   */
+  private boolean drainPending(BatchGroup group, BatchLoader loader) {
+    boolean called = false;
+    while (true) {
+      List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+      String videoId;
+      while (batch.size() < MAX_BATCH_SIZE && (videoId = group.pending().poll()) != null) {
+        batch.add(videoId);
+      }
+      if (batch.isEmpty()) {
+        return called;
+      }
+      called = true;
+      try {
+        Map<String, Video> loaded = loader.load(batch);
+        store(loaded.values());
+        for (String id : batch) {
+          complete(group, id, loaded.get(id), null);
+        }
+      } catch (IOException | RuntimeException e) {
+        for (String id : batch) {
+          complete(group, id, null, e);
+        }
+      }
+    }
+  }
+
+  private void complete(BatchGroup group, String videoId, Video video, Exception error) {
+    CompletableFuture<Video> future = group.inFlight().remove(videoId);
+    if (future == null) {
+      return;
+    }
+    if (error != null) {
+      future.completeExceptionally(error);
+    } else {
+      future.complete(video);
+    }
+  }
+
+  private void awaitAll(Map<String, CompletableFuture<Video>> waits, Map<String, Video> result)
+      throws IOException {
+    long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+    for (Map.Entry<String, CompletableFuture<Video>> wait : waits.entrySet()) {
+      try {
+        long remaining = Math.max(0L, deadline - System.nanoTime());
+        Video video = wait.getValue().get(remaining, TimeUnit.NANOSECONDS);
+        if (video != null) {
+          result.put(wait.getKey(), video);
+        }
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioException) {
+          throw ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new IOException(cause.getMessage(), cause);
+      } catch (TimeoutException e) {
+        throw new IOException("Timed out waiting for in-flight videos.list of " + wait.getKey());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted waiting for videos.list", e);
+      }
+    }
+  }
+
+  private void store(Collection<Video> videos) {
+    Instant now = clock.instant();
+    Instant expiresAt = now.plus(properties.getTtl());
+    List<YoutubeVideoCache> rows = new ArrayList<>();
+    for (Video video : videos) {
+      if (!isCacheable(video)) {
+        continue;
+      }
+      entries.put(video.getId(), new CachedVideo(video, expiresAt));
+      if (properties.isPersistent()) {
+        try {
+          rows.add(YoutubeVideoCache.builder()
+              .videoId(video.getId())
+              .payload(JSON_FACTORY.toString(video))
+              .fetchedAt(LocalDateTime.now(clock))
+              .build());
+        } catch (IOException e) {
+          log.warn("序列化视频 {} 详情失败，不写入持久缓存: {}", video.getId(), e.getMessage());
+        }
+      }
+    }
+    evictIfFull(now);
+    if (!rows.isEmpty()) {
+      persist(rows);
+    }
+  }
+
+  private boolean isCacheable(Video video) {
+    if (video == null || !StringUtils.hasText(video.getId()) || video.getSnippet() == null) {
+      return false;
+    }
+    String liveBroadcastContent = video.getSnippet().getLiveBroadcastContent();
+    return !"live".equalsIgnoreCase(liveBroadcastContent)
+        && !"upcoming".equalsIgnoreCase(liveBroadcastContent);
+  }
+
+  private void evictIfFull(Instant now) {
+    int maxEntries = Math.max(1, properties.getMaxEntries());
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+    entries.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+    Iterator<String> iterator = entries.keySet().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private List<String> loadPersisted(List<String> videoIds, Map<String, Video> result) {
+    List<String> found = new ArrayList<>();
+    LocalDateTime freshAfter = LocalDateTime.now(clock).minus(properties.getTtl());
+    try {
+      for (YoutubeVideoCache row : cacheMapper.selectFresh(videoIds, freshAfter)) {
+        Video video = JSON_FACTORY.fromString(row.getPayload(), Video.class);
+        Instant expiresAt = row.getFetchedAt().atZone(clock.getZone()).toInstant()
+            .plus(properties.getTtl());
+        entries.put(row.getVideoId(), new CachedVideo(video, expiresAt));
+        result.put(row.getVideoId(), video);
+        found.add(row.getVideoId());
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("读取视频详情持久缓存失败，改为请求 videos.list: {}", e.getMessage());
+    }
+    return found;
+  }
+
+  private void persist(List<YoutubeVideoCache> rows) {
+    try {
+      cacheMapper.upsertBatch(rows);
+      long nowMillis = clock.millis();
+      long last = lastPurgeAt.get();
+      if (nowMillis - last >= PURGE_INTERVAL_MILLIS && lastPurgeAt.compareAndSet(last, nowMillis)) {
+        int purged = cacheMapper.deleteExpired(LocalDateTime.now(clock).minus(properties.getTtl()));
+        if (purged > 0) {
+          log.info("清理过期视频详情缓存 {} 条", purged);
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("写入视频详情持久缓存失败: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 实际发起 videos.list，一次不超过 50 个 ID。
+   */
+  @FunctionalInterface
+  public interface BatchLoader {
+
+    Map<String, Video> load(List<String> videoIds) throws IOException;
+  }
+
+  private record CachedVideo(Video video, Instant expiresAt) {
+
+  }
+
+  private record BatchRoute(YoutubeApiCallContext callContext,
+                            OutboundProxyHolder.OutboundProxySettings proxy) {
+
+  }
+
+  private record BatchGroup(Map<String, CompletableFuture<Video>> inFlight,
+                            Queue<String> pending) {
+
+    BatchGroup() {
+      this(new ConcurrentHashMap<>(), new ConcurrentLinkedQueue<>());
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package top.asimov.pigeon.helper;
 
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.ChannelListResponse;
 import com.google.api.services.youtube.model.PlaylistItem;
@@ -14,9 +16,11 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -42,13 +46,16 @@ public class YoutubeVideoHelper {
   private final YoutubeApiExecutor youtubeApiExecutor;
   private final YoutubeServiceFactory youtubeServiceFactory;
   private final ProxyExecutionScope proxyExecutionScope;
+  private final YoutubeVideoDetailCache videoDetailCache;
 
   public YoutubeVideoHelper(MessageSource messageSource, YoutubeApiExecutor youtubeApiExecutor,
-      YoutubeServiceFactory youtubeServiceFactory, ProxyExecutionScope proxyExecutionScope) {
+      YoutubeServiceFactory youtubeServiceFactory, ProxyExecutionScope proxyExecutionScope,
+      YoutubeVideoDetailCache videoDetailCache) {
     this.messageSource = messageSource;
     this.youtubeApiExecutor = youtubeApiExecutor;
     this.youtubeServiceFactory = youtubeServiceFactory;
     this.proxyExecutionScope = proxyExecutionScope;
+    this.videoDetailCache = videoDetailCache;
   }
 
   /**
@@ -63,19 +70,48 @@ public class YoutubeVideoHelper {
    */
   public List<Episode> fetchVideosFromPlaylist(String playlistId, VideoFetchConfig config,
       Predicate<PlaylistItem> stopCondition, Predicate<PlaylistItem> skipCondition) throws IOException {
+    return fetchVideosFromPlaylistIfChanged(playlistId, config, stopCondition, skipCondition, null)
+        .episodes();
+  }
+
+  /**
+   * 同 {@link #fetchVideosFromPlaylist}，首页带上次的 ETag 发起条件请求；首页未变化时返回
+   * notModified，不再请求 videos.list。结果中另外带回因直播/预告被跳过的视频 ID，
+   * 这些视频结束直播后仍需再次抓取。
+   *
+   * @param firstPageEtag 上次首页响应的 ETag，为空时发起普通请求
+   */
+  public PlaylistFetchResult fetchVideosFromPlaylistIfChanged(String playlistId,
+      VideoFetchConfig config, Predicate<PlaylistItem> stopCondition,
+      Predicate<PlaylistItem> skipCondition, String firstPageEtag) throws IOException {
     try {
       return proxyExecutionScope.callWithCurrentProxy(() -> {
         YouTube youtubeService = youtubeServiceFactory.createCurrentClient();
         String youtubeApiKey = YoutubeApiKeyHolder.requireYoutubeApiKey(messageSource);
         List<Episode> resultEpisodes = new ArrayList<>();
+        Set<String> skippedLiveIds = new LinkedHashSet<>();
         String nextPageToken = "";
+        String responseEtag = null;
         int currentPage = 0;
         boolean shouldStop = false;
 
         while (currentPage < config.maxPagesToCheck()) {
           long pageSize = 50L;
-          PlaylistItemListResponse response = fetchPlaylistPage(
-              youtubeService, playlistId, pageSize, nextPageToken, youtubeApiKey);
+          PlaylistItemListResponse response;
+          if (currentPage == 0 && StringUtils.hasText(firstPageEtag)) {
+            response = fetchPlaylistPageIfChanged(youtubeService, playlistId, pageSize,
+                youtubeApiKey, firstPageEtag);
+            if (response == null) {
+              log.info("播放列表 {} 首页未变化（304），跳过本次抓取", playlistId);
+              return new PlaylistFetchResult(Collections.emptyList(), firstPageEtag, true, Set.of());
+            }
+          } else {
+            response = fetchPlaylistPage(
+                youtubeService, playlistId, pageSize, nextPageToken, youtubeApiKey);
+          }
+          if (currentPage == 0) {
+            responseEtag = response.getEtag();
+          }
 
           List<PlaylistItem> pageItems = response.getItems();
           if (pageItems == null || pageItems.isEmpty()) {
@@ -112,6 +148,10 @@ public class YoutubeVideoHelper {
           for (PlaylistItem item : itemsToProcess) {
             String videoId = item.getSnippet().getResourceId().getVideoId();
             Video video = videoDetailsMap.get(videoId);
+            if (video != null && video.getSnippet() != null && shouldSkipLiveContent(video)) {
+              skippedLiveIds.add(videoId);
+              continue;
+            }
 
             Optional<Episode> episodeOptional = buildEpisodeIfSyncable(item, video, config);
             episodeOptional.ifPresent(resultEpisodes::add);
@@ -135,7 +175,7 @@ public class YoutubeVideoHelper {
           log.warn("已检查 {} 页视频，停止继续搜索", config.maxPagesToCheck());
         }
 
-        return resultEpisodes;
+        return new PlaylistFetchResult(resultEpisodes, responseEtag, false, skippedLiveIds);
       });
     } catch (IOException e) {
       throw e;
@@ -387,8 +427,40 @@ public class YoutubeVideoHelper {
     return youtubeApiExecutor.execute(YoutubeApiMethod.PLAYLIST_ITEMS_LIST, request::execute);
   }
 
+  /**
+   * 带 If-None-Match 请求首页，未变化时返回 null。
+   */
+  private PlaylistItemListResponse fetchPlaylistPageIfChanged(YouTube youtubeService,
+      String playlistId, long pageSize, String youtubeApiKey, String etag) throws IOException {
+    YouTube.PlaylistItems.List request = youtubeService.playlistItems()
+        .list("snippet")
+        .setPlaylistId(playlistId)
+        .setMaxResults(pageSize)
+        .setKey(youtubeApiKey);
+    request.setRequestHeaders(request.getRequestHeaders().setIfNoneMatch(etag));
+    log.info("[YouTube API] playlistItems.list(snippet) playlistId={} maxResults={} If-None-Match",
+        playlistId, pageSize);
+    try {
+      return youtubeApiExecutor.execute(YoutubeApiMethod.PLAYLIST_ITEMS_LIST, request::execute);
+    } catch (HttpResponseException e) {
+      if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * 所有视频详情查询都经过 {@link YoutubeVideoDetailCache}，未命中的 ID 才会请求 videos.list
+   */
   private Map<String, Video> fetchVideoDetailsInBulk(YouTube youtubeService, List<String> videoIds, String apiKey)
       throws IOException {
+    return videoDetailCache.getAll(videoIds,
+        batch -> requestVideoDetails(youtubeService, batch, apiKey));
+  }
+
+  private Map<String, Video> requestVideoDetails(YouTube youtubeService, List<String> videoIds,
+      String apiKey) throws IOException {
     if (CollectionUtils.isEmpty(videoIds)) {
       return Collections.emptyMap();
     }
@@ -502,6 +574,15 @@ public class YoutubeVideoHelper {
 
   }
 
+  /**
+   * @param firstPageEtag 首页响应的 ETag，供下次条件请求使用
+   * @param notModified   首页未变化，episodes 为空
+   */
+  public record PlaylistFetchResult(List<Episode> episodes, String firstPageEtag,
+                                    boolean notModified, Set<String> skippedLiveIds) {
+
+  }
+
   public record PlaylistPageFetchResult(List<Episode> episodes, String nextPageToken, boolean exhausted) {
 
   }
@@ -1,16 +1,17 @@
 package top.asimov.pigeon.listener;
 
-import java.util.List;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import top.asimov.pigeon.event.DownloadDeadlineEvent;
 import top.asimov.pigeon.event.DownloadTaskEvent;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadAction;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadTargetType;
 import top.asimov.pigeon.event.EpisodesCreatedEvent;
-import top.asimov.pigeon.helper.DownloadTaskHelper;
+import top.asimov.pigeon.helper.DownloadDispatcher;
+import top.asimov.pigeon.helper.FeedSyncCoordinator;
 import top.asimov.pigeon.service.ChannelService;
 import top.asimov.pigeon.service.PlaylistService;
 
@@ -18,13 +19,16 @@ import top.asimov.pigeon.service.PlaylistService;
 @Component
 public class EpisodeEventListener {
 
-  private final DownloadTaskHelper downloadTaskHelper;
+  private final DownloadDispatcher downloadDispatcher;
   private final ChannelService channelService;
   private final PlaylistService playlistService;
+  private final FeedSyncCoordinator feedSyncCoordinator;
 
-  public EpisodeEventListener(DownloadTaskHelper downloadTaskHelper,
-      ChannelService channelService, PlaylistService playlistService) {
-    this.downloadTaskHelper = downloadTaskHelper;
+  public EpisodeEventListener(DownloadDispatcher downloadDispatcher,
+      ChannelService channelService, PlaylistService playlistService,
+      FeedSyncCoordinator feedSyncCoordinator) {
+    this.downloadDispatcher = downloadDispatcher;
+    this.feedSyncCoordinator = feedSyncCoordinator;
     this.channelService = channelService;
     this.playlistService = playlistService;
   }
@@ -32,47 +36,21 @@ public class EpisodeEventListener {
   @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
   public void handleEpisodesCreated(EpisodesCreatedEvent event) {
     log.info(
-        "监听到事务已提交的 EpisodesCreatedEvent 事件，开始处理下载任务: context={}, total={}, episodeIds={}",
+        "监听到事务已提交的 EpisodesCreatedEvent 事件，加入下载调度队列: context={}, priority={}, feedId={}, total={}, episodeIds={}",
         event.getContext(),
+        event.getPriority(),
+        event.getFeedId(),
         event.getEpisodeIds().size(),
         event.getEpisodeIds());
-    List<String> episodeIds = event.getEpisodeIds();
-    int submittedCount = 0;
-    int deferredCount = 0;
-    int failedCount = 0;
-    List<String> submittedIds = new java.util.ArrayList<>();
-    List<String> deferredIds = new java.util.ArrayList<>();
-    List<String> failedIds = new java.util.ArrayList<>();
-
-    for (String episodeId : episodeIds) {
-      try {
-        boolean submitted = downloadTaskHelper.submitDownloadTask(episodeId);
-        if (submitted) {
-          submittedCount++;
-          submittedIds.add(episodeId);
-        } else {
-          deferredCount++;
-          deferredIds.add(episodeId);
-        }
-      } catch (Exception e) {
-        failedCount++;
-        failedIds.add(episodeId);
-        log.warn("即时提交下载任务失败，保留给后续调度补位: episodeId={}", episodeId, e);
-      }
-    }
+    // 只入队不提交，避免在提交后回调中占用事务连接等待下载线程池
+    downloadDispatcher.enqueue(event.getEpisodeIds(), event.getPriority(), event.getFeedId());
+  }
 
-    if (submittedCount > 0 || deferredCount > 0 || failedCount > 0) {
-      log.info(
-          "EpisodesCreatedEvent 处理完成: context={}, total={}, submitted={}, deferred={}, failed={}, submittedIds={}, deferredIds={}, failedIds={}",
-          event.getContext(),
-          episodeIds.size(),
-          submittedCount,
-          deferredCount,
-          failedCount,
-          submittedIds,
-          deferredIds,
-          failedIds);
-    }
+  // 下载失败在事务外落库，也需要登记重试计时
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void handleDownloadDeadline(DownloadDeadlineEvent event) {
+    log.debug("登记下载到期计时: type={}, total={}", event.getType(), event.getDeadlines().size());
+    downloadDispatcher.schedule(event.getType(), event.getDeadlines());
   }
 
   @Async
@@ -90,13 +68,14 @@ public class EpisodeEventListener {
   private void handleChannelTask(DownloadTaskEvent event) {
     log.info("监听到频道下载任务事件，频道ID: {}, 类型: {}", event.getTargetId(), event.getAction());
     if (event.getAction() == DownloadAction.INIT) {
-      channelService.processChannelInitializationAsync(
-          event.getTargetId(),
-          event.getDownloadNumber(),
-          event.getTitleContainKeywords(),
-          event.getTitleExcludeKeywords(),
-          event.getMinimumDuration(),
-          event.getMaximumDuration());
+      feedSyncCoordinator.runExclusive(event.getTargetId(), () ->
+          channelService.processChannelInitializationAsync(
+              event.getTargetId(),
+              event.getDownloadNumber(),
+              event.getTitleContainKeywords(),
+              event.getTitleExcludeKeywords(),
+              event.getMinimumDuration(),
+              event.getMaximumDuration()));
     }
   }
 
@@ -104,15 +83,16 @@ public class EpisodeEventListener {
     log.info("监听到播放列表下载任务事件，播放列表ID: {}, 类型: {}", event.getTargetId(),
         event.getAction());
     if (event.getAction() == DownloadAction.INIT) {
-      playlistService.processPlaylistInitializationAsync(
-          event.getTargetId(),
-          event.getDownloadNumber(),
-          event.getTitleContainKeywords(),
-          event.getTitleExcludeKeywords(),
-          event.getDescriptionContainKeywords(),
-          event.getDescriptionExcludeKeywords(),
-          event.getMinimumDuration(),
-          event.getMaximumDuration());
+      feedSyncCoordinator.runExclusive(event.getTargetId(), () ->
+          playlistService.processPlaylistInitializationAsync(
+              event.getTargetId(),
+              event.getDownloadNumber(),
+              event.getTitleContainKeywords(),
+              event.getTitleExcludeKeywords(),
+              event.getDescriptionContainKeywords(),
+              event.getDescriptionExcludeKeywords(),
+              event.getMinimumDuration(),
+              event.getMaximumDuration()));
     }
   }
 
@@ -1,8 +1,11 @@
 package top.asimov.pigeon.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import top.asimov.pigeon.model.entity.Channel;
 
 public interface ChannelMapper extends BaseMapper<Channel> {
@@ -30,4 +33,18 @@ public interface ChannelMapper extends BaseMapper<Channel> {
       "GROUP BY c.id, c.title, c.maximum_episodes " +
       "HAVING COUNT(e.id) > c.maximum_episodes")
   java.util.List<java.util.Map<String, Object>> selectChannelCompletedOverLimit();
+
+  /**
+   * 按下次同步时间取出已到期的订阅，最早到期的优先。
+   */
+  @Select("SELECT * FROM channel "
+      + "WHERE next_sync_at IS NULL OR next_sync_at <= #{now} "
+      + "ORDER BY next_sync_at ASC LIMIT #{limit}")
+  List<Channel> selectDueForSync(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  @Update("UPDATE channel SET next_sync_at = #{nextSyncAt} WHERE id = #{id}")
+  int updateNextSyncAt(@Param("id") String id, @Param("nextSyncAt") LocalDateTime nextSyncAt);
+
+  @Update("UPDATE channel SET uploads_page_etag = NULL WHERE id = #{id}")
+  int clearUploadsPageEtag(@Param("id") String id);
 }
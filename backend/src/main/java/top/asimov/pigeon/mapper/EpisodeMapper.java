@@ -3,9 +3,11 @@ package top.asimov.pigeon.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import java.time.LocalDateTime;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
 import top.asimov.pigeon.model.dto.EpisodeFeedReference;
 import top.asimov.pigeon.model.entity.Episode;
 
@@ -15,8 +17,22 @@ public interface EpisodeMapper extends BaseMapper<Episode> {
       + "next_retry_at = null, failure_notified_at = null where id = #{id}")
   void updateDownloadStatusAndClearSchedulingFields(String id, String downloadStatus);
 
+  @Update({
+      "<script>",
+      "UPDATE episode SET download_status = #{downloadStatus}, auto_download_after = NULL, ",
+      "next_retry_at = NULL, failure_notified_at = NULL ",
+      "WHERE id = #{id} AND download_status IN ",
+      "<foreach collection='expectedStatuses' item='expectedStatus' open='(' separator=',' close=')'>",
+      "#{expectedStatus}",
+      "</foreach>",
+      "</script>"
+  })
+  int updateDownloadStatusIfCurrent(@Param("id") String id,
+      @Param("expectedStatuses") java.util.List<String> expectedStatuses,
+      @Param("downloadStatus") String downloadStatus);
+
   @Update("update episode set auto_download_after = #{autoDownloadAfter} where id = #{id} and download_status = 'READY'")
-  void updateAutoDownloadAfterWhenReady(@Param("id") String id,
+  int updateAutoDownloadAfterWhenReady(@Param("id") String id,
       @Param("autoDownloadAfter") LocalDateTime autoDownloadAfter);
 
   @Update("update episode set channel_id = #{channelId} "
@@ -24,6 +40,57 @@ public interface EpisodeMapper extends BaseMapper<Episode> {
   void updateChannelIdIfMissing(@Param("episodeId") String episodeId,
       @Param("channelId") String channelId);
 
+  /**
+   * 多行插入，主键已存在的行直接跳过；未赋值的 retry_number/live_vod 与列默认值保持一致。
+   *
+   * @return 实际插入的行数
+   */
+  @Insert({
+      "<script>",
+      "INSERT INTO episode (id, channel_id, title, description, published_at, default_cover_url, ",
+      "max_cover_url, duration, duration_seconds, live_vod, download_status, media_file_path, ",
+      "media_type, media_size_bytes, media_etag, error_log, retry_number, next_retry_at, ",
+      "failure_notified_at, auto_download_after, subtitle_assets, chapters_available, ",
+      "thumbnail_key, assets_indexed_at, channel_visible, created_at) VALUES ",
+      "<foreach collection='episodes' item='e' separator=','>",
+      "(#{e.id}, #{e.channelId}, #{e.title}, #{e.description}, #{e.publishedAt}, ",
+      "#{e.defaultCoverUrl}, #{e.maxCoverUrl}, #{e.duration}, #{e.durationSeconds}, ",
+      "COALESCE(#{e.liveVod}, 0), #{e.downloadStatus}, #{e.mediaFilePath}, #{e.mediaType}, ",
+      "#{e.mediaSizeBytes}, #{e.mediaEtag}, #{e.errorLog}, COALESCE(#{e.retryNumber}, 0), ",
+      "#{e.nextRetryAt}, #{e.failureNotifiedAt}, #{e.autoDownloadAfter}, #{e.subtitleAssets}, ",
+      "#{e.chaptersAvailable}, #{e.thumbnailKey}, #{e.assetsIndexedAt}, #{e.channelVisible}, ",
+      "#{e.createdAt})",
+      "</foreach>",
+      "ON CONFLICT(id) DO NOTHING",
+      "</script>"
+  })
+  int insertIgnoreBatch(@Param("episodes") java.util.List<Episode> episodes);
+
+  @Update({
+      "<script>",
+      "UPDATE episode SET channel_id = #{channelId} ",
+      "WHERE (channel_id IS NULL OR channel_id = '') AND id IN ",
+      "<foreach collection='episodeIds' item='episodeId' open='(' separator=',' close=')'>",
+      "#{episodeId}",
+      "</foreach>",
+      "</script>"
+  })
+  int updateChannelIdIfMissingBatch(@Param("episodeIds") java.util.List<String> episodeIds,
+      @Param("channelId") String channelId);
+
+  @Update({
+      "<script>",
+      "UPDATE episode SET download_status = #{downloadStatus}, auto_download_after = NULL, ",
+      "next_retry_at = NULL, failure_notified_at = NULL WHERE id IN ",
+      "<foreach collection='episodeIds' item='episodeId' open='(' separator=',' close=')'>",
+      "#{episodeId}",
+      "</foreach>",
+      "</script>"
+  })
+  int updateDownloadStatusAndClearSchedulingFieldsBatch(
+      @Param("episodeIds") java.util.List<String> episodeIds,
+      @Param("downloadStatus") String downloadStatus);
+
   @Update("update episode set download_status = #{downloadStatus}, auto_download_after = null, "
       + "next_retry_at = null, failure_notified_at = null "
       + "where id = #{id} and download_status = 'READY' "
@@ -59,6 +126,40 @@ public interface EpisodeMapper extends BaseMapper<Episode> {
   java.util.List<Episode> selectDueRetryEpisodes(@Param("now") LocalDateTime now,
       @Param("maxRetryAttempts") int maxRetryAttempts, @Param("limit") int limit);
 
+  /**
+   * 最早入队的 PENDING 节目，只返回 id 与 channel_id，供调度器补充内存队列。
+   */
+  @Select("SELECT id, channel_id FROM episode "
+      + "WHERE download_status = 'PENDING' "
+      + "ORDER BY created_at ASC "
+      + "LIMIT #{limit}")
+  java.util.List<Episode> selectPendingDispatchCandidates(@Param("limit") int limit);
+
+  /**
+   * 截止到 until 之前到期的延迟自动下载，只返回 id 与 auto_download_after，供调度器登记计时。
+   */
+  @Select("SELECT id, auto_download_after FROM episode "
+      + "WHERE download_status = 'READY' "
+      + "AND auto_download_after IS NOT NULL "
+      + "AND auto_download_after <= #{until} "
+      + "ORDER BY auto_download_after ASC "
+      + "LIMIT #{limit}")
+  java.util.List<Episode> selectUpcomingDelayedAutoDownloads(@Param("until") LocalDateTime until,
+      @Param("limit") int limit);
+
+  /**
+   * 截止到 until 之前到期的自动重试，只返回 id 与 next_retry_at，供调度器登记计时。
+   */
+  @Select("SELECT id, next_retry_at FROM episode "
+      + "WHERE download_status = 'FAILED' "
+      + "AND next_retry_at IS NOT NULL "
+      + "AND next_retry_at <= #{until} "
+      + "AND retry_number <= #{maxRetryAttempts} "
+      + "ORDER BY next_retry_at ASC "
+      + "LIMIT #{limit}")
+  java.util.List<Episode> selectUpcomingRetries(@Param("until") LocalDateTime until,
+      @Param("maxRetryAttempts") int maxRetryAttempts, @Param("limit") int limit);
+
   @Select("SELECT * FROM episode "
       + "WHERE download_status = 'FAILED' "
       + "AND retry_number > #{maxRetryAttempts} "
@@ -101,6 +202,35 @@ public interface EpisodeMapper extends BaseMapper<Episode> {
       + "ORDER BY pe.published_at DESC")
   java.util.List<Episode> selectEpisodesByPlaylistId(String playlistId);
 
+  @Select("SELECT e.*, pe.source_channel_id AS source_channel_id, "
+      + "pe.source_channel_name AS source_channel_name, "
+      + "pe.source_channel_url AS source_channel_url FROM playlist_episode pe "
+      + "JOIN episode e ON pe.episode_id = e.id "
+      + "WHERE pe.playlist_id = #{playlistId} AND pe.visible = 1 "
+      + "AND e.download_status = 'COMPLETED' "
+      + "ORDER BY pe.published_at DESC")
+  Cursor<Episode> selectVisibleCompletedEpisodesByPlaylistId(String playlistId);
+
+  @Select("SELECT * FROM episode "
+      + "WHERE channel_id = #{channelId} AND channel_visible = 1 "
+      + "AND download_status = 'COMPLETED' "
+      + "ORDER BY published_at DESC")
+  Cursor<Episode> selectVisibleCompletedEpisodesByChannelId(String channelId);
+
+  /**
+   * 存在尚未评估可见性节目的频道，供后台任务补算。
+   */
+  @Select("SELECT c.id FROM channel c WHERE EXISTS ("
+      + "SELECT 1 FROM episode e WHERE e.channel_id = c.id AND e.channel_visible IS NULL)")
+  java.util.List<String> selectChannelIdsWithPendingVisibility();
+
+  /**
+   * 存在尚未评估可见性节目映射的播放列表，供后台任务补算。
+   */
+  @Select("SELECT p.id FROM playlist p WHERE EXISTS ("
+      + "SELECT 1 FROM playlist_episode pe WHERE pe.playlist_id = p.id AND pe.visible IS NULL)")
+  java.util.List<String> selectPlaylistIdsWithPendingVisibility();
+
   @Select("SELECT * FROM episode "
       + "WHERE channel_id = #{channelId} "
       + "ORDER BY published_at ASC, id ASC LIMIT 1")
@@ -118,6 +248,21 @@ public interface EpisodeMapper extends BaseMapper<Episode> {
       @Param("channelId") String channelId,
       @Param("limit") long limit);
 
+  @Select("SELECT EXISTS(SELECT 1 FROM episode WHERE id = #{episodeId} AND channel_id = #{channelId})")
+  boolean existsByIdAndChannelId(@Param("episodeId") String episodeId,
+      @Param("channelId") String channelId);
+
+  /**
+   * 获取指定频道最近的节目发布时间，按发布时间倒序。用于估算频道的更新频率。
+   */
+  @Select("SELECT published_at FROM episode "
+      + "WHERE channel_id = #{channelId} AND published_at IS NOT NULL "
+      + "ORDER BY published_at DESC "
+      + "LIMIT #{limit}")
+  java.util.List<LocalDateTime> selectRecentPublishedAtByChannelId(
+      @Param("channelId") String channelId,
+      @Param("limit") int limit);
+
   /**
    * 获取指定播放列表中已完成下载的最旧节目列表，按播放列表内的 published_at 正序排序。 主要用于 EpisodeCleaner 从最旧的节目开始清理。
    */
@@ -12,7 +12,7 @@ import top.asimov.pigeon.model.entity.PlaylistEpisodeDetailRetry;
 public interface PlaylistEpisodeDetailRetryMapper extends BaseMapper<PlaylistEpisodeDetailRetry> {
 
   @Insert("""
-      "INSERT INTO playlist_episode_detail_retry 
+      INSERT INTO playlist_episode_detail_retry 
       (playlist_id, episode_id, position, approximate_published_at, retry_count, next_retry_at, last_error, created_at, updated_at) 
       VALUES (#{playlistId}, #{episodeId}, #{position}, #{approximatePublishedAt}, #{retryCount}, #{nextRetryAt}, #{lastError}, #{createdAt}, #{updatedAt}) 
       ON CONFLICT(playlist_id, episode_id) DO UPDATE SET 
@@ -20,6 +20,7 @@ public interface PlaylistEpisodeMapper extends BaseMapper<PlaylistEpisode> {
           SELECT COUNT(1) FROM playlist_episode pe
           JOIN episode e ON pe.episode_id = e.id
           WHERE pe.playlist_id = #{playlistId}
+          AND pe.visible = 1
           <if test='search != null and search != ""'>
           AND e.title LIKE '%' || #{search} || '%'
           </if>
@@ -28,7 +29,7 @@ public interface PlaylistEpisodeMapper extends BaseMapper<PlaylistEpisode> {
           </if>
           </script>
       """)
-  long countByPlaylistIdWithFilters(@Param("playlistId") String playlistId,
+  long countVisibleByPlaylistIdWithFilters(@Param("playlistId") String playlistId,
       @Param("search") String search, @Param("statusFilter") String statusFilter);
 
   @Select("""
@@ -40,6 +41,7 @@ public interface PlaylistEpisodeMapper extends BaseMapper<PlaylistEpisode> {
       FROM playlist_episode pe
       JOIN episode e ON pe.episode_id = e.id
       WHERE pe.playlist_id = #{playlistId}
+      AND pe.visible = 1
       <if test='search != null and search != ""'>
       AND e.title LIKE '%' || #{search} || '%'
       </if>
@@ -62,43 +64,19 @@ public interface PlaylistEpisodeMapper extends BaseMapper<PlaylistEpisode> {
       </script>
       """
   )
-  List<Episode> selectEpisodePageByPlaylistIdWithFilters(@Param("playlistId") String playlistId,
+  List<Episode> selectVisibleEpisodePageByPlaylistIdWithFilters(@Param("playlistId") String playlistId,
       @Param("offset") long offset, @Param("pageSize") long pageSize,
       @Param("search") String search, @Param("statusFilter") String statusFilter,
       @Param("sortOrder") String sortOrder);
 
-  @Select("""
-      <script>
-      SELECT e.*,
-             pe.source_channel_id AS source_channel_id,
-             pe.source_channel_name AS source_channel_name,
-             pe.source_channel_url AS source_channel_url
-      FROM playlist_episode pe
-      JOIN episode e ON pe.episode_id = e.id
-      WHERE pe.playlist_id = #{playlistId}
-      <if test='search != null and search != ""'>
-      AND e.title LIKE '%' || #{search} || '%'
-      </if>
-      <if test='statusFilter != null and statusFilter != ""'>
-      AND e.download_status = #{statusFilter}
-      </if>
-      ORDER BY
-      <choose>
-      <when test='sortOrder == "oldest"'>
-      pe.published_at ASC, pe.id ASC
-      </when>
-      <when test='sortOrder == "newest"'>
-      pe.published_at DESC, pe.id ASC
-      </when>
-      <otherwise>
-      pe.position, pe.id DESC
-      </otherwise>
-      </choose>
-      </script>
-      """)
-  List<Episode> selectEpisodesByPlaylistIdWithFilters(@Param("playlistId") String playlistId,
-      @Param("search") String search, @Param("statusFilter") String statusFilter,
-      @Param("sortOrder") String sortOrder);
+  /**
+   * 获取播放列表内最近的节目发布时间，按发布时间倒序。用于估算播放列表的更新频率。
+   */
+  @Select("SELECT published_at FROM playlist_episode "
+      + "WHERE playlist_id = #{playlistId} AND published_at IS NOT NULL "
+      + "ORDER BY published_at DESC LIMIT #{limit}")
+  List<LocalDateTime> selectRecentPublishedAt(@Param("playlistId") String playlistId,
+      @Param("limit") int limit);
 
   @Select("SELECT * FROM playlist_episode WHERE episode_id = #{episodeId} "
       + "ORDER BY published_at DESC LIMIT 1")
@@ -118,6 +96,63 @@ public interface PlaylistEpisodeMapper extends BaseMapper<PlaylistEpisode> {
   int countByPlaylistAndEpisode(@Param("playlistId") String playlistId,
       @Param("episodeId") String episodeId);
 
+  @Select({
+      "<script>",
+      "SELECT episode_id FROM playlist_episode WHERE playlist_id = #{playlistId} AND episode_id IN ",
+      "<foreach collection='episodeIds' item='episodeId' open='(' separator=',' close=')'>",
+      "#{episodeId}",
+      "</foreach>",
+      "</script>"
+  })
+  List<String> selectMappedEpisodeIds(@Param("playlistId") String playlistId,
+      @Param("episodeIds") List<String> episodeIds);
+
+  @Select({
+      "<script>",
+      "SELECT * FROM playlist_episode WHERE playlist_id = #{playlistId} AND episode_id IN ",
+      "<foreach collection='episodeIds' item='episodeId' open='(' separator=',' close=')'>",
+      "#{episodeId}",
+      "</foreach>",
+      "</script>"
+  })
+  List<PlaylistEpisode> selectMappingsByEpisodeIds(@Param("playlistId") String playlistId,
+      @Param("episodeIds") List<String> episodeIds);
+
+  @Update({
+      "<script>",
+      "UPDATE playlist_episode SET snapshot_seen_at = #{seenAt} ",
+      "WHERE playlist_id = #{playlistId} AND episode_id IN ",
+      "<foreach collection='episodeIds' item='episodeId' open='(' separator=',' close=')'>",
+      "#{episodeId}",
+      "</foreach>",
+      "</script>"
+  })
+  int markSnapshotSeen(@Param("playlistId") String playlistId,
+      @Param("episodeIds") List<String> episodeIds, @Param("seenAt") LocalDateTime seenAt);
+
+  /**
+   * 按 id 游标分页读取本轮快照未标记的关联，即远端已移除的节目。
+   */
+  @Select("SELECT * FROM playlist_episode WHERE playlist_id = #{playlistId} AND id > #{afterId} "
+      + "AND (snapshot_seen_at IS NULL OR snapshot_seen_at <> #{seenAt}) "
+      + "ORDER BY id LIMIT #{limit}")
+  List<PlaylistEpisode> selectUnseenMappings(@Param("playlistId") String playlistId,
+      @Param("seenAt") LocalDateTime seenAt, @Param("afterId") long afterId,
+      @Param("limit") int limit);
+
+  @Insert({
+      "<script>",
+      "INSERT INTO playlist_episode (playlist_id, episode_id, position, published_at, ",
+      "source_channel_id, source_channel_name, source_channel_url) VALUES ",
+      "<foreach collection='episodes' item='e' separator=','>",
+      "(#{playlistId}, #{e.id}, #{e.position}, #{e.publishedAt}, #{e.sourceChannelId}, ",
+      "#{e.sourceChannelName}, #{e.sourceChannelUrl})",
+      "</foreach>",
+      "</script>"
+  })
+  int insertMappingsBatch(@Param("playlistId") String playlistId,
+      @Param("episodes") List<Episode> episodes);
+
   @Insert("INSERT INTO playlist_episode (playlist_id, episode_id, position, published_at, "
       + "source_channel_id, source_channel_name, source_channel_url) "
       + "VALUES (#{playlistId}, #{episodeId}, #{position}, #{publishedAt}, #{sourceChannelId}, "
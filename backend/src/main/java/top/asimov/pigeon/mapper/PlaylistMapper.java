@@ -1,8 +1,11 @@
 package top.asimov.pigeon.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import top.asimov.pigeon.model.entity.Playlist;
 
 public interface PlaylistMapper extends BaseMapper<Playlist> {
@@ -37,4 +40,15 @@ public interface PlaylistMapper extends BaseMapper<Playlist> {
       "GROUP BY p.id, p.title, p.maximum_episodes " +
       "HAVING COUNT(e.id) > p.maximum_episodes")
   java.util.List<java.util.Map<String, Object>> selectPlaylistCompletedOverLimit();
+
+  /**
+   * 按下次同步时间取出已到期的订阅，最早到期的优先。
+   */
+  @Select("SELECT * FROM playlist "
+      + "WHERE next_sync_at IS NULL OR next_sync_at <= #{now} "
+      + "ORDER BY next_sync_at ASC LIMIT #{limit}")
+  List<Playlist> selectDueForSync(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  @Update("UPDATE playlist SET next_sync_at = #{nextSyncAt} WHERE id = #{id}")
+  int updateNextSyncAt(@Param("id") String id, @Param("nextSyncAt") LocalDateTime nextSyncAt);
 }
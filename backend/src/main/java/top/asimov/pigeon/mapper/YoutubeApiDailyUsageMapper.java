@@ -37,6 +37,16 @@ public interface YoutubeApiDailyUsageMapper {
   int tryIncrementUsageWithinLimit(@Param("usageDatePt") String usageDatePt,
       @Param("quotaUnits") int quotaUnits, @Param("limitUnits") int limitUnits);
 
+  @Update("""
+      UPDATE youtube_api_daily_usage
+      SET saved_request_count = saved_request_count + #{requestCount},
+          saved_quota_units = saved_quota_units + #{quotaUnits},
+          updated_at = CURRENT_TIMESTAMP
+      WHERE usage_date_pt = #{usageDatePt}
+      """)
+  int incrementSaved(@Param("usageDatePt") String usageDatePt,
+      @Param("requestCount") int requestCount, @Param("quotaUnits") int quotaUnits);
+
   @Update("""
       UPDATE youtube_api_daily_usage
       SET auto_sync_blocked = 1,
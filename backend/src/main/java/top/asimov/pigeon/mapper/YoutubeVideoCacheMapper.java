@@ -0,0 +1,39 @@
+package top.asimov.pigeon.mapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import top.asimov.pigeon.model.entity.YoutubeVideoCache;
+
+public interface YoutubeVideoCacheMapper {
+
+  @Select({
+      "<script>",
+      "SELECT video_id, payload, fetched_at FROM youtube_video_cache ",
+      "WHERE fetched_at >= #{freshAfter} AND video_id IN ",
+      "<foreach collection='videoIds' item='videoId' open='(' separator=',' close=')'>",
+      "#{videoId}",
+      "</foreach>",
+      "</script>"
+  })
+  List<YoutubeVideoCache> selectFresh(@Param("videoIds") List<String> videoIds,
+      @Param("freshAfter") LocalDateTime freshAfter);
+
+  @Insert({
+      "<script>",
+      "INSERT INTO youtube_video_cache (video_id, payload, fetched_at) VALUES ",
+      "<foreach collection='entries' item='e' separator=','>",
+      "(#{e.videoId}, #{e.payload}, #{e.fetchedAt})",
+      "</foreach>",
+      "ON CONFLICT(video_id) DO UPDATE SET payload = excluded.payload, ",
+      "fetched_at = excluded.fetched_at",
+      "</script>"
+  })
+  int upsertBatch(@Param("entries") List<YoutubeVideoCache> entries);
+
+  @Delete("DELETE FROM youtube_video_cache WHERE fetched_at < #{freshAfter}")
+  int deleteExpired(@Param("freshAfter") LocalDateTime freshAfter);
+}
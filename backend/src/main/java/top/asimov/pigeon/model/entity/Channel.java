@@ -18,6 +18,9 @@ public class Channel extends Feed {
 
   private String handler;
 
+  // 上传列表首页 playlistItems.list 响应的 ETag，增量同步时用于条件请求
+  private String uploadsPageEtag;
+
   @Override
   public FeedType getType() {
     return FeedType.CHANNEL;
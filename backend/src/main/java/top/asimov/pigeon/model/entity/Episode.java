@@ -47,6 +47,24 @@ public class Episode {
   private LocalDateTime failureNotifiedAt;
   @TableField(updateStrategy = FieldStrategy.ALWAYS)
   private LocalDateTime autoDownloadAfter;
+  /**
+   * S3 模式下随媒体一起上传的附属资产清单，生成 RSS 时据此拼装字幕/章节标签，无需再访问对象存储。
+   * assetsIndexedAt 为空表示尚未建立清单（旧数据），此时回退为实时查询。
+   */
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private String subtitleAssets; // 逗号分隔的 language.format，例如 en.vtt,zh-Hans.vtt
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private Boolean chaptersAvailable;
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private String thumbnailKey;
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private LocalDateTime assetsIndexedAt;
+  /**
+   * 在所属频道过滤条件下是否可见，为空表示尚未评估。只通过 EpisodeService 的可见性更新写入，
+   * 整行更新时不能把读取时的旧结果写回已被清空的行。
+   */
+  @TableField(updateStrategy = FieldStrategy.NEVER)
+  private Boolean channelVisible;
   private LocalDateTime createdAt;
 
   @TableField(exist = false)
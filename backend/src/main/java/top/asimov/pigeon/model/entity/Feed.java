@@ -84,6 +84,10 @@ public abstract class Feed {
 
   private LocalDateTime lastSyncTimestamp;
 
+  // 只通过 updateNextSyncAt 写入，整行更新时不覆盖调度结果
+  @TableField(updateStrategy = FieldStrategy.NEVER)
+  private LocalDateTime nextSyncAt;
+
   @TableField(updateStrategy = FieldStrategy.ALWAYS)
   private String historyCursorType;
 
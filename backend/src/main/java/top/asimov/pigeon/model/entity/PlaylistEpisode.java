@@ -24,4 +24,8 @@ public class PlaylistEpisode {
   private String sourceChannelId;
   private String sourceChannelName;
   private String sourceChannelUrl;
+  // 在播放列表过滤条件下是否可见，为空表示尚未评估
+  private Boolean visible;
+  // 最近一次流式快照中出现的时间，快照结束后据此找出远端已移除的关联
+  private LocalDateTime snapshotSeenAt;
 }
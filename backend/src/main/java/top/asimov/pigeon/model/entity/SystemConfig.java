@@ -1,5 +1,6 @@
 package top.asimov.pigeon.model.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import java.time.LocalDateTime;
@@ -26,6 +27,8 @@ public class SystemConfig {
   public static final int DEFAULT_S3_SOCKET_TIMEOUT_SECONDS = 1800;
   public static final int DEFAULT_S3_READ_TIMEOUT_SECONDS = 1800;
   public static final int DEFAULT_S3_PRESIGN_EXPIRE_HOURS = 72;
+  public static final int DEFAULT_DOWNLOAD_CONCURRENCY = 3;
+  public static final int MAX_DOWNLOAD_CONCURRENCY = 32;
 
   @TableId
   private Integer id;
@@ -43,6 +46,19 @@ public class SystemConfig {
   private String proxyUsername;
   private String proxyPassword;
 
+  /**
+   * 全局下载并发上限；开启自适应时作为自适应调整的上界。
+   */
+  private Integer downloadConcurrency;
+  /**
+   * 各来源单独的并发上限，为空表示只受全局上限约束。
+   */
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private Integer youtubeDownloadConcurrency;
+  @TableField(updateStrategy = FieldStrategy.ALWAYS)
+  private Integer bilibiliDownloadConcurrency;
+  private Boolean adaptiveDownloadConcurrency;
+
   private StorageType storageType;
   private String storageTempDir;
 
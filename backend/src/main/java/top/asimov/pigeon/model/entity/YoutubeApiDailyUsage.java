@@ -21,6 +21,8 @@ public class YoutubeApiDailyUsage {
   private Integer quotaUnits;
   private Integer autoSyncBlocked;
   private String blockedReason;
+  private Integer savedRequestCount;
+  private Integer savedQuotaUnits;
   private LocalDateTime blockedAt;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
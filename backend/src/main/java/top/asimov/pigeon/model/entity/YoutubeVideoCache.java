@@ -0,0 +1,23 @@
+package top.asimov.pigeon.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("youtube_video_cache")
+public class YoutubeVideoCache {
+
+  @TableId
+  private String videoId;
+  // videos.list 返回的 Video JSON
+  private String payload;
+  private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,10 @@
+package top.asimov.pigeon.model.enums;
+
+public enum DownloadPhase {
+  STARTING, // 已启动 yt-dlp 进程，尚未收到进度输出
+  DOWNLOADING, // 正在下载媒体流
+  POST_PROCESSING, // yt-dlp 后处理（合并、转码、嵌入封面/章节等）
+  UPLOADING, // S3 模式下上传产物
+  COMPLETED, // 下载完成
+  FAILED // 下载失败
+}
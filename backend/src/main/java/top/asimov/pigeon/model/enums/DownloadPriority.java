@@ -0,0 +1,8 @@
+package top.asimov.pigeon.model.enums;
+
+public enum DownloadPriority {
+  MANUAL, // 用户手动触发的下载与重试
+  AUTO, // 自动更新发现的新节目、到期的延迟自动下载
+  BACKFILL, // 订阅初始化、播放列表补全等批量回填
+  RETRY // 失败后的自动重试
+}
@@ -0,0 +1,40 @@
+package top.asimov.pigeon.model.response;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.asimov.pigeon.model.enums.DownloadPhase;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeDownloadProgressResponse {
+
+  private String episodeId;
+
+  /**
+   * 当前所处阶段，COMPLETED/FAILED 表示任务已结束，前端应以数据库状态为准刷新一次。
+   */
+  private DownloadPhase phase;
+
+  /**
+   * 正在执行的 yt-dlp 后处理器名称，例如 Merger、ExtractAudio，仅 POST_PROCESSING 阶段有值。
+   */
+  private String postProcessor;
+
+  private Long downloadedBytes;
+  private Long totalBytes;
+
+  /**
+   * 当前文件的下载百分比（0-100），总大小未知时为 null。
+   */
+  private Double percent;
+
+  private Long speedBytesPerSecond;
+  private Long etaSeconds;
+  private LocalDateTime startedAt;
+  private LocalDateTime updatedAt;
+}
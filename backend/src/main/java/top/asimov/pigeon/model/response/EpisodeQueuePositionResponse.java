@@ -0,0 +1,28 @@
+package top.asimov.pigeon.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeQueuePositionResponse {
+
+  private String episodeId;
+
+  /**
+   * 在待下载队列中的位置，从 1 开始；按当前调度顺序计算，来源槽位已满时实际提交可能被后面的任务越过。
+   */
+  private Integer position;
+
+  /**
+   * 队列中的任务总数。
+   */
+  private Integer queueSize;
+
+  private DownloadPriority priority;
+}
@@ -0,0 +1,21 @@
+package top.asimov.pigeon.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresignCacheStatsResponse {
+
+  private Integer size;
+  private Integer maxEntries;
+  private Double reuseRatio;
+  private Long hits;
+  private Long misses;
+  private Long evictions;
+  private Double hitRate;
+}
@@ -0,0 +1,21 @@
+package top.asimov.pigeon.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class YoutubeClientPoolStatsResponse {
+
+  private Integer routes;
+  private Long clientsCreated;
+  private Long clientReuses;
+  private Long invalidations;
+  private Long requests;
+  private Long connectionsOpened;
+  private Double connectionReuseRatio;
+}
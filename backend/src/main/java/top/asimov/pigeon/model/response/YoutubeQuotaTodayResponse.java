@@ -17,6 +17,8 @@ public class YoutubeQuotaTodayResponse {
   private Integer requestCount;
   private Integer usedUnits;
   private Integer remainingUnits;
+  private Integer savedRequestCount;
+  private Integer savedUnits;
   private Boolean autoSyncBlocked;
   private String blockedReason;
   private Boolean warningReached;
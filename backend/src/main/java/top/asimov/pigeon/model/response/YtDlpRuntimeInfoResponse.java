@@ -21,4 +21,7 @@ public class YtDlpRuntimeInfoResponse {
   private Boolean updating;
   private List<YtDlpRuntimeOptionResponse> availableRuntimes;
   private YtDlpUpdateStatusResponse status;
+  private Long identityCacheHits;
+  private Long identityCacheMisses;
+  private Double identityCacheHitRate;
 }
@@ -6,6 +6,8 @@ import java.util.concurrent.TimeUnit;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import top.asimov.pigeon.helper.FeedSyncCoordinator;
+import top.asimov.pigeon.helper.FeedSyncCoordinator.SyncRoundResult;
 import top.asimov.pigeon.helper.YoutubeQuotaContextHolder;
 import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.enums.FeedSource;
@@ -19,16 +21,19 @@ public class ChannelSyncer {
 
   private final ChannelService channelService;
   private final YoutubeQuotaService youtubeQuotaService;
+  private final FeedSyncCoordinator feedSyncCoordinator;
 
-  public ChannelSyncer(ChannelService channelService, YoutubeQuotaService youtubeQuotaService) {
+  public ChannelSyncer(ChannelService channelService, YoutubeQuotaService youtubeQuotaService,
+      FeedSyncCoordinator feedSyncCoordinator) {
     this.channelService = channelService;
     this.youtubeQuotaService = youtubeQuotaService;
+    this.feedSyncCoordinator = feedSyncCoordinator;
   }
 
   /**
-   * 每1小时执行一次，检查并同步需要更新的频道。
+   * 每5分钟检查一次，只同步下次同步时间已到的频道；各频道的同步间隔按其更新频率自适应。
    */
-  @Scheduled(fixedRate = 1, timeUnit = TimeUnit.HOURS)
+  @Scheduled(fixedDelay = 5, initialDelay = 1, timeUnit = TimeUnit.MINUTES)
   public void syncDueChannels() {
     YoutubeQuotaContextHolder.set(YoutubeApiCallContext.AUTO_SYNC);
     try {
@@ -41,19 +46,22 @@ public class ChannelSyncer {
       }
 
       log.info("发现 {} 个需要同步的频道。", dueChannels.size());
-      for (Channel channel : dueChannels) {
-        boolean isYoutube = FeedSource.YOUTUBE.name().equalsIgnoreCase(channel.getSource());
-        if (isYoutube && youtubeQuotaService.isAutoSyncBlockedToday()) {
-          log.warn("YouTube 自动同步已阻断，跳过 YouTube 频道: {} ({})",
-              channel.getTitle(), channel.getId());
-          continue;
-        }
+      SyncRoundResult result = feedSyncCoordinator.runScheduledRound(dueChannels, channel -> {
         try {
+          boolean isYoutube = FeedSource.YOUTUBE.name().equalsIgnoreCase(channel.getSource());
+          if (isYoutube && youtubeQuotaService.isAutoSyncBlockedToday()) {
+            log.warn("YouTube 自动同步已阻断，跳过 YouTube 频道: {} ({})",
+                channel.getTitle(), channel.getId());
+            return;
+          }
           channelService.refreshChannel(channel);
-        } catch (Exception e) {
-          log.error("同步频道 {} (ID: {}) 时发生错误。", channel.getTitle(), channel.getId(), e);
+        } finally {
+          // 跳过或失败同样顺延，避免每轮都重试同一个频道
+          channelService.scheduleNextSync(channel);
         }
-      }
+      });
+      log.info("频道同步结果: synced={}, skipped={}, failed={}", result.synced(),
+          result.skipped(), result.failed());
       log.info("定时同步任务执行完毕。");
     } finally {
       YoutubeQuotaContextHolder.clear();
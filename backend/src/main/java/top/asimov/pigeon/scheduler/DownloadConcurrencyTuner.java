@@ -0,0 +1,24 @@
+package top.asimov.pigeon.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.helper.DownloadSlotManager;
+
+/**
+ * 定期评估下载表现，在开启自适应并发时调整生效的下载槽位数。
+ */
+@Component
+public class DownloadConcurrencyTuner {
+
+  private final DownloadSlotManager downloadSlotManager;
+
+  public DownloadConcurrencyTuner(DownloadSlotManager downloadSlotManager) {
+    this.downloadSlotManager = downloadSlotManager;
+  }
+
+  // 每5分钟评估一次：单个下载通常持续数分钟，窗口过短时吞吐和失败率都没有参考价值
+  @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+  public void adjustDownloadConcurrency() {
+    downloadSlotManager.adjustAdaptiveLimit();
+  }
+}
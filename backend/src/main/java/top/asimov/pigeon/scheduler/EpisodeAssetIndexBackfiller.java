@@ -0,0 +1,86 @@
+package top.asimov.pigeon.scheduler;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+import top.asimov.pigeon.service.MediaService;
+
+/**
+ * 为资产清单上线前已下载到 S3 的节目补齐清单（字幕、章节、缩略图）和缺失的媒体大小。
+ *
+ * <p>每个节目只需一次前缀列举，媒体大小取自同一次列举；全部补齐后每轮只剩一次空查询。
+ * 定时执行而非只在启动时执行，是为了覆盖运行期间从 LOCAL 切换到 S3 的情况。</p>
+ */
+@Log4j2
+@Component
+public class EpisodeAssetIndexBackfiller {
+
+  private static final int BATCH_SIZE = 200;
+
+  private final EpisodeMapper episodeMapper;
+  private final MediaService mediaService;
+
+  public EpisodeAssetIndexBackfiller(EpisodeMapper episodeMapper, MediaService mediaService) {
+    this.episodeMapper = episodeMapper;
+    this.mediaService = mediaService;
+  }
+
+  // 启动 1 分钟后首次执行（确保存储配置已生效），之后每 6 小时检查一次
+  @Scheduled(initialDelay = 60000, fixedDelay = 21600000)
+  public void backfillEpisodeAssetIndex() {
+    if (!mediaService.isS3ModeEnabled()) {
+      return;
+    }
+
+    int indexed = 0;
+    String lastId = "";
+    while (true) {
+      List<Episode> batch = episodeMapper.selectList(new QueryWrapper<Episode>()
+          .eq("download_status", EpisodeStatus.COMPLETED.name())
+          .isNotNull("media_file_path")
+          // 资产清单已补齐但媒体大小仍缺失的旧节目同样需要列举一次
+          .and(wrapper -> wrapper.isNull("assets_indexed_at").or().isNull("media_size_bytes"))
+          .gt("id", lastId)
+          .orderByAsc("id")
+          .last("LIMIT " + BATCH_SIZE));
+      if (batch.isEmpty()) {
+        break;
+      }
+
+      for (Episode episode : batch) {
+        try {
+          mediaService.indexEpisodeAssetsFromStorage(episode);
+        } catch (Exception e) {
+          // 对象存储不可用时本轮直接结束，下一轮再补
+          log.warn("补齐节目资产清单失败，本轮中止: episodeId={}, 已完成={}, error={}",
+              episode.getId(), indexed, e.getMessage());
+          return;
+        }
+        if (episode.getAssetsIndexedAt() == null) {
+          continue;
+        }
+        // 仅在媒体 key 未变化时写入，避免覆盖期间被删除或重新下载的节目
+        int updated = episodeMapper.update(null, new LambdaUpdateWrapper<Episode>()
+            .set(Episode::getSubtitleAssets, episode.getSubtitleAssets())
+            .set(Episode::getChaptersAvailable, episode.getChaptersAvailable())
+            .set(Episode::getThumbnailKey, episode.getThumbnailKey())
+            .set(Episode::getMediaSizeBytes, episode.getMediaSizeBytes())
+            .set(Episode::getAssetsIndexedAt, episode.getAssetsIndexedAt())
+            .eq(Episode::getId, episode.getId())
+            .eq(Episode::getMediaFilePath, episode.getMediaFilePath()));
+        indexed += updated;
+      }
+      lastId = batch.get(batch.size() - 1).getId();
+    }
+
+    if (indexed > 0) {
+      log.info("节目资产清单补齐完成: {} 个节目", indexed);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package top.asimov.pigeon.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.event.FeedVisibilityResetEvent;
+import top.asimov.pigeon.mapper.ChannelMapper;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.mapper.PlaylistMapper;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.model.entity.Feed;
+import top.asimov.pigeon.model.entity.Playlist;
+import top.asimov.pigeon.service.EpisodeService;
+
+/**
+ * 分批补算节目可见性。
+ *
+ * <p>过滤条件变化时可见性被清空，此处在事务提交后立即开始重算；定时任务兜底处理重启前未完成的订阅
+ * 以及未经同步流程入库的节目。每批写入单独提交，重算大播放列表时不会长时间阻塞其他写操作。</p>
+ */
+@Log4j2
+@Component
+public class FeedVisibilityRefresher {
+
+  private final EpisodeMapper episodeMapper;
+  private final ChannelMapper channelMapper;
+  private final PlaylistMapper playlistMapper;
+  private final EpisodeService episodeService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Set<String> refreshingFeedIds = ConcurrentHashMap.newKeySet();
+
+  public FeedVisibilityRefresher(EpisodeMapper episodeMapper, ChannelMapper channelMapper,
+      PlaylistMapper playlistMapper, EpisodeService episodeService,
+      ApplicationEventPublisher eventPublisher) {
+    this.episodeMapper = episodeMapper;
+    this.channelMapper = channelMapper;
+    this.playlistMapper = playlistMapper;
+    this.episodeService = episodeService;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Async
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void handleFeedVisibilityReset(FeedVisibilityResetEvent event) {
+    Channel channel = channelMapper.selectById(event.getFeedId());
+    refreshFeed(channel != null ? channel : playlistMapper.selectById(event.getFeedId()));
+  }
+
+  // 启动 30 秒后首次执行，之后每分钟检查一次
+  @Scheduled(initialDelay = 30000, fixedDelay = 60000)
+  public void refreshPendingVisibility() {
+    for (String channelId : episodeMapper.selectChannelIdsWithPendingVisibility()) {
+      refreshFeed(channelMapper.selectById(channelId));
+    }
+    for (String playlistId : episodeMapper.selectPlaylistIdsWithPendingVisibility()) {
+      refreshFeed(playlistMapper.selectById(playlistId));
+    }
+  }
+
+  private void refreshFeed(Feed feed) {
+    if (feed == null || !refreshingFeedIds.add(feed.getId())) {
+      return;
+    }
+    try {
+      int refreshed = episodeService.refreshFeedVisibility(feed);
+      if (refreshed > 0) {
+        log.info("订阅节目可见性重算完成: feedId={}, 节目数={}", feed.getId(), refreshed);
+        eventPublisher.publishEvent(FeedContentChangedEvent.ofFeed(this, feed.getId()));
+      }
+    } catch (Exception e) {
+      log.warn("订阅节目可见性重算失败，等待下一轮: feedId={}, error={}", feed.getId(),
+          e.getMessage());
+    } finally {
+      refreshingFeedIds.remove(feed.getId());
+    }
+  }
+}
@@ -6,6 +6,8 @@ import java.util.concurrent.TimeUnit;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import top.asimov.pigeon.helper.FeedSyncCoordinator;
+import top.asimov.pigeon.helper.FeedSyncCoordinator.SyncRoundResult;
 import top.asimov.pigeon.helper.YoutubeQuotaContextHolder;
 import top.asimov.pigeon.model.entity.Playlist;
 import top.asimov.pigeon.model.enums.FeedSource;
@@ -19,14 +21,17 @@ public class PlaylistSyncer {
 
   private final PlaylistService playlistService;
   private final YoutubeQuotaService youtubeQuotaService;
+  private final FeedSyncCoordinator feedSyncCoordinator;
 
-  public PlaylistSyncer(PlaylistService playlistService, YoutubeQuotaService youtubeQuotaService) {
+  public PlaylistSyncer(PlaylistService playlistService, YoutubeQuotaService youtubeQuotaService,
+      FeedSyncCoordinator feedSyncCoordinator) {
     this.playlistService = playlistService;
     this.youtubeQuotaService = youtubeQuotaService;
+    this.feedSyncCoordinator = feedSyncCoordinator;
   }
 
-  // 播放列表每 3 小时执行一次全量检查，以降低对 YouTube API 的压力。
-  @Scheduled(fixedRate = 3, timeUnit = TimeUnit.HOURS)
+  // 每 5 分钟检查一次，只同步下次同步时间已到的播放列表；同步间隔按更新频率自适应，最短 3 小时。
+  @Scheduled(fixedDelay = 5, initialDelay = 1, timeUnit = TimeUnit.MINUTES)
   public void syncDuePlaylists() {
     YoutubeQuotaContextHolder.set(YoutubeApiCallContext.AUTO_SYNC);
     try {
@@ -39,19 +44,22 @@ public class PlaylistSyncer {
       }
 
       log.info("发现 {} 个需要同步的播放列表。", duePlaylists.size());
-      for (Playlist playlist : duePlaylists) {
-        boolean isYoutube = FeedSource.YOUTUBE.name().equalsIgnoreCase(playlist.getSource());
-        if (isYoutube && youtubeQuotaService.isAutoSyncBlockedToday()) {
-          log.warn("YouTube 自动同步已阻断，跳过 YouTube 播放列表: {} ({})",
-              playlist.getTitle(), playlist.getId());
-          continue;
-        }
+      SyncRoundResult result = feedSyncCoordinator.runScheduledRound(duePlaylists, playlist -> {
         try {
+          boolean isYoutube = FeedSource.YOUTUBE.name().equalsIgnoreCase(playlist.getSource());
+          if (isYoutube && youtubeQuotaService.isAutoSyncBlockedToday()) {
+            log.warn("YouTube 自动同步已阻断，跳过 YouTube 播放列表: {} ({})",
+                playlist.getTitle(), playlist.getId());
+            return;
+          }
           playlistService.refreshPlaylist(playlist);
-        } catch (Exception e) {
-          log.error("同步播放列表 {} (ID: {}) 时发生错误。", playlist.getTitle(), playlist.getId(), e);
+        } finally {
+          // 跳过或失败同样顺延，避免每轮都重试同一个播放列表
+          playlistService.scheduleNextSync(playlist);
         }
-      }
+      });
+      log.info("播放列表同步结果: synced={}, skipped={}, failed={}", result.synced(),
+          result.skipped(), result.failed());
       log.info("播放列表定时同步任务执行完毕。");
     } finally {
       YoutubeQuotaContextHolder.clear();
@@ -0,0 +1,24 @@
+package top.asimov.pigeon.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.asimov.pigeon.service.YoutubeQuotaService;
+
+/**
+ * 定期把内存中累加的省下 YouTube 调用数写入当日配额统计。
+ */
+@Component
+public class YoutubeQuotaSavedFlusher {
+
+  private final YoutubeQuotaService youtubeQuotaService;
+
+  public YoutubeQuotaSavedFlusher(YoutubeQuotaService youtubeQuotaService) {
+    this.youtubeQuotaService = youtubeQuotaService;
+  }
+
+  // 统计页读取时会加上未写库的部分，这里一分钟写一次即可
+  @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+  public void flushSavedCounts() {
+    youtubeQuotaService.flushSavedCounts();
+  }
+}
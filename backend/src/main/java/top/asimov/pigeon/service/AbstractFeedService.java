@@ -6,24 +6,30 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import top.asimov.pigeon.event.DownloadTaskEvent;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadAction;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadTargetType;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.event.FeedVisibilityResetEvent;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.handler.FeedEpisodeHelper;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Feed;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 import top.asimov.pigeon.model.response.FeedConfigUpdateResult;
 import top.asimov.pigeon.model.response.FeedPack;
 import top.asimov.pigeon.model.response.FeedRefreshResult;
 import top.asimov.pigeon.model.response.FeedSaveResult;
 import top.asimov.pigeon.util.FeedEpisodeVisibilityHelper;
+import top.asimov.pigeon.util.SyncCadencePolicy;
 
 public abstract class AbstractFeedService<F extends Feed> {
 
@@ -34,15 +40,18 @@ public abstract class AbstractFeedService<F extends Feed> {
   private final ApplicationEventPublisher eventPublisher;
   private final MessageSource messageSource;
   private final FeedDefaultsService feedDefaultsService;
+  private final TransactionTemplate transactionTemplate;
 
   protected AbstractFeedService(EpisodeService episodeService,
       ApplicationEventPublisher eventPublisher,
       MessageSource messageSource,
-      FeedDefaultsService feedDefaultsService) {
+      FeedDefaultsService feedDefaultsService,
+      TransactionTemplate transactionTemplate) {
     this.episodeService = episodeService;
     this.eventPublisher = eventPublisher;
     this.messageSource = messageSource;
     this.feedDefaultsService = feedDefaultsService;
+    this.transactionTemplate = transactionTemplate;
   }
 
   protected EpisodeService episodeService() {
@@ -61,12 +70,21 @@ public abstract class AbstractFeedService<F extends Feed> {
     return feedDefaultsService;
   }
 
+  /**
+   * 同步类方法不加 {@code @Transactional}：网络抓取期间不持有唯一的写连接，
+   * 只把抓取结果的落库放进这里的短事务，自动下载事件也随该事务提交后发布。
+   */
+  protected TransactionTemplate transactionTemplate() {
+    return transactionTemplate;
+  }
+
   @Transactional
   public FeedConfigUpdateResult updateFeedConfig(String feedId, F configuration) {
     F existingFeed = findFeedById(feedId)
         .orElseThrow(() -> new BusinessException(messageSource()
             .getMessage("feed.not.found", new Object[]{feedId}, LocaleContextHolder.getLocale())));
 
+    boolean filterChanged = !FeedEpisodeVisibilityHelper.hasSameFilter(existingFeed, configuration);
     applyMutableFields(existingFeed, configuration);
     normalizeAutoDownloadDelayForUpdate(existingFeed, configuration);
 
@@ -75,6 +93,13 @@ public abstract class AbstractFeedService<F extends Feed> {
       throw new BusinessException(messageSource()
           .getMessage("feed.config.update.failed", null, LocaleContextHolder.getLocale()));
     }
+    if (filterChanged) {
+      afterFilterChanged(existingFeed);
+      FeedEpisodeVisibilityHelper.evictCompiledFilter(feedId);
+      episodeService().resetFeedVisibility(existingFeed);
+      eventPublisher.publishEvent(new FeedVisibilityResetEvent(this, feedId));
+    }
+    eventPublisher.publishEvent(FeedContentChangedEvent.ofFeed(this, feedId));
 
     return FeedConfigUpdateResult.builder()
         .downloadHistory(false)
@@ -144,6 +169,8 @@ public abstract class AbstractFeedService<F extends Feed> {
   }
 
   private FeedSaveResult<F> saveFeedAsync(F feed) {
+    // 新订阅由初始化任务立即同步，定时同步从最短间隔之后开始
+    feed.setNextSyncAt(LocalDateTime.now().plus(syncCadencePolicy().minInterval()));
     insertFeed(feed);
     int downloadLimit = resolveDownloadLimit(feed);
     publishDownloadTask(feed.getId(), downloadLimit, feed);
@@ -160,6 +187,7 @@ public abstract class AbstractFeedService<F extends Feed> {
     List<Episode> episodesToPersist = prepareEpisodesForPersistence(episodes);
     episodeService().saveEpisodes(episodesToPersist);
     afterEpisodesPersisted(feed, episodesToPersist);
+    episodeService().refreshFeedVisibility(feed);
     List<Episode> episodesToDownload = selectEpisodesForAutoRefresh(feed, episodesToPersist);
     int filteredOutCount = Math.max(0, episodesToPersist.size() - episodesToDownload.size());
     logger().info(
@@ -185,6 +213,10 @@ public abstract class AbstractFeedService<F extends Feed> {
     // default no-op, subclasses may override
   }
 
+  protected void afterFilterChanged(F feed) {
+    // default no-op, subclasses may override
+  }
+
   /**
    * 根据 Episode ID 与数据库中的现有记录进行比对，返回真正新增的节目列表。
    *
@@ -287,6 +319,15 @@ public abstract class AbstractFeedService<F extends Feed> {
 
   protected void markAndPublishAutoDownloadEpisodes(F feed, List<Episode> episodesToDownload,
       String eventContext) {
+    markAndPublishAutoDownloadEpisodes(feed, episodesToDownload, eventContext,
+        DownloadPriority.AUTO);
+  }
+
+  /**
+   * @param priority 立即入队部分在下载队列中的优先级；延迟下载到期后统一按 AUTO 入队
+   */
+  protected void markAndPublishAutoDownloadEpisodes(F feed, List<Episode> episodesToDownload,
+      String eventContext, DownloadPriority priority) {
     if (episodesToDownload == null || episodesToDownload.isEmpty()) {
       return;
     }
@@ -302,7 +343,8 @@ public abstract class AbstractFeedService<F extends Feed> {
           episodesToDownload.size(),
           episodesToDownload.size(),
           FeedEpisodeHelper.extractEpisodeIds(episodesToDownload));
-      FeedEpisodeHelper.publishEpisodesCreated(eventPublisher(), this, episodesToDownload, eventContext);
+      FeedEpisodeHelper.publishEpisodesCreated(eventPublisher(), this, episodesToDownload,
+          eventContext, priority, feed.getId());
       return;
     }
 
@@ -324,7 +366,8 @@ public abstract class AbstractFeedService<F extends Feed> {
     }
     if (!readyToDownload.isEmpty()) {
       episodeService().markEpisodesPending(readyToDownload);
-      FeedEpisodeHelper.publishEpisodesCreated(eventPublisher(), this, readyToDownload, eventContext);
+      FeedEpisodeHelper.publishEpisodesCreated(eventPublisher(), this, readyToDownload,
+          eventContext, priority, feed.getId());
     }
 
     logger().info(
@@ -393,7 +436,9 @@ public abstract class AbstractFeedService<F extends Feed> {
     return FeedPack.<F>builder().feed(feed).episodes(episodes).build();
   }
 
-  @Transactional
+  /**
+   * 增量同步订阅。抓取在事务外进行，新节目与订阅状态在一个短事务中保存。
+   */
   public FeedRefreshResult refreshFeed(F feed) {
     List<Episode> newEpisodes = fetchIncrementalEpisodes(feed);
     if (newEpisodes.isEmpty()) {
@@ -410,13 +455,15 @@ public abstract class AbstractFeedService<F extends Feed> {
 
     logger().info("{} 发现 {} 个新节目。", feed.getTitle(), newEpisodes.size());
 
-    persistEpisodesAndPublish(feed, newEpisodes);
+    transactionTemplate().executeWithoutResult(status -> {
+      persistEpisodesAndPublish(feed, newEpisodes);
 
-    FeedEpisodeHelper.findLatestEpisode(newEpisodes).ifPresent(latest -> {
-      feed.setLastSyncVideoId(latest.getId());
-      feed.setLastSyncTimestamp(LocalDateTime.now());
+      FeedEpisodeHelper.findLatestEpisode(newEpisodes).ifPresent(latest -> {
+        feed.setLastSyncVideoId(latest.getId());
+        feed.setLastSyncTimestamp(LocalDateTime.now());
+      });
+      updateFeed(feed);
     });
-    updateFeed(feed);
 
     return FeedRefreshResult.builder()
         .hasNewEpisodes(true)
@@ -427,6 +474,19 @@ public abstract class AbstractFeedService<F extends Feed> {
         .build();
   }
 
+  /**
+   * 按订阅近期的发布节奏计算并保存下次定时同步时间，同步成功与否都要调用，避免失败的订阅每轮重试。
+   */
+  public LocalDateTime scheduleNextSync(F feed) {
+    List<LocalDateTime> publishTimes = selectRecentPublishTimes(feed.getId());
+    LocalDateTime nextSyncAt = syncCadencePolicy().nextSyncAt(publishTimes, LocalDateTime.now(),
+        ThreadLocalRandom.current().nextDouble(-1.0D, 1.0D));
+    updateNextSyncAt(feed.getId(), nextSyncAt);
+    feed.setNextSyncAt(nextSyncAt);
+    logger().debug("{} 下次同步时间: {}", feed.getTitle(), nextSyncAt);
+    return nextSyncAt;
+  }
+
   protected abstract Optional<F> findFeedById(String feedId);
 
   protected abstract int updateFeed(F feed);
@@ -439,5 +499,11 @@ public abstract class AbstractFeedService<F extends Feed> {
 
   protected abstract List<Episode> fetchIncrementalEpisodes(F feed);
 
+  protected abstract SyncCadencePolicy syncCadencePolicy();
+
+  protected abstract List<LocalDateTime> selectRecentPublishTimes(String feedId);
+
+  protected abstract void updateNextSyncAt(String feedId, LocalDateTime nextSyncAt);
+
   protected abstract Logger logger();
 }
@@ -24,6 +24,7 @@ import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
@@ -34,9 +35,11 @@ import org.springframework.util.StringUtils;
 import top.asimov.pigeon.config.AppBaseUrlResolver;
 import top.asimov.pigeon.config.OutboundProxyHolder;
 import top.asimov.pigeon.config.ProxyExecutionScope;
+import top.asimov.pigeon.config.DownloadRuntimeConfigApplier;
 import top.asimov.pigeon.config.ProxyRuntimeConfigApplier;
 import top.asimov.pigeon.config.StorageRuntimeConfigApplier;
 import top.asimov.pigeon.config.YoutubeApiKeyHolder;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.mapper.ChannelMapper;
 import top.asimov.pigeon.mapper.EpisodeMapper;
@@ -55,6 +58,7 @@ import top.asimov.pigeon.model.request.ExportFeedsOpmlRequest;
 import top.asimov.pigeon.model.response.ProxyTestItemResponse;
 import top.asimov.pigeon.model.response.ProxyTestResponse;
 import top.asimov.pigeon.model.response.StorageSwitchCheckResponse;
+import top.asimov.pigeon.model.response.YoutubeClientPoolStatsResponse;
 import top.asimov.pigeon.helper.YoutubeServiceFactory;
 import top.asimov.pigeon.service.storage.S3StorageService;
 import top.asimov.pigeon.util.FeedSourceUrlBuilder;
@@ -81,22 +85,26 @@ public class AccountService {
   private final S3StorageService s3StorageService;
   private final StorageRuntimeConfigApplier runtimeConfigApplier;
   private final ProxyRuntimeConfigApplier proxyRuntimeConfigApplier;
+  private final DownloadRuntimeConfigApplier downloadRuntimeConfigApplier;
   private final YoutubeServiceFactory youtubeServiceFactory;
   private final ProxyExecutionScope proxyExecutionScope;
   private final OutboundProxyHolder outboundProxyHolder;
   private final YtDlpRuntimeService ytDlpRuntimeService;
   private final YtDlpProxyService ytDlpProxyService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public AccountService(UserMapper userMapper, ChannelMapper channelMapper, EpisodeMapper episodeMapper,
       PlaylistMapper playlistMapper, MessageSource messageSource, ObjectMapper objectMapper,
       SystemConfigService systemConfigService, AppBaseUrlResolver appBaseUrlResolver,
       S3StorageService s3StorageService, StorageRuntimeConfigApplier runtimeConfigApplier,
       ProxyRuntimeConfigApplier proxyRuntimeConfigApplier,
+      DownloadRuntimeConfigApplier downloadRuntimeConfigApplier,
       YoutubeServiceFactory youtubeServiceFactory,
       ProxyExecutionScope proxyExecutionScope,
       OutboundProxyHolder outboundProxyHolder,
       YtDlpRuntimeService ytDlpRuntimeService,
-      YtDlpProxyService ytDlpProxyService) {
+      YtDlpProxyService ytDlpProxyService,
+      ApplicationEventPublisher eventPublisher) {
     this.userMapper = userMapper;
     this.channelMapper = channelMapper;
     this.episodeMapper = episodeMapper;
@@ -108,11 +116,13 @@ public class AccountService {
     this.s3StorageService = s3StorageService;
     this.runtimeConfigApplier = runtimeConfigApplier;
     this.proxyRuntimeConfigApplier = proxyRuntimeConfigApplier;
+    this.downloadRuntimeConfigApplier = downloadRuntimeConfigApplier;
     this.youtubeServiceFactory = youtubeServiceFactory;
     this.proxyExecutionScope = proxyExecutionScope;
     this.outboundProxyHolder = outboundProxyHolder;
     this.ytDlpRuntimeService = ytDlpRuntimeService;
     this.ytDlpProxyService = ytDlpProxyService;
+    this.eventPublisher = eventPublisher;
   }
 
   /**
@@ -378,9 +388,16 @@ public class AccountService {
     SystemConfig updated = systemConfigService.updateSystemConfig(incoming);
     runtimeConfigApplier.apply(updated);
     proxyRuntimeConfigApplier.apply(updated);
+    downloadRuntimeConfigApplier.apply(updated);
+    // Base URL、存储方式等变化会影响所有 RSS 中的链接
+    eventPublisher.publishEvent(FeedContentChangedEvent.ofAll(this));
     return sanitizeSystemConfig(updated);
   }
 
+  public YoutubeClientPoolStatsResponse getYoutubeClientPoolStats() {
+    return youtubeServiceFactory.stats();
+  }
+
   public ProxyTestResponse testProxyConfig(SystemConfig incoming) {
     SystemConfig candidate = systemConfigService.buildCandidate(incoming);
     OutboundProxyHolder.OutboundProxySettings proxySettings = outboundProxyHolder.from(candidate);
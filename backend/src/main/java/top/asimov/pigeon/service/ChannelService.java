@@ -3,8 +3,10 @@ package top.asimov.pigeon.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.ApplicationEventPublisher;
@@ -12,19 +14,29 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ObjectUtils;
 import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.config.SyncCadenceProperties;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadTargetType;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.event.FeedVisibilityResetEvent;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.handler.FeedEpisodeHelper;
 import top.asimov.pigeon.helper.BilibiliChannelHelper;
 import top.asimov.pigeon.helper.BilibiliResolverHelper;
 import top.asimov.pigeon.helper.YoutubeChannelHelper;
 import top.asimov.pigeon.helper.YoutubeHelper;
+import top.asimov.pigeon.helper.YoutubeQuotaContextHolder;
+import top.asimov.pigeon.helper.YoutubeUploadsPrecheck;
+import top.asimov.pigeon.helper.YoutubeUploadsPrecheck.Precheck;
+import top.asimov.pigeon.helper.YoutubeVideoHelper.PlaylistFetchResult;
 import top.asimov.pigeon.mapper.ChannelMapper;
 import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 import top.asimov.pigeon.model.enums.FeedSource;
+import top.asimov.pigeon.model.enums.YoutubeApiCallContext;
 import top.asimov.pigeon.model.response.FeedConfigUpdateResult;
 import top.asimov.pigeon.model.response.FeedPack;
 import top.asimov.pigeon.model.response.FeedRefreshResult;
@@ -32,6 +44,7 @@ import top.asimov.pigeon.model.response.FeedSaveResult;
 import top.asimov.pigeon.util.BilibiliIdUtil;
 import top.asimov.pigeon.util.FeedEpisodeVisibilityHelper;
 import top.asimov.pigeon.util.FeedSourceUrlBuilder;
+import top.asimov.pigeon.util.SyncCadencePolicy;
 
 @Log4j2
 @Service
@@ -48,6 +61,9 @@ public class ChannelService extends AbstractFeedService<Channel> {
   private final AccountService accountService;
   private final MessageSource messageSource;
   private final AppBaseUrlResolver appBaseUrlResolver;
+  private final SyncCadenceProperties syncCadenceProperties;
+  private final YoutubeUploadsPrecheck youtubeUploadsPrecheck;
+  private final YoutubeQuotaService youtubeQuotaService;
 
   public ChannelService(ChannelMapper channelMapper, EpisodeService episodeService,
       ApplicationEventPublisher eventPublisher, YoutubeHelper youtubeHelper,
@@ -56,8 +72,10 @@ public class ChannelService extends AbstractFeedService<Channel> {
       BilibiliChannelHelper bilibiliChannelHelper,
       AccountService accountService,
       MessageSource messageSource, FeedDefaultsService feedDefaultsService,
-      AppBaseUrlResolver appBaseUrlResolver) {
-    super(episodeService, eventPublisher, messageSource, feedDefaultsService);
+      AppBaseUrlResolver appBaseUrlResolver, SyncCadenceProperties syncCadenceProperties,
+      YoutubeUploadsPrecheck youtubeUploadsPrecheck, YoutubeQuotaService youtubeQuotaService,
+      TransactionTemplate transactionTemplate) {
+    super(episodeService, eventPublisher, messageSource, feedDefaultsService, transactionTemplate);
     this.channelMapper = channelMapper;
     this.youtubeHelper = youtubeHelper;
     this.youtubeChannelHelper = youtubeChannelHelper;
@@ -66,6 +84,9 @@ public class ChannelService extends AbstractFeedService<Channel> {
     this.accountService = accountService;
     this.messageSource = messageSource;
     this.appBaseUrlResolver = appBaseUrlResolver;
+    this.syncCadenceProperties = syncCadenceProperties;
+    this.youtubeUploadsPrecheck = youtubeUploadsPrecheck;
+    this.youtubeQuotaService = youtubeQuotaService;
   }
 
   /**
@@ -162,6 +183,7 @@ public class ChannelService extends AbstractFeedService<Channel> {
       throw new BusinessException(messageSource.getMessage("feed.config.update.failed", null,
           LocaleContextHolder.getLocale()));
     }
+    eventPublisher().publishEvent(FeedContentChangedEvent.ofFeed(this, channelId));
   }
 
   /**
@@ -268,11 +290,7 @@ public class ChannelService extends AbstractFeedService<Channel> {
    * @return 需要同步的频道列表
    */
   public List<Channel> findDueForSync(LocalDateTime checkTime) {
-    List<Channel> channels = channelMapper.selectList(new LambdaQueryWrapper<>());
-    return channels.stream()
-        .filter(c -> c.getLastSyncTimestamp() == null ||
-            c.getLastSyncTimestamp().isBefore(checkTime))
-        .collect(Collectors.toList());
+    return channelMapper.selectDueForSync(checkTime, syncCadenceProperties.getBatchSize());
   }
 
   /**
@@ -305,6 +323,9 @@ public class ChannelService extends AbstractFeedService<Channel> {
     // 5. 删除频道记录
     int result = channelMapper.deleteById(channelId);
     if (result > 0) {
+      FeedEpisodeVisibilityHelper.evictCompiledFilter(channelId);
+      youtubeUploadsPrecheck.forget(channelId);
+      eventPublisher().publishEvent(FeedContentChangedEvent.ofFeed(this, channelId));
       log.info("频道 {} 删除成功", channel.getTitle());
     } else {
       log.error("频道 {} 删除失败", channel.getTitle());
@@ -313,7 +334,6 @@ public class ChannelService extends AbstractFeedService<Channel> {
     }
   }
 
-  @Transactional
   public FeedRefreshResult refreshChannelById(String channelId) {
     Channel channel = channelMapper.selectById(channelId);
     if (channel == null) {
@@ -325,11 +345,10 @@ public class ChannelService extends AbstractFeedService<Channel> {
   }
 
   /**
-   * 同步频道，检查是否有新视频并处理
+   * 同步频道，检查是否有新视频并处理。不在事务中执行，见 {@link #refreshFeed}。
    *
    * @param channel 要同步的频道对象
    */
-  @Transactional
   public FeedRefreshResult refreshChannel(Channel channel) {
     log.info("正在同步频道: {}", channel.getTitle());
     return refreshFeed(channel);
@@ -342,7 +361,6 @@ public class ChannelService extends AbstractFeedService<Channel> {
    * @param channelId 频道 ID
    * @return 新增的节目信息列表（已去重）
    */
-  @Transactional
   public List<Episode> fetchChannelHistory(String channelId) {
     Channel channel = channelMapper.selectById(channelId);
     if (channel == null) {
@@ -376,7 +394,6 @@ public class ChannelService extends AbstractFeedService<Channel> {
    * @param minimumDuration   最小时长
    * @param maximumDuration   最长时长
    */
-  @Transactional
   public void processChannelInitializationAsync(String channelId, Integer autoDownloadLimit,
       String containKeywords, String excludeKeywords, Integer minimumDuration,
       Integer maximumDuration) {
@@ -414,30 +431,39 @@ public class ChannelService extends AbstractFeedService<Channel> {
         return;
       }
 
-      FeedEpisodeHelper.findLatestEpisode(episodes).ifPresent(latest -> {
-        channel.setLastSyncVideoId(latest.getId());
-        channel.setLastSyncTimestamp(LocalDateTime.now());
-        initializeHistoryCursorAfterInitialFetch(channel, episodes);
-        channelMapper.updateById(channel);
-      });
-      List<Episode> episodesToPersist = prepareEpisodesForPersistence(episodes);
-      episodeService().saveEpisodes(episodesToPersist);
-      episodeService().backfillChannelIdIfMissing(channelId, episodesToPersist);
-      // 入库所有节目（包括仅保存元数据的部分）
-      afterEpisodesPersisted(channel, episodesToPersist);
-
-      List<Episode> visibleEpisodes = FeedEpisodeVisibilityHelper.filterVisibleEpisodes(channel, episodesToPersist);
-      if (downloadLimit > 0) {
-        // 仅对前 downloadLimit 个节目参与自动下载（根据延迟配置决定是否立即入队）
-        List<Episode> episodesToDownload = visibleEpisodes;
-        if (visibleEpisodes.size() > downloadLimit) {
-          episodesToDownload = visibleEpisodes.subList(0, downloadLimit);
+      // 历史游标的首页请求同样放在事务外
+      YoutubeChannelHelper.PageHistoryResult historyPage = isBilibiliChannel(channel)
+          ? null : youtubeChannelHelper.fetchChannelHistoryPage(channelId, null);
+
+      transactionTemplate().executeWithoutResult(status -> {
+        FeedEpisodeHelper.findLatestEpisode(episodes).ifPresent(latest -> {
+          channel.setLastSyncVideoId(latest.getId());
+          channel.setLastSyncTimestamp(LocalDateTime.now());
+          initializeHistoryCursorAfterInitialFetch(channel, historyPage);
+          channelMapper.updateById(channel);
+        });
+        List<Episode> episodesToPersist = prepareEpisodesForPersistence(episodes);
+        episodeService().saveEpisodes(episodesToPersist);
+        episodeService().backfillChannelIdIfMissing(channelId, episodesToPersist);
+        // 入库所有节目（包括仅保存元数据的部分）
+        afterEpisodesPersisted(channel, episodesToPersist);
+
+        List<Episode> visibleEpisodes = FeedEpisodeVisibilityHelper.filterVisibleEpisodes(channel,
+            episodesToPersist);
+        if (downloadLimit > 0) {
+          // 仅对前 downloadLimit 个节目参与自动下载（根据延迟配置决定是否立即入队）
+          List<Episode> episodesToDownload = visibleEpisodes;
+          if (visibleEpisodes.size() > downloadLimit) {
+            episodesToDownload = visibleEpisodes.subList(0, downloadLimit);
+          }
+          markAndPublishAutoDownloadEpisodes(
+              channel,
+              episodesToDownload,
+              buildEpisodesCreatedContext("init", channel),
+              DownloadPriority.BACKFILL);
         }
-        markAndPublishAutoDownloadEpisodes(
-            channel,
-            episodesToDownload,
-            buildEpisodesCreatedContext("init", channel));
-      }
+      });
+      episodeService().refreshChannelVisibility(channel);
 
       log.info("频道 {} 异步初始化完成，保存了 {} 个视频", channelId, episodes.size());
 
@@ -556,6 +582,9 @@ public class ChannelService extends AbstractFeedService<Channel> {
   @Override
   protected void insertFeed(Channel feed) {
     channelMapper.insert(feed);
+    // 播放列表中可能已有该频道的节目，按新频道的过滤条件重新计算
+    episodeService().resetFeedVisibility(feed);
+    eventPublisher().publishEvent(new FeedVisibilityResetEvent(this, feed.getId()));
   }
 
   @Override
@@ -563,6 +592,41 @@ public class ChannelService extends AbstractFeedService<Channel> {
     return DownloadTargetType.CHANNEL;
   }
 
+  @Override
+  protected void afterFilterChanged(Channel feed) {
+    // 首页 ETag 与预检状态记录的是旧条件下的抓取结果，下一轮按新条件完整抓取
+    feed.setUploadsPageEtag(null);
+    channelMapper.clearUploadsPageEtag(feed.getId());
+    youtubeUploadsPrecheck.forget(feed.getId());
+  }
+
+  // 只在定时同步时预检；手动刷新直接调用 Data API，避免 Atom 订阅更新滞后时看不到刚发布的视频
+  private Precheck precheckYoutubeUploads(Channel feed) {
+    if (YoutubeQuotaContextHolder.get() != YoutubeApiCallContext.AUTO_SYNC) {
+      return Precheck.unavailable(feed.getId());
+    }
+    return youtubeUploadsPrecheck.check(feed.getId(), videoIds ->
+        episodeService().getEpisodeStatusByIds(List.copyOf(videoIds)).stream()
+            .map(Episode::getId)
+            .collect(Collectors.toSet()));
+  }
+
+  @Override
+  protected SyncCadencePolicy syncCadencePolicy() {
+    return syncCadenceProperties.channelPolicy();
+  }
+
+  @Override
+  protected List<LocalDateTime> selectRecentPublishTimes(String feedId) {
+    return episodeService().getRecentPublishedAtByChannelId(feedId,
+        syncCadenceProperties.getHistorySize());
+  }
+
+  @Override
+  protected void updateNextSyncAt(String feedId, LocalDateTime nextSyncAt) {
+    channelMapper.updateNextSyncAt(feedId, nextSyncAt);
+  }
+
   @Override
   protected List<Episode> fetchEpisodes(Channel feed) {
     int pages = Math.max(1, (int) Math.ceil((double) Math.max(1, AbstractFeedService.DEFAULT_PREVIEW_NUM) / 50.0));
@@ -610,17 +674,40 @@ public class ChannelService extends AbstractFeedService<Channel> {
           feed.getMinimumDuration(),
           feed.getMaximumDuration());
     } else {
-      // 仅抓取最新一页（最多 50 条），通过与数据库已有的 Episode ID 做差值，确定真正新增的节目。
-      episodes = youtubeChannelHelper.fetchYoutubeChannelVideos(
+      Precheck precheck = precheckYoutubeUploads(feed);
+      if (precheck.unchanged()) {
+        log.info("频道 {} 的上传 Atom 订阅没有新视频，跳过 YouTube Data API。", feed.getTitle());
+        youtubeQuotaService.recordSaved(YoutubeUploadsPrecheck.SKIPPED_METHODS);
+        return Collections.emptyList();
+      }
+      // 仅抓取最新一页（最多 50 条），遇到第一个已入库的节目即停止；首页未变化时不再请求视频详情。
+      // 有被跳过的直播时不保存 ETag，直播结束不一定改变首页，304 会挡住回放。
+      PlaylistFetchResult result = youtubeChannelHelper.fetchYoutubeChannelVideosSinceKnown(
           feed.getId(),
-          1,
-          null,
+          feed.getUploadsPageEtag(),
+          videoId -> episodeService().isPersistedInChannel(videoId, feed.getId()),
+          youtubeUploadsPrecheck.unresolvedIds(feed.getId()),
           feed.getTitleContainKeywords(),
           feed.getTitleExcludeKeywords(),
           feed.getDescriptionContainKeywords(),
           feed.getDescriptionExcludeKeywords(),
           feed.getMinimumDuration(),
           feed.getMaximumDuration());
+      // 新节目在 refreshFeed 的事务中入库，下一轮按库中是否存在确认；被跳过的直播等结束后再抓取
+      Set<String> unresolvedIds = new HashSet<>(result.skippedLiveIds());
+      result.episodes().forEach(episode -> unresolvedIds.add(episode.getId()));
+      youtubeUploadsPrecheck.acknowledge(precheck, unresolvedIds);
+      if (result.notModified()) {
+        return Collections.emptyList();
+      }
+      if (result.skippedLiveIds().isEmpty()) {
+        // 随 refreshFeed 的 updateFeed 保存
+        feed.setUploadsPageEtag(result.firstPageEtag());
+      } else if (feed.getUploadsPageEtag() != null) {
+        feed.setUploadsPageEtag(null);
+        channelMapper.clearUploadsPageEtag(feed.getId());
+      }
+      episodes = result.episodes();
     }
 
     // 将已存在但 channel_id 为空的节目补回频道归属。
@@ -724,8 +811,11 @@ public class ChannelService extends AbstractFeedService<Channel> {
       return Collections.emptyList();
     }
     List<Episode> episodesToPersist = prepareEpisodesForPersistence(newEpisodes);
-    episodeService().saveEpisodes(episodesToPersist);
-    episodeService().backfillChannelIdIfMissing(channel.getId(), episodesToPersist);
+    transactionTemplate().executeWithoutResult(status -> {
+      episodeService().saveEpisodes(episodesToPersist);
+      episodeService().backfillChannelIdIfMissing(channel.getId(), episodesToPersist);
+    });
+    episodeService().refreshChannelVisibility(channel);
     return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(channel, episodesToPersist);
   }
 
@@ -740,25 +830,31 @@ public class ChannelService extends AbstractFeedService<Channel> {
 
     List<Episode> newEpisodes = filterNewEpisodes(episodes);
     List<Episode> episodesToPersist = prepareEpisodesForPersistence(newEpisodes);
+    // 每页的节目与游标在同一个短事务中保存，翻页请求不占用写连接
+    transactionTemplate().executeWithoutResult(status -> {
+      if (!episodesToPersist.isEmpty()) {
+        episodeService().saveEpisodes(episodesToPersist);
+        episodeService().backfillChannelIdIfMissing(channel.getId(), episodesToPersist);
+      }
+      updateHistoryCursor(channel, cursorType, nextCursorValue, nextPageNumber, exhausted);
+    });
     if (!episodesToPersist.isEmpty()) {
-      episodeService().saveEpisodes(episodesToPersist);
-      episodeService().backfillChannelIdIfMissing(channel.getId(), episodesToPersist);
+      episodeService().refreshChannelVisibility(channel);
     }
-    updateHistoryCursor(channel, cursorType, nextCursorValue, nextPageNumber, exhausted);
     return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(channel, episodesToPersist);
   }
 
-  private void initializeHistoryCursorAfterInitialFetch(Channel channel, List<Episode> fetchedEpisodes) {
-    if (channel == null || fetchedEpisodes == null || fetchedEpisodes.isEmpty()) {
+  private void initializeHistoryCursorAfterInitialFetch(Channel channel,
+      YoutubeChannelHelper.PageHistoryResult youtubeHistoryPage) {
+    if (channel == null) {
       return;
     }
     if (isBilibiliChannel(channel)) {
       updateHistoryCursor(channel, CURSOR_TYPE_BILIBILI_PAGE_NUM, null, 2, false);
       return;
     }
-    YoutubeChannelHelper.PageHistoryResult page =
-        youtubeChannelHelper.fetchChannelHistoryPage(channel.getId(), null);
-    updateHistoryCursor(channel, CURSOR_TYPE_YOUTUBE_PAGE_TOKEN, page.nextPageToken(), 2, page.exhausted());
+    updateHistoryCursor(channel, CURSOR_TYPE_YOUTUBE_PAGE_TOKEN, youtubeHistoryPage.nextPageToken(), 2,
+        youtubeHistoryPage.exhausted());
   }
 
   private boolean hasPersistedHistoryCursor(Channel channel) {
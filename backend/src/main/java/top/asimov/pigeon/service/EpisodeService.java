@@ -1,30 +1,39 @@
 package top.asimov.pigeon.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import top.asimov.pigeon.config.StorageProperties;
+import top.asimov.pigeon.event.DownloadDeadlineEvent;
 import top.asimov.pigeon.event.EpisodesCreatedEvent;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
 import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.helper.DownloadDispatcher;
+import top.asimov.pigeon.helper.DownloadProgressRegistry;
 import top.asimov.pigeon.mapper.ChannelMapper;
 import top.asimov.pigeon.mapper.EpisodeMapper;
 import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
@@ -33,10 +42,15 @@ import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Feed;
 import top.asimov.pigeon.model.entity.Playlist;
+import top.asimov.pigeon.model.entity.PlaylistEpisode;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 import top.asimov.pigeon.model.enums.EpisodeBatchAction;
 import top.asimov.pigeon.model.enums.EpisodeStatus;
+import top.asimov.pigeon.model.response.EpisodeDownloadProgressResponse;
+import top.asimov.pigeon.model.response.EpisodeQueuePositionResponse;
 import top.asimov.pigeon.model.response.EpisodeStatisticsResponse;
 import top.asimov.pigeon.service.storage.S3StorageService;
+import top.asimov.pigeon.util.EpisodeAssetIndexUtil;
 import top.asimov.pigeon.util.FeedEpisodeVisibilityHelper;
 import top.asimov.pigeon.util.MediaKeyUtil;
 
@@ -44,6 +58,10 @@ import top.asimov.pigeon.util.MediaKeyUtil;
 @Service
 public class EpisodeService {
 
+  private static final int VISIBILITY_BATCH_SIZE = 500;
+  // 每条多行语句的节目数，26 列 × 200 行远低于 SQLite 绑定参数上限
+  private static final int EPISODE_WRITE_BATCH_SIZE = 200;
+
   private final EpisodeMapper episodeMapper;
   private final ApplicationEventPublisher eventPublisher;
   private final MessageSource messageSource;
@@ -52,12 +70,15 @@ public class EpisodeService {
   private final PlaylistMapper playlistMapper;
   private final StorageProperties storageProperties;
   private final S3StorageService s3StorageService;
+  private final DownloadProgressRegistry downloadProgressRegistry;
+  private final DownloadDispatcher downloadDispatcher;
 
   public EpisodeService(EpisodeMapper episodeMapper, ApplicationEventPublisher eventPublisher,
       MessageSource messageSource, ChannelMapper channelMapper,
       PlaylistEpisodeMapper playlistEpisodeMapper, PlaylistMapper playlistMapper,
       StorageProperties storageProperties,
-      S3StorageService s3StorageService) {
+      S3StorageService s3StorageService, DownloadProgressRegistry downloadProgressRegistry,
+      DownloadDispatcher downloadDispatcher) {
     this.episodeMapper = episodeMapper;
     this.eventPublisher = eventPublisher;
     this.messageSource = messageSource;
@@ -66,6 +87,8 @@ public class EpisodeService {
     this.playlistMapper = playlistMapper;
     this.storageProperties = storageProperties;
     this.s3StorageService = s3StorageService;
+    this.downloadProgressRegistry = downloadProgressRegistry;
+    this.downloadDispatcher = downloadDispatcher;
   }
 
   public boolean isS3Mode() {
@@ -76,8 +99,7 @@ public class EpisodeService {
     String statusFilter = resolveStatusFilter(filter);
     Channel channel = channelMapper.selectById(feedId);
     if (channel != null) {
-      List<Episode> episodes = listChannelEpisodes(feedId, search, sort, statusFilter);
-      return paginateVisibleEpisodes(channel, episodes, page);
+      return episodeMapper.selectPage(page, buildVisibleChannelEpisodeQuery(feedId, search, sort, statusFilter));
     }
 
     Playlist playlist = playlistMapper.selectById(feedId);
@@ -86,14 +108,20 @@ public class EpisodeService {
       page.setRecords(Collections.emptyList());
       return page;
     }
-    List<Episode> episodes = playlistEpisodeMapper.selectEpisodesByPlaylistIdWithFilters(feedId,
-        StringUtils.hasText(search) ? search.trim() : null, statusFilter, sort);
-    if (episodes.isEmpty()) {
-      page.setTotal(0);
+    String normalizedSearch = StringUtils.hasText(search) ? search.trim() : null;
+    long total = playlistEpisodeMapper.countVisibleByPlaylistIdWithFilters(feedId, normalizedSearch,
+        statusFilter);
+    page.setTotal(total);
+    long current = page.getCurrent() > 0 ? page.getCurrent() : 1;
+    long size = page.getSize() > 0 ? page.getSize() : 10;
+    long offset = (current - 1) * size;
+    if (offset >= total) {
       page.setRecords(Collections.emptyList());
       return page;
     }
-    return paginateVisibleEpisodes(playlist, episodes, page);
+    page.setRecords(playlistEpisodeMapper.selectVisibleEpisodePageByPlaylistIdWithFilters(feedId,
+        offset, size, normalizedSearch, statusFilter, sort));
+    return page;
   }
 
   private static String resolveStatusFilter(String filter) {
@@ -112,14 +140,6 @@ public class EpisodeService {
     return episodeMapper.selectList(queryWrapper);
   }
 
-  public List<Episode> getEpisodeOrderByPublishDateDesc(String channelId) {
-    LambdaQueryWrapper<Episode> queryWrapper = new LambdaQueryWrapper<>();
-    queryWrapper.eq(Episode::getChannelId, channelId)
-        .eq(Episode::getDownloadStatus, EpisodeStatus.COMPLETED)
-        .orderByDesc(Episode::getPublishedAt);
-    return episodeMapper.selectList(queryWrapper);
-  }
-
   public List<Episode> getEpisodesByPlaylistId(String playlistId) {
     return episodeMapper.selectEpisodesByPlaylistId(playlistId);
   }
@@ -131,6 +151,23 @@ public class EpisodeService {
     return episodeMapper.selectEarliestByChannelId(channelId);
   }
 
+  /**
+   * 节目是否已作为该频道的节目入库，按主键查询，供增量同步逐条判断停止位置。
+   */
+  public boolean isPersistedInChannel(String episodeId, String channelId) {
+    if (!StringUtils.hasText(episodeId) || !StringUtils.hasText(channelId)) {
+      return false;
+    }
+    return episodeMapper.existsByIdAndChannelId(episodeId, channelId);
+  }
+
+  public List<LocalDateTime> getRecentPublishedAtByChannelId(String channelId, int limit) {
+    if (!StringUtils.hasText(channelId) || limit <= 0) {
+      return Collections.emptyList();
+    }
+    return episodeMapper.selectRecentPublishedAtByChannelId(channelId, limit);
+  }
+
   public List<Episode> getEpisodesByIds(List<String> episodeIds) {
     if (episodeIds == null || episodeIds.isEmpty()) {
       return Collections.emptyList();
@@ -150,32 +187,47 @@ public class EpisodeService {
         Episode::getDescription,
         Episode::getDuration,
         Episode::getDurationSeconds,
+        Episode::getLiveVod,
         Episode::getPublishedAt
     );
     return episodeMapper.selectList(queryWrapper);
   }
 
-  public List<Episode> getVisibleCompletedEpisodesForChannel(Channel channel) {
-    if (channel == null) {
-      return Collections.emptyList();
+  /**
+   * 以游标逐条读取频道下可见且已下载完成的节目，按发布时间倒序。
+   *
+   * <p>生成 RSS 时边读边写，内存占用与节目数量无关；游标需要在事务内保持连接。
+   * 这里只读取已计算的可见性，尚未评估的节目不会出现，直到写入流程或 {@code FeedVisibilityRefresher}
+   * 完成计算。</p>
+   */
+  @Transactional(readOnly = true)
+  public void forEachVisibleCompletedEpisode(Channel channel, Consumer<Episode> consumer) {
+    try (Cursor<Episode> cursor =
+        episodeMapper.selectVisibleCompletedEpisodesByChannelId(channel.getId())) {
+      cursor.forEach(consumer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    List<Episode> episodes = getEpisodeOrderByPublishDateDesc(channel.getId());
-    return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(channel, episodes);
   }
 
-  public List<Episode> getVisibleCompletedEpisodesForPlaylist(Playlist playlist) {
-    if (playlist == null) {
-      return Collections.emptyList();
+  /**
+   * @see #forEachVisibleCompletedEpisode(Channel, Consumer)
+   */
+  @Transactional(readOnly = true)
+  public void forEachVisibleCompletedEpisode(Playlist playlist, Consumer<Episode> consumer) {
+    try (Cursor<Episode> cursor =
+        episodeMapper.selectVisibleCompletedEpisodesByPlaylistId(playlist.getId())) {
+      cursor.forEach(consumer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    List<Episode> completed = episodeMapper.selectEpisodesByPlaylistId(playlist.getId()).stream()
-        .filter(episode -> EpisodeStatus.COMPLETED.name().equals(episode.getDownloadStatus()))
-        .toList();
-    return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(playlist, completed);
   }
 
-  private List<Episode> listChannelEpisodes(String feedId, String search, String sort, String statusFilter) {
+  private LambdaQueryWrapper<Episode> buildVisibleChannelEpisodeQuery(String feedId, String search,
+      String sort, String statusFilter) {
     LambdaQueryWrapper<Episode> queryWrapper = new LambdaQueryWrapper<>();
-    queryWrapper.eq(Episode::getChannelId, feedId);
+    queryWrapper.eq(Episode::getChannelId, feedId)
+        .eq(Episode::getChannelVisible, true);
     if (StringUtils.hasText(search)) {
       queryWrapper.like(Episode::getTitle, search.trim());
     }
@@ -183,53 +235,168 @@ public class EpisodeService {
       queryWrapper.eq(Episode::getDownloadStatus, statusFilter);
     }
     boolean oldestFirst = "oldest".equalsIgnoreCase(sort);
-    queryWrapper.orderBy(true, oldestFirst, Episode::getPublishedAt);
-    return episodeMapper.selectList(queryWrapper);
+    // 追加 id 保证同一发布时间的节目在翻页时顺序稳定
+    queryWrapper.orderBy(true, oldestFirst, Episode::getPublishedAt)
+        .orderBy(true, oldestFirst, Episode::getId);
+    return queryWrapper;
   }
 
-  private Page<Episode> paginateVisibleEpisodes(Feed feed, List<Episode> episodes, Page<Episode> page) {
-    List<Episode> visibleEpisodes = FeedEpisodeVisibilityHelper.filterVisibleEpisodes(feed, episodes);
-    long total = visibleEpisodes.size();
-    page.setTotal(total);
-    if (total == 0) {
-      page.setRecords(Collections.emptyList());
-      return page;
+  /**
+   * 按频道过滤条件补算尚未评估可见性的节目。
+   *
+   * <p>新入库的节目和过滤条件变化后被清空的节目 channel_visible 为空，分批计算后写回，
+   * 之后的分页与计数只需按该列过滤。</p>
+   */
+  public int refreshChannelVisibility(Channel channel) {
+    if (channel == null) {
+      return 0;
+    }
+    int refreshed = 0;
+    String lastId = "";
+    while (true) {
+      List<Episode> batch = episodeMapper.selectList(new LambdaQueryWrapper<Episode>()
+          .select(Episode::getId, Episode::getTitle, Episode::getDescription, Episode::getDuration,
+              Episode::getDurationSeconds, Episode::getLiveVod)
+          .eq(Episode::getChannelId, channel.getId())
+          .isNull(Episode::getChannelVisible)
+          .gt(Episode::getId, lastId)
+          .orderByAsc(Episode::getId)
+          .last("LIMIT " + VISIBILITY_BATCH_SIZE));
+      if (batch.isEmpty()) {
+        return refreshed;
+      }
+      List<String> visibleIds = new ArrayList<>();
+      List<String> hiddenIds = new ArrayList<>();
+      for (Episode episode : batch) {
+        if (FeedEpisodeVisibilityHelper.matchesFeedFilter(channel, episode)) {
+          visibleIds.add(episode.getId());
+        } else {
+          hiddenIds.add(episode.getId());
+        }
+      }
+      updateChannelVisibility(visibleIds, true);
+      updateChannelVisibility(hiddenIds, false);
+      refreshed += batch.size();
+      lastId = batch.get(batch.size() - 1).getId();
     }
-    long current = page.getCurrent() > 0 ? page.getCurrent() : 1;
-    long size = page.getSize() > 0 ? page.getSize() : 10;
-    int fromIndex = (int) Math.min((current - 1) * size, total);
-    int toIndex = (int) Math.min(fromIndex + size, total);
-    page.setRecords(visibleEpisodes.subList(fromIndex, toIndex));
-    return page;
   }
 
+  /**
+   * 按播放列表过滤条件补算尚未评估可见性的节目映射。
+   */
+  public int refreshPlaylistVisibility(Playlist playlist) {
+    if (playlist == null) {
+      return 0;
+    }
+    int refreshed = 0;
+    String lastId = "";
+    while (true) {
+      List<PlaylistEpisode> batch = playlistEpisodeMapper.selectList(
+          new LambdaQueryWrapper<PlaylistEpisode>()
+              .select(PlaylistEpisode::getId, PlaylistEpisode::getEpisodeId)
+              .eq(PlaylistEpisode::getPlaylistId, playlist.getId())
+              .isNull(PlaylistEpisode::getVisible)
+              .gt(PlaylistEpisode::getId, lastId)
+              .orderByAsc(PlaylistEpisode::getId)
+              .last("LIMIT " + VISIBILITY_BATCH_SIZE));
+      if (batch.isEmpty()) {
+        return refreshed;
+      }
+      Map<String, Episode> episodesById = getEpisodesBasicByIds(
+          batch.stream().map(PlaylistEpisode::getEpisodeId).toList()).stream()
+          .collect(Collectors.toMap(Episode::getId, episode -> episode, (left, right) -> left));
+      List<String> visibleIds = new ArrayList<>();
+      List<String> hiddenIds = new ArrayList<>();
+      for (PlaylistEpisode mapping : batch) {
+        Episode episode = episodesById.get(mapping.getEpisodeId());
+        if (FeedEpisodeVisibilityHelper.matchesFeedFilter(playlist, episode)) {
+          visibleIds.add(mapping.getId());
+        } else {
+          hiddenIds.add(mapping.getId());
+        }
+      }
+      updatePlaylistVisibility(visibleIds, true);
+      updatePlaylistVisibility(hiddenIds, false);
+      refreshed += batch.size();
+      lastId = batch.get(batch.size() - 1).getId();
+    }
+  }
+
+  /**
+   * 补算订阅下尚未评估可见性的节目，返回本次计算的行数。
+   *
+   * <p>每批的写入各自提交（调用方不在事务中时），大订阅重算期间不会长时间占用 SQLite 写锁。</p>
+   */
+  public int refreshFeedVisibility(Feed feed) {
+    if (feed instanceof Channel channel) {
+      return refreshChannelVisibility(channel);
+    }
+    if (feed instanceof Playlist playlist) {
+      return refreshPlaylistVisibility(playlist);
+    }
+    return 0;
+  }
+
+  /**
+   * 订阅过滤条件变化后清空已有的可见性结果，由 {@code FeedVisibilityRefresher} 在事务提交后异步重新计算；
+   * 读取不会触发计算，重算完成前这些节目不出现在节目列表和 RSS 中。
+   */
+  public void resetFeedVisibility(Feed feed) {
+    if (feed instanceof Channel) {
+      episodeMapper.update(null, new LambdaUpdateWrapper<Episode>()
+          .set(Episode::getChannelVisible, null)
+          .eq(Episode::getChannelId, feed.getId()));
+    } else if (feed instanceof Playlist) {
+      playlistEpisodeMapper.update(null, new LambdaUpdateWrapper<PlaylistEpisode>()
+          .set(PlaylistEpisode::getVisible, null)
+          .eq(PlaylistEpisode::getPlaylistId, feed.getId()));
+    }
+  }
+
+  private void updateChannelVisibility(List<String> episodeIds, boolean visible) {
+    if (episodeIds.isEmpty()) {
+      return;
+    }
+    episodeMapper.update(null, new LambdaUpdateWrapper<Episode>()
+        .set(Episode::getChannelVisible, visible)
+        .in(Episode::getId, episodeIds));
+  }
+
+  private void updatePlaylistVisibility(List<String> mappingIds, boolean visible) {
+    if (mappingIds.isEmpty()) {
+      return;
+    }
+    playlistEpisodeMapper.update(null, new LambdaUpdateWrapper<PlaylistEpisode>()
+        .set(PlaylistEpisode::getVisible, visible)
+        .in(PlaylistEpisode::getId, mappingIds));
+  }
+
+  /**
+   * 批量保存节目，数据库中已存在的 ID 保持不变。
+   *
+   * <p>按 {@link #EPISODE_WRITE_BATCH_SIZE} 分块执行多行 {@code INSERT ... ON CONFLICT(id) DO NOTHING}，
+   * 由主键冲突完成去重；同一批内重复的 ID 保留第一次出现的对象。</p>
+   *
+   * @return 实际新增的节目数
+   */
   @Transactional
-  public void saveEpisodes(List<Episode> episodes) {
-    // 1. 列表内部去重：防止传入的 list 中包含重复的 ID
-    // 使用 Map 以 ID 为键，保留第一个出现的对象
-    Collection<Episode> distinctEpisodes = episodes.stream()
-        .collect(Collectors.toMap(
-            Episode::getId,
-            e -> e,
-            (existing, replacement) -> existing
-        ))
-        .values();
-
-    // 2. 检查数据库中已存在的记录
-    QueryWrapper<Episode> queryWrapper = new QueryWrapper<>();
-    queryWrapper.in("id", distinctEpisodes.stream().map(Episode::getId).toList());
-    List<Episode> existingEpisodes = episodeMapper.selectList(queryWrapper);
-
-    // 3. 排除数据库已有的 ID
-    List<Episode> finalEpisodesToSave = new ArrayList<>(distinctEpisodes);
-    if (!existingEpisodes.isEmpty()) {
-      Set<String> existingIds = existingEpisodes.stream()
-          .map(Episode::getId)
-          .collect(Collectors.toSet()); // 使用 Set 提高查询效率
-      finalEpisodesToSave.removeIf(episode -> existingIds.contains(episode.getId()));
-    }
-    // 4. 入库
-    finalEpisodesToSave.forEach(episodeMapper::insert);
+  public int saveEpisodes(List<Episode> episodes) {
+    if (episodes == null || episodes.isEmpty()) {
+      return 0;
+    }
+    // 列表内部去重：多行插入中重复的主键同样会被跳过，提前去重避免浪费绑定参数
+    Map<String, Episode> distinctEpisodes = new LinkedHashMap<>();
+    for (Episode episode : episodes) {
+      if (episode != null && episode.getId() != null) {
+        distinctEpisodes.putIfAbsent(episode.getId(), episode);
+      }
+    }
+    List<Episode> episodesToSave = new ArrayList<>(distinctEpisodes.values());
+    int inserted = 0;
+    for (List<Episode> chunk : chunks(episodesToSave)) {
+      inserted += episodeMapper.insertIgnoreBatch(chunk);
+    }
+    return inserted;
   }
 
   /**
@@ -245,11 +412,13 @@ public class EpisodeService {
     if (!StringUtils.hasText(channelId) || episodes == null || episodes.isEmpty()) {
       return;
     }
-    for (Episode episode : episodes) {
-      if (episode == null || !StringUtils.hasText(episode.getId())) {
-        continue;
-      }
-      episodeMapper.updateChannelIdIfMissing(episode.getId(), channelId);
+    List<String> episodeIds = episodes.stream()
+        .filter(episode -> episode != null && StringUtils.hasText(episode.getId()))
+        .map(Episode::getId)
+        .distinct()
+        .toList();
+    for (List<String> chunk : chunks(episodeIds)) {
+      episodeMapper.updateChannelIdIfMissingBatch(chunk, channelId);
     }
   }
 
@@ -261,17 +430,29 @@ public class EpisodeService {
     if (episodes == null || episodes.isEmpty()) {
       return;
     }
+    List<String> episodeIds = new ArrayList<>(episodes.size());
     for (Episode episode : episodes) {
       if (episode == null || episode.getId() == null) {
         continue;
       }
-      episodeMapper.updateDownloadStatusAndClearSchedulingFields(episode.getId(),
-          EpisodeStatus.PENDING.name());
+      episodeIds.add(episode.getId());
       episode.setDownloadStatus(EpisodeStatus.PENDING.name());
       episode.setNextRetryAt(null);
       episode.setFailureNotifiedAt(null);
       episode.setAutoDownloadAfter(null);
     }
+    for (List<String> chunk : chunks(episodeIds)) {
+      episodeMapper.updateDownloadStatusAndClearSchedulingFieldsBatch(chunk,
+          EpisodeStatus.PENDING.name());
+    }
+  }
+
+  private static <T> List<List<T>> chunks(List<T> items) {
+    List<List<T>> chunks = new ArrayList<>();
+    for (int start = 0; start < items.size(); start += EPISODE_WRITE_BATCH_SIZE) {
+      chunks.add(items.subList(start, Math.min(start + EPISODE_WRITE_BATCH_SIZE, items.size())));
+    }
+    return chunks;
   }
 
   /**
@@ -282,11 +463,19 @@ public class EpisodeService {
     if (episodes == null || episodes.isEmpty()) {
       return;
     }
+    Map<String, LocalDateTime> deadlines = new LinkedHashMap<>();
     for (Episode episode : episodes) {
       if (episode == null || episode.getId() == null || episode.getAutoDownloadAfter() == null) {
         continue;
       }
-      episodeMapper.updateAutoDownloadAfterWhenReady(episode.getId(), episode.getAutoDownloadAfter());
+      int updated = episodeMapper.updateAutoDownloadAfterWhenReady(episode.getId(),
+          episode.getAutoDownloadAfter());
+      if (updated > 0) {
+        deadlines.put(episode.getId(), episode.getAutoDownloadAfter());
+      }
+    }
+    if (!deadlines.isEmpty()) {
+      eventPublisher.publishEvent(DownloadDeadlineEvent.ofAutoDownload(this, deadlines));
     }
   }
 
@@ -307,7 +496,9 @@ public class EpisodeService {
       return 0;
     }
 
-    List<String> promotedEpisodeIds = new ArrayList<>();
+    // 按频道分组发布，使下载队列能在订阅之间轮转
+    Map<String, List<String>> promotedEpisodeIdsByChannel = new LinkedHashMap<>();
+    int promotedCount = 0;
     for (Episode episode : candidates) {
       if (episode == null || episode.getId() == null) {
         continue;
@@ -315,17 +506,21 @@ public class EpisodeService {
       int updated = episodeMapper.promoteDueDelayedAutoDownload(
           episode.getId(), EpisodeStatus.PENDING.name(), now);
       if (updated > 0) {
-        promotedEpisodeIds.add(episode.getId());
+        promotedEpisodeIdsByChannel
+            .computeIfAbsent(episode.getChannelId(), key -> new ArrayList<>())
+            .add(episode.getId());
+        promotedCount++;
       }
     }
 
-    if (!promotedEpisodeIds.isEmpty()) {
-      eventPublisher.publishEvent(new EpisodesCreatedEvent(
-          this,
-          promotedEpisodeIds,
-          "trigger=delayed_auto_download_promotion"));
-    }
-    return promotedEpisodeIds.size();
+    promotedEpisodeIdsByChannel.forEach((channelId, episodeIds) ->
+        eventPublisher.publishEvent(new EpisodesCreatedEvent(
+            this,
+            episodeIds,
+            "trigger=delayed_auto_download_promotion",
+            DownloadPriority.AUTO,
+            channelId)));
+    return promotedCount;
   }
 
   @Transactional
@@ -336,6 +531,8 @@ public class EpisodeService {
       throw new BusinessException(messageSource.getMessage("episode.not.found",
           new Object[]{id}, LocaleContextHolder.getLocale()));
     }
+    // 事务提交后才会通知 RSS 缓存失效
+    eventPublisher.publishEvent(FeedContentChangedEvent.ofEpisodes(this, List.of(id)));
 
     String audioFilePath = episode.getMediaFilePath();
     if (isS3Mode()) {
@@ -345,6 +542,7 @@ public class EpisodeService {
       episode.setMediaType(null);
       episode.setMediaSizeBytes(null);
       episode.setMediaEtag(null);
+      EpisodeAssetIndexUtil.clear(episode);
       episode.setRetryNumber(0);
       episode.setNextRetryAt(null);
       episode.setFailureNotifiedAt(null);
@@ -378,6 +576,7 @@ public class EpisodeService {
     episode.setMediaType(null);
     episode.setMediaSizeBytes(null);
     episode.setMediaEtag(null);
+    EpisodeAssetIndexUtil.clear(episode);
     episode.setRetryNumber(0);
     episode.setNextRetryAt(null);
     episode.setFailureNotifiedAt(null);
@@ -391,6 +590,7 @@ public class EpisodeService {
     if (episode == null) {
       return 0;
     }
+    eventPublisher.publishEvent(FeedContentChangedEvent.ofEpisodes(this, List.of(id)));
 
     String mediaFilePath = episode.getMediaFilePath();
     if (isS3Mode()) {
@@ -578,6 +778,8 @@ public class EpisodeService {
       // 状态已被其他流程修改（例如正在重试/手动删除），跳过清理
       return;
     }
+    eventPublisher.publishEvent(
+        FeedContentChangedEvent.ofEpisodes(this, List.of(persisted.getId())));
 
     String mediaFilePath = persisted.getMediaFilePath();
     if (isS3Mode()) {
@@ -585,6 +787,7 @@ public class EpisodeService {
       persisted.setMediaFilePath(null);
       persisted.setMediaSizeBytes(null);
       persisted.setMediaEtag(null);
+      EpisodeAssetIndexUtil.clear(persisted);
       persisted.setDownloadStatus(EpisodeStatus.READY.name());
       persisted.setRetryNumber(0);
       persisted.setNextRetryAt(null);
@@ -622,6 +825,7 @@ public class EpisodeService {
     persisted.setMediaFilePath(null);
     persisted.setMediaSizeBytes(null);
     persisted.setMediaEtag(null);
+    EpisodeAssetIndexUtil.clear(persisted);
     persisted.setDownloadStatus(EpisodeStatus.READY.name());
     persisted.setRetryNumber(0);
     persisted.setNextRetryAt(null);
@@ -649,6 +853,21 @@ public class EpisodeService {
     return episodeMapper.selectList(queryWrapper);
   }
 
+  /**
+   * 返回正在下载（或刚结束）节目的实时进度，数据来自内存，不访问数据库。
+   * 未被跟踪的节目不会出现在结果中，调用方应对这些节目回退到状态查询接口。
+   */
+  public List<EpisodeDownloadProgressResponse> getDownloadProgressByIds(List<String> episodeIds) {
+    return downloadProgressRegistry.getProgress(episodeIds);
+  }
+
+  /**
+   * 返回排队中节目在待下载队列中的位置，数据来自内存，不在队列中的节目不会出现在结果中。
+   */
+  public List<EpisodeQueuePositionResponse> getQueuePositionsByIds(List<String> episodeIds) {
+    return downloadDispatcher.getQueuePositions(episodeIds);
+  }
+
   public void deleteEpisodeAssetsByMediaPath(String mediaFilePath) {
     if (!isS3Mode() || !StringUtils.hasText(mediaFilePath)) {
       return;
@@ -703,6 +922,7 @@ public class EpisodeService {
         }
         // 清空数据库中的音频文件路径
         episode.setMediaFilePath(null);
+        EpisodeAssetIndexUtil.clear(episode);
         episodeMapper.updateById(episode);
       } catch (Exception e) {
         log.warn("Failed to delete audio file: {} - {}", audioFilePath, e.getMessage());
@@ -723,7 +943,9 @@ public class EpisodeService {
         new EpisodesCreatedEvent(
             this,
             Collections.singletonList(episodeId),
-            "trigger=retry_download"));
+            "trigger=retry_download",
+            DownloadPriority.MANUAL,
+            episode.getChannelId()));
   }
 
   /**
@@ -753,14 +975,17 @@ public class EpisodeService {
               LocaleContextHolder.getLocale()));
     }
 
-    markEpisodesPending(Collections.singletonList(episode));
+    episodeMapper.updateDownloadStatusAndClearSchedulingFields(episodeId,
+        EpisodeStatus.PENDING.name());
 
     // 通过发布事件，复用统一的下载异步流程
     eventPublisher.publishEvent(
         new EpisodesCreatedEvent(
             this,
             Collections.singletonList(episodeId),
-            "trigger=manual_download"));
+            "trigger=manual_download",
+            DownloadPriority.MANUAL,
+            episode.getChannelId()));
   }
 
   /**
@@ -834,6 +1059,20 @@ public class EpisodeService {
     // 更新状态为 READY
     episodeMapper.updateDownloadStatusAndClearSchedulingFields(episodeId,
         EpisodeStatus.READY.name());
+    removeFromDispatcherAfterCommit(episodeId);
+  }
+
+  private void removeFromDispatcherAfterCommit(String episodeId) {
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      downloadDispatcher.cancel(List.of(episodeId));
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        downloadDispatcher.cancel(List.of(episodeId));
+      }
+    });
   }
 
   @Transactional(readOnly = true)
@@ -13,6 +13,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.helper.BilibiliResolverHelper;
+import top.asimov.pigeon.helper.FeedSyncCoordinator;
 import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Feed;
@@ -33,16 +34,18 @@ public class FeedService {
   private final MediaService mediaService;
   private final ObjectMapper objectMapper;
   private final BilibiliResolverHelper bilibiliResolverHelper;
+  private final FeedSyncCoordinator feedSyncCoordinator;
 
   public FeedService(ChannelService channelService, PlaylistService playlistService,
       MessageSource messageSource, MediaService mediaService, ObjectMapper objectMapper,
-      BilibiliResolverHelper bilibiliResolverHelper) {
+      BilibiliResolverHelper bilibiliResolverHelper, FeedSyncCoordinator feedSyncCoordinator) {
     this.channelService = channelService;
     this.playlistService = playlistService;
     this.messageSource = messageSource;
     this.mediaService = mediaService;
     this.objectMapper = objectMapper;
     this.bilibiliResolverHelper = bilibiliResolverHelper;
+    this.feedSyncCoordinator = feedSyncCoordinator;
   }
 
   public FeedType resolveType(String rawType) {
@@ -188,10 +191,11 @@ public class FeedService {
   }
 
   public FeedRefreshResult refresh(FeedType type, String id) {
-    return switch (type) {
+    // 与定时同步互斥，锁在事务外获取，保证后一次刷新能读到前一次提交的结果
+    return feedSyncCoordinator.runExclusive(id, () -> switch (type) {
       case CHANNEL -> channelService.refreshChannelById(id);
       case PLAYLIST -> playlistService.refreshPlaylistById(id);
-    };
+    });
   }
 
   private String resolveSourceUrl(Map<String, ?> request, String fallbackKey) {
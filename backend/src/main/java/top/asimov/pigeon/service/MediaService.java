@@ -12,6 +12,7 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.extern.log4j.Log4j2;
@@ -34,6 +35,7 @@ import top.asimov.pigeon.model.dto.SubtitleInfo;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.enums.EpisodeStatus;
 import top.asimov.pigeon.service.storage.S3StorageService;
+import top.asimov.pigeon.util.EpisodeAssetIndexUtil;
 import top.asimov.pigeon.util.MediaKeyUtil;
 
 @Log4j2
@@ -357,7 +359,10 @@ public class MediaService {
     }
     if (isS3ModeEnabled()) {
       String chapterKey = buildChaptersKeyForEpisode(episode);
-      if (!s3StorageService.keyExists(chapterKey)) {
+      boolean chaptersAvailable = EpisodeAssetIndexUtil.isIndexed(episode)
+          ? Boolean.TRUE.equals(episode.getChaptersAvailable())
+          : s3StorageService.keyExists(chapterKey);
+      if (!chaptersAvailable) {
         return null;
       }
       return s3StorageService.generatePresignedGetUrl(
@@ -377,6 +382,10 @@ public class MediaService {
     }
 
     if (isS3ModeEnabled()) {
+      if (EpisodeAssetIndexUtil.isIndexed(episode)) {
+        return EpisodeAssetIndexUtil.decodeSubtitles(episode.getMediaFilePath(),
+            episode.getSubtitleAssets());
+      }
       String prefix = MediaKeyUtil.buildEpisodeAssetPrefixByMediaKey(episode.getMediaFilePath());
       if (!StringUtils.hasText(prefix)) {
         return subtitles;
@@ -417,6 +426,55 @@ public class MediaService {
     return subtitles;
   }
 
+  /**
+   * 通过一次前缀列举重建 S3 中某个节目的资产清单（字幕、章节、缩略图），写入传入的 episode 对象。
+   * 用于为清单上线前下载的节目补齐数据。
+   */
+  public void indexEpisodeAssetsFromStorage(Episode episode) {
+    String prefix = MediaKeyUtil.buildEpisodeAssetPrefixByMediaKey(episode.getMediaFilePath());
+    if (!StringUtils.hasText(prefix)) {
+      return;
+    }
+    Pattern subtitlePattern =
+        Pattern.compile("^" + Pattern.quote(prefix) + "\\.([^.]+)\\.(vtt|srt)$");
+    Pattern thumbnailPattern =
+        Pattern.compile("^" + Pattern.quote(prefix) + "\\.thumbnail\\.[^.]+$");
+    String chaptersKey = MediaKeyUtil.buildEpisodeChaptersKeyByMediaKey(episode.getMediaFilePath());
+
+    List<SubtitleInfo> subtitles = new ArrayList<>();
+    boolean chaptersAvailable = false;
+    String thumbnailKey = null;
+    boolean needsMediaSize = episode.getMediaSizeBytes() == null || episode.getMediaSizeBytes() <= 0;
+    for (Map.Entry<String, Long> object : s3StorageService.listObjectSizesByPrefix(prefix + ".")
+        .entrySet()) {
+      String key = object.getKey();
+      if (key.equals(episode.getMediaFilePath())) {
+        // 媒体文件本身也在同一前缀下，顺带记下大小，RSS 生成时不必再逐个 HEAD
+        if (needsMediaSize && object.getValue() != null && object.getValue() > 0) {
+          episode.setMediaSizeBytes(object.getValue());
+        }
+        continue;
+      }
+      Matcher subtitleMatcher = subtitlePattern.matcher(key);
+      if (subtitleMatcher.matches()) {
+        subtitles.add(new SubtitleInfo(subtitleMatcher.group(1), subtitleMatcher.group(2), key));
+      } else if (chaptersKey.equals(key)) {
+        chaptersAvailable = true;
+      } else if (thumbnailKey == null && thumbnailPattern.matcher(key).matches()) {
+        thumbnailKey = key;
+      }
+    }
+    if (needsMediaSize && (episode.getMediaSizeBytes() == null || episode.getMediaSizeBytes() <= 0)) {
+      // 没有扩展名的媒体 key 不在列举前缀下，单独 HEAD 一次
+      try {
+        episode.setMediaSizeBytes(s3StorageService.headContentLength(episode.getMediaFilePath()));
+      } catch (Exception e) {
+        log.debug("获取节目 {} 媒体大小失败: {}", episode.getId(), e.getMessage());
+      }
+    }
+    EpisodeAssetIndexUtil.apply(episode, subtitles, chaptersAvailable, thumbnailKey);
+  }
+
   public File getAudioFile(String episodeId) throws BusinessException {
     return getEpisodeMediaFileInternal(episodeId, false);
   }
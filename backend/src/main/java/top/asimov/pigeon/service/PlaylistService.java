@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.api.services.youtube.model.Video;
 import java.io.File;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -26,13 +27,17 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.config.SyncCadenceProperties;
 import top.asimov.pigeon.config.YoutubeApiKeyHolder;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadTargetType;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.helper.BilibiliPlaylistHelper;
 import top.asimov.pigeon.helper.BilibiliResolverHelper;
@@ -47,6 +52,7 @@ import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Playlist;
 import top.asimov.pigeon.model.entity.PlaylistEpisode;
 import top.asimov.pigeon.model.entity.PlaylistEpisodeDetailRetry;
+import top.asimov.pigeon.model.enums.DownloadPriority;
 import top.asimov.pigeon.model.enums.EpisodeStatus;
 import top.asimov.pigeon.model.enums.FeedSource;
 import top.asimov.pigeon.model.response.FeedConfigUpdateResult;
@@ -55,6 +61,7 @@ import top.asimov.pigeon.model.response.FeedRefreshResult;
 import top.asimov.pigeon.model.response.FeedSaveResult;
 import top.asimov.pigeon.util.FeedEpisodeVisibilityHelper;
 import top.asimov.pigeon.util.FeedSourceUrlBuilder;
+import top.asimov.pigeon.util.SyncCadencePolicy;
 
 @Log4j2
 @Service
@@ -62,7 +69,6 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
 
   private static final int VIDEO_DETAILS_BATCH_SIZE = 50;
   private static final int EPISODE_LOOKUP_BATCH_SIZE = 500;
-  private static final int EPISODE_SAVE_BATCH_SIZE = 200;
   private static final int DETAIL_RETRY_BATCH_SIZE = 100;
   private static final int DETAIL_RETRY_MAX_ATTEMPTS = 8;
   private static final String CURSOR_TYPE_YOUTUBE_PAGE_TOKEN = "YOUTUBE_PAGE_TOKEN";
@@ -86,6 +92,8 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
   private final MessageSource messageSource;
   private final Executor channelSyncTaskExecutor;
   private final AppBaseUrlResolver appBaseUrlResolver;
+  private final SyncCadenceProperties syncCadenceProperties;
+  private final FeedSyncProperties feedSyncProperties;
 
   public PlaylistService(PlaylistMapper playlistMapper,
       PlaylistEpisodeMapper playlistEpisodeMapper,
@@ -99,8 +107,9 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
       AccountService accountService, MessageSource messageSource,
       FeedDefaultsService feedDefaultsService,
       @Qualifier("channelSyncTaskExecutor") Executor channelSyncTaskExecutor,
-      AppBaseUrlResolver appBaseUrlResolver) {
-    super(episodeService, eventPublisher, messageSource, feedDefaultsService);
+      AppBaseUrlResolver appBaseUrlResolver, SyncCadenceProperties syncCadenceProperties,
+      FeedSyncProperties feedSyncProperties, TransactionTemplate transactionTemplate) {
+    super(episodeService, eventPublisher, messageSource, feedDefaultsService, transactionTemplate);
     this.playlistMapper = playlistMapper;
     this.playlistEpisodeMapper = playlistEpisodeMapper;
     this.playlistEpisodeDetailRetryMapper = playlistEpisodeDetailRetryMapper;
@@ -114,6 +123,8 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     this.messageSource = messageSource;
     this.channelSyncTaskExecutor = channelSyncTaskExecutor;
     this.appBaseUrlResolver = appBaseUrlResolver;
+    this.syncCadenceProperties = syncCadenceProperties;
+    this.feedSyncProperties = feedSyncProperties;
   }
 
   public List<Playlist> selectPlaylistList() {
@@ -169,6 +180,7 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
       throw new BusinessException(messageSource.getMessage("feed.config.update.failed", null,
           LocaleContextHolder.getLocale()));
     }
+    eventPublisher().publishEvent(FeedContentChangedEvent.ofFeed(this, playlistId));
   }
 
   public FeedPack<Playlist> fetchPlaylist(String playlistUrl) {
@@ -278,11 +290,7 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
   }
 
   public List<Playlist> findDueForSync(LocalDateTime checkTime) {
-    List<Playlist> playlists = playlistMapper.selectList(new LambdaQueryWrapper<>());
-    return playlists.stream()
-        .filter(p -> p.getLastSyncTimestamp() == null ||
-            p.getLastSyncTimestamp().isBefore(checkTime))
-        .collect(Collectors.toList());
+    return playlistMapper.selectDueForSync(checkTime, syncCadenceProperties.getBatchSize());
   }
 
   @Transactional
@@ -311,6 +319,8 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
 
     int result = playlistMapper.deleteById(playlistId);
     if (result > 0) {
+      FeedEpisodeVisibilityHelper.evictCompiledFilter(playlistId);
+      eventPublisher().publishEvent(FeedContentChangedEvent.ofFeed(this, playlistId));
       scheduleOrphanCleanupAfterCommit(playlistId, uniqueEpisodes.values());
       log.info("播放列表 {} 删除成功，孤立节目清理任务已提交", playlist.getTitle());
     } else {
@@ -348,7 +358,6 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     });
   }
 
-  @Transactional
   public FeedRefreshResult refreshPlaylistById(String playlistId) {
     Playlist playlist = playlistMapper.selectById(playlistId);
     if (playlist == null) {
@@ -362,7 +371,9 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     return syncPlaylistWithSnapshot(playlist, "MANUAL_FULL");
   }
 
-  @Transactional
+  /**
+   * 同步播放列表。不在事务中执行：yt-dlp 快照与视频详情请求期间不持有写连接，各步结果在短事务中保存。
+   */
   public void refreshPlaylist(Playlist playlist) {
     if (isBilibiliPlaylist(playlist)) {
       refreshFeed(playlist);
@@ -376,92 +387,38 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
 
     LocalDateTime now = LocalDateTime.now();
     try {
-      List<PlaylistSnapshotEntry> snapshotEntries =
-          ytDlpPlaylistSnapshotService.fetchPlaylistSnapshot(playlist.getId());
-      Map<String, PlaylistSnapshotEntry> remoteEntryMap = buildRemoteEntryMap(snapshotEntries);
-      Map<String, PlaylistEpisode> localMappingMap = buildLocalMappingMap(playlist.getId());
-
-      List<String> addedIds = new ArrayList<>();
-      List<String> removedIds = new ArrayList<>();
-      List<PlaylistSnapshotEntry> movedEntries = new ArrayList<>();
-      List<PlaylistSnapshotEntry> mappingRefreshEntries = new ArrayList<>();
-
-      for (String localEpisodeId : localMappingMap.keySet()) {
-        if (!remoteEntryMap.containsKey(localEpisodeId)) {
-          removedIds.add(localEpisodeId);
+      SnapshotDiffResult diff = feedSyncProperties.isStreamingSnapshot()
+          ? diffStreamingSnapshot(playlist, mode)
+          : diffFullSnapshot(playlist, mode);
+
+      transactionTemplate().executeWithoutResult(status -> {
+        if (diff.firstAddedId() != null) {
+          episodeService().refreshPlaylistVisibility(playlist);
+          playlist.setLastSyncVideoId(diff.firstAddedId());
         }
-      }
-
-      for (PlaylistSnapshotEntry remoteEntry : snapshotEntries) {
-        PlaylistEpisode localMapping = localMappingMap.get(remoteEntry.videoId());
-        if (localMapping == null) {
-          addedIds.add(remoteEntry.videoId());
-          continue;
-        }
-        if (!isSamePosition(localMapping.getPosition(), remoteEntry.position())) {
-          movedEntries.add(remoteEntry);
-          mappingRefreshEntries.add(remoteEntry);
-          continue;
+        playlist.setLastSnapshotAt(now);
+        playlist.setLastSnapshotSize(diff.snapshotSize());
+        playlist.setLastSyncAddedCount(diff.mappedAddedCount());
+        playlist.setLastSyncRemovedCount(diff.removedCount());
+        playlist.setLastSyncMovedCount(diff.movedCount());
+        playlist.setLastSyncTimestamp(now);
+        playlist.setSyncError(null);
+        playlist.setSyncErrorAt(null);
+        String previousCoverUrl = playlist.getCoverUrl();
+        updateCoverFromSnapshot(playlist, diff.firstEntry());
+        playlistMapper.updateById(playlist);
+        // 成员、顺序或封面变化都会改变播放列表 RSS
+        if (diff.firstAddedId() != null || diff.removedCount() > 0 || diff.movedCount() > 0
+            || !Objects.equals(previousCoverUrl, playlist.getCoverUrl())) {
+          eventPublisher().publishEvent(FeedContentChangedEvent.ofFeed(this, playlist.getId()));
         }
-        if (needsSourceChannelRefresh(localMapping, remoteEntry)) {
-          mappingRefreshEntries.add(remoteEntry);
-        }
-      }
-
-      if (!removedIds.isEmpty()) {
-        playlistEpisodeMapper.delete(new LambdaQueryWrapper<PlaylistEpisode>()
-            .eq(PlaylistEpisode::getPlaylistId, playlist.getId())
-            .in(PlaylistEpisode::getEpisodeId, removedIds));
-        playlistEpisodeDetailRetryMapper.delete(new LambdaQueryWrapper<PlaylistEpisodeDetailRetry>()
-            .eq(PlaylistEpisodeDetailRetry::getPlaylistId, playlist.getId())
-            .in(PlaylistEpisodeDetailRetry::getEpisodeId, removedIds));
-        removeOrphanEpisodesByIds(removedIds);
-      }
-
-      for (PlaylistSnapshotEntry entryToRefresh : mappingRefreshEntries) {
-        PlaylistEpisode localMapping = localMappingMap.get(entryToRefresh.videoId());
-        LocalDateTime publishedAt = localMapping != null && localMapping.getPublishedAt() != null
-            ? localMapping.getPublishedAt()
-            : entryToRefresh.approximatePublishedAt();
-        upsertPlaylistEpisodeMapping(playlist.getId(), entryToRefresh.videoId(),
-            entryToRefresh.position(), publishedAt,
-            resolveSourceChannelId(entryToRefresh, localMapping),
-            resolveSourceChannelName(entryToRefresh, localMapping),
-            resolveSourceChannelUrl(entryToRefresh, localMapping));
-      }
-
-      boolean limitAutoDownloadToInitialSelection = "INIT".equals(mode);
-      AddedBackfillResult backfillResult = processAddedEntries(
-          playlist,
-          addedIds,
-          remoteEntryMap,
-          limitAutoDownloadToInitialSelection);
-      if (!backfillResult.autoDownloadCandidates().isEmpty()) {
-        markAndPublishAutoDownloadEpisodes(
-            playlist,
-            backfillResult.autoDownloadCandidates(),
-            buildEpisodesCreatedContext("playlist_sync_" + mode.toLowerCase(), playlist));
-      }
-
-      if (!addedIds.isEmpty()) {
-        playlist.setLastSyncVideoId(addedIds.get(0));
-      }
-      playlist.setLastSnapshotAt(now);
-      playlist.setLastSnapshotSize(snapshotEntries.size());
-      playlist.setLastSyncAddedCount(backfillResult.mappedAddedCount());
-      playlist.setLastSyncRemovedCount(removedIds.size());
-      playlist.setLastSyncMovedCount(movedEntries.size());
-      playlist.setLastSyncTimestamp(now);
-      playlist.setSyncError(null);
-      playlist.setSyncErrorAt(null);
-      updateCoverFromSnapshot(playlist, snapshotEntries);
-      playlistMapper.updateById(playlist);
+      });
 
       log.info("播放列表 {} 同步完成(mode={})，snapshot={}, added={}, removed={}, moved={}, queuedRetry={}",
-          playlist.getId(), mode, snapshotEntries.size(), backfillResult.mappedAddedCount(),
-          removedIds.size(), movedEntries.size(), backfillResult.queuedRetryCount());
+          playlist.getId(), mode, diff.snapshotSize(), diff.mappedAddedCount(),
+          diff.removedCount(), diff.movedCount(), diff.queuedRetryCount());
 
-      int newEpisodeCount = backfillResult.newEpisodeCount();
+      int newEpisodeCount = diff.newEpisodeCount();
       return FeedRefreshResult.builder()
           .hasNewEpisodes(newEpisodeCount > 0)
           .newEpisodeCount(newEpisodeCount)
@@ -487,7 +444,241 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     }
   }
 
-  @Transactional
+  /**
+   * 整份读入快照后与本地全部关联比对。
+   */
+  private SnapshotDiffResult diffFullSnapshot(Playlist playlist, String mode) {
+    List<PlaylistSnapshotEntry> snapshotEntries =
+        ytDlpPlaylistSnapshotService.fetchPlaylistSnapshot(playlist.getId());
+    Map<String, PlaylistSnapshotEntry> remoteEntryMap = buildRemoteEntryMap(snapshotEntries);
+    Map<String, PlaylistEpisode> localMappingMap = buildLocalMappingMap(playlist.getId());
+
+    List<String> addedIds = new ArrayList<>();
+    List<String> removedIds = new ArrayList<>();
+    List<PlaylistSnapshotEntry> movedEntries = new ArrayList<>();
+    List<PlaylistSnapshotEntry> mappingRefreshEntries = new ArrayList<>();
+
+    for (String localEpisodeId : localMappingMap.keySet()) {
+      if (!remoteEntryMap.containsKey(localEpisodeId)) {
+        removedIds.add(localEpisodeId);
+      }
+    }
+
+    for (PlaylistSnapshotEntry remoteEntry : snapshotEntries) {
+      PlaylistEpisode localMapping = localMappingMap.get(remoteEntry.videoId());
+      if (localMapping == null) {
+        addedIds.add(remoteEntry.videoId());
+        continue;
+      }
+      if (!isSamePosition(localMapping.getPosition(), remoteEntry.position())) {
+        movedEntries.add(remoteEntry);
+        mappingRefreshEntries.add(remoteEntry);
+        continue;
+      }
+      if (needsSourceChannelRefresh(localMapping, remoteEntry)) {
+        mappingRefreshEntries.add(remoteEntry);
+      }
+    }
+
+    transactionTemplate().executeWithoutResult(status -> {
+      removeMappings(playlist.getId(), removedIds);
+      refreshMappings(playlist.getId(), mappingRefreshEntries, localMappingMap);
+    });
+
+    boolean limitAutoDownloadToInitialSelection = "INIT".equals(mode);
+    AddedBackfillResult backfillResult = processAddedEntries(
+        playlist,
+        addedIds,
+        remoteEntryMap,
+        limitAutoDownloadToInitialSelection);
+    publishAutoDownloadCandidates(playlist, mode, backfillResult.autoDownloadCandidates());
+
+    return new SnapshotDiffResult(
+        snapshotEntries.size(),
+        addedIds.isEmpty() ? null : addedIds.get(0),
+        snapshotEntries.isEmpty() ? null : snapshotEntries.get(0),
+        backfillResult.mappedAddedCount(),
+        removedIds.size(),
+        movedEntries.size(),
+        backfillResult.queuedRetryCount(),
+        backfillResult.newEpisodeCount());
+  }
+
+  /**
+   * 逐块比对流式快照：每块只按 ID 查询本块涉及的关联，处理完后给这些关联打上本轮标记；
+   * 快照完整结束后再按 id 游标分页找出未标记的关联删除。快照中途失败时不做删除，
+   * 已处理的新增与位置变化保留。
+   *
+   * <p>分块在 yt-dlp 仍在输出时处理，每块的写入都在各自的短事务中提交，不跨越快照进程与详情请求。</p>
+   */
+  private SnapshotDiffResult diffStreamingSnapshot(Playlist playlist, String mode) {
+    String playlistId = playlist.getId();
+    // 标记值需要能原样写入并比较，截到毫秒
+    LocalDateTime runAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    // INIT 模式的自动下载只取整个播放列表最新的若干期，跨块汇总后统一发布
+    TopEpisodeCollector initialSelection = "INIT".equals(mode)
+        ? new TopEpisodeCollector(resolveDownloadLimit(playlist)) : null;
+    StreamingDiffState state = new StreamingDiffState();
+
+    int snapshotSize;
+    try {
+      snapshotSize = ytDlpPlaylistSnapshotService.streamPlaylistSnapshot(playlistId,
+          feedSyncProperties.getSnapshotChunkSize(),
+          chunk -> diffSnapshotChunk(playlist, mode, chunk, runAt, initialSelection, state));
+    } catch (RuntimeException e) {
+      // 已入库的新增节目仍需评估可见性
+      if (state.firstAddedId != null) {
+        episodeService().refreshPlaylistVisibility(playlist);
+      }
+      throw e;
+    }
+
+    int removedCount = removeUnseenMappings(playlistId, runAt);
+    if (initialSelection != null) {
+      publishAutoDownloadCandidates(playlist, mode, initialSelection.toSortedList());
+    }
+
+    return new SnapshotDiffResult(
+        snapshotSize,
+        state.firstAddedId,
+        state.firstEntry,
+        state.mappedAddedCount,
+        removedCount,
+        state.movedCount,
+        state.queuedRetryCount,
+        state.newEpisodeCount);
+  }
+
+  private void diffSnapshotChunk(Playlist playlist, String mode, List<PlaylistSnapshotEntry> chunk,
+      LocalDateTime runAt, TopEpisodeCollector initialSelection, StreamingDiffState state) {
+    String playlistId = playlist.getId();
+    if (state.firstEntry == null && !chunk.isEmpty()) {
+      state.firstEntry = chunk.get(0);
+    }
+    Map<String, PlaylistSnapshotEntry> remoteEntryMap = buildRemoteEntryMap(chunk);
+    if (remoteEntryMap.isEmpty()) {
+      return;
+    }
+    List<String> chunkIds = new ArrayList<>(remoteEntryMap.keySet());
+    Map<String, PlaylistEpisode> localMappingMap = new HashMap<>();
+    for (PlaylistEpisode mapping : playlistEpisodeMapper.selectMappingsByEpisodeIds(
+        playlistId, chunkIds)) {
+      localMappingMap.putIfAbsent(mapping.getEpisodeId(), mapping);
+    }
+
+    List<String> addedIds = new ArrayList<>();
+    List<PlaylistSnapshotEntry> mappingRefreshEntries = new ArrayList<>();
+    for (PlaylistSnapshotEntry remoteEntry : remoteEntryMap.values()) {
+      PlaylistEpisode localMapping = localMappingMap.get(remoteEntry.videoId());
+      if (localMapping == null) {
+        addedIds.add(remoteEntry.videoId());
+        continue;
+      }
+      if (runAt.equals(localMapping.getSnapshotSeenAt())) {
+        // 本轮前面的块已经处理过，与整份比对一样以首次出现为准
+        continue;
+      }
+      if (!isSamePosition(localMapping.getPosition(), remoteEntry.position())) {
+        state.movedCount++;
+        mappingRefreshEntries.add(remoteEntry);
+        continue;
+      }
+      if (needsSourceChannelRefresh(localMapping, remoteEntry)) {
+        mappingRefreshEntries.add(remoteEntry);
+      }
+    }
+
+    // 新增节目的详情请求在事务外，结果按批各自提交
+    AddedBackfillResult backfillResult = processAddedEntries(
+        playlist, addedIds, remoteEntryMap, initialSelection != null);
+    if (state.firstAddedId == null && !addedIds.isEmpty()) {
+      state.firstAddedId = addedIds.get(0);
+    }
+    state.mappedAddedCount += backfillResult.mappedAddedCount();
+    state.queuedRetryCount += backfillResult.queuedRetryCount();
+    state.newEpisodeCount += backfillResult.newEpisodeCount();
+    if (initialSelection != null) {
+      initialSelection.offerAll(backfillResult.autoDownloadCandidates());
+    }
+
+    transactionTemplate().executeWithoutResult(status -> {
+      refreshMappings(playlistId, mappingRefreshEntries, localMappingMap);
+      if (initialSelection == null) {
+        publishAutoDownloadCandidates(playlist, mode, backfillResult.autoDownloadCandidates());
+      }
+      playlistEpisodeMapper.markSnapshotSeen(playlistId, chunkIds, runAt);
+    });
+  }
+
+  private int removeUnseenMappings(String playlistId, LocalDateTime runAt) {
+    int removedCount = 0;
+    long afterId = 0L;
+    while (true) {
+      List<PlaylistEpisode> unseen = playlistEpisodeMapper.selectUnseenMappings(
+          playlistId, runAt, afterId, EPISODE_LOOKUP_BATCH_SIZE);
+      if (unseen.isEmpty()) {
+        return removedCount;
+      }
+      afterId = Long.parseLong(unseen.get(unseen.size() - 1).getId());
+      List<String> removedIds = unseen.stream()
+          .map(PlaylistEpisode::getEpisodeId)
+          .filter(StringUtils::hasText)
+          .distinct()
+          .toList();
+      transactionTemplate().executeWithoutResult(status -> removeMappings(playlistId, removedIds));
+      removedCount += removedIds.size();
+      if (unseen.size() < EPISODE_LOOKUP_BATCH_SIZE) {
+        return removedCount;
+      }
+    }
+  }
+
+  private void removeMappings(String playlistId, List<String> removedIds) {
+    if (removedIds.isEmpty()) {
+      return;
+    }
+    playlistEpisodeMapper.delete(new LambdaQueryWrapper<PlaylistEpisode>()
+        .eq(PlaylistEpisode::getPlaylistId, playlistId)
+        .in(PlaylistEpisode::getEpisodeId, removedIds));
+    playlistEpisodeDetailRetryMapper.delete(new LambdaQueryWrapper<PlaylistEpisodeDetailRetry>()
+        .eq(PlaylistEpisodeDetailRetry::getPlaylistId, playlistId)
+        .in(PlaylistEpisodeDetailRetry::getEpisodeId, removedIds));
+    removeOrphanEpisodesByIds(removedIds);
+  }
+
+  private void refreshMappings(String playlistId, List<PlaylistSnapshotEntry> mappingRefreshEntries,
+      Map<String, PlaylistEpisode> localMappingMap) {
+    for (PlaylistSnapshotEntry entryToRefresh : mappingRefreshEntries) {
+      PlaylistEpisode localMapping = localMappingMap.get(entryToRefresh.videoId());
+      LocalDateTime publishedAt = localMapping != null && localMapping.getPublishedAt() != null
+          ? localMapping.getPublishedAt()
+          : entryToRefresh.approximatePublishedAt();
+      // 需要刷新的都是已有关联，直接更新
+      playlistEpisodeMapper.updateMapping(playlistId, entryToRefresh.videoId(),
+          entryToRefresh.position(), publishedAt,
+          resolveSourceChannelId(entryToRefresh, localMapping),
+          resolveSourceChannelName(entryToRefresh, localMapping),
+          resolveSourceChannelUrl(entryToRefresh, localMapping));
+    }
+  }
+
+  private void publishAutoDownloadCandidates(Playlist playlist, String mode,
+      List<Episode> autoDownloadCandidates) {
+    if (autoDownloadCandidates.isEmpty()) {
+      return;
+    }
+    // 下载事件在事务提交后才入队
+    transactionTemplate().executeWithoutResult(status -> markAndPublishAutoDownloadEpisodes(
+        playlist,
+        autoDownloadCandidates,
+        buildEpisodesCreatedContext("playlist_sync_" + mode.toLowerCase(), playlist),
+        "INIT".equals(mode) ? DownloadPriority.BACKFILL : DownloadPriority.AUTO));
+  }
+
+  /**
+   * 处理到期的详情补全重试。所有播放列表的视频 ID 合并成 50 个一批请求 videos.list，
+   * 结果按播放列表分发，节目、关联和重试记录的删除都批量写入。
+   */
   public int processPlaylistDetailRetryQueue(int limit) {
     int effectiveLimit = limit > 0 ? limit : DETAIL_RETRY_BATCH_SIZE;
     List<PlaylistEpisodeDetailRetry> dueRetries =
@@ -496,69 +687,61 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
       return 0;
     }
 
-    Map<String, List<PlaylistEpisodeDetailRetry>> grouped = dueRetries.stream()
-        .collect(Collectors.groupingBy(PlaylistEpisodeDetailRetry::getPlaylistId));
+    Set<String> playlistIds = dueRetries.stream()
+        .map(PlaylistEpisodeDetailRetry::getPlaylistId)
+        .collect(Collectors.toSet());
+    Map<String, Playlist> playlists = playlistMapper.selectBatchIds(playlistIds).stream()
+        .collect(Collectors.toMap(Playlist::getId, playlist -> playlist));
 
-    int recovered = 0;
-    for (Map.Entry<String, List<PlaylistEpisodeDetailRetry>> group : grouped.entrySet()) {
-      String playlistId = group.getKey();
-      Playlist playlist = playlistMapper.selectById(playlistId);
-      if (playlist == null) {
-        for (PlaylistEpisodeDetailRetry retry : group.getValue()) {
-          playlistEpisodeDetailRetryMapper.deleteById(retry.getId());
-        }
+    List<Long> retryIdsToDelete = new ArrayList<>();
+    // 同一视频可能在多个播放列表中等待补全，只请求一次
+    Map<String, List<PlaylistEpisodeDetailRetry>> retriesByEpisodeId = new LinkedHashMap<>();
+    for (PlaylistEpisodeDetailRetry retry : dueRetries) {
+      if (!playlists.containsKey(retry.getPlaylistId())) {
+        retryIdsToDelete.add(retry.getId());
         continue;
       }
+      retriesByEpisodeId.computeIfAbsent(retry.getEpisodeId(), key -> new ArrayList<>())
+          .add(retry);
+    }
 
-      String apiKey;
+    String apiKey = null;
+    if (!retriesByEpisodeId.isEmpty()) {
       try {
         apiKey = YoutubeApiKeyHolder.requireYoutubeApiKey(messageSource);
       } catch (Exception ex) {
-        for (PlaylistEpisodeDetailRetry retry : group.getValue()) {
-          handleRetryFailure(retry, ex.getMessage());
-        }
-        continue;
-      }
-
-      Map<String, PlaylistEpisodeDetailRetry> retryByEpisodeId = new HashMap<>();
-      List<String> episodeIds = new ArrayList<>();
-      for (PlaylistEpisodeDetailRetry retry : group.getValue()) {
-        retryByEpisodeId.put(retry.getEpisodeId(), retry);
-        episodeIds.add(retry.getEpisodeId());
+        retriesByEpisodeId.values().forEach(
+            retries -> retries.forEach(retry -> handleRetryFailure(retry, ex.getMessage())));
+        retriesByEpisodeId.clear();
       }
+    }
 
-      List<Episode> existing = episodeService().getEpisodeStatusByIds(episodeIds);
-      Set<String> existingIds = existing.stream().map(Episode::getId).collect(Collectors.toSet());
-      int recoveredInGroup = 0;
-      List<Episode> autoDownloadCandidates = new ArrayList<>();
+    List<String> episodeIds = new ArrayList<>(retriesByEpisodeId.keySet());
+    Set<String> existingIds = episodeService().getEpisodeStatusByIds(episodeIds).stream()
+        .map(Episode::getId)
+        .collect(Collectors.toSet());
+    Map<String, List<Episode>> recoveredByPlaylist = new LinkedHashMap<>();
 
-      for (int start = 0; start < episodeIds.size(); start += VIDEO_DETAILS_BATCH_SIZE) {
-        int end = Math.min(start + VIDEO_DETAILS_BATCH_SIZE, episodeIds.size());
-        List<String> batch = episodeIds.subList(start, end);
-        Map<String, Video> details;
-        try {
-          details = youtubeVideoHelper.fetchVideoDetailsInBulk(batch, apiKey);
-        } catch (Exception ex) {
-          for (String episodeId : batch) {
-            PlaylistEpisodeDetailRetry retry = retryByEpisodeId.get(episodeId);
-            if (retry != null) {
-              handleRetryFailure(retry, ex.getMessage());
-            }
-          }
-          continue;
+    for (int start = 0; start < episodeIds.size(); start += VIDEO_DETAILS_BATCH_SIZE) {
+      int end = Math.min(start + VIDEO_DETAILS_BATCH_SIZE, episodeIds.size());
+      List<String> batch = episodeIds.subList(start, end);
+      Map<String, Video> details;
+      try {
+        details = youtubeVideoHelper.fetchVideoDetailsInBulk(batch, apiKey);
+      } catch (Exception ex) {
+        for (String episodeId : batch) {
+          retriesByEpisodeId.get(episodeId).forEach(retry -> handleRetryFailure(retry, ex.getMessage()));
         }
+        continue;
+      }
 
-        for (String episodeId : batch) {
-          PlaylistEpisodeDetailRetry retry = retryByEpisodeId.get(episodeId);
-          if (retry == null) {
-            continue;
-          }
-          Video video = details.get(episodeId);
+      for (String episodeId : batch) {
+        Video video = details.get(episodeId);
+        for (PlaylistEpisodeDetailRetry retry : retriesByEpisodeId.get(episodeId)) {
           if (video == null) {
             handleRetryFailure(retry, "missing video detail from YouTube API");
             continue;
           }
-
           PlaylistSnapshotEntry snapshotEntry = new PlaylistSnapshotEntry(
               retry.getEpisodeId(),
               retry.getPosition(),
@@ -568,37 +751,52 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
               null,
               null
           );
-          Optional<Episode> maybeEpisode = buildEpisodeFromVideo(playlist, video, snapshotEntry);
-          if (maybeEpisode.isEmpty()) {
-            playlistEpisodeDetailRetryMapper.deleteById(retry.getId());
-            continue;
-          }
+          Optional<Episode> maybeEpisode =
+              buildEpisodeFromVideo(playlists.get(retry.getPlaylistId()), video, snapshotEntry);
+          retryIdsToDelete.add(retry.getId());
+          maybeEpisode.ifPresent(episode -> recoveredByPlaylist
+              .computeIfAbsent(retry.getPlaylistId(), key -> new ArrayList<>())
+              .add(episode));
+        }
+      }
+    }
 
-          Episode episode = maybeEpisode.get();
-          episodeService().saveEpisodes(List.of(episode));
-          upsertPlaylistEpisodeMapping(playlistId, episode.getId(), snapshotEntry.position(),
-              episode.getPublishedAt(), episode.getSourceChannelId(),
-              episode.getSourceChannelName(), episode.getSourceChannelUrl());
-          playlistEpisodeDetailRetryMapper.deleteById(retry.getId());
-          recoveredInGroup++;
-
-          if (!existingIds.contains(episode.getId())
-              && FeedEpisodeVisibilityHelper.matchesFeedFilter(playlist, episode)) {
-            autoDownloadCandidates.add(episode);
-          }
+    // 请求结束后在一个短事务中写入：补全的节目一次入库，再按播放列表批量建立关联，最后一次删除已处理的重试记录
+    Integer recoveredCount = transactionTemplate().execute(status -> {
+      episodeService().saveEpisodes(recoveredByPlaylist.values().stream()
+          .flatMap(List::stream)
+          .toList());
+      int recovered = 0;
+      Map<String, List<Episode>> autoDownloadCandidatesByPlaylist = new LinkedHashMap<>();
+      for (Map.Entry<String, List<Episode>> entry : recoveredByPlaylist.entrySet()) {
+        Playlist playlist = playlists.get(entry.getKey());
+        upsertPlaylistEpisodes(playlist.getId(), entry.getValue());
+        recovered += entry.getValue().size();
+        List<Episode> candidates = entry.getValue().stream()
+            .filter(episode -> !existingIds.contains(episode.getId())
+                && FeedEpisodeVisibilityHelper.matchesFeedFilter(playlist, episode))
+            .toList();
+        if (!candidates.isEmpty()) {
+          autoDownloadCandidatesByPlaylist.put(playlist.getId(), candidates);
         }
       }
+      if (!retryIdsToDelete.isEmpty()) {
+        playlistEpisodeDetailRetryMapper.deleteBatchIds(retryIdsToDelete);
+      }
 
-      List<Episode> sortedAutoDownloadCandidates = sortAutoDownloadCandidates(autoDownloadCandidates);
-      if (!sortedAutoDownloadCandidates.isEmpty()) {
+      autoDownloadCandidatesByPlaylist.forEach((playlistId, candidates) -> {
+        Playlist playlist = playlists.get(playlistId);
         markAndPublishAutoDownloadEpisodes(
             playlist,
-            sortedAutoDownloadCandidates,
-            buildEpisodesCreatedContext("playlist_detail_retry", playlist));
-      }
-      recovered += recoveredInGroup;
-    }
-    return recovered;
+            sortAutoDownloadCandidates(candidates),
+            buildEpisodesCreatedContext("playlist_detail_retry", playlist),
+            DownloadPriority.BACKFILL);
+      });
+      return recovered;
+    });
+    recoveredByPlaylist.keySet()
+        .forEach(playlistId -> episodeService().refreshPlaylistVisibility(playlists.get(playlistId)));
+    return recoveredCount == null ? 0 : recoveredCount;
   }
 
   private AddedBackfillResult processAddedEntries(Playlist playlist, List<String> addedIds,
@@ -625,23 +823,32 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
       List<String> addedChunk = addedIds.subList(chunkStart, chunkEnd);
       Map<String, Episode> existingEpisodeMap = loadBasicEpisodesByIdsInBatches(addedChunk);
       List<String> detailRequiredIds = new ArrayList<>();
+      List<String> existingIds = new ArrayList<>();
 
       for (String episodeId : addedChunk) {
         PlaylistSnapshotEntry snapshotEntry = remoteEntryMap.get(episodeId);
         if (snapshotEntry == null) {
           continue;
         }
-        Episode existing = existingEpisodeMap.get(episodeId);
-        if (existing == null) {
+        if (existingEpisodeMap.containsKey(episodeId)) {
+          existingIds.add(episodeId);
+        } else {
           detailRequiredIds.add(episodeId);
-          continue;
         }
-        upsertPlaylistEpisodeMapping(playlistId, episodeId, snapshotEntry.position(),
-            existing.getPublishedAt() != null ? existing.getPublishedAt()
-                : snapshotEntry.approximatePublishedAt(),
-            snapshotEntry.sourceChannelId(), snapshotEntry.sourceChannelName(),
-            snapshotEntry.sourceChannelUrl());
-        mappedAddedCount++;
+      }
+      if (!existingIds.isEmpty()) {
+        transactionTemplate().executeWithoutResult(status -> {
+          for (String episodeId : existingIds) {
+            PlaylistSnapshotEntry snapshotEntry = remoteEntryMap.get(episodeId);
+            Episode existing = existingEpisodeMap.get(episodeId);
+            upsertPlaylistEpisodeMapping(playlistId, episodeId, snapshotEntry.position(),
+                existing.getPublishedAt() != null ? existing.getPublishedAt()
+                    : snapshotEntry.approximatePublishedAt(),
+                snapshotEntry.sourceChannelId(), snapshotEntry.sourceChannelName(),
+                snapshotEntry.sourceChannelUrl());
+          }
+        });
+        mappedAddedCount += existingIds.size();
       }
 
       if (detailRequiredIds.isEmpty()) {
@@ -686,8 +893,10 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
           continue;
         }
 
-        saveEpisodesInBatches(batchEpisodes, EPISODE_SAVE_BATCH_SIZE);
-        upsertPlaylistEpisodes(playlistId, batchEpisodes);
+        transactionTemplate().executeWithoutResult(status -> {
+          episodeService().saveEpisodes(batchEpisodes);
+          upsertPlaylistEpisodes(playlistId, batchEpisodes);
+        });
         mappedAddedCount += batchEpisodes.size();
         newEpisodeCount += batchEpisodes.size();
         autoDownloadCandidates.addAll(
@@ -760,27 +969,29 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     }
 
     LocalDateTime now = LocalDateTime.now();
-    int queued = 0;
-    for (String episodeId : episodeIds) {
-      PlaylistSnapshotEntry entry = remoteEntryMap.get(episodeId);
-      if (entry == null) {
-        continue;
+    return transactionTemplate().execute(status -> {
+      int queued = 0;
+      for (String episodeId : episodeIds) {
+        PlaylistSnapshotEntry entry = remoteEntryMap.get(episodeId);
+        if (entry == null) {
+          continue;
+        }
+        PlaylistEpisodeDetailRetry retry = PlaylistEpisodeDetailRetry.builder()
+            .playlistId(playlistId)
+            .episodeId(episodeId)
+            .position(entry.position())
+            .approximatePublishedAt(entry.approximatePublishedAt())
+            .retryCount(0)
+            .nextRetryAt(now.plusMinutes(10))
+            .lastError(abbreviateError(errorMessage))
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+        playlistEpisodeDetailRetryMapper.upsert(retry);
+        queued++;
       }
-      PlaylistEpisodeDetailRetry retry = PlaylistEpisodeDetailRetry.builder()
-          .playlistId(playlistId)
-          .episodeId(episodeId)
-          .position(entry.position())
-          .approximatePublishedAt(entry.approximatePublishedAt())
-          .retryCount(0)
-          .nextRetryAt(now.plusMinutes(10))
-          .lastError(abbreviateError(errorMessage))
-          .createdAt(now)
-          .updatedAt(now)
-          .build();
-      playlistEpisodeDetailRetryMapper.upsert(retry);
-      queued++;
-    }
-    return queued;
+      return queued;
+    });
   }
 
   private void handleRetryFailure(PlaylistEpisodeDetailRetry retry, String errorMessage) {
@@ -803,11 +1014,10 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
         LocalDateTime.now());
   }
 
-  private void updateCoverFromSnapshot(Playlist playlist, List<PlaylistSnapshotEntry> snapshotEntries) {
-    if (snapshotEntries == null || snapshotEntries.isEmpty()) {
+  private void updateCoverFromSnapshot(Playlist playlist, PlaylistSnapshotEntry first) {
+    if (first == null) {
       return;
     }
-    PlaylistSnapshotEntry first = snapshotEntries.get(0);
     List<Episode> episodes = episodeService().getEpisodesByIds(List.of(first.videoId()));
     if (episodes.isEmpty()) {
       return;
@@ -897,18 +1107,6 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     return existing;
   }
 
-  private void saveEpisodesInBatches(List<Episode> episodes, int batchSize) {
-    if (episodes == null || episodes.isEmpty()) {
-      return;
-    }
-    int effectiveBatchSize = batchSize > 0 ? batchSize : EPISODE_SAVE_BATCH_SIZE;
-    for (int start = 0; start < episodes.size(); start += effectiveBatchSize) {
-      int end = Math.min(start + effectiveBatchSize, episodes.size());
-      List<Episode> batch = episodes.subList(start, end);
-      episodeService().saveEpisodes(batch);
-    }
-  }
-
   private String abbreviateError(String message) {
     if (!StringUtils.hasText(message)) {
       return "unknown";
@@ -925,6 +1123,23 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
 
   }
 
+  private record SnapshotDiffResult(int snapshotSize, String firstAddedId,
+                                    PlaylistSnapshotEntry firstEntry, int mappedAddedCount,
+                                    int removedCount, int movedCount, int queuedRetryCount,
+                                    int newEpisodeCount) {
+
+  }
+
+  private static final class StreamingDiffState {
+
+    private PlaylistSnapshotEntry firstEntry;
+    private String firstAddedId;
+    private int mappedAddedCount;
+    private int movedCount;
+    private int queuedRetryCount;
+    private int newEpisodeCount;
+  }
+
   private List<Episode> finalizeAutoDownloadCandidates(Playlist playlist, List<Episode> candidates,
       boolean limitToConfiguredCount) {
     if (candidates == null || candidates.isEmpty()) {
@@ -1008,7 +1223,6 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
    * @param playlistId 播放列表 ID
    * @return 新增的节目信息列表（已去重）
    */
-  @Transactional
   public List<Episode> fetchPlaylistHistory(String playlistId) {
     Playlist playlist = playlistMapper.selectById(playlistId);
     if (playlist == null) {
@@ -1027,7 +1241,6 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     return fetchPlaylistHistoryByCursor(playlist);
   }
 
-  @Transactional
   public void processPlaylistInitializationAsync(String playlistId, Integer autoDownloadLimit,
       String titleContainKeywords, String titleExcludeKeywords,
       String descriptionContainKeywords, String descriptionExcludeKeywords,
@@ -1050,22 +1263,39 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
   }
 
   private void upsertPlaylistEpisodes(String playlistId, List<Episode> episodes) {
+    if (episodes == null || episodes.isEmpty()) {
+      return;
+    }
+    // 同一节目出现多次时以最后一次为准，与逐条 upsert 的结果一致
+    Map<String, Episode> distinctEpisodes = new LinkedHashMap<>();
     for (Episode episode : episodes) {
-      int count = playlistEpisodeMapper.countByPlaylistAndEpisode(playlistId, episode.getId());
-      int affected;
-      if (count > 0) {
-        affected = playlistEpisodeMapper.updateMapping(playlistId, episode.getId(), episode.getPosition(),
-            episode.getPublishedAt(), episode.getSourceChannelId(), episode.getSourceChannelName(),
-            episode.getSourceChannelUrl());
-      } else {
-        affected = playlistEpisodeMapper.insertMapping(playlistId, episode.getId(), episode.getPosition(),
-            episode.getPublishedAt(), episode.getSourceChannelId(), episode.getSourceChannelName(),
-            episode.getSourceChannelUrl());
-      }
-      if (affected <= 0) {
-        log.warn("更新播放列表 {} 与节目 {} 的关联失败", playlistId, episode.getId());
+      distinctEpisodes.put(episode.getId(), episode);
+    }
+    List<String> episodeIds = new ArrayList<>(distinctEpisodes.keySet());
+    List<Episode> episodesToInsert = new ArrayList<>();
+    for (int start = 0; start < episodeIds.size(); start += EPISODE_LOOKUP_BATCH_SIZE) {
+      int end = Math.min(start + EPISODE_LOOKUP_BATCH_SIZE, episodeIds.size());
+      List<String> batchIds = episodeIds.subList(start, end);
+      Set<String> mappedIds =
+          new HashSet<>(playlistEpisodeMapper.selectMappedEpisodeIds(playlistId, batchIds));
+      for (String episodeId : batchIds) {
+        Episode episode = distinctEpisodes.get(episodeId);
+        if (!mappedIds.contains(episodeId)) {
+          episodesToInsert.add(episode);
+          continue;
+        }
+        int affected = playlistEpisodeMapper.updateMapping(playlistId, episodeId,
+            episode.getPosition(), episode.getPublishedAt(), episode.getSourceChannelId(),
+            episode.getSourceChannelName(), episode.getSourceChannelUrl());
+        if (affected <= 0) {
+          log.warn("更新播放列表 {} 与节目 {} 的关联失败", playlistId, episodeId);
+        }
       }
     }
+    for (int start = 0; start < episodesToInsert.size(); start += EPISODE_LOOKUP_BATCH_SIZE) {
+      int end = Math.min(start + EPISODE_LOOKUP_BATCH_SIZE, episodesToInsert.size());
+      playlistEpisodeMapper.insertMappingsBatch(playlistId, episodesToInsert.subList(start, end));
+    }
   }
 
   private boolean needsSourceChannelRefresh(PlaylistEpisode localMapping, PlaylistSnapshotEntry remoteEntry) {
@@ -1194,6 +1424,23 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     return DownloadTargetType.PLAYLIST;
   }
 
+  @Override
+  protected SyncCadencePolicy syncCadencePolicy() {
+    return syncCadenceProperties.playlistPolicy();
+  }
+
+  // 播放列表没有自己的发布时间，按列表内视频的发布时间近似估算加入频率
+  @Override
+  protected List<LocalDateTime> selectRecentPublishTimes(String feedId) {
+    return playlistEpisodeMapper.selectRecentPublishedAt(feedId,
+        syncCadenceProperties.getHistorySize());
+  }
+
+  @Override
+  protected void updateNextSyncAt(String feedId, LocalDateTime nextSyncAt) {
+    playlistMapper.updateNextSyncAt(feedId, nextSyncAt);
+  }
+
   @Override
   protected List<Episode> fetchEpisodes(Playlist feed) {
     int pages = Math.max(1, (int) Math.ceil((double) Math.max(1, AbstractFeedService.DEFAULT_PREVIEW_NUM) / 50.0));
@@ -1324,11 +1571,17 @@ public class PlaylistService extends AbstractFeedService<Playlist> {
     }
     List<Episode> newEpisodes = filterNewEpisodes(episodes);
     List<Episode> episodesToPersist = prepareEpisodesForPersistence(newEpisodes);
+    // 每页的节目、关联与游标在同一个短事务中保存，翻页请求不占用写连接
+    transactionTemplate().executeWithoutResult(status -> {
+      if (!episodesToPersist.isEmpty()) {
+        episodeService().saveEpisodes(episodesToPersist);
+        upsertPlaylistEpisodes(playlist.getId(), episodesToPersist);
+      }
+      updateHistoryCursor(playlist, cursorType, nextCursorValue, nextPageNumber, exhausted);
+    });
     if (!episodesToPersist.isEmpty()) {
-      episodeService().saveEpisodes(episodesToPersist);
-      upsertPlaylistEpisodes(playlist.getId(), episodesToPersist);
+      episodeService().refreshPlaylistVisibility(playlist);
     }
-    updateHistoryCursor(playlist, cursorType, nextCursorValue, nextPageNumber, exhausted);
     return FeedEpisodeVisibilityHelper.filterVisibleEpisodes(playlist, episodesToPersist);
   }
 
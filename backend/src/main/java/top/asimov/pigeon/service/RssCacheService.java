@@ -0,0 +1,199 @@
+package top.asimov.pigeon.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import top.asimov.pigeon.config.StorageProperties;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.entity.Playlist;
+import top.asimov.pigeon.model.entity.PlaylistEpisode;
+import top.asimov.pigeon.service.storage.S3StorageService;
+
+/**
+ * RSS 文档缓存。
+ *
+ * <p>每个订阅维护一个内容版本号，节目完成下载/被清理/被删除、订阅配置变化时由
+ * {@link FeedContentChangedEvent} 递增；版本不变时直接返回缓存的字节（含预先压缩的 gzip 版本），
+ * ETag 由文档内容计算，Last-Modified 取版本最后变化时间，便于客户端条件请求拿到 304。</p>
+ *
+ * <p>缓存另有一个有效期兜底：S3 模式下文档里是预签名链接，必须在链接过期前重新生成。</p>
+ */
+@Log4j2
+@Service
+public class RssCacheService {
+
+  private static final Duration MAX_TTL = Duration.ofHours(1);
+  private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+  private final RssService rssService;
+  private final EpisodeMapper episodeMapper;
+  private final PlaylistEpisodeMapper playlistEpisodeMapper;
+  private final StorageProperties storageProperties;
+  private final S3StorageService s3StorageService;
+
+  private final Map<String, FeedVersion> versions = new ConcurrentHashMap<>();
+  private final Map<String, CachedRss> documents = new ConcurrentHashMap<>();
+  private final AtomicLong globalEpoch = new AtomicLong();
+
+  public RssCacheService(RssService rssService, EpisodeMapper episodeMapper,
+      PlaylistEpisodeMapper playlistEpisodeMapper, StorageProperties storageProperties,
+      S3StorageService s3StorageService) {
+    this.rssService = rssService;
+    this.episodeMapper = episodeMapper;
+    this.playlistEpisodeMapper = playlistEpisodeMapper;
+    this.storageProperties = storageProperties;
+    this.s3StorageService = s3StorageService;
+  }
+
+  public CachedRss getChannelRss(String channelIdentification) throws Exception {
+    Channel channel = rssService.requireChannel(channelIdentification);
+    return getOrRender(channel.getId(),
+        (publishedAt, output) -> rssService.writeChannelFeed(channel, publishedAt, output));
+  }
+
+  public CachedRss getPlaylistRss(String playlistId) throws Exception {
+    Playlist playlist = rssService.requirePlaylist(playlistId);
+    return getOrRender(playlist.getId(),
+        (publishedAt, output) -> rssService.writePlaylistFeed(playlist, publishedAt, output));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void handleFeedContentChanged(FeedContentChangedEvent event) {
+    if (event.isGlobal()) {
+      globalEpoch.incrementAndGet();
+      versions.clear();
+      documents.clear();
+      log.debug("RSS 缓存已全部失效");
+      return;
+    }
+    Set<String> feedIds = new LinkedHashSet<>(event.getFeedIds());
+    if (!event.getEpisodeIds().isEmpty()) {
+      feedIds.addAll(resolveFeedIdsByEpisodeIds(event.getEpisodeIds()));
+    }
+    for (String feedId : feedIds) {
+      bumpVersion(feedId);
+    }
+  }
+
+  private CachedRss getOrRender(String feedId, FeedRenderer renderer) throws Exception {
+    long epoch = globalEpoch.get();
+    FeedVersion version = versions.computeIfAbsent(feedId,
+        id -> new FeedVersion(0L, Instant.now().truncatedTo(ChronoUnit.SECONDS)));
+    CachedRss cached = documents.get(feedId);
+    Instant now = Instant.now();
+    if (cached != null && cached.epoch() == epoch && cached.version() == version.version()
+        && now.isBefore(cached.expiresAt())) {
+      return cached;
+    }
+
+    // 并发未命中时可能重复渲染，结果相同，不额外加锁
+    ByteArrayOutputStream output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+    Set<String> episodeIds = renderer.render(Date.from(version.lastModified()), output);
+    byte[] body = output.toByteArray();
+    byte[] gzipBody = gzip(body);
+    String digest = sha256Hex(body);
+    CachedRss document = new CachedRss(epoch, version.version(), body, gzipBody,
+        "\"" + digest + "\"", "\"" + digest + "-gzip\"", version.lastModified(),
+        now.plus(resolveTtl()), Set.copyOf(episodeIds));
+    documents.put(feedId, document);
+    return document;
+  }
+
+  private void bumpVersion(String feedId) {
+    if (!StringUtils.hasText(feedId)) {
+      return;
+    }
+    Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    versions.compute(feedId, (id, current) -> new FeedVersion(
+        current == null ? 1L : current.version() + 1, now));
+    documents.remove(feedId);
+  }
+
+  private Set<String> resolveFeedIdsByEpisodeIds(Collection<String> episodeIds) {
+    Set<String> feedIds = new LinkedHashSet<>();
+    // 已被删除的节目查不到归属，按缓存文档中包含的节目反查
+    documents.forEach((feedId, document) -> {
+      for (String episodeId : episodeIds) {
+        if (document.episodeIds().contains(episodeId)) {
+          feedIds.add(feedId);
+          return;
+        }
+      }
+    });
+    for (Episode episode : episodeMapper.selectBatchIds(episodeIds)) {
+      if (StringUtils.hasText(episode.getChannelId())) {
+        feedIds.add(episode.getChannelId());
+      }
+    }
+    for (PlaylistEpisode playlistEpisode : playlistEpisodeMapper.selectList(
+        new QueryWrapper<PlaylistEpisode>()
+            .select("playlist_id")
+            .in("episode_id", episodeIds))) {
+      feedIds.add(playlistEpisode.getPlaylistId());
+    }
+    return feedIds;
+  }
+
+  private Duration resolveTtl() {
+    if (!storageProperties.isS3Mode()) {
+      return MAX_TTL;
+    }
+    // 预签名链接会被复用，按交出时最少剩余有效期的一半计算
+    Duration ttl = s3StorageService.getMinimumPresignRemaining().dividedBy(2);
+    return ttl.compareTo(MAX_TTL) < 0 ? ttl : MAX_TTL;
+  }
+
+  private static byte[] gzip(byte[] body) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+    try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+      gzip.write(body);
+    }
+    return output.toByteArray();
+  }
+
+  private static String sha256Hex(byte[] body) throws NoSuchAlgorithmException {
+    byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+    // 前 16 字节足以区分不同版本
+    return HexFormat.of().formatHex(hash, 0, 16);
+  }
+
+  @FunctionalInterface
+  private interface FeedRenderer {
+
+    Set<String> render(Date publishedAt, OutputStream output) throws Exception;
+  }
+
+  private record FeedVersion(long version, Instant lastModified) {
+
+  }
+
+  public record CachedRss(long epoch, long version, byte[] body, byte[] gzipBody, String etag,
+                          String gzipEtag, Instant lastModified, Instant expiresAt,
+                          Set<String> episodeIds) {
+
+  }
+}
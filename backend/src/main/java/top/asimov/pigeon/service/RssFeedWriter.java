@@ -0,0 +1,305 @@
+package top.asimov.pigeon.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 流式写出 RSS 2.0 文档（含 iTunes 与 Podcasting 2.0 标签）。
+ *
+ * <p>依次写出频道头、逐条节目、频道尾，不在内存中构建文档树。输出与此前 ROME 生成 JDOM 文档后
+ * 用 {@code Format.getPrettyFormat()} 美化输出的结果逐字节一致：两空格缩进、CRLF 换行、
+ * 文本首尾空白裁剪、空元素写作 {@code <x />}、增补平面字符写作字符引用。唯一的差别是 CDATA 内容中的
+ * {@code ]]>}：此前被改写为 {@code ]]&gt;}，现在拆成相邻的 CDATA 段以保留原文。
+ * JDK 自带的 StAX 写出器无法控制这些细节，因此在此直接拼写。</p>
+ */
+final class RssFeedWriter {
+
+  private static final String LINE_SEPARATOR = "\r\n";
+  private static final String ROOT_START = "<rss xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+      + "xmlns:itunes=\"http://www.itunes.com/dtds/podcast-1.0.dtd\" "
+      + "xmlns:podcast=\"https://podcastindex.org/namespace/1.0\" version=\"2.0\">";
+  private static final String ITUNES_CATEGORY_TEXT = "Technology";
+  private static final String ITUNES_EXPLICIT_TEXT = "false";
+  // 与 ROME DateParser 的 RFC 822 / W3C 输出格式一致
+  private static final DateTimeFormatter RFC822_FORMATTER =
+      DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+          .withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter W3C_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US).withZone(ZoneOffset.UTC);
+  private static final int FLUSH_THRESHOLD = 8192;
+
+  private final Writer output;
+  // 逐字符转义写入不加锁的缓冲区，攒满一批再交给编码器
+  private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD * 2);
+
+  RssFeedWriter(OutputStream output) {
+    this.output = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+  }
+
+  void writeChannelStart(String title, String link, String description, Date publishedAt,
+      String imageUrl) throws IOException {
+    buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(LINE_SEPARATOR)
+        .append(ROOT_START).append(LINE_SEPARATOR);
+    startElement(1, "channel");
+    // RSS 2.0 要求频道必须有 title/link/description
+    textElement(2, "title", title == null ? "" : title);
+    textElement(2, "link", link == null ? "" : link);
+    textElement(2, "description", description == null ? "" : description);
+    if (publishedAt != null) {
+      textElement(2, "pubDate", RFC822_FORMATTER.format(publishedAt.toInstant()));
+      textElement(2, "dc:date", W3C_FORMATTER.format(publishedAt.toInstant()));
+    }
+    textElement(2, "itunes:author", title);
+    textElement(2, "itunes:block", "Yes");
+    if (imageUrl != null) {
+      emptyElement(2, "itunes:image", "href", imageUrl);
+    }
+    emptyElement(2, "itunes:keywords");
+    textElement(2, "itunes:summary", description);
+    flushIfNeeded();
+  }
+
+  void writeItem(Item item) throws IOException {
+    startElement(2, "item");
+    textElement(3, "title", item.title());
+    textElement(3, "link", item.link());
+    for (Transcript transcript : item.transcripts()) {
+      emptyElement(3, "podcast:transcript", "url", transcript.url(), "type", transcript.type(),
+          "language", transcript.language(), "rel", "captions");
+    }
+    if (item.chaptersUrl() != null) {
+      emptyElement(3, "podcast:chapters", "url", item.chaptersUrl(), "type", "application/json");
+    }
+    cdataElement(3, "description", item.description());
+    emptyElement(3, "enclosure", "url", item.enclosureUrl(), "length",
+        Long.toString(item.enclosureLength()), "type", item.enclosureType());
+    textElement(3, "pubDate", RFC822_FORMATTER.format(item.publishedAt().toInstant()));
+    textElement(3, "guid", item.link());
+    textElement(3, "dc:date", W3C_FORMATTER.format(item.publishedAt().toInstant()));
+    textElement(3, "itunes:duration", item.duration());
+    if (item.imageUrl() != null) {
+      emptyElement(3, "itunes:image", "href", item.imageUrl());
+    }
+    emptyElement(3, "itunes:keywords");
+    textElement(3, "itunes:summary", item.summary());
+    endElement(2, "item");
+    flushIfNeeded();
+  }
+
+  void writeChannelEnd() throws IOException {
+    textElement(2, "itunes:explicit", ITUNES_EXPLICIT_TEXT);
+    emptyElement(2, "itunes:category", "text", ITUNES_CATEGORY_TEXT);
+    endElement(1, "channel");
+    buffer.append("</rss>").append(LINE_SEPARATOR);
+    output.append(buffer);
+    buffer.setLength(0);
+    output.flush();
+  }
+
+  private void flushIfNeeded() throws IOException {
+    if (buffer.length() >= FLUSH_THRESHOLD) {
+      output.append(buffer);
+      buffer.setLength(0);
+    }
+  }
+
+  private void startElement(int depth, String name) {
+    indent(depth);
+    buffer.append('<');
+    buffer.append(name);
+    buffer.append('>');
+    buffer.append(LINE_SEPARATOR);
+  }
+
+  private void endElement(int depth, String name) {
+    indent(depth);
+    buffer.append("</");
+    buffer.append(name);
+    buffer.append('>');
+    buffer.append(LINE_SEPARATOR);
+  }
+
+  private void textElement(int depth, String name, String text) {
+    if (text == null) {
+      return;
+    }
+    String trimmed = trim(text);
+    indent(depth);
+    buffer.append('<');
+    buffer.append(name);
+    if (trimmed.isEmpty()) {
+      buffer.append(" />");
+    } else {
+      buffer.append('>');
+      writeEscapedText(trimmed);
+      buffer.append("</");
+      buffer.append(name);
+      buffer.append('>');
+    }
+    buffer.append(LINE_SEPARATOR);
+  }
+
+  private void cdataElement(int depth, String name, String text) {
+    String trimmed = trim(text == null ? "" : text);
+    indent(depth);
+    buffer.append('<');
+    buffer.append(name);
+    if (trimmed.isEmpty()) {
+      buffer.append(" />");
+    } else {
+      buffer.append("><![CDATA[");
+      writeCdata(trimmed);
+      buffer.append("]]></");
+      buffer.append(name);
+      buffer.append('>');
+    }
+    buffer.append(LINE_SEPARATOR);
+  }
+
+  /**
+   * @param attributes 依次为属性名、属性值，值为 null 的属性不输出
+   */
+  private void emptyElement(int depth, String name, String... attributes) {
+    indent(depth);
+    buffer.append('<');
+    buffer.append(name);
+    for (int i = 0; i + 1 < attributes.length; i += 2) {
+      if (attributes[i + 1] == null) {
+        continue;
+      }
+      buffer.append(' ');
+      buffer.append(attributes[i]);
+      buffer.append("=\"");
+      writeEscapedAttribute(attributes[i + 1]);
+      buffer.append('"');
+    }
+    buffer.append(" />");
+    buffer.append(LINE_SEPARATOR);
+  }
+
+  private void indent(int depth) {
+    for (int i = 0; i < depth; i++) {
+      buffer.append("  ");
+    }
+  }
+
+  private void writeEscapedText(String text) {
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '&' -> buffer.append("&amp;");
+        case '<' -> buffer.append("&lt;");
+        case '>' -> buffer.append("&gt;");
+        case '\r' -> buffer.append("&#xD;");
+        case '\n' -> buffer.append(LINE_SEPARATOR);
+        default -> i = writeCharacter(text, i, c);
+      }
+    }
+  }
+
+  private void writeEscapedAttribute(String value) {
+    for (int i = 0, length = value.length(); i < length; i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '&' -> buffer.append("&amp;");
+        case '<' -> buffer.append("&lt;");
+        case '>' -> buffer.append("&gt;");
+        case '"' -> buffer.append("&quot;");
+        case '\t' -> buffer.append("&#x9;");
+        case '\n' -> buffer.append("&#xA;");
+        case '\r' -> buffer.append("&#xD;");
+        default -> i = writeCharacter(value, i, c);
+      }
+    }
+  }
+
+  /**
+   * 写出 CDATA 内容。内容中的 {@code ]]>} 拆到两个相邻的 CDATA 段中（{@code ]]]]><![CDATA[>}），
+   * 与 JDOM 输出相邻 CDATA 节点的结果一致，解析后仍得到原文。按已写出的字符判断，
+   * 丢弃非法字符后才拼出的 {@code ]]>} 同样会被拆开。
+   */
+  private void writeCdata(String text) {
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = text.charAt(i);
+      if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        buffer.append(c);
+        buffer.append(text.charAt(++i));
+      } else if (isXmlCharacter(c)) {
+        if (c == '>' && endsWithCdataBrackets()) {
+          buffer.append("]]><![CDATA[");
+        }
+        buffer.append(c);
+      }
+    }
+  }
+
+  // 调用时缓冲区末尾是本 CDATA 段的内容或其起始标记 "<![CDATA["，不会误判到段外
+  private boolean endsWithCdataBrackets() {
+    int length = buffer.length();
+    return length >= 2 && buffer.charAt(length - 1) == ']' && buffer.charAt(length - 2) == ']';
+  }
+
+  /**
+   * 写出普通字符：增补平面字符写作字符引用，XML 不允许的字符直接丢弃。
+   *
+   * @return 已处理到的下标
+   */
+  private int writeCharacter(String text, int index, char c) {
+    if (Character.isHighSurrogate(c)) {
+      if (index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+        buffer.append("&#x");
+        buffer.append(Integer.toHexString(Character.toCodePoint(c, text.charAt(index + 1))));
+        buffer.append(';');
+        return index + 1;
+      }
+      return index;
+    }
+    if (isXmlCharacter(c)) {
+      buffer.append(c);
+    }
+    return index;
+  }
+
+  private static boolean isXmlCharacter(char c) {
+    if (c >= 0x20) {
+      return c <= 0xD7FF || (c >= 0xE000 && c <= 0xFFFD);
+    }
+    return c == '\t' || c == '\n' || c == '\r';
+  }
+
+  private static String trim(String text) {
+    int start = 0;
+    int end = text.length();
+    while (start < end && isXmlWhitespace(text.charAt(start))) {
+      start++;
+    }
+    while (end > start && isXmlWhitespace(text.charAt(end - 1))) {
+      end--;
+    }
+    return text.substring(start, end);
+  }
+
+  private static boolean isXmlWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  record Item(String title, String link, List<Transcript> transcripts, String chaptersUrl,
+              String description, String enclosureUrl, long enclosureLength,
+              String enclosureType, Date publishedAt, String duration, String imageUrl,
+              String summary) {
+
+  }
+
+  record Transcript(String url, String type, String language) {
+
+  }
+}
@@ -1,22 +1,10 @@
 package top.asimov.pigeon.service;
 
-import com.rometools.modules.itunes.EntryInformation;
-import com.rometools.modules.itunes.EntryInformationImpl;
-import com.rometools.modules.itunes.FeedInformation;
-import com.rometools.modules.itunes.FeedInformationImpl;
-import com.rometools.modules.itunes.ITunes;
-import com.rometools.modules.itunes.types.Category;
 import com.rometools.modules.itunes.types.Duration;
-import com.rometools.rome.feed.synd.SyndContent;
-import com.rometools.rome.feed.synd.SyndContentImpl;
-import com.rometools.rome.feed.synd.SyndEnclosure;
-import com.rometools.rome.feed.synd.SyndEnclosureImpl;
-import com.rometools.rome.feed.synd.SyndEntry;
-import com.rometools.rome.feed.synd.SyndEntryImpl;
-import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.feed.synd.SyndFeedImpl;
-import com.rometools.rome.io.SyndFeedOutput;
-import java.io.StringWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
@@ -26,15 +14,12 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import lombok.extern.log4j.Log4j2;
-import org.jdom2.CDATA;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.Namespace;
-import org.jdom2.output.Format;
-import org.jdom2.output.XMLOutputter;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
@@ -61,12 +46,6 @@ public class RssService {
   private final MessageSource messageSource;
   private final AppBaseUrlResolver appBaseUrlResolver;
 
-  private static final Namespace PODCAST_NS = Namespace.getNamespace("podcast",
-      "https://podcastindex.org/namespace/1.0");
-  private static final Namespace ITUNES_NS = Namespace.getNamespace("itunes", ITunes.URI);
-  private static final String ITUNES_CATEGORY_TEXT = "Technology";
-  private static final String ITUNES_EXPLICIT_TEXT = "false";
-
   public RssService(ChannelService channelService, EpisodeService episodeService,
       PlaylistService playlistService, MediaService mediaService, MessageSource messageSource,
       AppBaseUrlResolver appBaseUrlResolver) {
@@ -78,128 +57,150 @@ public class RssService {
     this.appBaseUrlResolver = appBaseUrlResolver;
   }
 
-  public String generateRssFeed(String channelIdentification) throws MalformedURLException {
+  public String generateRssFeed(String channelIdentification) throws IOException {
     // 1. 获取频道信息
+    Channel channel = requireChannel(channelIdentification);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writeChannelFeed(channel, new Date(), output);
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  public String generatePlaylistRssFeed(String playlistId) throws IOException {
+    Playlist playlist = requirePlaylist(playlistId);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writePlaylistFeed(playlist, new Date(), output);
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  public Channel requireChannel(String channelIdentification) {
     Channel channel = channelService.findChannelByIdentification(channelIdentification);
     if (ObjectUtils.isEmpty(channel)) {
       throw new BusinessException(
           messageSource.getMessage("channel.not.found.handler", new Object[]{channelIdentification},
               LocaleContextHolder.getLocale()));
     }
-
-    List<Episode> episodes = episodeService.getVisibleCompletedEpisodesForChannel(channel);
-    String appBaseUrl = appBaseUrlResolver.requireBaseUrl();
-    SyndFeed feed = createFeed(StringUtils.hasText(channel.getCustomTitle()) ?
-            channel.getCustomTitle() : channel.getTitle(),
-        FeedSourceUrlBuilder.buildChannelUrl(channel.getSource(), channel.getId()),
-        channel.getDescription(), getCoverUrl(channel, appBaseUrl));
-    feed.setEntries(buildEntries(episodes, appBaseUrl, channel.getSource(), false));
-    return writeFeed(feed);
+    return channel;
   }
 
-  public String generatePlaylistRssFeed(String playlistId) throws MalformedURLException {
+  public Playlist requirePlaylist(String playlistId) {
     Playlist playlist = playlistService.playlistDetail(playlistId);
     if (ObjectUtils.isEmpty(playlist)) {
       throw new BusinessException(
           messageSource.getMessage("playlist.not.found", new Object[]{playlistId},
               LocaleContextHolder.getLocale()));
     }
+    return playlist;
+  }
+
+  /**
+   * 边读取节目边写出频道 RSS，节目通过数据库游标逐条读取，内存占用与节目数量无关。
+   *
+   * @param publishedAt 频道级 pubDate；缓存场景传入内容最后变化时间，保证内容不变时输出字节稳定
+   * @return 文档中包含的节目，供缓存按节目失效
+   */
+  public Set<String> writeChannelFeed(Channel channel, Date publishedAt, OutputStream output)
+      throws IOException {
+    String appBaseUrl = appBaseUrlResolver.requireBaseUrl();
+    RssFeedWriter writer = new RssFeedWriter(output);
+    writer.writeChannelStart(StringUtils.hasText(channel.getCustomTitle()) ?
+            channel.getCustomTitle() : channel.getTitle(),
+        FeedSourceUrlBuilder.buildChannelUrl(channel.getSource(), channel.getId()),
+        channel.getDescription(), publishedAt, resolveImageUrl(getCoverUrl(channel, appBaseUrl)));
+    Set<String> episodeIds = new HashSet<>();
+    try {
+      episodeService.forEachVisibleCompletedEpisode(channel, episode ->
+          writeEntry(writer, episode, appBaseUrl, channel.getSource(), false, episodeIds));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.writeChannelEnd();
+    return episodeIds;
+  }
 
-    List<Episode> episodes = episodeService.getVisibleCompletedEpisodesForPlaylist(playlist);
+  /**
+   * @see #writeChannelFeed(Channel, Date, OutputStream)
+   */
+  public Set<String> writePlaylistFeed(Playlist playlist, Date publishedAt, OutputStream output)
+      throws IOException {
     String appBaseUrl = appBaseUrlResolver.requireBaseUrl();
-    SyndFeed feed = createFeed(StringUtils.hasText(playlist.getCustomTitle()) ?
+    RssFeedWriter writer = new RssFeedWriter(output);
+    writer.writeChannelStart(StringUtils.hasText(playlist.getCustomTitle()) ?
             playlist.getCustomTitle() : playlist.getTitle(),
         FeedSourceUrlBuilder.buildPlaylistUrl(
             playlist.getSource(), playlist.getId(), playlist.getOwnerId()),
-        playlist.getDescription(), getCoverUrl(playlist, appBaseUrl));
+        playlist.getDescription(), publishedAt, resolveImageUrl(getCoverUrl(playlist, appBaseUrl)));
     boolean withPlaylistSourcePrefix = "YOUTUBE".equalsIgnoreCase(playlist.getSource());
-    feed.setEntries(buildEntries(episodes, appBaseUrl, playlist.getSource(), withPlaylistSourcePrefix));
-    return writeFeed(feed);
+    Set<String> episodeIds = new HashSet<>();
+    try {
+      episodeService.forEachVisibleCompletedEpisode(playlist, episode ->
+          writeEntry(writer, episode, appBaseUrl, playlist.getSource(), withPlaylistSourcePrefix,
+              episodeIds));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.writeChannelEnd();
+    return episodeIds;
   }
 
-  private SyndFeed createFeed(String title, String link, String description, String coverUrl)
-      throws MalformedURLException {
-    SyndFeed feed = new SyndFeedImpl();
-    feed.setFeedType("rss_2.0");
-    feed.setTitle(title);
-    feed.setLink(link);
-    feed.setDescription(description);
-    feed.setPublishedDate(new Date());
+  private String resolveImageUrl(String coverUrl) throws MalformedURLException {
+    return coverUrl == null ? null : new URL(coverUrl).toString();
+  }
 
-    FeedInformation feedInfo = new FeedInformationImpl();
-    feedInfo.setAuthor(title);
-    feedInfo.setBlock(true);
-    feedInfo.setSummary(description);
-    if (coverUrl != null) {
-      feedInfo.setImage(new URL(coverUrl));
+  private void writeEntry(RssFeedWriter writer, Episode episode, String appBaseUrl, String source,
+      boolean withPlaylistSourcePrefix, Set<String> episodeIds) {
+    if (episode == null) {
+      return;
+    }
+    if (episode.getId() != null) {
+      episodeIds.add(episode.getId());
+    }
+    if (episode.getPublishedAt() == null) {
+      return;
     }
-    feedInfo.setCategories(Collections.singletonList(new Category(ITUNES_CATEGORY_TEXT)));
-    feed.getModules().add(feedInfo);
-    return feed;
-  }
 
-  private List<SyndEntry> buildEntries(List<Episode> episodes, String appBaseUrl, String source,
-      boolean withPlaylistSourcePrefix) {
-    List<SyndEntry> entries = new ArrayList<>();
-    for (Episode episode : episodes) {
-      if (episode == null || episode.getPublishedAt() == null) {
-        continue;
+    String summary = buildEpisodeSummary(episode, source, withPlaylistSourcePrefix);
+    String audioUrl;
+    String enclosureType;
+    long fileSize;
+    try {
+      String mediaFilePath = episode.getMediaFilePath();
+      if (!StringUtils.hasText(mediaFilePath)) {
+        return;
       }
 
-      SyndEntry entry = new SyndEntryImpl();
-      entry.setTitle(episode.getTitle());
-      entry.setLink(FeedSourceUrlBuilder.buildEpisodeUrl(source, episode.getId()));
-      entry.setPublishedDate(
-          Date.from(episode.getPublishedAt().toInstant(java.time.ZoneOffset.UTC)));
-
-      SyndContent description = new SyndContentImpl();
-      description.setType("text/html");
-      String summary = buildEpisodeSummary(episode, source, withPlaylistSourcePrefix);
-      description.setValue(summary.replace("\n", "<br/>"));
-      entry.setDescription(description);
-
-      try {
-        String mediaFilePath = episode.getMediaFilePath();
-        if (!StringUtils.hasText(mediaFilePath)) {
-          continue;
-        }
-
-        SyndEnclosure enclosure = new SyndEnclosureImpl();
-        String audioUrl = mediaService.resolveMediaUrlForRss(appBaseUrl, episode);
-        if (!StringUtils.hasText(audioUrl)) {
-          continue;
-        }
-        enclosure.setUrl(audioUrl);
-        String enclosureType = StringUtils.hasText(episode.getMediaType()) ?
-            episode.getMediaType() : "audio/mpeg";
-        enclosure.setType(enclosureType);
-        long fileSize = mediaService.resolveMediaLengthForRss(episode);
-        enclosure.setLength(fileSize);
-        entry.setEnclosures(Collections.singletonList(enclosure));
-      } catch (Exception e) {
-        log.error("无法为 episode {} 创建 enclosure: {}", episode.getId(), e.getMessage());
-        continue;
+      audioUrl = mediaService.resolveMediaUrlForRss(appBaseUrl, episode);
+      if (!StringUtils.hasText(audioUrl)) {
+        return;
       }
+      enclosureType = StringUtils.hasText(episode.getMediaType()) ?
+          episode.getMediaType() : "audio/mpeg";
+      fileSize = mediaService.resolveMediaLengthForRss(episode);
+    } catch (Exception e) {
+      log.error("无法为 episode {} 创建 enclosure: {}", episode.getId(), e.getMessage());
+      return;
+    }
 
-      EntryInformation entryInfo = new EntryInformationImpl();
-      entryInfo.setSummary(summary);
-      entryInfo.setDuration(convertToRomeDuration(episode.getDuration()));
-      if (episode.getMaxCoverUrl() != null) {
-        try {
-          entryInfo.setImage(new URL(episode.getMaxCoverUrl()));
-        } catch (MalformedURLException e) {
-          log.warn("Episode {} cover url is invalid: {}", episode.getId(), e.getMessage());
-        }
+    String imageUrl = null;
+    if (episode.getMaxCoverUrl() != null) {
+      try {
+        imageUrl = new URL(episode.getMaxCoverUrl()).toString();
+      } catch (MalformedURLException e) {
+        log.warn("Episode {} cover url is invalid: {}", episode.getId(), e.getMessage());
       }
-      entry.getModules().add(entryInfo);
-
-      // 添加 Podcasting 2.0 字幕标签
-      addSubtitleElements(entry, episode, appBaseUrl);
-      addChaptersElement(entry, episode, appBaseUrl);
+    }
 
-      entries.add(entry);
+    String link = FeedSourceUrlBuilder.buildEpisodeUrl(source, episode.getId());
+    RssFeedWriter.Item item = new RssFeedWriter.Item(episode.getTitle(), link,
+        // 添加 Podcasting 2.0 字幕与章节标签
+        buildTranscripts(episode, appBaseUrl), buildChaptersUrl(episode, appBaseUrl),
+        summary.replace("\n", "<br/>"), audioUrl, fileSize, enclosureType,
+        Date.from(episode.getPublishedAt().toInstant(java.time.ZoneOffset.UTC)),
+        convertToRomeDuration(episode.getDuration()).toString(), imageUrl, summary);
+    try {
+      writer.writeItem(item);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    return entries;
   }
 
   private String buildEpisodeSummary(Episode episode, String source, boolean withPlaylistSourcePrefix) {
@@ -319,100 +320,48 @@ public class RssService {
   }
 
   /**
-   * 为 RSS entry 添加 Podcasting 2.0 字幕标签
+   * 构建 Podcasting 2.0 字幕标签，单个字幕出错时保留此前已生成的标签。
    *
-   * @param entry   RSS entry
    * @param episode 节目信息
    */
-  private void addSubtitleElements(SyndEntry entry, Episode episode, String appBaseUrl) {
+  private List<RssFeedWriter.Transcript> buildTranscripts(Episode episode, String appBaseUrl) {
+    List<RssFeedWriter.Transcript> transcripts = new ArrayList<>();
     try {
       List<SubtitleInfo> subtitles = mediaService.getAvailableSubtitles(episode);
-      if (subtitles.isEmpty()) {
-        return;
-      }
-
-      List<Element> foreignMarkup = entry.getForeignMarkup();
-      if (foreignMarkup == null) {
-        foreignMarkup = new ArrayList<>();
-        entry.setForeignMarkup(foreignMarkup);
-      }
-
       for (SubtitleInfo subtitle : subtitles) {
-        Element transcriptElement = new Element("transcript", PODCAST_NS);
-
         String subtitleUrl = mediaService.resolveSubtitleUrlForRss(appBaseUrl, episode, subtitle);
         if (!StringUtils.hasText(subtitleUrl)) {
           continue;
         }
-        transcriptElement.setAttribute("url", subtitleUrl);
 
         String mimeType = subtitle.getFormat().equals("vtt") ? "text/vtt" : "application/x-subrip";
-        transcriptElement.setAttribute("type", mimeType);
-        transcriptElement.setAttribute("language", subtitle.getLanguage());
-        transcriptElement.setAttribute("rel", "captions");
-
-        foreignMarkup.add(transcriptElement);
+        transcripts.add(new RssFeedWriter.Transcript(subtitleUrl, mimeType,
+            Objects.requireNonNull(subtitle.getLanguage(), "subtitle language")));
         log.debug("为 episode {} 添加字幕标签: language={}, format={}",
             episode.getId(), subtitle.getLanguage(), subtitle.getFormat());
       }
     } catch (Exception e) {
       log.warn("为 episode {} 添加字幕标签时出错: {}", episode.getId(), e.getMessage());
     }
+    return transcripts.isEmpty() ? Collections.emptyList() : transcripts;
   }
 
   /**
-   * 为 RSS entry 添加 Podcasting 2.0 章节标签。
+   * 构建 Podcasting 2.0 章节标签的链接，没有章节时返回 null。
    *
-   * @param entry   RSS entry
    * @param episode 节目信息
    */
-  private void addChaptersElement(SyndEntry entry, Episode episode, String appBaseUrl) {
+  private String buildChaptersUrl(Episode episode, String appBaseUrl) {
     try {
       String chapterUrl = mediaService.resolveChaptersUrlForRss(appBaseUrl, episode);
       if (!StringUtils.hasText(chapterUrl)) {
-        return;
+        return null;
       }
-
-      List<Element> foreignMarkup = entry.getForeignMarkup();
-      if (foreignMarkup == null) {
-        foreignMarkup = new ArrayList<>();
-        entry.setForeignMarkup(foreignMarkup);
-      }
-
-      Element chaptersElement = new Element("chapters", PODCAST_NS);
-      chaptersElement.setAttribute("url", chapterUrl);
-      chaptersElement.setAttribute("type", "application/json");
-      foreignMarkup.add(chaptersElement);
       log.debug("为 episode {} 添加章节标签", episode.getId());
+      return chapterUrl;
     } catch (Exception e) {
       log.warn("为 episode {} 添加章节标签时出错: {}", episode.getId(), e.getMessage());
-    }
-  }
-
-  private String writeFeed(SyndFeed feed) {
-    try (StringWriter writer = new StringWriter()) {
-      SyndFeedOutput output = new SyndFeedOutput();
-
-      // 1. 不要直接 output 到 writer，而是先生成 JDOM Document 对象
-      Document document = output.outputJDom(feed);
-
-      // 2. 获取根节点 (<rss>)
-      Element root = document.getRootElement();
-
-      // 3. 【关键步骤】手动向根节点添加 Podcasting 2.0 的 Namespace 声明
-      // 只要根节点有了这个声明，JDOM 在输出时就会自动移除子节点中多余的重复声明
-      root.addNamespaceDeclaration(PODCAST_NS);
-
-      // 4. 使用 JDOM 的输出工具将修改后的 Document 写出
-      applyGlobalItunesTags(document);
-      wrapItemDescriptionWithCdata(document);
-      XMLOutputter xmlOutputter = new XMLOutputter(Format.getPrettyFormat());
-      xmlOutputter.output(document, writer);
-
-      return writer.toString();
-    } catch (Exception e) {
-      throw new RuntimeException(messageSource.getMessage("system.generate.rss.failed",
-          null, LocaleContextHolder.getLocale()), e);
+      return null;
     }
   }
 
@@ -445,62 +394,4 @@ public class RssService {
     }
     return feed.getCoverUrl();
   }
-
-  private void applyGlobalItunesTags(Document document) {
-    Element root = document.getRootElement();
-    Element channel = root.getChild("channel");
-    if (channel == null) {
-      return;
-    }
-
-    root.addNamespaceDeclaration(ITUNES_NS);
-    removeItunesOwner(channel);
-    upsertItunesExplicit(channel);
-    normalizeItunesCategory(channel);
-  }
-
-  private void removeItunesOwner(Element channel) {
-    channel.removeChildren("owner", ITUNES_NS);
-    channel.removeChildren("email", ITUNES_NS);
-  }
-
-  private void upsertItunesExplicit(Element channel) {
-    Element explicitElement = channel.getChild("explicit", ITUNES_NS);
-    if (explicitElement == null) {
-      explicitElement = new Element("explicit", ITUNES_NS);
-      channel.addContent(explicitElement);
-    }
-    explicitElement.setText(ITUNES_EXPLICIT_TEXT);
-  }
-
-  private void normalizeItunesCategory(Element channel) {
-    channel.removeChildren("category", ITUNES_NS);
-    Element categoryElement = new Element("category", ITUNES_NS);
-    categoryElement.setAttribute("text", ITUNES_CATEGORY_TEXT);
-    channel.addContent(categoryElement);
-  }
-
-  private void wrapItemDescriptionWithCdata(Document document) {
-    Element root = document.getRootElement();
-    Element channel = root.getChild("channel");
-    if (channel == null) {
-      return;
-    }
-
-    List<Element> itemElements = channel.getChildren("item");
-    for (Element itemElement : itemElements) {
-      Element descriptionElement = itemElement.getChild("description");
-      if (descriptionElement == null) {
-        continue;
-      }
-
-      String descriptionValue = descriptionElement.getText();
-      if (descriptionValue == null) {
-        descriptionValue = "";
-      }
-
-      descriptionElement.removeContent();
-      descriptionElement.addContent(new CDATA(descriptionValue.replace("]]>", "]]&gt;")));
-    }
-  }
 }
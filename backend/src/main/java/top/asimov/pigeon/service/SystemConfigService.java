@@ -173,6 +173,20 @@ public class SystemConfigService {
     if (config.getProxyEnabled() == null) {
       config.setProxyEnabled(false);
     }
+    if (config.getDownloadConcurrency() == null || config.getDownloadConcurrency() <= 0) {
+      config.setDownloadConcurrency(SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY);
+    }
+    if (config.getYoutubeDownloadConcurrency() != null
+        && config.getYoutubeDownloadConcurrency() <= 0) {
+      config.setYoutubeDownloadConcurrency(null);
+    }
+    if (config.getBilibiliDownloadConcurrency() != null
+        && config.getBilibiliDownloadConcurrency() <= 0) {
+      config.setBilibiliDownloadConcurrency(null);
+    }
+    if (config.getAdaptiveDownloadConcurrency() == null) {
+      config.setAdaptiveDownloadConcurrency(false);
+    }
     if (config.getS3PathStyleAccess() == null) {
       config.setS3PathStyleAccess(true);
     }
@@ -220,6 +234,11 @@ public class SystemConfigService {
         existing.setProxyPassword(null);
       }
     }
+    existing.setDownloadConcurrency(incoming.getDownloadConcurrency());
+    existing.setYoutubeDownloadConcurrency(incoming.getYoutubeDownloadConcurrency());
+    existing.setBilibiliDownloadConcurrency(incoming.getBilibiliDownloadConcurrency());
+    existing.setAdaptiveDownloadConcurrency(
+        Boolean.TRUE.equals(incoming.getAdaptiveDownloadConcurrency()));
     existing.setStorageType(incoming.getStorageType() == null ? StorageType.LOCAL : incoming.getStorageType());
     existing.setStorageTempDir(incoming.getStorageTempDir());
     existing.setLocalAudioPath(incoming.getLocalAudioPath());
@@ -246,6 +265,7 @@ public class SystemConfigService {
 
   private void validate(SystemConfig config) {
     validateProxyConfig(config);
+    validateDownloadConcurrency(config);
 
     if (config.getStorageType() == StorageType.LOCAL) {
       validateNonBlank(config.getLocalAudioPath(), "local audio path is required");
@@ -286,6 +306,19 @@ public class SystemConfigService {
     }
   }
 
+  private void validateDownloadConcurrency(SystemConfig config) {
+    int max = SystemConfig.MAX_DOWNLOAD_CONCURRENCY;
+    validateRange(config.getDownloadConcurrency(), 1, max, "download concurrency out of range");
+    if (config.getYoutubeDownloadConcurrency() != null) {
+      validateRange(config.getYoutubeDownloadConcurrency(), 1, config.getDownloadConcurrency(),
+          "youtube download concurrency out of range");
+    }
+    if (config.getBilibiliDownloadConcurrency() != null) {
+      validateRange(config.getBilibiliDownloadConcurrency(), 1, config.getDownloadConcurrency(),
+          "bilibili download concurrency out of range");
+    }
+  }
+
   private void validateRange(Integer value, int min, int max, String message) {
     if (value == null || value < min || value > max) {
       throw new BusinessException(message);
@@ -353,6 +386,8 @@ public class SystemConfigService {
         .s3ReadTimeoutSeconds(SystemConfig.DEFAULT_S3_READ_TIMEOUT_SECONDS)
         .s3PresignExpireHours(SystemConfig.DEFAULT_S3_PRESIGN_EXPIRE_HOURS)
         .proxyEnabled(false)
+        .downloadConcurrency(SystemConfig.DEFAULT_DOWNLOAD_CONCURRENCY)
+        .adaptiveDownloadConcurrency(false)
         .loginCaptchaEnabled(false)
         .createdAt(LocalDateTime.now())
         .updatedAt(LocalDateTime.now())
@@ -378,6 +413,10 @@ public class SystemConfigService {
         .proxyPort(source.getProxyPort())
         .proxyUsername(source.getProxyUsername())
         .proxyPassword(source.getProxyPassword())
+        .downloadConcurrency(source.getDownloadConcurrency())
+        .youtubeDownloadConcurrency(source.getYoutubeDownloadConcurrency())
+        .bilibiliDownloadConcurrency(source.getBilibiliDownloadConcurrency())
+        .adaptiveDownloadConcurrency(source.getAdaptiveDownloadConcurrency())
         .storageType(source.getStorageType())
         .storageTempDir(source.getStorageTempDir())
         .localAudioPath(source.getLocalAudioPath())
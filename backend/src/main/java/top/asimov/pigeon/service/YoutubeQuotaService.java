@@ -2,10 +2,13 @@ package top.asimov.pigeon.service;
 
 import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +33,8 @@ public class YoutubeQuotaService {
   private final YoutubeApiDailyUsageMapper dailyUsageMapper;
   private final YoutubeApiDailyUsageMethodMapper dailyUsageMethodMapper;
   private final SystemConfigService systemConfigService;
+  // 省下的调用只做统计，先在内存中累加，由 flushSavedCounts 定期写库
+  private final Map<String, SavedCounts> pendingSaved = new ConcurrentHashMap<>();
 
   public YoutubeQuotaService(YoutubeApiDailyUsageMapper dailyUsageMapper,
       YoutubeApiDailyUsageMethodMapper dailyUsageMethodMapper,
@@ -39,6 +44,10 @@ public class YoutubeQuotaService {
     this.systemConfigService = systemConfigService;
   }
 
+  /**
+   * 预占并记录一次 Data API 调用。调用方不应处于写事务中，否则配额记录会并入调用方的事务，
+   * 在整个网络请求期间占用唯一的写连接。
+   */
   @Transactional
   public boolean reserveAndRecord(YoutubeApiMethod method, YoutubeApiCallContext callContext) {
     String usageDatePt = todayPtString();
@@ -71,6 +80,51 @@ public class YoutubeQuotaService {
     return true;
   }
 
+  /**
+   * 记录因预检或缓存命中而省下的 Data API 调用，只做统计，不影响当日配额与阻断判断。
+   * 缓存命中很频繁，这里只在内存中累加，不写库。
+   */
+  public void recordSaved(List<YoutubeApiMethod> skippedMethods) {
+    if (CollectionUtils.isEmpty(skippedMethods)) {
+      return;
+    }
+    int quotaUnits = skippedMethods.stream().mapToInt(YoutubeApiMethod::quotaCost).sum();
+    pendingSaved.computeIfAbsent(todayPtString(), date -> new SavedCounts())
+        .add(skippedMethods.size(), quotaUnits);
+  }
+
+  /**
+   * 把内存中累加的省下调用数写入当日统计，写库失败时计数放回，下次再写。
+   */
+  @PreDestroy
+  @Transactional
+  public void flushSavedCounts() {
+    String today = todayPtString();
+    for (Map.Entry<String, SavedCounts> entry : pendingSaved.entrySet()) {
+      String usageDatePt = entry.getKey();
+      SavedCounts counts = entry.getValue();
+      int[] drained = counts.drain();
+      if (drained[0] > 0) {
+        try {
+          dailyUsageMapper.ensureDayRow(usageDatePt);
+          dailyUsageMapper.incrementSaved(usageDatePt, drained[0], drained[1]);
+        } catch (RuntimeException e) {
+          counts.add(drained[0], drained[1]);
+          log.warn("写入省下的 YouTube 调用统计失败，稍后重试。date={}: {}", usageDatePt, e.getMessage());
+          continue;
+        }
+      }
+      if (!today.equals(usageDatePt)) {
+        // 跨天后旧日期不再有新增，计数写完即可移除
+        pendingSaved.remove(usageDatePt, counts);
+        int[] late = counts.drain();
+        if (late[0] > 0) {
+          pendingSaved.computeIfAbsent(usageDatePt, date -> new SavedCounts()).add(late[0], late[1]);
+        }
+      }
+    }
+  }
+
   @Transactional
   public void markAutoSyncBlockedByRemoteQuota() {
     String usageDatePt = todayPtString();
@@ -92,6 +146,16 @@ public class YoutubeQuotaService {
     int usedUnits = usage == null || usage.getQuotaUnits() == null ? 0 : usage.getQuotaUnits();
     boolean autoSyncBlocked =
         usage != null && usage.getAutoSyncBlocked() != null && usage.getAutoSyncBlocked() == 1;
+    int savedRequestCount = usage == null || usage.getSavedRequestCount() == null
+        ? 0 : usage.getSavedRequestCount();
+    int savedUnits = usage == null || usage.getSavedQuotaUnits() == null
+        ? 0 : usage.getSavedQuotaUnits();
+    SavedCounts unflushed = pendingSaved.get(usageDatePt);
+    if (unflushed != null) {
+      int[] snapshot = unflushed.snapshot();
+      savedRequestCount += snapshot[0];
+      savedUnits += snapshot[1];
+    }
 
     Integer dailyLimitUnits = resolveDailyLimitUnits();
     Integer remainingUnits = null;
@@ -120,6 +184,8 @@ public class YoutubeQuotaService {
         .requestCount(requestCount)
         .usedUnits(usedUnits)
         .remainingUnits(remainingUnits)
+        .savedRequestCount(savedRequestCount)
+        .savedUnits(savedUnits)
         .autoSyncBlocked(autoSyncBlocked)
         .blockedReason(usage == null ? null : usage.getBlockedReason())
         .warningReached(warningReached)
@@ -164,4 +230,26 @@ public class YoutubeQuotaService {
   private String todayPtString() {
     return LocalDate.now(PACIFIC_ZONE_ID).toString();
   }
+
+  private static final class SavedCounts {
+
+    private int requestCount;
+    private int quotaUnits;
+
+    synchronized void add(int requests, int units) {
+      requestCount += requests;
+      quotaUnits += units;
+    }
+
+    synchronized int[] snapshot() {
+      return new int[]{requestCount, quotaUnits};
+    }
+
+    synchronized int[] drain() {
+      int[] drained = {requestCount, quotaUnits};
+      requestCount = 0;
+      quotaUnits = 0;
+      return drained;
+    }
+  }
 }
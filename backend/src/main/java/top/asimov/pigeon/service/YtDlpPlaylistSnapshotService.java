@@ -3,8 +3,10 @@ package top.asimov.pigeon.service;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -18,11 +20,16 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import top.asimov.pigeon.config.FeedSyncProperties;
 import top.asimov.pigeon.exception.BusinessException;
 import top.asimov.pigeon.model.constant.Youtube;
 import top.asimov.pigeon.model.dto.PlaylistSnapshotEntry;
@@ -33,19 +40,29 @@ public class YtDlpPlaylistSnapshotService {
 
   private static final DateTimeFormatter UPLOAD_DATE_FORMAT =
       DateTimeFormatter.ofPattern("yyyyMMdd", Locale.ROOT);
+  private static final long WATCHDOG_INTERVAL_MILLIS = 500L;
 
   private final ObjectMapper objectMapper;
   private final YtDlpRuntimeService ytDlpRuntimeService;
   private final YtDlpProxyService ytDlpProxyService;
+  // 订阅同步并行后限制同时运行的快照进程数
+  private final Semaphore snapshotPermits;
 
   @Value("${pigeon.yt-dlp.snapshot-timeout-seconds:180}")
   private int snapshotTimeoutSeconds;
 
+  // 流式快照的总时长上限，防止持续有输出的进程无限运行；不大于 0 时不限制
+  @Value("${pigeon.yt-dlp.snapshot-max-duration-seconds:1800}")
+  private int snapshotMaxDurationSeconds;
+
   public YtDlpPlaylistSnapshotService(ObjectMapper objectMapper,
-      YtDlpRuntimeService ytDlpRuntimeService, YtDlpProxyService ytDlpProxyService) {
+      YtDlpRuntimeService ytDlpRuntimeService, YtDlpProxyService ytDlpProxyService,
+      FeedSyncProperties feedSyncProperties) {
     this.objectMapper = objectMapper;
     this.ytDlpRuntimeService = ytDlpRuntimeService;
     this.ytDlpProxyService = ytDlpProxyService;
+    this.snapshotPermits = new Semaphore(
+        Math.max(1, feedSyncProperties.getYtDlpSnapshotConcurrency()), true);
   }
 
   public List<PlaylistSnapshotEntry> fetchPlaylistSnapshot(String playlistId) {
@@ -58,20 +75,7 @@ public class YtDlpPlaylistSnapshotService {
         ytDlpRuntimeService.resolveExecutionRuntime();
     YtDlpRuntimeService.YtDlpExecutionContext executionContext = resolvedRuntime.executionContext();
 
-    List<String> command = new ArrayList<>(executionContext.command());
-    command.add("--flat-playlist");
-    command.add("-J");
-    command.add("--quiet");
-    command.add("--no-warnings");
-    command.add("--ignore-errors");
-    command.add("--compat-options");
-    command.add("no-youtube-unavailable-videos");
-    command.add("--extractor-args");
-    command.add("youtubetab:approximate_date");
-    command.add("--remote-components");
-    command.add("ejs:npm");
-    ytDlpProxyService.appendCurrentProxyArgs(command);
-    command.add(playlistUrl);
+    List<String> command = buildSnapshotCommand(executionContext, "-J", playlistUrl);
 
     log.info(
         "[yt-dlp snapshot] start playlistId={}, runtimeMode={}, runtimeVersion={}, filterUnavailable=true, command={}",
@@ -79,7 +83,10 @@ public class YtDlpPlaylistSnapshotService {
 
     long startedAt = System.currentTimeMillis();
     Path outputLog = null;
+    boolean permitAcquired = false;
     try {
+      snapshotPermits.acquire();
+      permitAcquired = true;
       outputLog = Files.createTempFile(".yt-dlp-playlist-snapshot-", ".log");
 
       ProcessBuilder processBuilder = new ProcessBuilder(command);
@@ -109,6 +116,9 @@ public class YtDlpPlaylistSnapshotService {
     } catch (IOException e) {
       throw new BusinessException("yt-dlp playlist snapshot failed: " + e.getMessage());
     } finally {
+      if (permitAcquired) {
+        snapshotPermits.release();
+      }
       if (outputLog != null) {
         try {
           Files.deleteIfExists(outputLog);
@@ -119,6 +129,188 @@ public class YtDlpPlaylistSnapshotService {
     }
   }
 
+  /**
+   * 流式快照：以 {@code --flat-playlist -j} 运行 yt-dlp，逐行读取标准输出，每凑满 chunkSize
+   * 条按播放列表顺序交给 chunkConsumer，内存占用只与 chunkSize 有关。
+   *
+   * <p>只有 yt-dlp 正常退出时才返回条目总数，调用方据此认定快照完整；中途失败时已交出的分块
+   * 不会撤回。空闲超时按等待下一行输出的时间计算，不包含 chunkConsumer 自身的处理耗时；
+   * 总时长另有上限，包含分块处理耗时，超出后结束进程并按超时失败。</p>
+   */
+  public int streamPlaylistSnapshot(String playlistId, int chunkSize,
+      Consumer<List<PlaylistSnapshotEntry>> chunkConsumer) {
+    if (!StringUtils.hasText(playlistId)) {
+      return 0;
+    }
+    int effectiveChunkSize = Math.max(1, chunkSize);
+
+    String playlistUrl = Youtube.PLAYLIST_URL + playlistId;
+    YtDlpRuntimeService.YtDlpResolvedRuntime resolvedRuntime =
+        ytDlpRuntimeService.resolveExecutionRuntime();
+    YtDlpRuntimeService.YtDlpExecutionContext executionContext = resolvedRuntime.executionContext();
+    List<String> command = buildSnapshotCommand(executionContext, "-j", playlistUrl);
+
+    log.info(
+        "[yt-dlp snapshot] start streaming playlistId={}, runtimeMode={}, runtimeVersion={}, chunkSize={}, command={}",
+        playlistId, resolvedRuntime.mode(), resolvedRuntime.version(), effectiveChunkSize,
+        ytDlpProxyService.redactCommand(command));
+
+    long startedAt = System.currentTimeMillis();
+    long idleTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1, snapshotTimeoutSeconds));
+    long maxDurationNanos = TimeUnit.SECONDS.toNanos(Math.max(0, snapshotMaxDurationSeconds));
+    Path errorLog = null;
+    Process process = null;
+    boolean permitAcquired = false;
+    AtomicLong readingSince = new AtomicLong();
+    AtomicBoolean timedOut = new AtomicBoolean();
+    try {
+      snapshotPermits.acquire();
+      permitAcquired = true;
+      errorLog = Files.createTempFile(".yt-dlp-playlist-snapshot-", ".log");
+
+      ProcessBuilder processBuilder = new ProcessBuilder(command);
+      processBuilder.redirectError(errorLog.toFile());
+      processBuilder.environment().putAll(executionContext.environment());
+      process = processBuilder.start();
+      startWatchdog(process, readingSince, idleTimeoutNanos, maxDurationNanos, timedOut);
+
+      int total = 0;
+      int lineIndex = 0;
+      List<PlaylistSnapshotEntry> chunk = new ArrayList<>(effectiveChunkSize);
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        readingSince.set(System.nanoTime());
+        while ((line = reader.readLine()) != null) {
+          readingSince.set(0L);
+          PlaylistSnapshotEntry entry = parseSnapshotLine(line, lineIndex);
+          if (entry != null) {
+            lineIndex++;
+            chunk.add(entry);
+            if (chunk.size() >= effectiveChunkSize) {
+              total += chunk.size();
+              chunkConsumer.accept(chunk);
+              chunk = new ArrayList<>(effectiveChunkSize);
+            }
+          }
+          readingSince.set(System.nanoTime());
+        }
+      } catch (IOException e) {
+        if (!timedOut.get()) {
+          throw e;
+        }
+      }
+      readingSince.set(0L);
+      if (timedOut.get()) {
+        throw new BusinessException("yt-dlp playlist snapshot timeout");
+      }
+
+      if (!process.waitFor(Math.max(1, snapshotTimeoutSeconds), TimeUnit.SECONDS)) {
+        throw new BusinessException("yt-dlp playlist snapshot timeout");
+      }
+      if (process.exitValue() != 0) {
+        throw new BusinessException(
+            "yt-dlp playlist snapshot failed: " + readOutputTail(errorLog, 2000));
+      }
+      if (!chunk.isEmpty()) {
+        total += chunk.size();
+        chunkConsumer.accept(chunk);
+      }
+      log.info("[yt-dlp snapshot] done streaming playlistId={}, entries={}, elapsedMs={}",
+          playlistId, total, System.currentTimeMillis() - startedAt);
+      return total;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BusinessException("yt-dlp playlist snapshot interrupted");
+    } catch (IOException e) {
+      throw new BusinessException("yt-dlp playlist snapshot failed: " + e.getMessage());
+    } finally {
+      readingSince.set(0L);
+      if (process != null) {
+        destroyProcessTree(process);
+      }
+      if (permitAcquired) {
+        snapshotPermits.release();
+      }
+      if (errorLog != null) {
+        try {
+          Files.deleteIfExists(errorLog);
+        } catch (IOException ignored) {
+          // no-op
+        }
+      }
+    }
+  }
+
+  private List<String> buildSnapshotCommand(
+      YtDlpRuntimeService.YtDlpExecutionContext executionContext, String dumpOption,
+      String playlistUrl) {
+    List<String> command = new ArrayList<>(executionContext.command());
+    command.add("--flat-playlist");
+    command.add(dumpOption);
+    command.add("--quiet");
+    command.add("--no-warnings");
+    command.add("--ignore-errors");
+    command.add("--compat-options");
+    command.add("no-youtube-unavailable-videos");
+    command.add("--extractor-args");
+    command.add("youtubetab:approximate_date");
+    command.add("--remote-components");
+    command.add("ejs:npm");
+    ytDlpProxyService.appendCurrentProxyArgs(command);
+    command.add(playlistUrl);
+    return command;
+  }
+
+  /**
+   * 等待 yt-dlp 下一行输出超过空闲超时，或总时长超过上限，即结束进程；readingSince 为 0 表示正在处理分块。
+   */
+  private void startWatchdog(Process process, AtomicLong readingSince, long idleTimeoutNanos,
+      long maxDurationNanos, AtomicBoolean timedOut) {
+    long startedNanos = System.nanoTime();
+    Thread watchdog = new Thread(() -> {
+      while (process.isAlive()) {
+        long now = System.nanoTime();
+        long since = readingSince.get();
+        boolean idleTimeout = since != 0L && now - since > idleTimeoutNanos;
+        if (idleTimeout || (maxDurationNanos > 0 && now - startedNanos > maxDurationNanos)) {
+          timedOut.set(true);
+          log.warn("[yt-dlp snapshot] {}，结束进程 pid={}",
+              idleTimeout ? "等待输出超时" : "超过总时长上限", process.pid());
+          destroyProcessTree(process);
+          return;
+        }
+        try {
+          Thread.sleep(WATCHDOG_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }, "yt-dlp-snapshot-watchdog");
+    watchdog.setDaemon(true);
+    watchdog.start();
+  }
+
+  // 子进程持有标准输出时只结束父进程读不到 EOF，也会遗留进程
+  private void destroyProcessTree(Process process) {
+    process.descendants().forEach(ProcessHandle::destroyForcibly);
+    if (process.isAlive()) {
+      process.destroyForcibly();
+    }
+  }
+
+  private PlaylistSnapshotEntry parseSnapshotLine(String line, int fallbackIndex) throws IOException {
+    if (!StringUtils.hasText(line) || !line.stripLeading().startsWith("{")) {
+      return null;
+    }
+    try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      return parseSnapshotEntry(parser, fallbackIndex);
+    }
+  }
+
   private List<PlaylistSnapshotEntry> parseSnapshotEntries(Path outputLog) throws IOException {
     if (outputLog == null || !Files.exists(outputLog)) {
       return List.of();
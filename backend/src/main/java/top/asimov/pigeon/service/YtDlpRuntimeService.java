@@ -9,6 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -43,10 +45,15 @@ public class YtDlpRuntimeService {
       "yyyyMMddHHmmss");
   private static final int VERSION_CHECK_TIMEOUT_SECONDS = 20;
   private static final int LOG_TAIL_MAX_LENGTH = 8000;
+  private static final Duration FAILED_IDENTITY_RETRY_INTERVAL = Duration.ofMinutes(1);
 
   private final ObjectMapper objectMapper;
   private final Executor taskExecutor;
   private final AtomicBoolean updateRunning = new AtomicBoolean(false);
+  private final Object identityCacheLock = new Object();
+  private final AtomicLong identityCacheHits = new AtomicLong();
+  private final AtomicLong identityCacheMisses = new AtomicLong();
+  private volatile CachedRuntimeIdentity cachedRuntimeIdentity;
 
   @Value("${pigeon.yt-dlp.managed-root:/data/tools/yt-dlp}")
   private String managedRoot;
@@ -98,6 +105,9 @@ public class YtDlpRuntimeService {
         .updating(updateRunning.get())
         .availableRuntimes(listAvailableRuntimes(activeManagedPath))
         .status(current)
+        .identityCacheHits(identityCacheHits.get())
+        .identityCacheMisses(identityCacheMisses.get())
+        .identityCacheHitRate(resolveIdentityCacheHitRate())
         .build();
   }
 
@@ -116,6 +126,7 @@ public class YtDlpRuntimeService {
     String normalizedRuntimeKey = runtimeKey.trim();
     if (SYSTEM_RUNTIME_KEY.equalsIgnoreCase(normalizedRuntimeKey)) {
       deleteCurrentLink();
+      invalidateRuntimeIdentityCache();
       log.info("Switched yt-dlp runtime to system binary");
       return getRuntimeInfo();
     }
@@ -129,6 +140,8 @@ public class YtDlpRuntimeService {
       replaceCurrentLink(managedPath);
     } catch (IOException e) {
       throw new BusinessException("failed to switch yt-dlp runtime: " + normalizedRuntimeKey);
+    } finally {
+      invalidateRuntimeIdentityCache();
     }
     log.info("Switched yt-dlp runtime to managed path: {}", managedPath);
     return getRuntimeInfo();
@@ -192,13 +205,7 @@ public class YtDlpRuntimeService {
 
   public YtDlpResolvedRuntime resolveExecutionRuntime() {
     YtDlpExecutionContext context = resolveExecutionContext();
-    RuntimeIdentity runtimeIdentity;
-    try {
-      runtimeIdentity = resolveRuntimeIdentity(context);
-    } catch (Exception e) {
-      log.warn("Failed to resolve active yt-dlp runtime identity", e);
-      runtimeIdentity = new RuntimeIdentity(null, null);
-    }
+    RuntimeIdentity runtimeIdentity = resolveCachedRuntimeIdentity(context);
     String mode = isPythonModuleMode(context.command()) ? "MANAGED_PYTHON_MODULE" : "SYSTEM_BINARY";
     return new YtDlpResolvedRuntime(mode, runtimeIdentity.version(), runtimeIdentity.modulePath(),
         context);
@@ -280,6 +287,7 @@ public class YtDlpRuntimeService {
       log.warn("yt-dlp update task marked as FAILED, channel={}, beforeVersion={}", channel,
           StringUtils.hasText(beforeVersion) ? beforeVersion : "unknown");
     } finally {
+      invalidateRuntimeIdentityCache();
       updateRunning.set(false);
       log.info("yt-dlp update task finished, channel={}, finalState={}", channel,
           status != null ? status.getState() : "UNKNOWN");
@@ -725,6 +733,106 @@ public class YtDlpRuntimeService {
     return null;
   }
 
+  /**
+   * 运行时身份（版本 + 模块路径）需要拉起 python3 或 yt-dlp 进程探测，代价较高。
+   * 以 current 链接目标（或系统 PATH 中的 yt-dlp 可执行文件）及其修改时间作为缓存键，
+   * 键不变时直接复用上次探测结果；探测失败的结果只短暂缓存，避免每个任务都吃满超时。
+   */
+  private RuntimeIdentity resolveCachedRuntimeIdentity(YtDlpExecutionContext context) {
+    RuntimeIdentityKey key = buildRuntimeIdentityKey(context);
+    CachedRuntimeIdentity cached = cachedRuntimeIdentity;
+    if (cached != null && cached.isValidFor(key)) {
+      identityCacheHits.incrementAndGet();
+      return cached.identity();
+    }
+
+    synchronized (identityCacheLock) {
+      cached = cachedRuntimeIdentity;
+      if (cached != null && cached.isValidFor(key)) {
+        identityCacheHits.incrementAndGet();
+        return cached.identity();
+      }
+      identityCacheMisses.incrementAndGet();
+
+      RuntimeIdentity runtimeIdentity;
+      try {
+        runtimeIdentity = resolveRuntimeIdentity(context);
+      } catch (Exception e) {
+        log.warn("Failed to resolve active yt-dlp runtime identity", e);
+        runtimeIdentity = new RuntimeIdentity(null, null);
+      }
+      LocalDateTime expiresAt = StringUtils.hasText(runtimeIdentity.version())
+          ? null
+          : LocalDateTime.now().plus(FAILED_IDENTITY_RETRY_INTERVAL);
+      cachedRuntimeIdentity = new CachedRuntimeIdentity(key, runtimeIdentity, expiresAt);
+      log.debug("yt-dlp runtime identity cache refreshed: key={}, version={}, hits={}, misses={}",
+          key, runtimeIdentity.version(), identityCacheHits.get(), identityCacheMisses.get());
+      return runtimeIdentity;
+    }
+  }
+
+  private void invalidateRuntimeIdentityCache() {
+    cachedRuntimeIdentity = null;
+  }
+
+  private Double resolveIdentityCacheHitRate() {
+    long hits = identityCacheHits.get();
+    long total = hits + identityCacheMisses.get();
+    if (total == 0) {
+      return null;
+    }
+    return Math.round(hits * 10000D / total) / 10000D;
+  }
+
+  private RuntimeIdentityKey buildRuntimeIdentityKey(YtDlpExecutionContext context) {
+    if (isPythonModuleMode(context.command())) {
+      Path currentVersionPath = resolveCurrentVersionPath();
+      return new RuntimeIdentityKey(
+          currentVersionPath != null ? currentVersionPath.toString() : null,
+          lastModifiedMillis(currentVersionPath != null
+              ? currentVersionPath.resolve("yt_dlp")
+              : null));
+    }
+    Path binaryPath = findSystemBinaryOnPath();
+    return new RuntimeIdentityKey(binaryPath != null ? binaryPath.toString() : null,
+        lastModifiedMillis(binaryPath));
+  }
+
+  /**
+   * 在 JVM 内按 PATH 查找 yt-dlp，等价于 {@code which yt-dlp}，但不需要拉起子进程。
+   */
+  private Path findSystemBinaryOnPath() {
+    String pathEnv = System.getenv("PATH");
+    if (!StringUtils.hasText(pathEnv)) {
+      return null;
+    }
+    for (String directory : pathEnv.split(java.io.File.pathSeparator)) {
+      if (!StringUtils.hasText(directory)) {
+        continue;
+      }
+      try {
+        Path candidate = Paths.get(directory).resolve("yt-dlp");
+        if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+          return candidate.toRealPath();
+        }
+      } catch (Exception ignored) {
+        // ignore invalid PATH entries
+      }
+    }
+    return null;
+  }
+
+  private long lastModifiedMillis(Path path) {
+    if (path == null) {
+      return -1L;
+    }
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return -1L;
+    }
+  }
+
   private RuntimeIdentity resolveRuntimeIdentity(YtDlpExecutionContext context) {
     if (isPythonModuleMode(context.command())) {
       List<String> command = List.of(
@@ -879,6 +987,19 @@ public class YtDlpRuntimeService {
 
   }
 
+  private record RuntimeIdentityKey(String target, long lastModifiedMillis) {
+
+  }
+
+  private record CachedRuntimeIdentity(RuntimeIdentityKey key, RuntimeIdentity identity,
+                                       LocalDateTime expiresAt) {
+
+    boolean isValidFor(RuntimeIdentityKey currentKey) {
+      return key.equals(currentKey)
+          && (expiresAt == null || LocalDateTime.now().isBefore(expiresAt));
+    }
+  }
+
   public record CommandResult(int exitCode, String output) {
 
   }
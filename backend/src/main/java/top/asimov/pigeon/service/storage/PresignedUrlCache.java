@@ -0,0 +1,135 @@
+package top.asimov.pigeon.service.storage;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import top.asimov.pigeon.model.response.PresignCacheStatsResponse;
+
+/**
+ * 预签名链接缓存。
+ *
+ * <p>同一对象（key + Content-Disposition + 有效期）在签名有效期的前 {@code reuseRatio} 内复用同一个链接，
+ * 使 RSS 文档和重定向响应在此期间保持不变；剩余的有效期留给已经拿到链接的客户端使用。
+ * 容量有限，按最近访问顺序淘汰。</p>
+ */
+class PresignedUrlCache {
+
+  static final double DEFAULT_REUSE_RATIO = 0.5D;
+  static final int DEFAULT_MAX_ENTRIES = 10000;
+  private static final double MIN_REUSE_RATIO = 0.05D;
+  private static final double MAX_REUSE_RATIO = 0.9D;
+
+  private final LongSupplier clock;
+  private final Map<CacheKey, CacheEntry> entries = new LinkedHashMap<>(256, 0.75F, true);
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private volatile double reuseRatio = DEFAULT_REUSE_RATIO;
+  private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+  PresignedUrlCache() {
+    this(System::currentTimeMillis);
+  }
+
+  PresignedUrlCache(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  void configure(double reuseRatio, int maxEntries) {
+    double normalizedRatio = normalizeReuseRatio(reuseRatio);
+    int normalizedMaxEntries = maxEntries > 0 ? maxEntries : DEFAULT_MAX_ENTRIES;
+    if (normalizedRatio == this.reuseRatio && normalizedMaxEntries == this.maxEntries) {
+      return;
+    }
+    this.reuseRatio = normalizedRatio;
+    this.maxEntries = normalizedMaxEntries;
+    synchronized (entries) {
+      trimToSize();
+    }
+  }
+
+  /**
+   * 签发时间在可复用窗口内则直接返回缓存链接，否则调用 signer 重新签名。
+   * 签名在锁外执行，并发未命中时可能重复签名，结果均有效。
+   */
+  String get(String objectKey, String contentDisposition, Duration duration,
+      Supplier<String> signer) {
+    CacheKey key = new CacheKey(objectKey, contentDisposition, duration);
+    long now = clock.getAsLong();
+    synchronized (entries) {
+      CacheEntry entry = entries.get(key);
+      if (entry != null && now < entry.reuseUntilMillis()) {
+        hits.incrementAndGet();
+        return entry.url();
+      }
+    }
+
+    misses.incrementAndGet();
+    String url = signer.get();
+    long reuseMillis = (long) (duration.toMillis() * reuseRatio);
+    synchronized (entries) {
+      entries.put(key, new CacheEntry(url, now + reuseMillis));
+      trimToSize();
+    }
+    return url;
+  }
+
+  /**
+   * 缓存链接在被交给调用方时至少还剩余的有效期。
+   */
+  Duration minimumRemaining(Duration duration) {
+    return Duration.ofMillis((long) (duration.toMillis() * (1D - reuseRatio)));
+  }
+
+  void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  PresignCacheStatsResponse stats() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    return PresignCacheStatsResponse.builder()
+        .size(size)
+        .maxEntries(maxEntries)
+        .reuseRatio(reuseRatio)
+        .hits(hitCount)
+        .misses(misses.get())
+        .evictions(evictions.get())
+        .hitRate(total == 0 ? 0D : Math.round(hitCount * 10000D / total) / 10000D)
+        .build();
+  }
+
+  private void trimToSize() {
+    var iterator = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private static double normalizeReuseRatio(double reuseRatio) {
+    if (Double.isNaN(reuseRatio) || reuseRatio <= 0) {
+      return DEFAULT_REUSE_RATIO;
+    }
+    return Math.max(MIN_REUSE_RATIO, Math.min(MAX_REUSE_RATIO, reuseRatio));
+  }
+
+  private record CacheKey(String objectKey, String contentDisposition, Duration duration) {
+
+  }
+
+  private record CacheEntry(String url, long reuseUntilMillis) {
+
+  }
+}
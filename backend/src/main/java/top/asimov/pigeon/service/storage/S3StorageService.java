@@ -3,7 +3,9 @@ package top.asimov.pigeon.service.storage;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -27,6 +29,7 @@ import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import top.asimov.pigeon.config.StorageProperties;
 import top.asimov.pigeon.model.entity.SystemConfig;
+import top.asimov.pigeon.model.response.PresignCacheStatsResponse;
 
 @Log4j2
 @Service
@@ -37,6 +40,7 @@ public class S3StorageService {
   private volatile ResolvedS3Config cachedConfig;
   private volatile S3Client cachedClient;
   private volatile S3Presigner cachedPresigner;
+  private final PresignedUrlCache presignedUrlCache = new PresignedUrlCache();
 
   public S3StorageService(StorageProperties storageProperties) {
     this.storageProperties = storageProperties;
@@ -90,7 +94,27 @@ public class S3StorageService {
   }
 
   public String generatePresignedGetUrl(String objectKey, Duration duration, String contentDisposition) {
+    StorageProperties.S3 s3 = storageProperties.getS3();
+    presignedUrlCache.configure(s3.getPresignReuseRatio(), s3.getPresignCacheMaxEntries());
+    // 先解析运行时配置，配置变化时会重建 presigner 并清空链接缓存
     S3Presigner presigner = requirePresigner();
+    return presignedUrlCache.get(objectKey, contentDisposition, duration,
+        () -> presign(presigner, objectKey, duration, contentDisposition));
+  }
+
+  /**
+   * 通过 {@link #generatePresignedGetUrl} 拿到的链接至少还剩余的有效期。
+   */
+  public Duration getMinimumPresignRemaining() {
+    return presignedUrlCache.minimumRemaining(getDefaultPresignDuration());
+  }
+
+  public PresignCacheStatsResponse getPresignCacheStats() {
+    return presignedUrlCache.stats();
+  }
+
+  private String presign(S3Presigner presigner, String objectKey, Duration duration,
+      String contentDisposition) {
     String bucket = requireBucket();
     GetObjectRequest.Builder requestBuilder = GetObjectRequest.builder()
         .bucket(bucket)
@@ -130,10 +154,17 @@ public class S3StorageService {
   }
 
   public List<String> listKeysByPrefix(String prefix) {
+    return new ArrayList<>(listObjectSizesByPrefix(prefix).keySet());
+  }
+
+  /**
+   * 列举前缀下的对象及其大小（字节），按列举顺序返回。大小来自列举结果，不额外发起 HEAD。
+   */
+  public Map<String, Long> listObjectSizesByPrefix(String prefix) {
     S3Client client = requireClient();
     String bucket = requireBucket();
     String continuationToken = null;
-    List<String> keys = new ArrayList<>();
+    Map<String, Long> objects = new LinkedHashMap<>();
     do {
       ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
           .bucket(bucket)
@@ -144,11 +175,11 @@ public class S3StorageService {
       }
       var response = client.listObjectsV2(requestBuilder.build());
       for (S3Object object : response.contents()) {
-        keys.add(object.key());
+        objects.put(object.key(), object.size());
       }
       continuationToken = response.isTruncated() ? response.nextContinuationToken() : null;
     } while (StringUtils.hasText(continuationToken));
-    return keys;
+    return objects;
   }
 
   public boolean keyExists(String objectKey) {
@@ -185,6 +216,7 @@ public class S3StorageService {
       cachedClient = buildClient(config);
       cachedPresigner = buildPresigner(config);
       cachedConfig = config;
+      presignedUrlCache.clear();
       return cachedClient;
     }
   }
@@ -202,6 +234,7 @@ public class S3StorageService {
       cachedClient = buildClient(config);
       cachedPresigner = buildPresigner(config);
       cachedConfig = config;
+      presignedUrlCache.clear();
       return cachedPresigner;
     }
   }
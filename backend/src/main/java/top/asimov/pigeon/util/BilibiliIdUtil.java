@@ -1,6 +1,8 @@
 package top.asimov.pigeon.util;
 
+import java.util.regex.Pattern;
 import org.springframework.util.StringUtils;
+import top.asimov.pigeon.model.enums.FeedSource;
 
 public final class BilibiliIdUtil {
 
@@ -8,6 +10,8 @@ public final class BilibiliIdUtil {
   public static final String SEASON_PREFIX = "bili-season-";
   public static final String SERIES_PREFIX = "bili-series-";
 
+  private static final Pattern BVID_PATTERN = Pattern.compile("^BV[0-9A-Za-z]{10}$");
+
   private BilibiliIdUtil() {
   }
 
@@ -68,6 +72,16 @@ public final class BilibiliIdUtil {
     return null;
   }
 
+  /**
+   * 仅凭节目 ID 判断来源：B 站节目使用 BV 号（BV + 10 位），YouTube 视频 ID 固定为 11 位。
+   */
+  public static FeedSource resolveEpisodeSource(String episodeId) {
+    if (StringUtils.hasText(episodeId) && BVID_PATTERN.matcher(episodeId.trim()).matches()) {
+      return FeedSource.BILIBILI;
+    }
+    return FeedSource.YOUTUBE;
+  }
+
   public static String sanitizeDigits(String raw) {
     if (!StringUtils.hasText(raw)) {
       return null;
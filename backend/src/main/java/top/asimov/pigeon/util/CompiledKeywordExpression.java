@@ -0,0 +1,212 @@
+package top.asimov.pigeon.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * 预编译的关键字表达式，语义与 {@link KeywordExpressionMatcher} 一致。
+ *
+ * <p>所有关键字构建为一个 Aho-Corasick 自动机，每个 AND 组对应一组关键字位掩码；
+ * 对文本只扫描一遍，累计命中的关键字位，任一组的位全部命中即匹配。</p>
+ */
+public final class CompiledKeywordExpression {
+
+  private static final CompiledKeywordExpression EMPTY =
+      new CompiledKeywordExpression(new long[0][], 0, new char[1][0], new int[1][0], new int[1],
+          new long[1][0]);
+
+  private final long[][] groupMasks;
+  private final int words;
+  // 节点 i 的出边：按字符排序的 edgeChars[i] 与对应的 edgeTargets[i]
+  private final char[][] edgeChars;
+  private final int[][] edgeTargets;
+  private final int[] failure;
+  // 到达节点 i 时命中的关键字位（已沿失配链合并）
+  private final long[][] outputs;
+
+  private CompiledKeywordExpression(long[][] groupMasks, int words, char[][] edgeChars,
+      int[][] edgeTargets, int[] failure, long[][] outputs) {
+    this.groupMasks = groupMasks;
+    this.words = words;
+    this.edgeChars = edgeChars;
+    this.edgeTargets = edgeTargets;
+    this.failure = failure;
+    this.outputs = outputs;
+  }
+
+  public static CompiledKeywordExpression compile(String expression) {
+    List<List<String>> groups = KeywordExpressionMatcher.parseExpression(expression);
+    if (groups.isEmpty()) {
+      return EMPTY;
+    }
+
+    Map<String, Integer> tokenIds = new LinkedHashMap<>();
+    for (List<String> group : groups) {
+      for (String token : group) {
+        tokenIds.putIfAbsent(token, tokenIds.size());
+      }
+    }
+    int words = (tokenIds.size() + 63) / 64;
+
+    long[][] groupMasks = new long[groups.size()][];
+    for (int i = 0; i < groups.size(); i++) {
+      long[] mask = new long[words];
+      for (String token : groups.get(i)) {
+        int id = tokenIds.get(token);
+        mask[id >>> 6] |= 1L << id;
+      }
+      groupMasks[i] = mask;
+    }
+    return buildAutomaton(tokenIds, groupMasks, words);
+  }
+
+  public boolean isEmpty() {
+    return groupMasks.length == 0;
+  }
+
+  /**
+   * 文本（未规范化）是否满足任一 AND 组；空表达式或空文本返回 false。
+   */
+  public boolean matches(String text) {
+    if (isEmpty() || !StringUtils.hasText(text)) {
+      return false;
+    }
+    return matchesNormalized(text.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * 文本已按 {@code toLowerCase(Locale.ROOT)} 规范化。
+   */
+  boolean matchesNormalized(String normalizedText) {
+    if (isEmpty()) {
+      return false;
+    }
+    long[] found = new long[words];
+    int state = 0;
+    for (int i = 0, length = normalizedText.length(); i < length; i++) {
+      char c = normalizedText.charAt(i);
+      int next = transition(state, c);
+      while (next < 0 && state != 0) {
+        state = failure[state];
+        next = transition(state, c);
+      }
+      state = next < 0 ? 0 : next;
+      long[] output = outputs[state];
+      if (output.length == 0) {
+        continue;
+      }
+      boolean changed = false;
+      for (int w = 0; w < words; w++) {
+        long merged = found[w] | output[w];
+        if (merged != found[w]) {
+          found[w] = merged;
+          changed = true;
+        }
+      }
+      if (changed && anyGroupSatisfied(found)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean anyGroupSatisfied(long[] found) {
+    for (long[] mask : groupMasks) {
+      boolean satisfied = true;
+      for (int w = 0; w < words; w++) {
+        if ((found[w] & mask[w]) != mask[w]) {
+          satisfied = false;
+          break;
+        }
+      }
+      if (satisfied) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int transition(int state, char c) {
+    char[] chars = edgeChars[state];
+    int index = Arrays.binarySearch(chars, c);
+    return index >= 0 ? edgeTargets[state][index] : -1;
+  }
+
+  private static CompiledKeywordExpression buildAutomaton(Map<String, Integer> tokenIds,
+      long[][] groupMasks, int words) {
+    List<Map<Character, Integer>> children = new ArrayList<>();
+    List<long[]> outputs = new ArrayList<>();
+    children.add(new TreeMap<>());
+    outputs.add(new long[words]);
+
+    for (Map.Entry<String, Integer> entry : tokenIds.entrySet()) {
+      int state = 0;
+      for (char c : entry.getKey().toCharArray()) {
+        Integer next = children.get(state).get(c);
+        if (next == null) {
+          next = children.size();
+          children.get(state).put(c, next);
+          children.add(new TreeMap<>());
+          outputs.add(new long[words]);
+        }
+        state = next;
+      }
+      int id = entry.getValue();
+      outputs.get(state)[id >>> 6] |= 1L << id;
+    }
+
+    int size = children.size();
+    char[][] edgeChars = new char[size][];
+    int[][] edgeTargets = new int[size][];
+    for (int i = 0; i < size; i++) {
+      Map<Character, Integer> edges = children.get(i);
+      edgeChars[i] = new char[edges.size()];
+      edgeTargets[i] = new int[edges.size()];
+      int index = 0;
+      for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+        edgeChars[i][index] = edge.getKey();
+        edgeTargets[i][index] = edge.getValue();
+        index++;
+      }
+    }
+
+    // 广度优先计算失配链，并把失配目标的输出合并进当前节点
+    int[] failure = new int[size];
+    Deque<Integer> queue = new ArrayDeque<>(children.get(0).values());
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+        char c = edge.getKey();
+        int child = edge.getValue();
+        int fallback = failure[state];
+        while (fallback != 0 && !children.get(fallback).containsKey(c)) {
+          fallback = failure[fallback];
+        }
+        Integer target = children.get(fallback).get(c);
+        failure[child] = target != null && target != child ? target : 0;
+        long[] childOutput = outputs.get(child);
+        long[] failureOutput = outputs.get(failure[child]);
+        for (int w = 0; w < words; w++) {
+          childOutput[w] |= failureOutput[w];
+        }
+        queue.add(child);
+      }
+    }
+
+    long[][] compactOutputs = new long[size][];
+    for (int i = 0; i < size; i++) {
+      long[] output = outputs.get(i);
+      compactOutputs[i] = Arrays.stream(output).allMatch(word -> word == 0) ? new long[0] : output;
+    }
+    return new CompiledKeywordExpression(groupMasks, words, edgeChars, edgeTargets, failure,
+        compactOutputs);
+  }
+}
@@ -0,0 +1,81 @@
+package top.asimov.pigeon.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.util.StringUtils;
+import top.asimov.pigeon.model.dto.SubtitleInfo;
+import top.asimov.pigeon.model.entity.Episode;
+
+/**
+ * 节目附属资产清单（字幕、章节、缩略图）的读写工具。
+ *
+ * <p>清单保存在 episode 行上，字幕编码为逗号分隔的 {@code language.format}，
+ * 对象 key 由媒体 key 按 {@link MediaKeyUtil} 的命名规则推导，无需单独存储。</p>
+ */
+public final class EpisodeAssetIndexUtil {
+
+  private static final String SUBTITLE_SEPARATOR = ",";
+  private static final Pattern SUBTITLE_ENTRY_PATTERN = Pattern.compile("^([^.,]+)\\.(vtt|srt)$");
+
+  private EpisodeAssetIndexUtil() {
+  }
+
+  public static boolean isIndexed(Episode episode) {
+    return episode != null && episode.getAssetsIndexedAt() != null;
+  }
+
+  public static void apply(Episode episode, Collection<SubtitleInfo> subtitles,
+      boolean chaptersAvailable, String thumbnailKey) {
+    episode.setSubtitleAssets(encodeSubtitles(subtitles));
+    episode.setChaptersAvailable(chaptersAvailable);
+    episode.setThumbnailKey(thumbnailKey);
+    episode.setAssetsIndexedAt(LocalDateTime.now());
+  }
+
+  public static void clear(Episode episode) {
+    episode.setSubtitleAssets(null);
+    episode.setChaptersAvailable(null);
+    episode.setThumbnailKey(null);
+    episode.setAssetsIndexedAt(null);
+  }
+
+  public static String encodeSubtitles(Collection<SubtitleInfo> subtitles) {
+    if (subtitles == null || subtitles.isEmpty()) {
+      return "";
+    }
+    List<String> entries = new ArrayList<>();
+    for (SubtitleInfo subtitle : subtitles) {
+      if (subtitle == null || !StringUtils.hasText(subtitle.getLanguage())
+          || !StringUtils.hasText(subtitle.getFormat())) {
+        continue;
+      }
+      entries.add(subtitle.getLanguage() + "." + subtitle.getFormat());
+    }
+    return String.join(SUBTITLE_SEPARATOR, entries);
+  }
+
+  /**
+   * 按媒体 key 还原字幕清单，objectKey 与上传时使用的 key 一致。
+   */
+  public static List<SubtitleInfo> decodeSubtitles(String mediaKey, String encoded) {
+    List<SubtitleInfo> subtitles = new ArrayList<>();
+    if (!StringUtils.hasText(mediaKey) || !StringUtils.hasText(encoded)) {
+      return subtitles;
+    }
+    for (String entry : encoded.split(SUBTITLE_SEPARATOR)) {
+      Matcher matcher = SUBTITLE_ENTRY_PATTERN.matcher(entry.trim());
+      if (!matcher.matches()) {
+        continue;
+      }
+      String language = matcher.group(1);
+      String format = matcher.group(2);
+      subtitles.add(new SubtitleInfo(language, format,
+          MediaKeyUtil.buildEpisodeSubtitleKeyByMediaKey(mediaKey, language, format)));
+    }
+    return subtitles;
+  }
+}
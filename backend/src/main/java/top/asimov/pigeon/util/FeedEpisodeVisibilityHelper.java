@@ -3,24 +3,53 @@ package top.asimov.pigeon.util;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import top.asimov.pigeon.model.entity.Episode;
 import top.asimov.pigeon.model.entity.Feed;
 
 public final class FeedEpisodeVisibilityHelper {
 
+  // 按订阅缓存编译后的关键字表达式；读取时校验表达式原文，配置变化后自动重新编译
+  private static final Map<String, CompiledFeedFilter> COMPILED_FILTERS = new ConcurrentHashMap<>();
+
   private FeedEpisodeVisibilityHelper() {
   }
 
+  /**
+   * 订阅配置变化或删除后移除缓存的编译结果。
+   */
+  public static void evictCompiledFilter(String feedId) {
+    if (feedId != null) {
+      COMPILED_FILTERS.remove(feedId);
+    }
+  }
+
+  private static CompiledFeedFilter compiledFilter(Feed feed) {
+    if (feed.getId() == null) {
+      return CompiledFeedFilter.compile(feed);
+    }
+    CompiledFeedFilter cached = COMPILED_FILTERS.get(feed.getId());
+    if (cached != null && cached.isCompiledFrom(feed)) {
+      return cached;
+    }
+    CompiledFeedFilter compiled = CompiledFeedFilter.compile(feed);
+    COMPILED_FILTERS.put(feed.getId(), compiled);
+    return compiled;
+  }
+
   public static boolean matchesFeedFilter(Feed feed, Episode episode) {
     if (feed == null || episode == null) {
       return false;
     }
+    CompiledFeedFilter filter = compiledFilter(feed);
     if (KeywordExpressionMatcher.notMatchesKeywordFilter(
-        episode.getTitle(), feed.getTitleContainKeywords(), feed.getTitleExcludeKeywords())) {
+        episode.getTitle(), filter.titleContain(), filter.titleExclude())) {
       return false;
     }
     if (KeywordExpressionMatcher.notMatchesKeywordFilter(
-        episode.getDescription(), feed.getDescriptionContainKeywords(), feed.getDescriptionExcludeKeywords())) {
+        episode.getDescription(), filter.descriptionContain(), filter.descriptionExclude())) {
       return false;
     }
 
@@ -46,6 +75,19 @@ public final class FeedEpisodeVisibilityHelper {
     return true;
   }
 
+  /**
+   * 两份订阅配置的节目过滤条件是否一致，不一致时需要重新计算已入库节目的可见性。
+   */
+  public static boolean hasSameFilter(Feed left, Feed right) {
+    return Objects.equals(left.getTitleContainKeywords(), right.getTitleContainKeywords())
+        && Objects.equals(left.getTitleExcludeKeywords(), right.getTitleExcludeKeywords())
+        && Objects.equals(left.getDescriptionContainKeywords(), right.getDescriptionContainKeywords())
+        && Objects.equals(left.getDescriptionExcludeKeywords(), right.getDescriptionExcludeKeywords())
+        && Objects.equals(left.getMinimumDuration(), right.getMinimumDuration())
+        && Objects.equals(left.getMaximumDuration(), right.getMaximumDuration())
+        && Objects.equals(left.getExcludeLiveVod(), right.getExcludeLiveVod());
+  }
+
   public static List<Episode> filterVisibleEpisodes(Feed feed, List<Episode> episodes) {
     if (episodes == null || episodes.isEmpty()) {
       return Collections.emptyList();
@@ -58,4 +100,30 @@ public final class FeedEpisodeVisibilityHelper {
     }
     return visible;
   }
+
+  private record CompiledFeedFilter(String titleContainSource, String titleExcludeSource,
+                                    String descriptionContainSource,
+                                    String descriptionExcludeSource,
+                                    CompiledKeywordExpression titleContain,
+                                    CompiledKeywordExpression titleExclude,
+                                    CompiledKeywordExpression descriptionContain,
+                                    CompiledKeywordExpression descriptionExclude) {
+
+    static CompiledFeedFilter compile(Feed feed) {
+      return new CompiledFeedFilter(
+          feed.getTitleContainKeywords(), feed.getTitleExcludeKeywords(),
+          feed.getDescriptionContainKeywords(), feed.getDescriptionExcludeKeywords(),
+          KeywordExpressionMatcher.compile(feed.getTitleContainKeywords()),
+          KeywordExpressionMatcher.compile(feed.getTitleExcludeKeywords()),
+          KeywordExpressionMatcher.compile(feed.getDescriptionContainKeywords()),
+          KeywordExpressionMatcher.compile(feed.getDescriptionExcludeKeywords()));
+    }
+
+    boolean isCompiledFrom(Feed feed) {
+      return Objects.equals(titleContainSource, feed.getTitleContainKeywords())
+          && Objects.equals(titleExcludeSource, feed.getTitleExcludeKeywords())
+          && Objects.equals(descriptionContainSource, feed.getDescriptionContainKeywords())
+          && Objects.equals(descriptionExcludeSource, feed.getDescriptionExcludeKeywords());
+    }
+  }
 }
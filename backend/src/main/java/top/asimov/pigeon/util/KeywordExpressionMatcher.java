@@ -2,8 +2,10 @@ package top.asimov.pigeon.util;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import org.springframework.util.StringUtils;
 
 public final class KeywordExpressionMatcher {
@@ -11,6 +13,16 @@ public final class KeywordExpressionMatcher {
   private KeywordExpressionMatcher() {
   }
 
+  static final int MAX_CACHED_EXPRESSIONS = 512;
+  // 按访问顺序淘汰最久未用的表达式，超出上限时不会清空仍在使用的编译结果
+  private static final Map<String, CompiledKeywordExpression> COMPILED_EXPRESSIONS =
+      new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledKeywordExpression> eldest) {
+          return size() > MAX_CACHED_EXPRESSIONS;
+        }
+      };
+
   /**
    * 统一关键字过滤规则： - 逗号`,`：OR（组间） - 加号`+`：AND（组内）
    *
@@ -18,15 +30,44 @@ public final class KeywordExpressionMatcher {
    */
   public static boolean notMatchesKeywordFilter(String text, String containExpression,
       String excludeExpression) {
-    String normalizedText = normalizeText(text);
+    return notMatchesKeywordFilter(text, compile(containExpression), compile(excludeExpression));
+  }
 
-    List<List<String>> containGroups = parseExpression(containExpression);
-    if (!containGroups.isEmpty() && !matchesExpression(normalizedText, containGroups)) {
+  public static boolean notMatchesKeywordFilter(String text, CompiledKeywordExpression contain,
+      CompiledKeywordExpression exclude) {
+    if (contain.isEmpty() && exclude.isEmpty()) {
+      return false;
+    }
+    String normalizedText = normalizeText(text);
+    if (!StringUtils.hasText(normalizedText)) {
+      // 空文本不命中任何表达式
+      return !contain.isEmpty();
+    }
+    if (!contain.isEmpty() && !contain.matchesNormalized(normalizedText)) {
       return true;
     }
+    return !exclude.isEmpty() && exclude.matchesNormalized(normalizedText);
+  }
 
-    List<List<String>> excludeGroups = parseExpression(excludeExpression);
-    return !excludeGroups.isEmpty() && matchesExpression(normalizedText, excludeGroups);
+  /**
+   * 编译表达式，相同表达式复用同一个编译结果。
+   */
+  public static CompiledKeywordExpression compile(String expression) {
+    if (!StringUtils.hasText(expression)) {
+      return CompiledKeywordExpression.compile(null);
+    }
+    synchronized (COMPILED_EXPRESSIONS) {
+      CompiledKeywordExpression compiled = COMPILED_EXPRESSIONS.get(expression);
+      if (compiled != null) {
+        return compiled;
+      }
+    }
+    // 编译放在锁外，并发编译同一表达式的结果等价，后写入的覆盖即可
+    CompiledKeywordExpression compiled = CompiledKeywordExpression.compile(expression);
+    synchronized (COMPILED_EXPRESSIONS) {
+      COMPILED_EXPRESSIONS.put(expression, compiled);
+    }
+    return compiled;
   }
 
   static List<List<String>> parseExpression(String expression) {
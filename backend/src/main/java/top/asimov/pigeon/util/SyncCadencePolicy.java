@@ -0,0 +1,103 @@
+package top.asimov.pigeon.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 订阅同步节奏：按近期发布时间的间隔估算更新频率，更新越频繁的订阅同步越勤。
+ *
+ * <p>发布间隔用指数加权移动平均（EWMA）平滑，越新的间隔权重越大；距最近一次发布已超过平均间隔时，
+ * 这段仍在增长的空窗也计入平均，停更的订阅会逐渐放慢。同步间隔 = 平均发布间隔 / pollsPerUploadGap，
+ * 截断到 [minInterval, maxInterval] 后再加上 ±jitterRatio 的随机抖动，让同节奏的订阅错开到期。</p>
+ *
+ * @param minInterval       最短同步间隔
+ * @param maxInterval       最长同步间隔，没有发布记录的订阅也按此间隔同步
+ * @param ewmaAlpha         最新间隔的权重，取值 (0, 1]
+ * @param pollsPerUploadGap 每个平均发布间隔内同步的次数
+ * @param jitterRatio       随机抖动比例，取值 [0, 1)
+ */
+public record SyncCadencePolicy(Duration minInterval, Duration maxInterval, double ewmaAlpha,
+                                double pollsPerUploadGap, double jitterRatio) {
+
+  public SyncCadencePolicy {
+    Objects.requireNonNull(minInterval, "minInterval");
+    Objects.requireNonNull(maxInterval, "maxInterval");
+    if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+      throw new IllegalArgumentException("require 0 < minInterval <= maxInterval");
+    }
+    if (ewmaAlpha <= 0 || ewmaAlpha > 1) {
+      throw new IllegalArgumentException("ewmaAlpha must be in (0, 1]");
+    }
+    if (pollsPerUploadGap <= 0) {
+      throw new IllegalArgumentException("pollsPerUploadGap must be positive");
+    }
+    if (jitterRatio < 0 || jitterRatio >= 1) {
+      throw new IllegalArgumentException("jitterRatio must be in [0, 1)");
+    }
+  }
+
+  /**
+   * 计算下次同步时间。
+   *
+   * @param publishTimes 近期节目的发布时间，顺序不限，null 与晚于 now 的值会被忽略
+   * @param jitterSample [-1, 1] 之间的随机数，0 表示不抖动
+   */
+  public LocalDateTime nextSyncAt(List<LocalDateTime> publishTimes, LocalDateTime now,
+      double jitterSample) {
+    double intervalSeconds = syncInterval(publishTimes, now).getSeconds();
+    double jitter = Math.max(-1.0D, Math.min(1.0D, jitterSample)) * jitterRatio;
+    return now.plusSeconds(Math.round(intervalSeconds * (1.0D + jitter)));
+  }
+
+  /**
+   * 截断后、抖动前的同步间隔。
+   */
+  public Duration syncInterval(List<LocalDateTime> publishTimes, LocalDateTime now) {
+    double uploadGapSeconds = estimateUploadGapSeconds(publishTimes, now);
+    if (Double.isNaN(uploadGapSeconds)) {
+      return maxInterval;
+    }
+    long intervalSeconds = Math.round(uploadGapSeconds / pollsPerUploadGap);
+    long minSeconds = minInterval.getSeconds();
+    long maxSeconds = maxInterval.getSeconds();
+    return Duration.ofSeconds(Math.max(minSeconds, Math.min(maxSeconds, intervalSeconds)));
+  }
+
+  /**
+   * 平均发布间隔（秒），没有可用的发布记录时返回 NaN。
+   */
+  double estimateUploadGapSeconds(List<LocalDateTime> publishTimes, LocalDateTime now) {
+    if (publishTimes == null) {
+      return Double.NaN;
+    }
+    List<LocalDateTime> sorted = publishTimes.stream()
+        .filter(Objects::nonNull)
+        .filter(time -> !time.isAfter(now))
+        .sorted()
+        .toList();
+    if (sorted.isEmpty()) {
+      return Double.NaN;
+    }
+
+    double average = Double.NaN;
+    for (int i = 1; i < sorted.size(); i++) {
+      long gap = Duration.between(sorted.get(i - 1), sorted.get(i)).getSeconds();
+      // 同一时刻批量发布的节目不构成间隔
+      if (gap <= 0) {
+        continue;
+      }
+      average = Double.isNaN(average) ? gap : ewmaAlpha * gap + (1.0D - ewmaAlpha) * average;
+    }
+
+    long openGap = Duration.between(sorted.get(sorted.size() - 1), now).getSeconds();
+    if (Double.isNaN(average)) {
+      return openGap > 0 ? openGap : Double.NaN;
+    }
+    if (openGap > average) {
+      average = ewmaAlpha * openGap + (1.0D - ewmaAlpha) * average;
+    }
+    return average;
+  }
+}
@@ -0,0 +1,110 @@
+package top.asimov.pigeon.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 哈希时间轮：按固定刻度把到期时间分桶，登记与取消均为 O(1)，推进时只检查经过的桶。
+ *
+ * <p>同一个 key 只保留最后一次登记的到期时间。非线程安全，需由单一线程访问。</p>
+ *
+ * @param <K> 计时对象的标识
+ */
+public class TimerWheel<K> {
+
+  private final long tickMillis;
+  private final int mask;
+  private final List<ArrayDeque<Timeout<K>>> buckets;
+  private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+  private long currentTick;
+
+  /**
+   * @param tickMillis  刻度长度（毫秒）
+   * @param wheelSize   桶数量，向上取整为 2 的幂
+   * @param startMillis 时间轮的起始时间
+   */
+  public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+    if (tickMillis <= 0 || wheelSize <= 0) {
+      throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+    }
+    int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+    this.tickMillis = tickMillis;
+    this.mask = size - 1;
+    this.buckets = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      buckets.add(new ArrayDeque<>());
+    }
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  /**
+   * 登记到期时间；已过期的时间会在下一次推进时触发。
+   */
+  public void schedule(K key, long deadlineMillis) {
+    cancel(key);
+    // 向上取整，保证触发时刻不早于到期时间
+    long deadlineTick = Math.max(currentTick + 1, -Math.floorDiv(-deadlineMillis, tickMillis));
+    Timeout<K> timeout = new Timeout<>(key, deadlineTick);
+    timeouts.put(key, timeout);
+    buckets.get((int) (deadlineTick & mask)).add(timeout);
+  }
+
+  public void cancel(K key) {
+    Timeout<K> timeout = timeouts.remove(key);
+    if (timeout != null) {
+      timeout.cancelled = true;
+    }
+  }
+
+  /**
+   * 推进到指定时间，返回期间到期的 key（按桶顺序）。
+   */
+  public List<K> advance(long nowMillis) {
+    long targetTick = nowMillis / tickMillis;
+    if (targetTick <= currentTick) {
+      return List.of();
+    }
+    List<K> expired = new ArrayList<>();
+    // 跨越超过一圈时每个桶只需检查一次
+    long steps = Math.min(targetTick - currentTick, buckets.size());
+    for (long step = 1; step <= steps; step++) {
+      Iterator<Timeout<K>> iterator = buckets.get((int) ((currentTick + step) & mask)).iterator();
+      while (iterator.hasNext()) {
+        Timeout<K> timeout = iterator.next();
+        if (timeout.cancelled) {
+          iterator.remove();
+        } else if (timeout.deadlineTick <= targetTick) {
+          iterator.remove();
+          timeouts.remove(timeout.key);
+          expired.add(timeout.key);
+        }
+      }
+    }
+    currentTick = targetTick;
+    return expired;
+  }
+
+  public int size() {
+    return timeouts.size();
+  }
+
+  public boolean isEmpty() {
+    return timeouts.isEmpty();
+  }
+
+  private static final class Timeout<K> {
+
+    private final K key;
+    private final long deadlineTick;
+    private boolean cancelled;
+
+    private Timeout(K key, long deadlineTick) {
+      this.key = key;
+      this.deadlineTick = deadlineTick;
+    }
+  }
+}
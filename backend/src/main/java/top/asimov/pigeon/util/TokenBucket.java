@@ -0,0 +1,76 @@
+package top.asimov.pigeon.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 令牌桶限流：按固定速率补充令牌，最多积攒 capacity 个，允许短时突发。
+ *
+ * <p>{@link #acquire()} 先预订令牌再等待，令牌不足时余额记为负数，
+ * 并发调用方按预订顺序依次放行，不会在补充瞬间同时涌入。线程安全。</p>
+ */
+public class TokenBucket {
+
+  private final double permitsPerNano;
+  private final double capacity;
+  private final LongSupplier nanoClock;
+  private double tokens;
+  private long lastRefillNanos;
+
+  public TokenBucket(double permitsPerSecond, int capacity) {
+    this(permitsPerSecond, capacity, System::nanoTime);
+  }
+
+  public TokenBucket(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+    if (permitsPerSecond <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("permitsPerSecond and capacity must be positive");
+    }
+    this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.capacity = capacity;
+    this.nanoClock = nanoClock;
+    this.tokens = capacity;
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  /**
+   * 预订一个令牌。
+   *
+   * @return 需要等待的纳秒数，0 表示可立即执行
+   */
+  public synchronized long reserve() {
+    refill();
+    tokens -= 1;
+    if (tokens >= 0) {
+      return 0L;
+    }
+    return (long) Math.ceil(-tokens / permitsPerNano);
+  }
+
+  /**
+   * 仅在有令牌时取走一个，不预订、不等待。
+   */
+  public synchronized boolean tryAcquire() {
+    refill();
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  public void acquire() throws InterruptedException {
+    long waitNanos = reserve();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    long elapsed = now - lastRefillNanos;
+    if (elapsed > 0) {
+      tokens = Math.min(capacity, tokens + elapsed * permitsPerNano);
+      lastRefillNanos = now;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package top.asimov.pigeon.util;
+
+import java.util.List;
+import top.asimov.pigeon.model.enums.DownloadPhase;
+
+/**
+ * 解析 yt-dlp 通过 {@code --progress-template} 输出的结构化进度行。
+ *
+ * <p>模板统一以 {@link #LINE_PREFIX} 开头、以 {@code |} 分隔字段，缺失字段由 yt-dlp 输出为 {@code NA}。
+ * 配合 {@code --newline} 使用，保证每次进度刷新都是独立的一行，便于按行读取。</p>
+ */
+public final class YtDlpProgressParser {
+
+  public static final String LINE_PREFIX = "[pigeon-progress]";
+
+  private static final String DOWNLOAD_TEMPLATE = "download:" + LINE_PREFIX
+      + "download|%(progress.status)s|%(progress.downloaded_bytes)s|%(progress.total_bytes)s"
+      + "|%(progress.total_bytes_estimate)s|%(progress.speed)s|%(progress.eta)s";
+
+  private static final String POSTPROCESS_TEMPLATE = "postprocess:" + LINE_PREFIX
+      + "postprocess|%(progress.status)s|%(progress.postprocessor)s";
+
+  private YtDlpProgressParser() {
+  }
+
+  /**
+   * 追加到 yt-dlp 命令中的进度输出参数。
+   */
+  public static List<String> progressOptions() {
+    return List.of(
+        "--newline",
+        "--progress-template", DOWNLOAD_TEMPLATE,
+        "--progress-template", POSTPROCESS_TEMPLATE);
+  }
+
+  /**
+   * @return 解析结果；非进度行或格式不完整时返回 null
+   */
+  public static ProgressLine parse(String line) {
+    if (line == null) {
+      return null;
+    }
+    int prefixIndex = line.indexOf(LINE_PREFIX);
+    if (prefixIndex < 0) {
+      return null;
+    }
+    String[] fields = line.substring(prefixIndex + LINE_PREFIX.length()).trim().split("\\|", -1);
+    if (fields.length < 2) {
+      return null;
+    }
+
+    if ("download".equals(fields[0]) && fields.length >= 7) {
+      if ("finished".equals(fields[1])) {
+        // 单个流下载完成，后续通常进入合并/转码等后处理
+        Long total = parseLong(fields[2]);
+        return new ProgressLine(DownloadPhase.DOWNLOADING, null, total, total, null, 0L);
+      }
+      Long total = parseLong(fields[3]);
+      if (total == null) {
+        total = parseLong(fields[4]);
+      }
+      return new ProgressLine(DownloadPhase.DOWNLOADING, null, parseLong(fields[2]), total,
+          parseLong(fields[5]), parseLong(fields[6]));
+    }
+
+    if ("postprocess".equals(fields[0]) && fields.length >= 3) {
+      String postProcessor = isMissing(fields[2]) ? null : fields[2].trim();
+      return new ProgressLine(DownloadPhase.POST_PROCESSING, postProcessor, null, null, null,
+          null);
+    }
+    return null;
+  }
+
+  private static Long parseLong(String value) {
+    if (isMissing(value)) {
+      return null;
+    }
+    try {
+      // speed / eta / total_bytes_estimate 可能是浮点数
+      return (long) Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static boolean isMissing(String value) {
+    return value == null || value.isBlank() || "NA".equals(value.trim())
+        || "None".equals(value.trim());
+  }
+
+  public record ProgressLine(DownloadPhase phase, String postProcessor, Long downloadedBytes,
+                             Long totalBytes, Long speedBytesPerSecond, Long etaSeconds) {
+
+  }
+}
@@ -0,0 +1,11 @@
+ALTER TABLE system_config
+    ADD COLUMN download_concurrency INTEGER NOT NULL DEFAULT 3;
+
+ALTER TABLE system_config
+    ADD COLUMN youtube_download_concurrency INTEGER NULL;
+
+ALTER TABLE system_config
+    ADD COLUMN bilibili_download_concurrency INTEGER NULL;
+
+ALTER TABLE system_config
+    ADD COLUMN adaptive_download_concurrency INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+ALTER TABLE episode
+    ADD COLUMN subtitle_assets TEXT NULL;
+
+ALTER TABLE episode
+    ADD COLUMN chapters_available INTEGER NULL;
+
+ALTER TABLE episode
+    ADD COLUMN thumbnail_key TEXT NULL;
+
+ALTER TABLE episode
+    ADD COLUMN assets_indexed_at TIMESTAMP NULL;
@@ -0,0 +1,12 @@
+-- 节目在所属订阅过滤条件下是否可见；NULL 表示尚未评估（新入库或过滤条件变化后被清空）
+ALTER TABLE episode
+    ADD COLUMN channel_visible INTEGER NULL;
+
+ALTER TABLE playlist_episode
+    ADD COLUMN visible INTEGER NULL;
+
+CREATE INDEX IF NOT EXISTS idx_episode_channel_visible_published_at
+    ON episode (channel_id, channel_visible, published_at);
+
+CREATE INDEX IF NOT EXISTS idx_playlist_episode_playlist_visible
+    ON playlist_episode (playlist_id, visible);
@@ -0,0 +1,22 @@
+-- V7 重建 episode 表时原有索引随旧表一并删除，这里按现有的热点查询重新补齐
+
+-- 下载调度（PENDING 按 created_at 取候选）、任务列表按状态分页、按状态计数
+CREATE INDEX IF NOT EXISTS idx_episode_status_created_at
+    ON episode (download_status, created_at);
+
+-- 频道维度：按频道删除/补写、频道最新发布时间、按状态清理最旧节目、超限统计
+CREATE INDEX IF NOT EXISTS idx_episode_channel_status_published_at
+    ON episode (channel_id, download_status, published_at);
+
+-- 播放列表内按发布时间排序分页、清理最旧节目、播放列表最新发布时间
+CREATE INDEX IF NOT EXISTS idx_playlist_episode_playlist_published_at
+    ON playlist_episode (playlist_id, published_at);
+
+-- 由节目反查所属播放列表：孤儿节目判断、订阅来源、自动下载开关、RSS 缓存失效
+CREATE INDEX IF NOT EXISTS idx_playlist_episode_episode_playlist
+    ON playlist_episode (episode_id, playlist_id);
+
+-- API Key 鉴权
+CREATE INDEX IF NOT EXISTS idx_user_api_key
+    ON user (api_key)
+    WHERE api_key IS NOT NULL;
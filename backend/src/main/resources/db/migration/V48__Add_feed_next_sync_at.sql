@@ -0,0 +1,21 @@
+-- 订阅的下次同步时间，由近期发布间隔推算；定时同步只按此列取到期的订阅
+ALTER TABLE channel
+    ADD COLUMN next_sync_at TIMESTAMP NULL;
+
+ALTER TABLE playlist
+    ADD COLUMN next_sync_at TIMESTAMP NULL;
+
+CREATE INDEX IF NOT EXISTS idx_channel_next_sync_at
+    ON channel (next_sync_at);
+
+CREATE INDEX IF NOT EXISTS idx_playlist_next_sync_at
+    ON playlist (next_sync_at);
+
+-- 已有订阅在未来一小时内随机分散到期，避免升级后第一轮集中同步
+UPDATE channel
+SET next_sync_at = strftime('%Y-%m-%dT%H:%M:%S', 'now', 'localtime',
+                           printf('+%d minutes', abs(random() % 60)));
+
+UPDATE playlist
+SET next_sync_at = strftime('%Y-%m-%dT%H:%M:%S', 'now', 'localtime',
+                           printf('+%d minutes', abs(random() % 60)));
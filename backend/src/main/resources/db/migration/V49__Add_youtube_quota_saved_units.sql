@@ -0,0 +1,6 @@
+-- 订阅 Atom 预检判断频道没有新视频、因而省下的 Data API 请求数与配额
+ALTER TABLE youtube_api_daily_usage
+    ADD COLUMN saved_request_count INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE youtube_api_daily_usage
+    ADD COLUMN saved_quota_units INTEGER NOT NULL DEFAULT 0;
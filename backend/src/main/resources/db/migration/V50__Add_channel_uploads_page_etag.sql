@@ -0,0 +1,3 @@
+-- 频道上传列表首页的 ETag，增量同步时发起条件请求，首页未变化时跳过视频详情查询
+ALTER TABLE channel
+    ADD COLUMN uploads_page_etag TEXT NULL;
@@ -0,0 +1,10 @@
+-- 跨订阅共享的 videos.list 详情缓存（pigeon.youtube-video-cache.persistent 开启时写入）
+CREATE TABLE IF NOT EXISTS youtube_video_cache
+(
+    video_id   TEXT PRIMARY KEY NOT NULL,
+    payload    TEXT             NOT NULL,
+    fetched_at TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_youtube_video_cache_fetched_at
+    ON youtube_video_cache (fetched_at);
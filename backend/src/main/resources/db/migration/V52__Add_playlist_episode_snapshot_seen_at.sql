@@ -0,0 +1,7 @@
+-- 流式快照同步时标记本轮在远端出现过的关联，快照结束后未标记的即为已移除
+ALTER TABLE playlist_episode
+    ADD COLUMN snapshot_seen_at TIMESTAMP NULL;
+
+-- 快照结束后按 id 游标分页扫描本播放列表未标记的关联
+CREATE INDEX IF NOT EXISTS idx_playlist_episode_playlist_id
+    ON playlist_episode (playlist_id);
@@ -0,0 +1,53 @@
+package top.asimov.pigeon.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class AsyncConfigTest {
+
+  @Test
+  void shouldAcceptDownloadSubmittedWhileFinishingWorkerIsStillRunning() throws Exception {
+    ThreadPoolTaskExecutor executor = new AsyncConfig().downloadTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    CountDownLatch next = new CountDownLatch(1);
+    try {
+      // 模拟下载结束时在 finally 中唤醒调度器，调度器立即提交下一个任务
+      executor.execute(() -> executor.execute(next::countDown));
+
+      assertTrue(next.await(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void shouldStartEveryOutputPumpImmediately() throws Exception {
+    ThreadPoolTaskExecutor executor = new AsyncConfig().processOutputPumpExecutor();
+    int pumps = 100;
+    CountDownLatch started = new CountDownLatch(pumps);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // 泵线程在进程退出前一直阻塞读取，所有流必须同时有线程在读
+      for (int i = 0; i < pumps; i++) {
+        executor.execute(() -> {
+          started.countDown();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+}
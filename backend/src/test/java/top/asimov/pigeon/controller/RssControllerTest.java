@@ -0,0 +1,32 @@
+package top.asimov.pigeon.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RssControllerTest {
+
+  @Test
+  void shouldAcceptGzipListedWithPositiveQuality() {
+    assertTrue(RssController.acceptsGzip("gzip"));
+    assertTrue(RssController.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertTrue(RssController.acceptsGzip("br;q=1.0, gzip ; q=0.1"));
+  }
+
+  @Test
+  void shouldRejectGzipWithZeroQuality() {
+    assertFalse(RssController.acceptsGzip(null));
+    assertFalse(RssController.acceptsGzip("identity"));
+    assertFalse(RssController.acceptsGzip("gzip;q=0"));
+    assertFalse(RssController.acceptsGzip("gzip;q=0.000, identity"));
+    // 显式拒绝优先于通配符
+    assertFalse(RssController.acceptsGzip("*;q=1, gzip;q=0"));
+  }
+
+  @Test
+  void shouldFallBackToWildcardWhenGzipIsNotListed() {
+    assertTrue(RssController.acceptsGzip("*"));
+    assertFalse(RssController.acceptsGzip("br, *;q=0"));
+  }
+}
@@ -0,0 +1,164 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import top.asimov.pigeon.config.DownloadQueueProperties;
+import top.asimov.pigeon.event.DownloadDeadlineEvent.DeadlineType;
+import top.asimov.pigeon.helper.DownloadTaskHelper.SubmitResult;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+import top.asimov.pigeon.model.response.EpisodeQueuePositionResponse;
+import top.asimov.pigeon.service.EpisodeService;
+import top.asimov.pigeon.util.EpisodeRetryPolicy;
+
+class DownloadDispatcherTest {
+
+  private DownloadSlotManager slotManager;
+  private DownloadTaskHelper taskHelper;
+  private EpisodeMapper episodeMapper;
+  private EpisodeService episodeService;
+  private AtomicLong clock;
+  private DownloadDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    slotManager = mock(DownloadSlotManager.class);
+    taskHelper = mock(DownloadTaskHelper.class);
+    episodeMapper = mock(EpisodeMapper.class);
+    episodeService = mock(EpisodeService.class);
+    clock = new AtomicLong(System.currentTimeMillis());
+    dispatcher = new DownloadDispatcher(slotManager, taskHelper, episodeMapper, episodeService,
+        new DownloadQueueProperties(), clock::get);
+    when(slotManager.availableSlots()).thenReturn(2);
+  }
+
+  @Test
+  void shouldKeepSourceBusyEpisodesAndStopWhenSlotsRunOut() {
+    when(taskHelper.submitDownloadTask("busy")).thenReturn(SubmitResult.SOURCE_BUSY);
+    when(taskHelper.submitDownloadTask("ok")).thenReturn(SubmitResult.SUBMITTED);
+    when(taskHelper.submitDownloadTask("full")).thenReturn(SubmitResult.NO_SLOT);
+
+    dispatcher.enqueue(List.of("busy", "ok", "full", "later"), DownloadPriority.AUTO, "feed");
+    dispatcher.runOnce();
+
+    verify(taskHelper, never()).submitDownloadTask("later");
+    assertEquals(3, dispatcher.queuedCount());
+    verify(episodeMapper, never()).selectPendingDispatchCandidates(anyInt());
+  }
+
+  @Test
+  void shouldSubmitManualDownloadsAheadOfBackfillAndReportQueuePosition() {
+    when(slotManager.availableSlots()).thenReturn(1);
+    when(taskHelper.submitDownloadTask(any())).thenReturn(SubmitResult.NO_SLOT);
+    when(taskHelper.submitDownloadTask("manual")).thenReturn(SubmitResult.SUBMITTED);
+
+    dispatcher.enqueue(List.of("b1", "b2"), DownloadPriority.BACKFILL, "big-playlist");
+    dispatcher.enqueue(List.of("manual"), DownloadPriority.MANUAL, "channel");
+    dispatcher.runOnce();
+
+    InOrder inOrder = inOrder(taskHelper);
+    inOrder.verify(taskHelper).submitDownloadTask("manual");
+    inOrder.verify(taskHelper).submitDownloadTask("b1");
+    List<EpisodeQueuePositionResponse> positions =
+        dispatcher.getQueuePositions(List.of("b2", "manual", "b1"));
+    assertEquals(2, positions.size());
+    assertEquals("b2", positions.get(0).getEpisodeId());
+    assertEquals(2, positions.get(0).getPosition());
+    assertEquals(2, positions.get(0).getQueueSize());
+    assertEquals(DownloadPriority.BACKFILL, positions.get(0).getPriority());
+    assertEquals(1, positions.get(1).getPosition());
+  }
+
+  @Test
+  void shouldRefillFromDatabaseOnlyWhileBacklogRemains() {
+    when(episodeMapper.selectPendingDispatchCandidates(DownloadDispatcher.REFILL_BATCH_SIZE))
+        .thenReturn(List.of(episode("p1"), episode("p2")));
+    when(taskHelper.submitDownloadTask(any())).thenReturn(SubmitResult.SUBMITTED);
+
+    dispatcher.reconcile();
+    dispatcher.runOnce();
+    verify(taskHelper).submitDownloadTask("p1");
+    verify(taskHelper).submitDownloadTask("p2");
+    assertEquals(0, dispatcher.queuedCount());
+
+    // 上一页未取满，说明数据库中已无积压，空转时不再回表
+    dispatcher.runOnce();
+    verify(episodeMapper).selectPendingDispatchCandidates(anyInt());
+  }
+
+  @Test
+  void shouldLoadDueRetriesWhenRetryDeadlineExpires() {
+    when(episodeMapper.selectDueRetryEpisodes(any(), eq(EpisodeRetryPolicy.MAX_AUTO_RETRY_ATTEMPTS),
+        anyInt())).thenReturn(List.of(episode("retry")));
+    when(taskHelper.submitDownloadTask("retry")).thenReturn(SubmitResult.SUBMITTED);
+
+    dispatcher.schedule(DeadlineType.RETRY, Map.of("retry", LocalDateTime.now().plusSeconds(30)));
+    dispatcher.runOnce();
+    verify(episodeMapper, never()).selectDueRetryEpisodes(any(), anyInt(), anyInt());
+    assertEquals(1, dispatcher.scheduledCount());
+
+    clock.addAndGet(31_000L);
+    dispatcher.runOnce();
+    verify(taskHelper).submitDownloadTask("retry");
+    assertEquals(0, dispatcher.scheduledCount());
+  }
+
+  @Test
+  void shouldPromoteDelayedAutoDownloadsWhenDeadlineExpires() {
+    dispatcher.schedule(DeadlineType.AUTO_DOWNLOAD,
+        Map.of("delayed", LocalDateTime.now().plusSeconds(5)));
+    dispatcher.runOnce();
+    verify(episodeService, never()).promoteDueDelayedAutoDownloadEpisodes(anyInt());
+
+    clock.addAndGet(6_000L);
+    dispatcher.runOnce();
+    verify(episodeService).promoteDueDelayedAutoDownloadEpisodes(
+        DownloadDispatcher.DELAYED_PROMOTE_BATCH_SIZE);
+  }
+
+  @Test
+  void shouldNeverStartCancelledEpisode() {
+    when(slotManager.availableSlots()).thenReturn(0);
+    dispatcher.enqueue(List.of("cancelled", "kept"), DownloadPriority.AUTO, "feed");
+    dispatcher.schedule(DeadlineType.RETRY,
+        Map.of("cancelled", LocalDateTime.now().plusSeconds(5)));
+    dispatcher.runOnce();
+    assertEquals(2, dispatcher.queuedCount());
+
+    dispatcher.cancel(List.of("cancelled"));
+    when(slotManager.availableSlots()).thenReturn(2);
+    when(taskHelper.submitDownloadTask(any())).thenReturn(SubmitResult.SUBMITTED);
+    dispatcher.runOnce();
+    clock.addAndGet(6_000L);
+    dispatcher.runOnce();
+
+    verify(taskHelper).submitDownloadTask("kept");
+    verify(taskHelper, never()).submitDownloadTask("cancelled");
+    verify(episodeMapper, never()).selectDueRetryEpisodes(any(), anyInt(), anyInt());
+    assertEquals(0, dispatcher.queuedCount());
+    assertEquals(0, dispatcher.scheduledCount());
+  }
+
+  private static Episode episode(String id) {
+    Episode episode = new Episode();
+    episode.setId(id);
+    episode.setChannelId("channel");
+    return episode;
+  }
+}
@@ -0,0 +1,75 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.config.DownloadQueueProperties;
+import top.asimov.pigeon.helper.DownloadQueue.Entry;
+import top.asimov.pigeon.model.enums.DownloadPriority;
+
+class DownloadQueueTest {
+
+  @Test
+  void shouldOrderLanesByConfiguredPriority() {
+    DownloadQueueProperties properties = new DownloadQueueProperties();
+    properties.setPriorityOrder(List.of(DownloadPriority.RETRY, DownloadPriority.MANUAL));
+    DownloadQueue queue = new DownloadQueue(properties.resolvePriorityOrder(),
+        properties::resolveFeedWeight);
+
+    queue.offer("auto", DownloadPriority.AUTO, "a");
+    queue.offer("manual", DownloadPriority.MANUAL, "a");
+    queue.offer("retry", DownloadPriority.RETRY, "a");
+
+    assertEquals(List.of("retry", "manual", "auto"), ids(queue));
+  }
+
+  @Test
+  void shouldInterleaveFeedsByWeightWithinLane() {
+    DownloadQueueProperties properties = new DownloadQueueProperties();
+    properties.setFeedWeights(Map.of("big", 2));
+    DownloadQueue queue = new DownloadQueue(properties.resolvePriorityOrder(),
+        properties::resolveFeedWeight);
+
+    for (int i = 1; i <= 5; i++) {
+      queue.offer("big-" + i, DownloadPriority.BACKFILL, "big");
+    }
+    queue.offer("small-1", DownloadPriority.BACKFILL, "small");
+    queue.offer("small-2", DownloadPriority.BACKFILL, "small");
+
+    assertEquals(List.of("big-1", "big-2", "small-1", "big-3", "big-4", "small-2", "big-5"),
+        ids(queue));
+  }
+
+  @Test
+  void shouldRotateToOtherFeedsAfterServingOne() {
+    DownloadQueue queue = new DownloadQueue(
+        new DownloadQueueProperties().resolvePriorityOrder(), feed -> 1);
+    queue.offer("a-1", DownloadPriority.AUTO, "a");
+    queue.offer("a-2", DownloadPriority.AUTO, "a");
+    queue.remove("a-1", true);
+    // 新订阅从当前轮次开始排队，不会被已服务的订阅插队
+    queue.offer("b-1", DownloadPriority.AUTO, "b");
+
+    assertEquals(List.of("b-1", "a-2"), ids(queue));
+  }
+
+  @Test
+  void shouldOnlyPromoteExistingEntries() {
+    DownloadQueue queue = new DownloadQueue(
+        new DownloadQueueProperties().resolvePriorityOrder(), feed -> 1);
+    assertTrue(queue.offer("x", DownloadPriority.BACKFILL, "a"));
+    assertFalse(queue.offer("x", DownloadPriority.RETRY, "a"));
+    assertTrue(queue.offer("x", DownloadPriority.MANUAL, "a"));
+
+    assertEquals(1, queue.size());
+    assertEquals(DownloadPriority.MANUAL, queue.order().get(0).priority());
+  }
+
+  private static List<String> ids(DownloadQueue queue) {
+    return queue.order().stream().map(Entry::episodeId).toList();
+  }
+}
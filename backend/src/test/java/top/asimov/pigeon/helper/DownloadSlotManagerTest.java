@@ -0,0 +1,155 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import top.asimov.pigeon.model.entity.SystemConfig;
+import top.asimov.pigeon.model.enums.FeedSource;
+
+class DownloadSlotManagerTest {
+
+  private ThreadPoolTaskExecutor executor;
+  private AtomicLong clock;
+  private double loadPerCore;
+  private DownloadSlotManager slotManager;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(3);
+    executor.setMaxPoolSize(3);
+    executor.setQueueCapacity(0);
+    executor.initialize();
+    clock = new AtomicLong(0L);
+    loadPerCore = 0.1D;
+    slotManager = new DownloadSlotManager(executor, () -> loadPerCore, clock::get);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void shouldResizeExecutorWhenConcurrencyChanges() {
+    slotManager.configure(config(6, null, null, false));
+    assertEquals(6, executor.getCorePoolSize());
+    assertEquals(6, executor.getMaxPoolSize());
+
+    slotManager.configure(config(2, null, null, false));
+    assertEquals(2, executor.getCorePoolSize());
+    assertEquals(2, executor.getMaxPoolSize());
+    assertEquals(2, slotManager.availableSlots());
+  }
+
+  @Test
+  void shouldEnforcePerSourceLimit() {
+    slotManager.configure(config(3, null, 1, false));
+
+    assertTrue(slotManager.tryAcquire(FeedSource.BILIBILI));
+    assertFalse(slotManager.tryAcquire(FeedSource.BILIBILI));
+    assertTrue(slotManager.tryAcquire(FeedSource.YOUTUBE));
+    assertTrue(slotManager.tryAcquire(FeedSource.YOUTUBE));
+    assertFalse(slotManager.tryAcquire(FeedSource.YOUTUBE));
+
+    slotManager.release(FeedSource.BILIBILI, true, 100L);
+    assertTrue(slotManager.tryAcquire(FeedSource.BILIBILI));
+  }
+
+  @Test
+  void shouldStopGrantingSlotsUntilActiveDropsBelowShrunkLimit() {
+    slotManager.configure(config(3, null, null, false));
+    slotManager.tryAcquire(FeedSource.YOUTUBE);
+    slotManager.tryAcquire(FeedSource.YOUTUBE);
+    slotManager.tryAcquire(FeedSource.YOUTUBE);
+
+    slotManager.configure(config(1, null, null, false));
+    slotManager.release(FeedSource.YOUTUBE, true, 0L);
+    assertEquals(0, slotManager.availableSlots());
+    assertFalse(slotManager.tryAcquire(FeedSource.YOUTUBE));
+
+    slotManager.release(FeedSource.YOUTUBE, true, 0L);
+    slotManager.release(FeedSource.YOUTUBE, true, 0L);
+    assertTrue(slotManager.tryAcquire(FeedSource.YOUTUBE));
+  }
+
+  @Test
+  void shouldShrinkUnderHighLoadAndFailures() {
+    slotManager.configure(config(4, null, null, true));
+
+    loadPerCore = 2.0D;
+    advanceWindow();
+    assertEquals(3, slotManager.getEffectiveLimit());
+
+    loadPerCore = 0.1D;
+    for (int i = 0; i < 3; i++) {
+      slotManager.tryAcquire(FeedSource.YOUTUBE);
+      slotManager.release(FeedSource.YOUTUBE, false, 0L);
+    }
+    advanceWindow();
+    assertEquals(2, slotManager.getEffectiveLimit());
+  }
+
+  @Test
+  void shouldGrowWhileThroughputImprovesAndBackOffOnPlateau() {
+    slotManager.configure(config(4, null, null, true));
+    loadPerCore = 2.0D;
+    advanceWindow();
+    advanceWindow();
+    assertEquals(2, slotManager.getEffectiveLimit());
+    loadPerCore = 0.1D;
+
+    // 窗口内有任务因槽位不足而等待，吞吐 1000 B/s
+    saturateAndComplete(300_000L);
+    advanceWindow();
+    assertEquals(3, slotManager.getEffectiveLimit());
+
+    // 扩容后吞吐翻倍，继续扩容
+    saturateAndComplete(600_000L);
+    advanceWindow();
+    assertEquals(4, slotManager.getEffectiveLimit());
+
+    // 扩容后吞吐没有提升，回退
+    saturateAndComplete(600_000L);
+    advanceWindow();
+    assertEquals(3, slotManager.getEffectiveLimit());
+  }
+
+  @Test
+  void shouldKeepConfiguredLimitWhenAdaptiveDisabled() {
+    slotManager.configure(config(4, null, null, false));
+    loadPerCore = 5.0D;
+    advanceWindow();
+    assertEquals(4, slotManager.getEffectiveLimit());
+  }
+
+  private void saturateAndComplete(long bytes) {
+    while (slotManager.tryAcquire(FeedSource.YOUTUBE)) {
+      // 占满所有槽位，最后一次失败的申请会把窗口标记为饱和
+    }
+    slotManager.release(FeedSource.YOUTUBE, true, bytes);
+    while (slotManager.getActiveCount() > 0) {
+      slotManager.release(FeedSource.YOUTUBE);
+    }
+  }
+
+  private void advanceWindow() {
+    clock.addAndGet(300_000L);
+    slotManager.adjustAdaptiveLimit();
+  }
+
+  private SystemConfig config(int total, Integer youtube, Integer bilibili, boolean adaptive) {
+    return SystemConfig.builder()
+        .downloadConcurrency(total)
+        .youtubeDownloadConcurrency(youtube)
+        .bilibiliDownloadConcurrency(bilibili)
+        .adaptiveDownloadConcurrency(adaptive)
+        .build();
+  }
+}
@@ -0,0 +1,127 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.helper.FeedSyncCoordinator.SyncRoundResult;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.model.enums.FeedSource;
+import top.asimov.pigeon.model.enums.YoutubeApiCallContext;
+
+class FeedSyncCoordinatorTest {
+
+  private ThreadPoolTaskExecutor executor;
+  private FeedSyncProperties properties;
+  private FeedSyncCoordinator coordinator;
+
+  @BeforeEach
+  void setUp() {
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(3);
+    executor.setMaxPoolSize(3);
+    executor.initialize();
+    properties = new FeedSyncProperties();
+    properties.setManualRefreshWaitSeconds(0);
+    MessageSource messageSource = mock(MessageSource.class);
+    when(messageSource.getMessage(eq("feed.sync.in.progress"), any(), any()))
+        .thenReturn("in progress");
+    coordinator = new FeedSyncCoordinator(executor, properties, messageSource);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void shouldSyncFeedsInParallelAndIsolateFailures() throws Exception {
+    CountDownLatch allStarted = new CountDownLatch(3);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    YoutubeQuotaContextHolder.set(YoutubeApiCallContext.AUTO_SYNC);
+    SyncRoundResult result;
+    try {
+      result = coordinator.runScheduledRound(
+          List.of(channel("a"), channel("b"), channel("c")), channel -> {
+            assertEquals(YoutubeApiCallContext.AUTO_SYNC, YoutubeQuotaContextHolder.get());
+            threads.add(Thread.currentThread().getName());
+            allStarted.countDown();
+            try {
+              // 三个订阅都已开始才继续，串行执行时这里会超时
+              assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            if ("b".equals(channel.getId())) {
+              throw new IllegalStateException("boom");
+            }
+          });
+    } finally {
+      YoutubeQuotaContextHolder.clear();
+    }
+
+    assertEquals(new SyncRoundResult(2, 0, 1), result);
+    assertEquals(3, threads.size());
+  }
+
+  @Test
+  void shouldSkipScheduledSyncWhileManualRefreshHoldsFeed() {
+    AtomicInteger refreshed = new AtomicInteger();
+    SyncRoundResult result = coordinator.runExclusive("a", () ->
+        coordinator.runScheduledRound(List.of(channel("a"), channel("b")),
+            channel -> refreshed.incrementAndGet()));
+
+    assertEquals(new SyncRoundResult(1, 1, 0), result);
+    assertEquals(1, refreshed.get());
+  }
+
+  @Test
+  void shouldRejectManualRefreshWhileScheduledSyncRuns() throws Exception {
+    CountDownLatch syncing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread round = new Thread(() -> coordinator.runScheduledRound(List.of(channel("a")),
+        channel -> {
+          syncing.countDown();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }));
+    round.start();
+    assertTrue(syncing.await(5, TimeUnit.SECONDS));
+
+    BusinessException exception = assertThrows(BusinessException.class,
+        () -> coordinator.runExclusive("a", () -> "refreshed"));
+    assertEquals("in progress", exception.getMessage());
+
+    release.countDown();
+    round.join(5000);
+    assertEquals("refreshed", coordinator.runExclusive("a", () -> "refreshed"));
+  }
+
+  private static Channel channel(String id) {
+    Channel channel = new Channel();
+    channel.setId(id);
+    channel.setTitle(id);
+    channel.setSource(FeedSource.YOUTUBE.name());
+    return channel;
+  }
+}
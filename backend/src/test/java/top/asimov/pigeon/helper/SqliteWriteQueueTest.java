@@ -0,0 +1,168 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+
+class SqliteWriteQueueTest {
+
+  private EpisodeMapper episodeMapper;
+  private PlatformTransactionManager transactionManager;
+  private SqliteWriteQueue writeQueue;
+
+  @BeforeEach
+  void setUp() {
+    episodeMapper = mock(EpisodeMapper.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    writeQueue = new SqliteWriteQueue(episodeMapper, new TransactionTemplate(transactionManager));
+    writeQueue.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    writeQueue.stop();
+  }
+
+  @Test
+  void shouldGroupCommitAndCoalesceQueuedEpisodeUpdates() throws Exception {
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Boolean> blocker = writeQueue.submit(null, () -> {
+      writerBlocked.countDown();
+      awaitQuietly(release);
+      return true;
+    });
+    assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+
+    Episode downloading = Episode.builder().id("episode-1").title("title")
+        .downloadStatus(EpisodeStatus.DOWNLOADING.name()).build();
+    Episode completed = Episode.builder().id("episode-1")
+        .downloadStatus(EpisodeStatus.COMPLETED.name()).mediaFilePath("/audio/episode-1.m4a")
+        .build();
+    CompletableFuture<Void> first = writeQueue.submitEpisodeUpdate(downloading);
+    CompletableFuture<Void> second = writeQueue.submitEpisodeUpdate(completed);
+    CompletableFuture<Void> other = writeQueue.submitEpisodeStatus("episode-2",
+        EpisodeStatus.PENDING.name());
+    release.countDown();
+
+    CompletableFuture.allOf(blocker, first, second, other).get(5, TimeUnit.SECONDS);
+
+    ArgumentCaptor<Episode> captor = ArgumentCaptor.forClass(Episode.class);
+    verify(episodeMapper, times(1)).updateById(captor.capture());
+    Episode merged = captor.getValue();
+    assertEquals(EpisodeStatus.COMPLETED.name(), merged.getDownloadStatus());
+    assertEquals("/audio/episode-1.m4a", merged.getMediaFilePath());
+    // 后一次更新未赋值的普通字段沿用前一次的值，与依次执行两次 updateById 的结果一致
+    assertEquals("title", merged.getTitle());
+    verify(episodeMapper).updateDownloadStatusAndClearSchedulingFields("episode-2",
+        EpisodeStatus.PENDING.name());
+    // 阻塞命令一个事务，排队的三条命令合并为第二个事务
+    verify(transactionManager, times(2)).commit(any());
+  }
+
+  @Test
+  void shouldNotCoalesceAcrossConditionalCommandOnSameEpisode() {
+    SqliteWriteQueue.WriteCommand firstStatus = new SqliteWriteQueue.WriteCommand(
+        "episode-1", "episode-status", EpisodeStatus.DOWNLOADING.name(), null);
+    SqliteWriteQueue.WriteCommand conditional = new SqliteWriteQueue.WriteCommand(
+        "episode-1", null, null, () -> 1);
+    SqliteWriteQueue.WriteCommand secondStatus = new SqliteWriteQueue.WriteCommand(
+        "episode-1", "episode-status", EpisodeStatus.PENDING.name(), null);
+    SqliteWriteQueue.WriteCommand otherStatus = new SqliteWriteQueue.WriteCommand(
+        "episode-2", "episode-status", EpisodeStatus.PENDING.name(), null);
+    SqliteWriteQueue.WriteCommand otherStatusAgain = new SqliteWriteQueue.WriteCommand(
+        "episode-2", "episode-status", EpisodeStatus.READY.name(), null);
+
+    List<SqliteWriteQueue.WriteCommand> batch = SqliteWriteQueue.coalesce(
+        List.of(firstStatus, conditional, otherStatus, secondStatus, otherStatusAgain));
+
+    assertEquals(List.of(firstStatus, conditional, otherStatus, secondStatus), batch);
+  }
+
+  @Test
+  void shouldKeepOrderOfConditionalCommandsAndReturnTheirResults() {
+    when(episodeMapper.updateDownloadStatusIfCurrent(any(), any(), any())).thenReturn(1, 0);
+
+    CompletableFuture<Integer> marked = writeQueue.submit("episode-1",
+        () -> episodeMapper.updateDownloadStatusIfCurrent("episode-1",
+            List.of(EpisodeStatus.PENDING.name()), EpisodeStatus.DOWNLOADING.name()));
+    CompletableFuture<Integer> markedAgain = writeQueue.submit("episode-1",
+        () -> episodeMapper.updateDownloadStatusIfCurrent("episode-1",
+            List.of(EpisodeStatus.PENDING.name()), EpisodeStatus.DOWNLOADING.name()));
+
+    assertEquals(1, marked.join());
+    assertEquals(0, markedAgain.join());
+    InOrder inOrder = inOrder(episodeMapper);
+    inOrder.verify(episodeMapper, times(2)).updateDownloadStatusIfCurrent("episode-1",
+        List.of(EpisodeStatus.PENDING.name()), EpisodeStatus.DOWNLOADING.name());
+  }
+
+  @Test
+  void shouldFailOnlyTheBrokenCommandWhenBatchCannotCommit() throws Exception {
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    writeQueue.submit(null, () -> {
+      writerBlocked.countDown();
+      awaitQuietly(release);
+      return null;
+    });
+    assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+
+    CompletableFuture<Void> healthy = writeQueue.submitEpisodeStatus("episode-2",
+        EpisodeStatus.PENDING.name());
+    CompletableFuture<Object> broken = writeQueue.submit("episode-1", () -> {
+      throw new IllegalStateException("constraint failed");
+    });
+    release.countDown();
+
+    healthy.get(5, TimeUnit.SECONDS);
+    assertThrows(CompletionException.class, broken::join);
+    // 整批回滚后逐条重新提交，正常命令因此执行两次
+    verify(transactionManager, atLeast(1)).rollback(any());
+    verify(episodeMapper, times(2)).updateDownloadStatusAndClearSchedulingFields("episode-2",
+        EpisodeStatus.PENDING.name());
+  }
+
+  @Test
+  void shouldRejectCommandsSubmittedInsideWriteTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      assertThrows(IllegalStateException.class,
+          () -> writeQueue.submitEpisodeStatus("episode-1", EpisodeStatus.PENDING.name()));
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
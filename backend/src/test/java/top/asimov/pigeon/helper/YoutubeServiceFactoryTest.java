@@ -0,0 +1,124 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.services.youtube.YouTube;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.config.OutboundProxyHolder;
+import top.asimov.pigeon.config.OutboundProxyHolder.OutboundProxySettings;
+import top.asimov.pigeon.config.ProxyRuntimeConfigApplier;
+import top.asimov.pigeon.model.entity.SystemConfig;
+import top.asimov.pigeon.model.enums.ProxyType;
+import top.asimov.pigeon.model.response.YoutubeClientPoolStatsResponse;
+
+class YoutubeServiceFactoryTest {
+
+  private final OutboundProxyHolder proxyHolder = new OutboundProxyHolder();
+  private final YoutubeServiceFactory factory = new YoutubeServiceFactory(proxyHolder);
+
+  @Test
+  void shouldReuseClientForSameRoute() {
+    YouTube first = factory.createCurrentClient();
+    YouTube second = factory.createCurrentClient();
+    // 未启用的代理设置与直连是同一条路由
+    YouTube direct = factory.createClient(
+        new OutboundProxySettings(false, ProxyType.HTTP, "127.0.0.1", 8080, null, null));
+
+    assertSame(first, second);
+    assertSame(first, direct);
+    YoutubeClientPoolStatsResponse stats = factory.stats();
+    assertEquals(1, stats.getRoutes());
+    assertEquals(1L, stats.getClientsCreated());
+    assertEquals(2L, stats.getClientReuses());
+  }
+
+  @Test
+  void shouldKeepSeparateClientsPerProxyRoute() {
+    YouTube direct = factory.createClient(null);
+    YouTube proxied = factory.createClient(proxy(8080));
+    YouTube sameProxy = factory.createClient(proxy(8080));
+    YouTube otherProxy = factory.createClient(proxy(8081));
+
+    assertNotSame(direct, proxied);
+    assertSame(proxied, sameProxy);
+    assertNotSame(proxied, otherProxy);
+    assertEquals(3, factory.stats().getRoutes());
+  }
+
+  @Test
+  void shouldNotPoolClientsWithCustomInitializer() {
+    YouTube first = factory.createClient(null, request -> { });
+    YouTube second = factory.createClient(null, request -> { });
+
+    assertNotSame(first, second);
+    assertEquals(0, factory.stats().getRoutes());
+  }
+
+  @Test
+  void shouldBoundPooledRoutes() {
+    for (int port = 1; port <= YoutubeServiceFactory.MAX_POOLED_ROUTES + 1; port++) {
+      factory.createClient(proxy(port));
+    }
+
+    assertEquals(1, factory.stats().getRoutes());
+  }
+
+  @Test
+  void shouldInvalidatePoolOnlyWhenAppliedProxySettingsChange() {
+    ProxyRuntimeConfigApplier applier = new ProxyRuntimeConfigApplier(proxyHolder, factory);
+    YouTube before = factory.createCurrentClient();
+
+    // 未改变代理的配置保存不影响已有连接
+    applier.apply(new SystemConfig());
+    assertSame(before, factory.createCurrentClient());
+    assertEquals(0L, factory.stats().getInvalidations());
+
+    SystemConfig proxied = new SystemConfig();
+    proxied.setProxyEnabled(true);
+    proxied.setProxyType(ProxyType.HTTP);
+    proxied.setProxyHost("127.0.0.1");
+    proxied.setProxyPort(8080);
+    applier.apply(proxied);
+
+    assertEquals(1L, factory.stats().getInvalidations());
+    assertEquals(0, factory.stats().getRoutes());
+    assertNotSame(before, factory.createCurrentClient());
+  }
+
+  @Test
+  void shouldCountRequestsOnPooledClients() throws IOException {
+    HttpServer server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", exchange -> {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      GenericUrl url = new GenericUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+      for (int i = 0; i < 3; i++) {
+        factory.createCurrentClient().getRequestFactory().buildGetRequest(url).execute()
+            .disconnect();
+      }
+    } finally {
+      server.stop(0);
+    }
+
+    YoutubeClientPoolStatsResponse stats = factory.stats();
+    assertEquals(3L, stats.getRequests());
+    // 明文 HTTP 不经过 TLS 连接计数
+    assertEquals(0L, stats.getConnectionsOpened());
+    assertEquals(1D, stats.getConnectionReuseRatio());
+  }
+
+  private static OutboundProxySettings proxy(int port) {
+    return new OutboundProxySettings(true, ProxyType.HTTP, "127.0.0.1", port, null, null);
+  }
+}
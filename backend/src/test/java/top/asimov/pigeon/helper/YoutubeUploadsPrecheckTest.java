@@ -0,0 +1,216 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.config.OutboundProxyHolder;
+import top.asimov.pigeon.config.YoutubeAtomFeedProperties;
+import top.asimov.pigeon.helper.YoutubeUploadsPrecheck.Decision;
+import top.asimov.pigeon.helper.YoutubeUploadsPrecheck.Precheck;
+
+class YoutubeUploadsPrecheckTest {
+
+  private static final String CHANNEL_ID = "UC_test_channel";
+
+  private HttpServer server;
+  private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+  private volatile List<String> feedVideoIds = List.of();
+  private volatile String etag = "\"v1\"";
+  private volatile int forcedStatus;
+
+  private final Set<String> storedIds = new HashSet<>();
+  private final List<Collection<String>> lookups = new ArrayList<>();
+  private YoutubeUploadsPrecheck precheck;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/feeds/videos.xml", exchange -> {
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+      if (forcedStatus != 0) {
+        exchange.sendResponseHeaders(forcedStatus, -1);
+        exchange.close();
+        return;
+      }
+      if (etag.equals(ifNoneMatch)) {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+      byte[] body = atomDocument(feedVideoIds).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("ETag", etag);
+      exchange.getResponseHeaders().add("Content-Type", "application/atom+xml; charset=UTF-8");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+
+    YoutubeAtomFeedProperties properties = new YoutubeAtomFeedProperties();
+    properties.setBaseUrl(
+        "http://127.0.0.1:" + server.getAddress().getPort() + "/feeds/videos.xml");
+    precheck = new YoutubeUploadsPrecheck(
+        new YoutubeAtomFeedClient(properties, new OutboundProxyHolder()), properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void shouldSkipDataApiWhenAllEntriesAreKnownAndUseConditionalGetAfterwards() {
+    feedVideoIds = List.of("v3", "v2", "v1");
+    storedIds.addAll(List.of("v1", "v2", "v3"));
+
+    Precheck first = check();
+    assertEquals(Decision.UNCHANGED, first.decision());
+    assertEquals("null", ifNoneMatchHeaders.get(0));
+
+    Precheck second = check();
+    assertEquals(Decision.UNCHANGED, second.decision());
+    assertEquals("\"v1\"", ifNoneMatchHeaders.get(1));
+    // 304 不需要再查库
+    assertEquals(1, lookups.size());
+  }
+
+  @Test
+  void shouldReportNewVideosAndKeepCheckingUntilAcknowledged() {
+    feedVideoIds = List.of("v3", "v2", "v1");
+    storedIds.addAll(List.of("v1", "v2"));
+
+    Precheck first = check();
+    assertEquals(Decision.CHANGED, first.decision());
+    assertEquals(List.of("v3"), first.newVideoIds());
+
+    // 未确认（例如同步失败）时不带校验值，下一轮仍会发现新视频
+    Precheck retried = check();
+    assertEquals(Decision.CHANGED, retried.decision());
+    assertEquals("null", ifNoneMatchHeaders.get(1));
+
+    // 同步入库了 v3，确认时仍记为未决，下一轮按库中是否存在确认
+    storedIds.add("v3");
+    precheck.acknowledge(retried, Set.of("v3"));
+    Precheck afterSync = check();
+    assertEquals(Decision.UNCHANGED, afterSync.decision());
+    assertEquals("\"v1\"", ifNoneMatchHeaders.get(2));
+  }
+
+  @Test
+  void shouldRememberFilteredOutVideosThatWereNeverStored() {
+    feedVideoIds = List.of("short", "v1");
+    storedIds.add("v1");
+
+    Precheck first = check();
+    assertEquals(List.of("short"), first.newVideoIds());
+    // Data API 同步后 short 被过滤条件排除，没有入库
+    precheck.acknowledge(first, Set.of());
+
+    feedVideoIds = List.of("v2", "short", "v1");
+    etag = "\"v2\"";
+    storedIds.add("v2");
+    Precheck second = check();
+    assertEquals(Decision.UNCHANGED, second.decision());
+    assertEquals(List.of("v2"), List.copyOf(lookups.get(lookups.size() - 1)));
+  }
+
+  @Test
+  void shouldKeepCheckingSkippedLiveVideoUntilItsVodIsStored() {
+    feedVideoIds = List.of("live", "v1");
+    storedIds.add("v1");
+
+    Precheck first = check();
+    assertEquals(List.of("live"), first.newVideoIds());
+    // Data API 同步时 live 还在直播，被跳过
+    precheck.acknowledge(first, Set.of("live"));
+
+    // Atom 没有变化（304），但 live 仍未入库，继续走 Data API
+    Precheck second = check();
+    assertEquals("\"v1\"", ifNoneMatchHeaders.get(1));
+    assertEquals(Decision.CHANGED, second.decision());
+    assertEquals(List.of("live"), second.newVideoIds());
+
+    // 直播结束后回放入库
+    storedIds.add("live");
+    precheck.acknowledge(second, Set.of("live"));
+
+    assertEquals(Decision.UNCHANGED, check().decision());
+    int lookupsAfterVod = lookups.size();
+    assertEquals(Decision.UNCHANGED, check().decision());
+    assertEquals(lookupsAfterVod, lookups.size());
+  }
+
+  @Test
+  void shouldFallBackToDataApiWhenFeedIsUnavailable() {
+    forcedStatus = 500;
+
+    Precheck result = check();
+
+    assertEquals(Decision.UNAVAILABLE, result.decision());
+    assertTrue(lookups.isEmpty());
+  }
+
+  @Test
+  void shouldSkipNetworkWhenDisabled() {
+    YoutubeAtomFeedProperties disabled = new YoutubeAtomFeedProperties();
+    disabled.setEnabled(false);
+    YoutubeUploadsPrecheck disabledPrecheck = new YoutubeUploadsPrecheck(
+        new YoutubeAtomFeedClient(disabled, new OutboundProxyHolder()), disabled);
+
+    Precheck result = disabledPrecheck.check(CHANNEL_ID, ids -> Set.of());
+
+    assertEquals(Decision.UNAVAILABLE, result.decision());
+    assertTrue(ifNoneMatchHeaders.isEmpty());
+  }
+
+  @Test
+  void shouldParseVideoIdsFromAtomDocument() throws IOException {
+    List<String> ids = YoutubeAtomFeedClient.parseVideoIds(new java.io.ByteArrayInputStream(
+        atomDocument(List.of("a1", "b2")).getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(List.of("a1", "b2"), ids);
+    assertNull(YoutubeAtomFeedClient.Validators.NONE.etag());
+  }
+
+  private Precheck check() {
+    return precheck.check(CHANNEL_ID, ids -> {
+      lookups.add(List.copyOf(ids));
+      Set<String> known = new HashSet<>(ids);
+      known.retainAll(storedIds);
+      return known;
+    });
+  }
+
+  private static String atomDocument(List<String> videoIds) {
+    StringBuilder xml = new StringBuilder()
+        .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+        .append("<feed xmlns:yt=\"http://www.youtube.com/xml/schemas/2015\" ")
+        .append("xmlns:media=\"http://search.yahoo.com/mrss/\" ")
+        .append("xmlns=\"http://www.w3.org/2005/Atom\">")
+        .append("<yt:channelId>").append(CHANNEL_ID).append("</yt:channelId>");
+    for (String videoId : videoIds) {
+      xml.append("<entry><id>yt:video:").append(videoId).append("</id>")
+          .append("<yt:videoId>").append(videoId).append("</yt:videoId>")
+          .append("<title>").append(videoId).append("</title></entry>");
+    }
+    return xml.append("</feed>").toString();
+  }
+}
@@ -0,0 +1,251 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoSnippet;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.asimov.pigeon.config.YoutubeVideoCacheProperties;
+import top.asimov.pigeon.mapper.YoutubeVideoCacheMapper;
+import top.asimov.pigeon.model.entity.YoutubeVideoCache;
+import top.asimov.pigeon.model.enums.YoutubeApiCallContext;
+import top.asimov.pigeon.service.YoutubeQuotaService;
+
+class YoutubeVideoDetailCacheTest {
+
+  private final YoutubeVideoCacheProperties properties = new YoutubeVideoCacheProperties();
+  private final YoutubeVideoCacheMapper cacheMapper = mock(YoutubeVideoCacheMapper.class);
+  private final YoutubeQuotaService quotaService = mock(YoutubeQuotaService.class);
+  private final List<List<String>> loadedBatches = new CopyOnWriteArrayList<>();
+  private MutableClock clock;
+  private YoutubeVideoDetailCache cache;
+
+  @BeforeEach
+  void setUp() {
+    properties.setBatchLinger(Duration.ZERO);
+    clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    cache = new YoutubeVideoDetailCache(properties, cacheMapper, quotaService, clock);
+  }
+
+  @Test
+  void shouldServeRepeatedLookupsFromCacheUntilExpired() throws IOException {
+    cache.getAll(List.of("a", "b"), this::load);
+    Map<String, Video> cached = cache.getAll(List.of("b", "a"), this::load);
+
+    assertEquals(1, loadedBatches.size());
+    assertEquals("a", cached.get("a").getId());
+    verify(quotaService).recordSaved(any());
+
+    clock.advance(properties.getTtl().plusSeconds(1));
+    cache.getAll(List.of("a"), this::load);
+    assertEquals(List.of("a"), loadedBatches.get(1));
+  }
+
+  @Test
+  void shouldNotCacheLiveOrMissingVideos() throws IOException {
+    cache.getAll(List.of("live", "upcoming", "gone", "a"), this::load);
+    cache.getAll(List.of("live", "upcoming", "gone", "a"), this::load);
+
+    assertEquals(List.of("live", "upcoming", "gone"), loadedBatches.get(1));
+  }
+
+  @Test
+  void shouldSplitMissesIntoBatchesOfFifty() throws IOException {
+    List<String> ids = IntStream.range(0, 120).mapToObj(i -> "v" + i).toList();
+
+    Map<String, Video> result = cache.getAll(ids, this::load);
+
+    assertEquals(120, result.size());
+    assertEquals(List.of(50, 50, 20), loadedBatches.stream().map(List::size).toList());
+  }
+
+  @Test
+  void shouldCoalesceConcurrentCallersIntoOneRequest() throws Exception {
+    properties.setBatchLinger(Duration.ofMillis(300));
+    CompletableFuture<Map<String, Video>> first = CompletableFuture.supplyAsync(
+        () -> getAllUnchecked(List.of("a", "b")));
+    TimeUnit.MILLISECONDS.sleep(50);
+    Map<String, Video> second = getAllUnchecked(List.of("b", "c"));
+
+    assertEquals(2, first.get(5, TimeUnit.SECONDS).size());
+    assertEquals(2, second.size());
+    assertEquals(1, loadedBatches.size());
+    assertEquals(List.of("a", "b", "c"), loadedBatches.get(0));
+  }
+
+  @Test
+  void shouldNotCoalesceCallersWithDifferentQuotaContexts() throws Exception {
+    properties.setBatchLinger(Duration.ofMillis(300));
+    CompletableFuture<Map<String, Video>> autoSync = CompletableFuture.supplyAsync(() -> {
+      YoutubeQuotaContextHolder.set(YoutubeApiCallContext.AUTO_SYNC);
+      try {
+        return getAllUnchecked(List.of("a"));
+      } finally {
+        YoutubeQuotaContextHolder.clear();
+      }
+    });
+    TimeUnit.MILLISECONDS.sleep(50);
+    getAllUnchecked(List.of("b"));
+
+    assertEquals(1, autoSync.get(5, TimeUnit.SECONDS).size());
+    assertEquals(2, loadedBatches.size());
+    assertTrue(loadedBatches.contains(List.of("a")));
+    assertTrue(loadedBatches.contains(List.of("b")));
+  }
+
+  @Test
+  void shouldNotWaitForOtherCallersInsideTransaction() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Map<String, Video>> slow = CompletableFuture.supplyAsync(() -> {
+      try {
+        return cache.getAll(List.of("a"), ids -> {
+          loading.countDown();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return load(ids);
+        });
+      } catch (IOException | RuntimeException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    loading.await(5, TimeUnit.SECONDS);
+
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      Map<String, Video> result = cache.getAll(List.of("a"), this::load);
+      assertEquals("a", result.get("a").getId());
+      assertEquals(List.of(List.of("a")), loadedBatches);
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+      release.countDown();
+    }
+    assertEquals(1, slow.get(5, TimeUnit.SECONDS).size());
+  }
+
+  @Test
+  void shouldPropagateFailureAndRetryOnNextCall() throws IOException {
+    assertThrows(IOException.class, () -> cache.getAll(List.of("a"), ids -> {
+      throw new IOException("quota");
+    }));
+
+    Map<String, Video> result = cache.getAll(List.of("a"), this::load);
+    assertEquals(1, result.size());
+  }
+
+  @Test
+  void shouldReadAndWritePersistentCacheWhenEnabled() throws IOException {
+    properties.setPersistent(true);
+    when(cacheMapper.selectFresh(anyList(), any())).thenReturn(List.of(
+        YoutubeVideoCache.builder()
+            .videoId("stored")
+            .payload(JacksonFactory.getDefaultInstance().toString(video("stored")))
+            .fetchedAt(LocalDateTime.now(clock))
+            .build()));
+
+    Map<String, Video> result = cache.getAll(List.of("stored", "fresh"), this::load);
+
+    assertEquals("stored", result.get("stored").getId());
+    assertEquals(List.of(List.of("fresh")), loadedBatches);
+    verify(cacheMapper).upsertBatch(anyList());
+  }
+
+  @Test
+  void shouldCallLoaderDirectlyWhenDisabled() throws IOException {
+    properties.setEnabled(false);
+
+    cache.getAll(List.of("a"), this::load);
+    cache.getAll(List.of("a"), this::load);
+
+    assertEquals(2, loadedBatches.size());
+    verify(quotaService, never()).recordSaved(any());
+    assertTrue(loadedBatches.stream().allMatch(batch -> batch.equals(List.of("a"))));
+  }
+
+  private Map<String, Video> getAllUnchecked(List<String> ids) {
+    try {
+      return cache.getAll(ids, this::load);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Map<String, Video> load(List<String> ids) {
+    loadedBatches.add(new ArrayList<>(ids));
+    Map<String, Video> videos = new HashMap<>();
+    for (String id : ids) {
+      if (!"gone".equals(id)) {
+        videos.put(id, video(id));
+      }
+    }
+    return videos;
+  }
+
+  private static Video video(String id) {
+    String liveBroadcastContent = switch (id) {
+      case "live" -> "live";
+      case "upcoming" -> "upcoming";
+      default -> "none";
+    };
+    return new Video().setId(id)
+        .setSnippet(new VideoSnippet().setTitle(id).setLiveBroadcastContent(liveBroadcastContent));
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package top.asimov.pigeon.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.PlaylistItem;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import top.asimov.pigeon.config.OutboundProxyHolder;
+import top.asimov.pigeon.config.ProxyExecutionScope;
+import top.asimov.pigeon.config.YoutubeApiKeyHolder;
+import top.asimov.pigeon.config.YoutubeVideoCacheProperties;
+import top.asimov.pigeon.helper.YoutubeVideoHelper.PlaylistFetchResult;
+import top.asimov.pigeon.helper.YoutubeVideoHelper.VideoFetchConfig;
+import top.asimov.pigeon.mapper.YoutubeVideoCacheMapper;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.service.YoutubeQuotaService;
+
+class YoutubeVideoHelperConditionalFetchTest {
+
+  private static final String PAGE_ETAG = "page-etag-1";
+  private static final VideoFetchConfig CONFIG =
+      new VideoFetchConfig("UC_channel", null, null, null, null, null, null, null, 1);
+
+  private HttpServer server;
+  private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+  private final List<String> requestedVideoIds = new CopyOnWriteArrayList<>();
+  private volatile Set<String> upcomingIds = Set.of();
+  private String previousApiKey;
+  private YoutubeVideoHelper helper;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/youtube/v3/playlistItems", exchange -> {
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+      if (PAGE_ETAG.equals(ifNoneMatch)) {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+      String items = List.of("new1", "new2", "known1", "old1").stream()
+          .map(id -> "{\"snippet\":{\"title\":\"" + id + "\",\"resourceId\":{\"videoId\":\"" + id
+              + "\"},\"publishedAt\":\"2026-01-01T00:00:00Z\"}}")
+          .collect(Collectors.joining(","));
+      respond(exchange, "{\"etag\":\"" + PAGE_ETAG + "\",\"items\":[" + items + "]}");
+    });
+    server.createContext("/youtube/v3/videos", exchange -> {
+      String ids = queryParam(exchange, "id");
+      requestedVideoIds.addAll(List.of(ids.split(",")));
+      String items = requestedVideoIds.stream()
+          .map(id -> "{\"id\":\"" + id + "\",\"snippet\":{\"title\":\"" + id
+              + "\",\"channelId\":\"UC_channel\",\"publishedAt\":\"2026-01-01T00:00:00Z\","
+              + "\"liveBroadcastContent\":\"" + (upcomingIds.contains(id) ? "upcoming" : "none")
+              + "\"},"
+              + "\"contentDetails\":{\"duration\":\"PT10M\"}}")
+          .collect(Collectors.joining(","));
+      respond(exchange, "{\"items\":[" + items + "]}");
+    });
+    server.createContext("/youtube/v3/channels", exchange -> respond(exchange,
+        "{\"items\":[{\"contentDetails\":{\"relatedPlaylists\":{\"uploads\":\"UU_channel\"}}}]}"));
+    server.start();
+
+    YouTube youtube = new YouTube.Builder(new NetHttpTransport(),
+        JacksonFactory.getDefaultInstance(), null)
+        .setRootUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+        .setApplicationName("test")
+        .build();
+    YoutubeServiceFactory serviceFactory = mock(YoutubeServiceFactory.class);
+    when(serviceFactory.createCurrentClient()).thenReturn(youtube);
+    helper = new YoutubeVideoHelper(mock(MessageSource.class),
+        new YoutubeApiExecutor(mock(YoutubeQuotaService.class)), serviceFactory,
+        new ProxyExecutionScope(new OutboundProxyHolder()),
+        new YoutubeVideoDetailCache(new YoutubeVideoCacheProperties(),
+            mock(YoutubeVideoCacheMapper.class), mock(YoutubeQuotaService.class)));
+
+    previousApiKey = YoutubeApiKeyHolder.getYoutubeApiKey();
+    YoutubeApiKeyHolder.updateYoutubeApiKey("test-key");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    YoutubeApiKeyHolder.updateYoutubeApiKey(previousApiKey);
+  }
+
+  @Test
+  void shouldStopAtFirstPersistedVideoAndOnlyFetchDetailsForNewOnes() throws IOException {
+    Set<String> persisted = Set.of("known1");
+    Predicate<PlaylistItem> stopAtKnown =
+        item -> persisted.contains(item.getSnippet().getResourceId().getVideoId());
+
+    PlaylistFetchResult result = helper.fetchVideosFromPlaylistIfChanged("UU_channel", CONFIG,
+        stopAtKnown, item -> false, null);
+
+    assertFalse(result.notModified());
+    assertEquals(PAGE_ETAG, result.firstPageEtag());
+    assertEquals(List.of("new1", "new2"), requestedVideoIds);
+    assertEquals(List.of("new1", "new2"),
+        result.episodes().stream().map(Episode::getId).toList());
+    assertEquals(List.of("null"), ifNoneMatchHeaders);
+  }
+
+  @Test
+  void shouldShortCircuitOnNotModifiedFirstPage() throws IOException {
+    PlaylistFetchResult result = helper.fetchVideosFromPlaylistIfChanged("UU_channel", CONFIG,
+        item -> false, item -> false, PAGE_ETAG);
+
+    assertTrue(result.notModified());
+    assertTrue(result.episodes().isEmpty());
+    assertEquals(PAGE_ETAG, result.firstPageEtag());
+    assertEquals(List.of(PAGE_ETAG), ifNoneMatchHeaders);
+    assertTrue(requestedVideoIds.isEmpty());
+  }
+
+  @Test
+  void shouldRefetchWhenStoredEtagIsStale() throws IOException {
+    PlaylistFetchResult result = helper.fetchVideosFromPlaylistIfChanged("UU_channel", CONFIG,
+        item -> false, item -> false, "stale-etag");
+
+    assertFalse(result.notModified());
+    assertEquals(PAGE_ETAG, result.firstPageEtag());
+    assertEquals(4, requestedVideoIds.size());
+  }
+
+  @Test
+  void shouldReportSkippedLiveVideosSeparately() throws IOException {
+    upcomingIds = Set.of("new2");
+
+    PlaylistFetchResult result = helper.fetchVideosFromPlaylistIfChanged("UU_channel", CONFIG,
+        item -> false, item -> false, null);
+
+    assertEquals(Set.of("new2"), result.skippedLiveIds());
+    assertEquals(List.of("new1", "known1", "old1"),
+        result.episodes().stream().map(Episode::getId).toList());
+  }
+
+  @Test
+  void shouldLookPastPersistedVideosUntilAwaitedLiveVideoIsSeen() {
+    YoutubeChannelHelper channelHelper = new YoutubeChannelHelper(mock(MessageSource.class), helper);
+    Set<String> persisted = Set.of("new1", "known1");
+
+    PlaylistFetchResult result = channelHelper.fetchYoutubeChannelVideosSinceKnown("UC_channel",
+        null, persisted::contains, Set.of("old1"), null, null, null, null, null, null);
+
+    // 已入库的视频被越过但不请求详情，找到等待中的 old1 后才结束
+    assertEquals(List.of("new2", "old1"), requestedVideoIds);
+    assertEquals(List.of("new2", "old1"),
+        result.episodes().stream().map(Episode::getId).toList());
+    assertTrue(result.skippedLiveIds().isEmpty());
+  }
+
+  private static void respond(HttpExchange exchange, String json) throws IOException {
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static String queryParam(HttpExchange exchange, String name) {
+    for (String pair : exchange.getRequestURI().getRawQuery().split("&")) {
+      int separator = pair.indexOf('=');
+      if (separator > 0 && pair.substring(0, separator).equals(name)) {
+        return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+      }
+    }
+    return "";
+  }
+}
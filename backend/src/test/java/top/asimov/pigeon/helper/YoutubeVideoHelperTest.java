@@ -23,7 +23,8 @@ class YoutubeVideoHelperTest {
         mock(MessageSource.class),
         mock(YoutubeApiExecutor.class),
         mock(YoutubeServiceFactory.class),
-        mock(ProxyExecutionScope.class));
+        mock(ProxyExecutionScope.class),
+        mock(YoutubeVideoDetailCache.class));
   }
 
   @Test
@@ -0,0 +1,315 @@
+package top.asimov.pigeon.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.entity.PlaylistEpisode;
+import top.asimov.pigeon.model.enums.EpisodeStatus;
+
+/**
+ * 对所有 Mapper 语句执行 EXPLAIN QUERY PLAN，episode 表出现全表扫描即失败，防止索引或 SQL 改动造成查询计划回退。
+ *
+ * <p>数据库由 Flyway 迁移生成并写入有代表性的数据后执行 ANALYZE，与线上的统计信息分布接近。</p>
+ */
+class MapperQueryPlanTest {
+
+  private static final List<Class<?>> MAPPERS = List.of(
+      ChannelMapper.class, CookieConfigMapper.class, EpisodeMapper.class,
+      FeedDefaultsMapper.class, NotificationConfigMapper.class,
+      PlaylistEpisodeDetailRetryMapper.class, PlaylistEpisodeMapper.class, PlaylistMapper.class,
+      SystemConfigMapper.class, UserMapper.class, YoutubeApiDailyUsageMapper.class,
+      YoutubeApiDailyUsageMethodMapper.class, YoutubeVideoCacheMapper.class);
+
+  private static final Pattern SCAN = Pattern.compile("^SCAN (\\w+)(.*)$");
+  private static final Pattern EPISODE_ALIAS = Pattern.compile(
+      "\\bepisode\\s+(?:AS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+  private static final Set<String> SQL_KEYWORDS = Set.of("where", "set", "join", "left", "inner",
+      "on", "order", "group", "limit", "values", "select");
+
+  @TempDir
+  static Path tempDir;
+
+  private static Connection connection;
+  private static MybatisConfiguration configuration;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    String url = "jdbc:sqlite:" + tempDir.resolve("query-plan.db");
+    Flyway.configure().dataSource(url, null, null).load().migrate();
+    connection = DriverManager.getConnection(url);
+    seed(connection);
+
+    configuration = new MybatisConfiguration();
+    configuration.setMapUnderscoreToCamelCase(true);
+    MAPPERS.forEach(configuration::addMapper);
+  }
+
+  @AfterAll
+  static void tearDown() throws Exception {
+    connection.close();
+  }
+
+  @TestFactory
+  Stream<DynamicTest> mapperStatementsShouldNotScanEpisodeTable() {
+    return MAPPERS.stream()
+        .flatMap(mapper -> Arrays.stream(mapper.getDeclaredMethods())
+            .filter(MapperQueryPlanTest::isAnnotatedStatement)
+            .sorted(Comparator.comparing(Method::getName)))
+        .map(method -> DynamicTest.dynamicTest(
+            method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+            () -> assertNoEpisodeScan(method.getDeclaringClass().getName() + "." + method.getName(),
+                sampleParameters(method))));
+  }
+
+  @Test
+  void schedulerAndMaintenanceQueriesShouldUseIndexes() throws Exception {
+    // DownloadDispatcher 回表补充 PENDING 候选
+    assertEpisodeQueryUsesIndex(new QueryWrapper<Episode>()
+        .eq("download_status", EpisodeStatus.PENDING.name())
+        .orderByAsc("created_at")
+        .last("LIMIT 10"));
+    // StaleTaskCleaner 启动时重置 DOWNLOADING
+    assertEpisodeQueryUsesIndex(new QueryWrapper<Episode>()
+        .eq("download_status", EpisodeStatus.DOWNLOADING.name()));
+    // EpisodeService 按频道查询与补算可见性
+    assertEpisodeQueryUsesIndex(new QueryWrapper<Episode>().eq("channel_id", "channel-1"));
+    assertEpisodeQueryUsesIndex(new QueryWrapper<Episode>()
+        .eq("channel_id", "channel-1")
+        .isNull("channel_visible")
+        .gt("id", "")
+        .orderByAsc("id")
+        .last("LIMIT 500"));
+    // EpisodeService 按频道分页列表
+    assertEpisodeQueryUsesIndex(new QueryWrapper<Episode>()
+        .eq("channel_id", "channel-1")
+        .eq("channel_visible", true)
+        .eq("download_status", EpisodeStatus.COMPLETED.name())
+        .orderByDesc("published_at", "id"));
+  }
+
+  @Test
+  void playlistLookupByEpisodeShouldUseIndex() throws Exception {
+    // RssCacheService 由节目反查播放列表
+    assertPlanUsesIndex(PlaylistEpisodeMapper.class, new QueryWrapper<PlaylistEpisode>()
+        .select("playlist_id")
+        .in("episode_id", List.of("episode-1", "episode-2")), "playlist_episode");
+  }
+
+  @Test
+  void snapshotUnseenScanShouldSeekByPlaylistAndId() throws Exception {
+    // PlaylistService 流式快照结束后按 id 游标找出已移除的关联
+    MapperMethod.ParamMap<Object> parameters = new MapperMethod.ParamMap<>();
+    parameters.put("playlistId", "PL1");
+    parameters.put("seenAt", LocalDateTime.now());
+    parameters.put("afterId", 0L);
+    parameters.put("limit", 500);
+    List<String> plan = explain(PlaylistEpisodeMapper.class.getName() + ".selectUnseenMappings",
+        parameters);
+    assertTrue(plan.stream().anyMatch(detail -> detail.startsWith("SEARCH playlist_episode ")
+            && detail.contains("rowid>?")),
+        () -> "未按播放列表与 id 游标定位: " + plan);
+    assertTrue(plan.stream().noneMatch(detail -> detail.contains("TEMP B-TREE")),
+        () -> "游标分页不应额外排序: " + plan);
+  }
+
+  private static void assertEpisodeQueryUsesIndex(Wrapper<Episode> wrapper) throws Exception {
+    assertPlanUsesIndex(EpisodeMapper.class, wrapper, "episode");
+  }
+
+  private static void assertPlanUsesIndex(Class<?> mapper, Wrapper<?> wrapper, String table)
+      throws Exception {
+    MapperMethod.ParamMap<Object> parameters = new MapperMethod.ParamMap<>();
+    parameters.put("ew", wrapper);
+    parameters.put("param1", wrapper);
+    List<String> plan = explain(mapper.getName() + ".selectList", parameters);
+    assertTrue(plan.stream().anyMatch(detail -> detail.startsWith("SEARCH " + table + " ")),
+        () -> "查询 " + table + " 未使用索引: " + plan);
+  }
+
+  private static void assertNoEpisodeScan(String statementId, Object parameters) throws Exception {
+    MappedStatement statement = configuration.getMappedStatement(statementId);
+    String sql = statement.getBoundSql(parameters).getSql();
+    Set<String> aliases = episodeAliases(sql);
+    List<String> plan = explain(statementId, parameters);
+    for (String detail : plan) {
+      Matcher matcher = SCAN.matcher(detail);
+      if (matcher.matches() && aliases.contains(matcher.group(1).toLowerCase(Locale.ROOT))
+          && !matcher.group(2).contains("COVERING INDEX")) {
+        fail(statementId + " 全表扫描 episode: " + plan + "\n" + sql);
+      }
+    }
+  }
+
+  private static List<String> explain(String statementId, Object parameters) throws Exception {
+    MappedStatement statement = configuration.getMappedStatement(statementId);
+    BoundSql boundSql = statement.getBoundSql(parameters);
+    List<String> plan = new ArrayList<>();
+    try (PreparedStatement ps = connection.prepareStatement(
+        "EXPLAIN QUERY PLAN " + boundSql.getSql())) {
+      new DefaultParameterHandler(statement, parameters, boundSql).setParameters(ps);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          plan.add(rs.getString("detail"));
+        }
+      }
+    }
+    return plan;
+  }
+
+  private static Set<String> episodeAliases(String sql) {
+    Set<String> aliases = new HashSet<>();
+    aliases.add("episode");
+    Matcher matcher = EPISODE_ALIAS.matcher(sql);
+    while (matcher.find()) {
+      String alias = matcher.group(1).toLowerCase(Locale.ROOT);
+      if (!SQL_KEYWORDS.contains(alias)) {
+        aliases.add(alias);
+      }
+    }
+    return aliases;
+  }
+
+  private static boolean isAnnotatedStatement(Method method) {
+    return method.isAnnotationPresent(Select.class) || method.isAnnotationPresent(Insert.class)
+        || method.isAnnotationPresent(Update.class) || method.isAnnotationPresent(Delete.class);
+  }
+
+  private static Object sampleParameters(Method method) throws Exception {
+    Type[] types = method.getGenericParameterTypes();
+    Object[] args = new Object[types.length];
+    for (int i = 0; i < types.length; i++) {
+      args[i] = sampleValue(types[i]);
+    }
+    return new ParamNameResolver(configuration, method).getNamedParams(args);
+  }
+
+  private static Object sampleValue(Type type) throws Exception {
+    if (type instanceof ParameterizedType parameterized) {
+      if (parameterized.getRawType() == List.class) {
+        Type element = parameterized.getActualTypeArguments()[0];
+        return List.of(sampleValue(element), sampleValue(element));
+      }
+      type = parameterized.getRawType();
+    }
+    Class<?> clazz = (Class<?>) type;
+    if (clazz == String.class) {
+      return "sample";
+    }
+    if (clazz == int.class || clazz == Integer.class) {
+      return 10;
+    }
+    if (clazz == long.class || clazz == Long.class) {
+      return 10L;
+    }
+    if (clazz == boolean.class || clazz == Boolean.class) {
+      return true;
+    }
+    if (clazz == LocalDateTime.class) {
+      return LocalDateTime.now();
+    }
+    if (clazz == Page.class) {
+      return new Page<>(1, 10);
+    }
+    if (clazz.getPackageName().startsWith("top.asimov.pigeon.model")) {
+      return clazz.getDeclaredConstructor().newInstance();
+    }
+    throw new IllegalArgumentException("缺少参数样例: " + type);
+  }
+
+  private static void seed(Connection connection) throws Exception {
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      for (int c = 0; c < 20; c++) {
+        statement.addBatch("INSERT INTO channel (id, title, cover_url, description, source, "
+            + "maximum_episodes) VALUES ('channel-" + c + "', 'Channel " + c + "', '', '', "
+            + "'YOUTUBE', " + (c % 2 == 0 ? "NULL" : "50") + ")");
+      }
+      for (int p = 0; p < 5; p++) {
+        statement.addBatch("INSERT INTO playlist (id, title, cover_url, description, source, "
+            + "maximum_episodes) VALUES ('playlist-" + p + "', 'Playlist " + p + "', '', '', "
+            + "'YOUTUBE', 50)");
+      }
+      statement.addBatch("INSERT INTO user (username, password, salt, api_key) "
+          + "VALUES ('admin', 'password', 'salt', 'key')");
+      statement.executeBatch();
+    }
+    try (PreparedStatement episode = connection.prepareStatement(
+        "INSERT INTO episode (id, channel_id, title, download_status, published_at, created_at, "
+            + "channel_visible, retry_number, next_retry_at) VALUES (?, ?, ?, ?, ?, ?, 1, ?, ?)");
+        PreparedStatement mapping = connection.prepareStatement(
+            "INSERT INTO playlist_episode (playlist_id, episode_id, position, published_at, "
+                + "visible) VALUES (?, ?, ?, ?, 1)")) {
+      LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+      String[] statuses = {"COMPLETED", "COMPLETED", "COMPLETED", "COMPLETED", "COMPLETED",
+          "COMPLETED", "READY", "READY", "READY", "FAILED", "PENDING", "DOWNLOADING"};
+      for (int i = 0; i < 6000; i++) {
+        String status = statuses[i % statuses.length];
+        String published = base.plusHours(i).toString();
+        episode.setString(1, "episode-" + i);
+        episode.setString(2, i % 5 == 0 ? null : "channel-" + (i % 20));
+        episode.setString(3, "Episode " + i);
+        episode.setString(4, status);
+        episode.setString(5, published);
+        episode.setString(6, published);
+        episode.setInt(7, "FAILED".equals(status) ? i % 7 : 0);
+        episode.setString(8, "FAILED".equals(status) && i % 2 == 0 ? published : null);
+        episode.addBatch();
+        if (i % 5 == 0) {
+          mapping.setString(1, "playlist-" + (i % 3));
+          mapping.setString(2, "episode-" + i);
+          mapping.setInt(3, i);
+          mapping.setString(4, published);
+          mapping.addBatch();
+        }
+      }
+      episode.executeBatch();
+      mapping.executeBatch();
+    }
+    connection.commit();
+    connection.setAutoCommit(true);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("ANALYZE");
+    }
+  }
+}
@@ -19,9 +19,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.asimov.pigeon.config.SyncCadenceProperties;
 import top.asimov.pigeon.event.DownloadTaskEvent.DownloadTargetType;
 import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.util.SyncCadencePolicy;
 
 class AbstractFeedServiceTest {
 
@@ -106,7 +110,8 @@ class AbstractFeedServiceTest {
         ApplicationEventPublisher eventPublisher,
         MessageSource messageSource,
         FeedDefaultsService feedDefaultsService) {
-      super(episodeService, eventPublisher, messageSource, feedDefaultsService);
+      super(episodeService, eventPublisher, messageSource, feedDefaultsService,
+          new TransactionTemplate(mock(PlatformTransactionManager.class)));
     }
 
     @Override
@@ -138,6 +143,20 @@ class AbstractFeedServiceTest {
       return incrementalEpisodes;
     }
 
+    @Override
+    protected SyncCadencePolicy syncCadencePolicy() {
+      return new SyncCadenceProperties().channelPolicy();
+    }
+
+    @Override
+    protected List<LocalDateTime> selectRecentPublishTimes(String feedId) {
+      return List.of();
+    }
+
+    @Override
+    protected void updateNextSyncAt(String feedId, LocalDateTime nextSyncAt) {
+    }
+
     @Override
     protected Logger logger() {
       return LogManager.getLogger(TestFeedService.class);
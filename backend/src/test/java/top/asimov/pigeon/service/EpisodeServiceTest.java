@@ -1,5 +1,6 @@
 package top.asimov.pigeon.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -7,18 +8,24 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import top.asimov.pigeon.config.StorageProperties;
 import top.asimov.pigeon.event.EpisodesCreatedEvent;
 import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.helper.DownloadDispatcher;
+import top.asimov.pigeon.helper.DownloadProgressRegistry;
 import top.asimov.pigeon.mapper.ChannelMapper;
 import top.asimov.pigeon.mapper.EpisodeMapper;
 import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
@@ -48,7 +55,9 @@ class EpisodeServiceTest {
         mock(PlaylistEpisodeMapper.class),
         mock(PlaylistMapper.class),
         mock(StorageProperties.class),
-        mock(S3StorageService.class));
+        mock(S3StorageService.class),
+        mock(DownloadProgressRegistry.class),
+        mock(DownloadDispatcher.class));
   }
 
   @Test
@@ -87,4 +96,40 @@ class EpisodeServiceTest {
         anyString(), eq(EpisodeStatus.PENDING.name()));
     verify(eventPublisher, never()).publishEvent(any(EpisodesCreatedEvent.class));
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldInsertDistinctEpisodesInChunks() {
+    List<Episode> episodes = new ArrayList<>();
+    for (int i = 0; i < 450; i++) {
+      episodes.add(Episode.builder().id("episode-" + i).title("first-" + i).build());
+    }
+    episodes.add(Episode.builder().id("episode-0").title("duplicate").build());
+    when(episodeMapper.insertIgnoreBatch(any())).thenAnswer(
+        invocation -> ((List<Episode>) invocation.getArgument(0)).size());
+
+    int inserted = episodeService.saveEpisodes(episodes);
+
+    ArgumentCaptor<List<Episode>> captor = ArgumentCaptor.forClass(List.class);
+    verify(episodeMapper, times(3)).insertIgnoreBatch(captor.capture());
+    assertEquals(List.of(200, 200, 50), captor.getAllValues().stream().map(List::size).toList());
+    assertEquals("first-0", captor.getAllValues().get(0).get(0).getTitle());
+    assertEquals(450, inserted);
+  }
+
+  @Test
+  void shouldMarkEpisodesPendingWithSingleBatchUpdate() {
+    Episode first = Episode.builder().id("episode-1")
+        .downloadStatus(EpisodeStatus.READY.name()).build();
+    Episode second = Episode.builder().id("episode-2")
+        .downloadStatus(EpisodeStatus.READY.name()).build();
+
+    episodeService.markEpisodesPending(List.of(first, second));
+
+    verify(episodeMapper).updateDownloadStatusAndClearSchedulingFieldsBatch(
+        List.of("episode-1", "episode-2"), EpisodeStatus.PENDING.name());
+    verify(episodeMapper, never()).updateDownloadStatusAndClearSchedulingFields(
+        anyString(), anyString());
+    assertEquals(EpisodeStatus.PENDING.name(), second.getDownloadStatus());
+  }
 }
@@ -0,0 +1,166 @@
+package top.asimov.pigeon.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoContentDetails;
+import com.google.api.services.youtube.model.VideoSnippet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.config.SyncCadenceProperties;
+import top.asimov.pigeon.config.YoutubeApiKeyHolder;
+import top.asimov.pigeon.helper.BilibiliPlaylistHelper;
+import top.asimov.pigeon.helper.BilibiliResolverHelper;
+import top.asimov.pigeon.helper.YoutubeHelper;
+import top.asimov.pigeon.helper.YoutubePlaylistHelper;
+import top.asimov.pigeon.helper.YoutubeVideoHelper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeDetailRetryMapper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
+import top.asimov.pigeon.mapper.PlaylistMapper;
+import top.asimov.pigeon.model.entity.Playlist;
+import top.asimov.pigeon.model.entity.PlaylistEpisodeDetailRetry;
+
+class PlaylistServiceDetailRetryTest {
+
+  private PlaylistMapper playlistMapper;
+  private PlaylistEpisodeMapper playlistEpisodeMapper;
+  private PlaylistEpisodeDetailRetryMapper retryMapper;
+  private EpisodeService episodeService;
+  private YoutubeVideoHelper youtubeVideoHelper;
+  private PlaylistService playlistService;
+  private String previousApiKey;
+
+  @BeforeEach
+  void setUp() {
+    playlistMapper = mock(PlaylistMapper.class);
+    playlistEpisodeMapper = mock(PlaylistEpisodeMapper.class);
+    retryMapper = mock(PlaylistEpisodeDetailRetryMapper.class);
+    episodeService = mock(EpisodeService.class);
+    youtubeVideoHelper = mock(YoutubeVideoHelper.class);
+    playlistService = new PlaylistService(playlistMapper, playlistEpisodeMapper, retryMapper,
+        episodeService, mock(ApplicationEventPublisher.class), mock(YoutubeHelper.class),
+        mock(YoutubePlaylistHelper.class), youtubeVideoHelper,
+        mock(BilibiliResolverHelper.class), mock(BilibiliPlaylistHelper.class),
+        mock(YtDlpPlaylistSnapshotService.class), mock(AccountService.class),
+        mock(MessageSource.class), mock(FeedDefaultsService.class), mock(Executor.class),
+        mock(AppBaseUrlResolver.class), new SyncCadenceProperties(), new FeedSyncProperties(),
+        new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    previousApiKey = YoutubeApiKeyHolder.getYoutubeApiKey();
+    YoutubeApiKeyHolder.updateYoutubeApiKey("test-key");
+  }
+
+  @AfterEach
+  void tearDown() {
+    YoutubeApiKeyHolder.updateYoutubeApiKey(previousApiKey);
+  }
+
+  @Test
+  void shouldPackRetriesFromAllPlaylistsIntoOneVideosListCall() throws Exception {
+    List<PlaylistEpisodeDetailRetry> retries = List.of(
+        retry(1L, "PL1", "v1"), retry(2L, "PL1", "v2"),
+        retry(3L, "PL2", "v3"), retry(4L, "PL2", "v1"),
+        retry(5L, "PL3", "gone"), retry(6L, "PL_deleted", "v4"));
+    when(retryMapper.selectDue(any(), anyInt())).thenReturn(retries);
+    when(playlistMapper.selectBatchIds(anyCollection())).thenReturn(List.of(
+        playlist("PL1"), playlist("PL2"), playlist("PL3")));
+    Map<String, Video> details = new HashMap<>();
+    for (String id : List.of("v1", "v2", "v3")) {
+      details.put(id, video(id));
+    }
+    when(youtubeVideoHelper.fetchVideoDetailsInBulk(anyList(), anyString())).thenReturn(details);
+
+    int recovered = playlistService.processPlaylistDetailRetryQueue(100);
+
+    assertEquals(4, recovered);
+    // 三个播放列表、四个不同视频只请求一次
+    verify(youtubeVideoHelper, times(1))
+        .fetchVideoDetailsInBulk(eq(List.of("v1", "v2", "v3", "gone")), eq("test-key"));
+    verify(episodeService, times(1)).saveEpisodes(anyList());
+    verify(playlistEpisodeMapper).insertMappingsBatch(eq("PL1"), anyList());
+    verify(playlistEpisodeMapper).insertMappingsBatch(eq("PL2"), anyList());
+    verify(playlistEpisodeMapper, never()).insertMappingsBatch(eq("PL3"), anyList());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+    verify(retryMapper, times(1)).deleteBatchIds(deleted.capture());
+    assertEquals(List.of(6L, 1L, 4L, 2L, 3L), List.copyOf(deleted.getValue()));
+    verify(retryMapper, never()).deleteById(anyLong());
+    // 接口未返回的视频继续留在重试队列
+    verify(retryMapper).updateRetryMeta(eq(5L), eq(1), any(), anyString(), any());
+  }
+
+  @Test
+  void shouldSplitMoreThanFiftyDistinctVideosIntoFullBatches() throws Exception {
+    List<PlaylistEpisodeDetailRetry> retries = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      retries.add(retry((long) i, "PL" + (i % 10), "v" + i));
+    }
+    when(retryMapper.selectDue(any(), anyInt())).thenReturn(retries);
+    List<Playlist> playlists = new ArrayList<>();
+    for (int p = 0; p < 10; p++) {
+      playlists.add(playlist("PL" + p));
+    }
+    when(playlistMapper.selectBatchIds(anyCollection())).thenReturn(playlists);
+    when(youtubeVideoHelper.fetchVideoDetailsInBulk(anyList(), anyString())).thenReturn(Map.of());
+
+    playlistService.processPlaylistDetailRetryQueue(100);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+    verify(youtubeVideoHelper, times(2)).fetchVideoDetailsInBulk(batches.capture(), anyString());
+    assertEquals(List.of(50, 10), batches.getAllValues().stream().map(List::size).toList());
+  }
+
+  private static PlaylistEpisodeDetailRetry retry(Long id, String playlistId, String episodeId) {
+    return PlaylistEpisodeDetailRetry.builder()
+        .id(id)
+        .playlistId(playlistId)
+        .episodeId(episodeId)
+        .position(id)
+        .approximatePublishedAt(LocalDateTime.of(2026, 1, 1, 0, 0))
+        .retryCount(0)
+        .build();
+  }
+
+  private static Playlist playlist(String id) {
+    Playlist playlist = Playlist.builder().id(id).title(id).build();
+    playlist.setAutoDownloadEnabled(Boolean.FALSE);
+    return playlist;
+  }
+
+  private static Video video(String id) {
+    return new Video().setId(id)
+        .setSnippet(new VideoSnippet().setTitle(id).setChannelId("UC_source")
+            .setPublishedAt(new DateTime("2026-01-01T00:00:00Z")))
+        .setContentDetails(new VideoContentDetails().setDuration("PT10M"));
+  }
+}
@@ -0,0 +1,170 @@
+package top.asimov.pigeon.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.config.SyncCadenceProperties;
+import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.helper.BilibiliPlaylistHelper;
+import top.asimov.pigeon.helper.BilibiliResolverHelper;
+import top.asimov.pigeon.helper.YoutubeHelper;
+import top.asimov.pigeon.helper.YoutubePlaylistHelper;
+import top.asimov.pigeon.helper.YoutubeVideoHelper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeDetailRetryMapper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
+import top.asimov.pigeon.mapper.PlaylistMapper;
+import top.asimov.pigeon.model.dto.PlaylistSnapshotEntry;
+import top.asimov.pigeon.model.entity.Episode;
+import top.asimov.pigeon.model.entity.Playlist;
+import top.asimov.pigeon.model.entity.PlaylistEpisode;
+
+class PlaylistServiceStreamingSnapshotTest {
+
+  private PlaylistMapper playlistMapper;
+  private PlaylistEpisodeMapper playlistEpisodeMapper;
+  private EpisodeService episodeService;
+  private YtDlpPlaylistSnapshotService snapshotService;
+  private PlaylistService playlistService;
+
+  @BeforeEach
+  void setUp() {
+    playlistMapper = mock(PlaylistMapper.class);
+    playlistEpisodeMapper = mock(PlaylistEpisodeMapper.class);
+    episodeService = mock(EpisodeService.class);
+    snapshotService = mock(YtDlpPlaylistSnapshotService.class);
+    FeedSyncProperties feedSyncProperties = new FeedSyncProperties();
+    feedSyncProperties.setSnapshotChunkSize(2);
+    playlistService = new PlaylistService(playlistMapper, playlistEpisodeMapper,
+        mock(PlaylistEpisodeDetailRetryMapper.class), episodeService,
+        mock(ApplicationEventPublisher.class), mock(YoutubeHelper.class),
+        mock(YoutubePlaylistHelper.class), mock(YoutubeVideoHelper.class),
+        mock(BilibiliResolverHelper.class), mock(BilibiliPlaylistHelper.class),
+        snapshotService, mock(AccountService.class), mock(MessageSource.class),
+        mock(FeedDefaultsService.class), mock(Executor.class), mock(AppBaseUrlResolver.class),
+        new SyncCadenceProperties(), feedSyncProperties,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)));
+  }
+
+  @Test
+  void shouldDiffChunkByChunkAndRemoveUnseenMappingsAfterStreamCompletes() {
+    streamChunks(List.of(entry("kept", 1L), entry("moved", 2L)), List.of(entry("new", 3L)));
+    when(playlistEpisodeMapper.selectMappingsByEpisodeIds(eq("PL1"), anyList()))
+        .thenReturn(List.of(mapping("1", "kept", 1L), mapping("2", "moved", 5L)))
+        .thenReturn(List.of());
+    when(episodeService.getEpisodesBasicByIds(anyList())).thenAnswer(invocation -> {
+      List<String> ids = invocation.getArgument(0);
+      return ids.contains("new")
+          ? List.of(Episode.builder().id("new").publishedAt(LocalDateTime.now()).build())
+          : List.of();
+    });
+    when(playlistEpisodeMapper.selectUnseenMappings(eq("PL1"), any(), anyLong(), anyInt()))
+        .thenReturn(List.of(mapping("3", "gone", 4L)));
+    Playlist playlist = playlist();
+
+    playlistService.refreshPlaylist(playlist);
+
+    // 每块只查询本块涉及的关联
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<String>> lookups = ArgumentCaptor.forClass(List.class);
+    verify(playlistEpisodeMapper, times(2))
+        .selectMappingsByEpisodeIds(eq("PL1"), lookups.capture());
+    assertEquals(List.of(List.of("kept", "moved"), List.of("new")), lookups.getAllValues());
+    verify(playlistEpisodeMapper).updateMapping(eq("PL1"), eq("moved"), eq(2L), any(), any(),
+        any(), any());
+    verify(playlistEpisodeMapper).insertMapping(eq("PL1"), eq("new"), eq(3L), any(), any(),
+        any(), any());
+
+    ArgumentCaptor<LocalDateTime> seenAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(playlistEpisodeMapper).markSnapshotSeen(eq("PL1"), eq(List.of("kept", "moved")),
+        seenAt.capture());
+    verify(playlistEpisodeMapper).markSnapshotSeen(eq("PL1"), eq(List.of("new")),
+        eq(seenAt.getValue()));
+    verify(playlistEpisodeMapper).selectUnseenMappings("PL1", seenAt.getValue(), 0L, 500);
+    verify(playlistEpisodeMapper).delete(any());
+
+    assertEquals(3, playlist.getLastSnapshotSize());
+    assertEquals(1, playlist.getLastSyncAddedCount());
+    assertEquals(1, playlist.getLastSyncRemovedCount());
+    assertEquals(1, playlist.getLastSyncMovedCount());
+    assertEquals("new", playlist.getLastSyncVideoId());
+  }
+
+  @Test
+  void shouldNotRemoveAnythingWhenStreamFailsHalfway() {
+    when(snapshotService.streamPlaylistSnapshot(eq("PL1"), anyInt(), any())).thenAnswer(
+        invocation -> {
+          Consumer<List<PlaylistSnapshotEntry>> consumer = invocation.getArgument(2);
+          consumer.accept(List.of(entry("kept", 1L)));
+          throw new BusinessException("yt-dlp playlist snapshot failed: network");
+        });
+    when(playlistEpisodeMapper.selectMappingsByEpisodeIds(eq("PL1"), anyList()))
+        .thenReturn(List.of(mapping("1", "kept", 1L)));
+    Playlist playlist = playlist();
+
+    playlistService.refreshPlaylist(playlist);
+
+    verify(playlistEpisodeMapper, never()).selectUnseenMappings(anyString(), any(), anyLong(),
+        anyInt());
+    verify(playlistEpisodeMapper, never()).delete(any());
+    assertNotNull(playlist.getSyncError());
+    assertNull(playlist.getLastSnapshotAt());
+  }
+
+  private void streamChunks(List<PlaylistSnapshotEntry>... chunks) {
+    when(snapshotService.streamPlaylistSnapshot(eq("PL1"), eq(2), any())).thenAnswer(
+        invocation -> {
+          Consumer<List<PlaylistSnapshotEntry>> consumer = invocation.getArgument(2);
+          int total = 0;
+          for (List<PlaylistSnapshotEntry> chunk : chunks) {
+            consumer.accept(new ArrayList<>(chunk));
+            total += chunk.size();
+          }
+          return total;
+        });
+  }
+
+  private static PlaylistSnapshotEntry entry(String videoId, Long position) {
+    return new PlaylistSnapshotEntry(videoId, position, videoId, null, null, null, null);
+  }
+
+  private static PlaylistEpisode mapping(String id, String episodeId, Long position) {
+    return PlaylistEpisode.builder()
+        .id(id)
+        .playlistId("PL1")
+        .episodeId(episodeId)
+        .position(position)
+        .build();
+  }
+
+  private static Playlist playlist() {
+    Playlist playlist = Playlist.builder().id("PL1").title("PL1").build();
+    playlist.setAutoDownloadEnabled(Boolean.FALSE);
+    return playlist;
+  }
+}
@@ -0,0 +1,94 @@
+package top.asimov.pigeon.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.config.StorageProperties;
+import top.asimov.pigeon.event.FeedContentChangedEvent;
+import top.asimov.pigeon.mapper.EpisodeMapper;
+import top.asimov.pigeon.mapper.PlaylistEpisodeMapper;
+import top.asimov.pigeon.model.entity.Channel;
+import top.asimov.pigeon.service.storage.S3StorageService;
+
+class RssCacheServiceTest {
+
+  private RssService rssService;
+  private EpisodeMapper episodeMapper;
+  private PlaylistEpisodeMapper playlistEpisodeMapper;
+  private RssCacheService rssCacheService;
+  private final AtomicInteger renderCount = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    rssService = mock(RssService.class);
+    episodeMapper = mock(EpisodeMapper.class);
+    playlistEpisodeMapper = mock(PlaylistEpisodeMapper.class);
+    rssCacheService = new RssCacheService(rssService, episodeMapper, playlistEpisodeMapper,
+        new StorageProperties(), mock(S3StorageService.class));
+
+    Channel channel = Channel.builder().id("UC1").handler("demo").build();
+    when(rssService.requireChannel("demo")).thenReturn(channel);
+    when(rssService.writeChannelFeed(eq(channel), any(Date.class), any(OutputStream.class)))
+        .thenAnswer(invocation -> {
+          invocation.getArgument(2, OutputStream.class).write(
+              ("<rss>" + renderCount.incrementAndGet() + "</rss>").getBytes(StandardCharsets.UTF_8));
+          return Set.of("episode-1");
+        });
+    when(episodeMapper.selectBatchIds(anyCollection())).thenReturn(List.of());
+    when(playlistEpisodeMapper.selectList(any())).thenReturn(List.of());
+  }
+
+  @Test
+  void shouldServeCachedDocumentUntilFeedChanges() throws Exception {
+    RssCacheService.CachedRss first = rssCacheService.getChannelRss("demo");
+    RssCacheService.CachedRss second = rssCacheService.getChannelRss("demo");
+
+    assertSame(first, second);
+    verify(rssService, times(1)).writeChannelFeed(any(), any(), any());
+
+    rssCacheService.handleFeedContentChanged(FeedContentChangedEvent.ofFeed(this, "UC1"));
+    RssCacheService.CachedRss third = rssCacheService.getChannelRss("demo");
+
+    assertNotEquals(first.etag(), third.etag());
+    assertEquals(first.version() + 1, third.version());
+  }
+
+  @Test
+  void shouldInvalidateDocumentContainingDeletedEpisode() throws Exception {
+    RssCacheService.CachedRss first = rssCacheService.getChannelRss("demo");
+
+    rssCacheService.handleFeedContentChanged(
+        FeedContentChangedEvent.ofEpisodes(this, List.of("episode-1")));
+
+    assertNotEquals(first.etag(), rssCacheService.getChannelRss("demo").etag());
+  }
+
+  @Test
+  void shouldPrecompressDocument() throws Exception {
+    RssCacheService.CachedRss rss = rssCacheService.getChannelRss("demo");
+
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(rss.gzipBody()))) {
+      assertEquals(new String(rss.body(), StandardCharsets.UTF_8),
+          new String(input.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    assertNotEquals(rss.etag(), rss.gzipEtag());
+  }
+}
@@ -1,9 +1,33 @@
 package top.asimov.pigeon.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.jdom2.CDATA;
+import org.jdom2.Element;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Document;
+import top.asimov.pigeon.config.AppBaseUrlResolver;
+import top.asimov.pigeon.model.dto.SubtitleInfo;
+import top.asimov.pigeon.model.entity.Channel;
 import top.asimov.pigeon.model.entity.Episode;
 
 class RssServiceTest {
@@ -60,4 +84,124 @@ class RssServiceTest {
             + "Source video: <a href=\"https://youtu.be/abc123\">youtu.be/abc123</a>",
         summary);
   }
+
+  /**
+   * 期望输出取自改为流式写出之前的 ROME + JDOM 实现对同一数据的输出。
+   */
+  @Test
+  void shouldStreamChannelFeedInPrettyPrintedFormat() throws Exception {
+    assertEquals(String.join("\r\n",
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+        "<rss xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:itunes=\"http://www.itunes.com/dtds/podcast-1.0.dtd\" "
+            + "xmlns:podcast=\"https://podcastindex.org/namespace/1.0\" version=\"2.0\">",
+        "  <channel>",
+        "    <title>Demo \"Channel\"</title>",
+        "    <link>https://www.youtube.com/channel/UC123</link>",
+        "    <description>Channel description</description>",
+        "    <pubDate>Tue, 14 Nov 2023 22:13:20 GMT</pubDate>",
+        "    <dc:date>2023-11-14T22:13:20Z</dc:date>",
+        "    <itunes:author>Demo \"Channel\"</itunes:author>",
+        "    <itunes:block>Yes</itunes:block>",
+        "    <itunes:image href=\"https://yt3.example.com/cover.jpg\" />",
+        "    <itunes:keywords />",
+        "    <itunes:summary>Channel description</itunes:summary>",
+        "    <item>",
+        "      <title>Tom &amp; Jerry &lt;Live&gt;</title>",
+        "      <link>https://www.youtube.com/watch?v=abc123</link>",
+        "      <podcast:transcript url=\"https://pod.example.com/subtitle/abc123.en.vtt\" "
+            + "type=\"text/vtt\" language=\"en\" rel=\"captions\" />",
+        "      <podcast:chapters url=\"https://pod.example.com/chapters/abc123.json\" "
+            + "type=\"application/json\" />",
+        "      <description><![CDATA[Line one<br/>Line two & <b>bold</b> end  <br/><br/>"
+            + "Source video: <a href=\"https://youtu.be/abc123\">youtu.be/abc123</a>]]></description>",
+        "      <enclosure url=\"https://pod.example.com/media/abc123.mp3?sig=a&amp;exp=1\" "
+            + "length=\"1024\" type=\"audio/mpeg\" />",
+        "      <pubDate>Tue, 05 Mar 2024 07:08:09 GMT</pubDate>",
+        "      <guid>https://www.youtube.com/watch?v=abc123</guid>",
+        "      <dc:date>2024-03-05T07:08:09Z</dc:date>",
+        "      <itunes:duration>01:02:03</itunes:duration>",
+        "      <itunes:image href=\"https://i.ytimg.com/vi/abc123/maxresdefault.jpg\" />",
+        "      <itunes:keywords />",
+        "      <itunes:summary>Line one",
+        "Line two &amp; &lt;b&gt;bold&lt;/b&gt; end  ",
+        "",
+        "Source video: &lt;a href=\"https://youtu.be/abc123\"&gt;youtu.be/abc123&lt;/a&gt;"
+            + "</itunes:summary>",
+        "    </item>",
+        "    <itunes:explicit>false</itunes:explicit>",
+        "    <itunes:category text=\"Technology\" />",
+        "  </channel>",
+        "</rss>",
+        ""), writeChannelFeedWithDescription("Line one\nLine two & <b>bold</b> end  "));
+  }
+
+  @Test
+  void shouldSplitCdataTerminatorLikeJdomAdjacentCdataSections() throws Exception {
+    String xml = writeChannelFeedWithDescription("Line one\nLine two ]]> end ]]]>");
+
+    // JDOM 不允许 CDATA 内容含 ]]>，旧实现把它改写成了 ]]&gt;；拆成相邻的 CDATA 节点才能保留原文
+    String html = "Line one<br/>Line two ]]> end ]]]><br/><br/>"
+        + "Source video: <a href=\"https://youtu.be/abc123\">youtu.be/abc123</a>";
+    Element description = new Element("description");
+    for (String section : html.split("(?<=]])(?=>)")) {
+      description.addContent(new CDATA(section));
+    }
+    String jdomDescription =
+        new XMLOutputter(Format.getPrettyFormat()).outputString(description);
+    assertTrue(xml.contains("\r\n      " + jdomDescription + "\r\n"), xml);
+
+    Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+        .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(html, document.getElementsByTagName("description").item(1).getTextContent());
+  }
+
+  private String writeChannelFeedWithDescription(String description) throws Exception {
+    Episode episode = Episode.builder()
+        .id("abc123")
+        .title("Tom & Jerry <Live>")
+        .description(description)
+        .publishedAt(LocalDateTime.of(2024, 3, 5, 7, 8, 9))
+        .duration("PT1H2M3S")
+        .maxCoverUrl("https://i.ytimg.com/vi/abc123/maxresdefault.jpg")
+        .mediaFilePath("/data/abc123.mp3")
+        .build();
+    Episode skipped = Episode.builder()
+        .id("def456")
+        .publishedAt(LocalDateTime.of(2024, 3, 4, 7, 8, 9))
+        .build();
+    Channel channel = Channel.builder()
+        .id("UC123")
+        .source("YOUTUBE")
+        .title("Demo \"Channel\"")
+        .description("Channel description")
+        .coverUrl("https://yt3.example.com/cover.jpg")
+        .build();
+
+    EpisodeService episodeService = mock(EpisodeService.class);
+    doAnswer(invocation -> {
+      Consumer<Episode> consumer = invocation.getArgument(1);
+      List.of(episode, skipped).forEach(consumer);
+      return null;
+    }).when(episodeService).forEachVisibleCompletedEpisode(eq(channel), any());
+    MediaService mediaService = mock(MediaService.class);
+    when(mediaService.resolveMediaUrlForRss(anyString(), eq(episode)))
+        .thenReturn("https://pod.example.com/media/abc123.mp3?sig=a&exp=1");
+    when(mediaService.resolveMediaLengthForRss(episode)).thenReturn(1024L);
+    SubtitleInfo subtitle = new SubtitleInfo("en", "vtt", null);
+    when(mediaService.getAvailableSubtitles(episode)).thenReturn(List.of(subtitle));
+    when(mediaService.resolveSubtitleUrlForRss(anyString(), eq(episode), eq(subtitle)))
+        .thenReturn("https://pod.example.com/subtitle/abc123.en.vtt");
+    when(mediaService.resolveChaptersUrlForRss(anyString(), eq(episode)))
+        .thenReturn("https://pod.example.com/chapters/abc123.json");
+    AppBaseUrlResolver appBaseUrlResolver = mock(AppBaseUrlResolver.class);
+    when(appBaseUrlResolver.requireBaseUrl()).thenReturn("https://pod.example.com");
+    RssService service = new RssService(null, episodeService, null, mediaService, null,
+        appBaseUrlResolver);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertEquals(Set.of("abc123", "def456"),
+        service.writeChannelFeed(channel, new Date(1700000000000L), output));
+    return output.toString(StandardCharsets.UTF_8);
+  }
 }
@@ -0,0 +1,91 @@
+package top.asimov.pigeon.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.asimov.pigeon.config.FeedSyncProperties;
+import top.asimov.pigeon.exception.BusinessException;
+import top.asimov.pigeon.model.dto.PlaylistSnapshotEntry;
+
+class YtDlpPlaylistSnapshotServiceTest {
+
+  private final YtDlpRuntimeService runtimeService = mock(YtDlpRuntimeService.class);
+  private final YtDlpPlaylistSnapshotService service = new YtDlpPlaylistSnapshotService(
+      new ObjectMapper(), runtimeService, mock(YtDlpProxyService.class),
+      new FeedSyncProperties());
+
+  @Test
+  void shouldStreamLineDelimitedEntriesInChunks() {
+    // yt-dlp 追加的参数会成为 sh -c 的位置参数，脚本中不引用
+    useScript("printf '%s\\n' "
+        + "'{\"id\":\"v1\",\"playlist_index\":1,\"title\":\"one\",\"upload_date\":\"20260101\"}' "
+        + "'{\"id\":\"v2\",\"playlist_index\":2}' "
+        + "'' "
+        + "'{\"url\":\"https://www.youtube.com/watch?v=v3\",\"playlist_index\":3}' "
+        + "'{\"title\":\"no id\"}' "
+        + "'{\"id\":\"v4\",\"playlist_index\":4}' "
+        + "'{\"id\":\"v5\",\"playlist_index\":5}'");
+    List<List<String>> chunks = new ArrayList<>();
+
+    int total = service.streamPlaylistSnapshot("PL1", 2,
+        chunk -> chunks.add(chunk.stream().map(PlaylistSnapshotEntry::videoId).toList()));
+
+    assertEquals(5, total);
+    assertEquals(List.of(List.of("v1", "v2"), List.of("v3", "v4"), List.of("v5")), chunks);
+  }
+
+  @Test
+  void shouldFailWithoutDeliveringTailWhenProcessExitsWithError() {
+    useScript("printf '%s\\n' '{\"id\":\"v1\"}' '{\"id\":\"v2\"}' '{\"id\":\"v3\"}'; "
+        + "echo 'ERROR: playlist does not exist' >&2; exit 1");
+    List<List<PlaylistSnapshotEntry>> chunks = new ArrayList<>();
+
+    BusinessException error = assertThrows(BusinessException.class,
+        () -> service.streamPlaylistSnapshot("PL1", 2, chunks::add));
+
+    assertTrue(error.getMessage().contains("playlist does not exist"));
+    // 完整的块已交出，未满的尾块在确认进程正常退出前不交出
+    assertEquals(1, chunks.size());
+  }
+
+  @Test
+  void shouldKillProcessThatStopsProducingOutput() {
+    ReflectionTestUtils.setField(service, "snapshotTimeoutSeconds", 1);
+    useScript("printf '%s\\n' '{\"id\":\"v1\"}'; sleep 30");
+
+    BusinessException error = assertThrows(BusinessException.class,
+        () -> service.streamPlaylistSnapshot("PL1", 10, chunk -> {
+        }));
+
+    assertTrue(error.getMessage().contains("timeout"));
+  }
+
+  @Test
+  void shouldKillProcessThatKeepsProducingOutputPastMaxDuration() {
+    ReflectionTestUtils.setField(service, "snapshotTimeoutSeconds", 30);
+    ReflectionTestUtils.setField(service, "snapshotMaxDurationSeconds", 1);
+    useScript("while :; do printf '%s\\n' '{\"id\":\"v1\"}'; sleep 0.2; done");
+
+    BusinessException error = assertThrows(BusinessException.class,
+        () -> service.streamPlaylistSnapshot("PL1", 1000, chunk -> {
+        }));
+
+    assertTrue(error.getMessage().contains("timeout"));
+  }
+
+  private void useScript(String script) {
+    when(runtimeService.resolveExecutionRuntime()).thenReturn(
+        new YtDlpRuntimeService.YtDlpResolvedRuntime("SYSTEM", "test", null,
+            new YtDlpRuntimeService.YtDlpExecutionContext(List.of("sh", "-c", script, "sh"),
+                Map.of())));
+  }
+}
@@ -67,6 +67,25 @@ class YtDlpRuntimeServiceTest {
     assertEquals("SYSTEM_BINARY", info.getMode());
   }
 
+  @Test
+  void shouldReuseCachedRuntimeIdentityUntilRuntimeSwitches() throws IOException {
+    Path managedVersion = createManagedRuntime("20260315010101", "2026.03.15");
+    Path otherVersion = createManagedRuntime("20260314010101", "2026.03.14");
+    service.switchRuntime("managed:" + managedVersion.getFileName());
+
+    YtDlpRuntimeInfoResponse before = service.getRuntimeInfo();
+    service.resolveExecutionRuntime();
+    service.resolveExecutionRuntime();
+    YtDlpRuntimeInfoResponse cached = service.getRuntimeInfo();
+
+    assertEquals(before.getIdentityCacheMisses(), cached.getIdentityCacheMisses());
+    assertEquals(before.getIdentityCacheHits() + 3, cached.getIdentityCacheHits());
+
+    YtDlpRuntimeInfoResponse switched =
+        service.switchRuntime("managed:" + otherVersion.getFileName());
+    assertEquals(cached.getIdentityCacheMisses() + 1, switched.getIdentityCacheMisses());
+  }
+
   private Path createManagedRuntime(String directoryName, String version) throws IOException {
     Path runtimePath = managedRoot.resolve("versions").resolve(directoryName);
     Path packagePath = runtimePath.resolve("yt_dlp");
@@ -0,0 +1,68 @@
+package top.asimov.pigeon.service.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PresignedUrlCacheTest {
+
+  private final AtomicLong now = new AtomicLong(0);
+  private final AtomicInteger signCount = new AtomicInteger();
+  private final PresignedUrlCache cache = new PresignedUrlCache(now::get);
+
+  @Test
+  void shouldReuseUrlUntilReuseWindowElapses() {
+    Duration duration = Duration.ofHours(10);
+
+    String first = cache.get("media/a.mp3", null, duration, this::sign);
+    now.set(Duration.ofHours(4).toMillis());
+    String second = cache.get("media/a.mp3", null, duration, this::sign);
+    now.set(Duration.ofHours(5).toMillis());
+    String third = cache.get("media/a.mp3", null, duration, this::sign);
+
+    assertEquals(first, second);
+    assertNotEquals(first, third);
+    assertEquals(1L, cache.stats().getHits());
+    assertEquals(2L, cache.stats().getMisses());
+  }
+
+  @Test
+  void shouldKeyByContentDisposition() {
+    Duration duration = Duration.ofHours(1);
+
+    String inline = cache.get("media/a.mp3", null, duration, this::sign);
+    String attachment = cache.get("media/a.mp3", "attachment", duration, this::sign);
+
+    assertNotEquals(inline, attachment);
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedEntry() {
+    Duration duration = Duration.ofHours(1);
+    cache.configure(0.5, 2);
+
+    String a = cache.get("a", null, duration, this::sign);
+    cache.get("b", null, duration, this::sign);
+    cache.get("a", null, duration, this::sign);
+    cache.get("c", null, duration, this::sign);
+
+    assertEquals(a, cache.get("a", null, duration, this::sign));
+    assertEquals(1L, cache.stats().getEvictions());
+    assertEquals(2, cache.stats().getSize());
+  }
+
+  @Test
+  void shouldReportMinimumRemainingLifetime() {
+    cache.configure(0.75, 100);
+
+    assertEquals(Duration.ofHours(18), cache.minimumRemaining(Duration.ofHours(72)));
+  }
+
+  private String sign() {
+    return "https://s3.example.com/object?sig=" + signCount.incrementAndGet();
+  }
+}
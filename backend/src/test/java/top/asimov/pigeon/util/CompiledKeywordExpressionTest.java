@@ -0,0 +1,92 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompiledKeywordExpressionTest {
+
+  @Test
+  void shouldMatchAndGroupsRegardlessOfTokenOrder() {
+    CompiledKeywordExpression expression =
+        CompiledKeywordExpression.compile("raw+full highlights, SmackDown");
+
+    assertTrue(expression.matches("FULL HIGHLIGHTS of tonight's Raw"));
+    assertTrue(expression.matches("smackdown recap"));
+    assertFalse(expression.matches("raw recap"));
+    assertFalse(expression.matches("   "));
+  }
+
+  @Test
+  void shouldFindOverlappingTokens() {
+    CompiledKeywordExpression expression = CompiledKeywordExpression.compile("she+he+hers");
+
+    assertTrue(expression.matches("ushers"));
+    assertFalse(expression.matches("usher"));
+  }
+
+  @Test
+  void shouldSupportMoreThanSixtyFourTokens() {
+    StringBuilder expression = new StringBuilder();
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 70; i++) {
+      expression.append(i == 0 ? "" : "+").append("k").append(i).append("x");
+      text.append(" k").append(i).append("x");
+    }
+    CompiledKeywordExpression compiled = CompiledKeywordExpression.compile(expression.toString());
+
+    assertTrue(compiled.matches(text.toString()));
+    assertFalse(compiled.matches(text.toString().replace(" k69x", "")));
+  }
+
+  @Test
+  void shouldAgreeWithLegacyMatcherOnRandomInput() {
+    Random random = new Random(42);
+    List<String> words = List.of("raw", "full", "highlights", "nxt", "live", "ep", "podcast",
+        "Ürün", "直播", "回放", "a", "ab", "abc", "bca");
+    for (int round = 0; round < 2000; round++) {
+      String expression = randomExpression(random, words);
+      String text = randomText(random, words);
+      List<List<String>> groups = KeywordExpressionMatcher.parseExpression(expression);
+      boolean legacy = KeywordExpressionMatcher.matchesExpression(
+          text.trim().toLowerCase(Locale.ROOT), groups);
+
+      assertEquals(legacy, CompiledKeywordExpression.compile(expression).matches(text),
+          () -> "expression=" + expression + ", text=" + text);
+    }
+  }
+
+  private static String randomExpression(Random random, List<String> words) {
+    StringBuilder builder = new StringBuilder();
+    int groups = 1 + random.nextInt(3);
+    for (int g = 0; g < groups; g++) {
+      if (g > 0) {
+        builder.append(random.nextBoolean() ? "," : " , ");
+      }
+      int tokens = 1 + random.nextInt(3);
+      for (int t = 0; t < tokens; t++) {
+        if (t > 0) {
+          builder.append('+');
+        }
+        String word = words.get(random.nextInt(words.size()));
+        builder.append(random.nextBoolean() ? word.toUpperCase(Locale.ROOT) : word);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String randomText(Random random, List<String> words) {
+    StringBuilder builder = new StringBuilder();
+    int length = random.nextInt(8);
+    for (int i = 0; i < length; i++) {
+      builder.append(words.get(random.nextInt(words.size())));
+      builder.append(random.nextInt(3) == 0 ? "" : " ");
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,47 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.model.dto.SubtitleInfo;
+import top.asimov.pigeon.model.entity.Episode;
+
+class EpisodeAssetIndexUtilTest {
+
+  private static final String MEDIA_KEY = "audio/Some Channel/Title-abc123.m4a";
+
+  @Test
+  void shouldRoundTripSubtitlesWithDerivedObjectKeys() {
+    String encoded = EpisodeAssetIndexUtil.encodeSubtitles(List.of(
+        new SubtitleInfo("en", "vtt", null),
+        new SubtitleInfo("zh-Hans", "srt", null)));
+
+    assertEquals("en.vtt,zh-Hans.srt", encoded);
+
+    List<SubtitleInfo> decoded = EpisodeAssetIndexUtil.decodeSubtitles(MEDIA_KEY, encoded);
+    assertEquals(2, decoded.size());
+    assertEquals("zh-Hans", decoded.get(1).getLanguage());
+    assertEquals("srt", decoded.get(1).getFormat());
+    assertEquals("audio/Some Channel/Title-abc123.zh-Hans.srt", decoded.get(1).getObjectKey());
+  }
+
+  @Test
+  void shouldDistinguishEmptyIndexFromMissingIndex() {
+    Episode episode = Episode.builder().mediaFilePath(MEDIA_KEY).build();
+    assertFalse(EpisodeAssetIndexUtil.isIndexed(episode));
+
+    EpisodeAssetIndexUtil.apply(episode, List.of(), false, null);
+    assertTrue(EpisodeAssetIndexUtil.isIndexed(episode));
+    assertEquals("", episode.getSubtitleAssets());
+    assertTrue(EpisodeAssetIndexUtil.decodeSubtitles(MEDIA_KEY, episode.getSubtitleAssets())
+        .isEmpty());
+
+    EpisodeAssetIndexUtil.clear(episode);
+    assertFalse(EpisodeAssetIndexUtil.isIndexed(episode));
+    assertNull(episode.getChaptersAvailable());
+  }
+}
@@ -58,4 +58,27 @@ class FeedEpisodeVisibilityHelperTest {
 
     assertFalse(FeedEpisodeVisibilityHelper.matchesFeedFilter(channel, episode));
   }
+
+  @Test
+  void shouldDetectFilterChangesOnlyForFilterFields() {
+    Channel existing = Channel.builder()
+        .id("channel-1")
+        .titleContainKeywords("podcast")
+        .minimumDuration(60)
+        .build();
+    Channel sameFilter = Channel.builder()
+        .id("channel-1")
+        .titleContainKeywords("podcast")
+        .minimumDuration(60)
+        .customTitle("Renamed")
+        .build();
+    Channel changedFilter = Channel.builder()
+        .id("channel-1")
+        .titleContainKeywords("podcast")
+        .minimumDuration(120)
+        .build();
+
+    assertTrue(FeedEpisodeVisibilityHelper.hasSameFilter(existing, sameFilter));
+    assertFalse(FeedEpisodeVisibilityHelper.hasSameFilter(existing, changedFilter));
+  }
 }
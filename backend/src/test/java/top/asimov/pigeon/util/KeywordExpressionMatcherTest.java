@@ -1,6 +1,8 @@
 package top.asimov.pigeon.util;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -104,4 +106,18 @@ class KeywordExpressionMatcherTest {
         "wwe+精彩集锦",
         null));
   }
+
+  @Test
+  void shouldKeepRecentlyUsedExpressionsWhenCacheIsFull() {
+    CompiledKeywordExpression hot = KeywordExpressionMatcher.compile("lru-hot");
+    CompiledKeywordExpression cold = KeywordExpressionMatcher.compile("lru-cold");
+
+    for (int i = 0; i < KeywordExpressionMatcher.MAX_CACHED_EXPRESSIONS; i++) {
+      KeywordExpressionMatcher.compile("lru-filler-" + i);
+      assertSame(hot, KeywordExpressionMatcher.compile("lru-hot"));
+    }
+
+    assertSame(hot, KeywordExpressionMatcher.compile("lru-hot"));
+    assertNotSame(cold, KeywordExpressionMatcher.compile("lru-cold"));
+  }
 }
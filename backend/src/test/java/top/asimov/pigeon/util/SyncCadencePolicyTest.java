@@ -0,0 +1,111 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SyncCadencePolicyTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+  private final SyncCadencePolicy policy = new SyncCadencePolicy(Duration.ofHours(1),
+      Duration.ofHours(24), 0.3D, 4.0D, 0.1D);
+
+  @Test
+  void shouldPollSeveralTimesPerUploadGap() {
+    // 每天发布一次，最近一次在 2 小时前
+    List<LocalDateTime> publishTimes = everyHoursBefore(NOW.minusHours(2), 24, 10);
+
+    assertEquals(Duration.ofHours(6), policy.syncInterval(publishTimes, NOW));
+    assertEquals(NOW.plusHours(6), policy.nextSyncAt(publishTimes, NOW, 0.0D));
+  }
+
+  @Test
+  void shouldClampToBounds() {
+    List<LocalDateTime> hourly = everyHoursBefore(NOW.minusMinutes(10), 1, 10);
+    assertEquals(Duration.ofHours(1), policy.syncInterval(hourly, NOW));
+
+    assertEquals(Duration.ofHours(24), policy.syncInterval(List.of(), NOW));
+    assertEquals(Duration.ofHours(24), policy.syncInterval(null, NOW));
+  }
+
+  @Test
+  void shouldSlowDownWhenFeedGoesQuiet() {
+    // 过去每天发布，但已经 4 天没有新节目：空窗计入平均，0.3 * 96h + 0.7 * 24h = 45.6h
+    List<LocalDateTime> publishTimes = everyHoursBefore(NOW.minusDays(4), 24, 10);
+
+    assertEquals(45.6D * 3600, policy.estimateUploadGapSeconds(publishTimes, NOW), 1.0D);
+    assertEquals(Duration.ofSeconds(Math.round(45.6D * 3600 / 4)),
+        policy.syncInterval(publishTimes, NOW));
+
+    List<LocalDateTime> dormant = everyHoursBefore(NOW.minusDays(200), 24, 10);
+    assertEquals(Duration.ofHours(24), policy.syncInterval(dormant, NOW));
+  }
+
+  @Test
+  void shouldWeightRecentGapsMore() {
+    // 早期每 48 小时一更，最近改为每 6 小时一更
+    List<LocalDateTime> publishTimes = new ArrayList<>(
+        everyHoursBefore(NOW.minusHours(1), 6, 8));
+    publishTimes.addAll(everyHoursBefore(NOW.minusHours(1 + 7 * 6 + 48), 48, 6));
+
+    double gap = policy.estimateUploadGapSeconds(publishTimes, NOW);
+    assertTrue(gap < 12 * 3600, "recent gaps should dominate, got " + gap);
+  }
+
+  @Test
+  void shouldIgnoreSimultaneousAndFuturePublishTimes() {
+    LocalDateTime latest = NOW.minusHours(2);
+    List<LocalDateTime> publishTimes = new ArrayList<>(everyHoursBefore(latest, 8, 5));
+    publishTimes.add(latest);
+    publishTimes.add(latest);
+    publishTimes.add(NOW.plusDays(1));
+    publishTimes.add(null);
+
+    assertEquals(Duration.ofHours(2), policy.syncInterval(publishTimes, NOW));
+  }
+
+  @Test
+  void shouldUseOpenGapForSinglePublishTime() {
+    assertEquals(Duration.ofHours(3),
+        policy.syncInterval(List.of(NOW.minusHours(12)), NOW));
+  }
+
+  @Test
+  void shouldApplyJitterAfterClamping() {
+    List<LocalDateTime> publishTimes = everyHoursBefore(NOW.minusHours(2), 24, 10);
+
+    assertEquals(NOW.plusSeconds(Math.round(6 * 3600 * 1.1D)),
+        policy.nextSyncAt(publishTimes, NOW, 1.0D));
+    assertEquals(NOW.plusSeconds(Math.round(6 * 3600 * 0.9D)),
+        policy.nextSyncAt(publishTimes, NOW, -1.0D));
+    // 超出范围的随机数按 ±1 处理
+    assertEquals(NOW.plusSeconds(Math.round(6 * 3600 * 1.1D)),
+        policy.nextSyncAt(publishTimes, NOW, 5.0D));
+  }
+
+  @Test
+  void shouldRejectInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new SyncCadencePolicy(
+        Duration.ofHours(2), Duration.ofHours(1), 0.3D, 4.0D, 0.1D));
+    assertThrows(IllegalArgumentException.class, () -> new SyncCadencePolicy(
+        Duration.ofHours(1), Duration.ofHours(2), 0.0D, 4.0D, 0.1D));
+    assertThrows(IllegalArgumentException.class, () -> new SyncCadencePolicy(
+        Duration.ofHours(1), Duration.ofHours(2), 0.3D, 4.0D, 1.0D));
+  }
+
+  private static List<LocalDateTime> everyHoursBefore(LocalDateTime latest, int hours,
+      int count) {
+    List<LocalDateTime> times = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      times.add(latest.minusHours((long) hours * i));
+    }
+    return times;
+  }
+}
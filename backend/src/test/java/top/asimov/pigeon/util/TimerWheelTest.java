@@ -0,0 +1,53 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+  @Test
+  void shouldExpireOnlyAfterDeadlineTick() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000L, 8, 0L);
+    wheel.schedule("a", 2500L);
+
+    assertTrue(wheel.advance(2999L).isEmpty());
+    assertEquals(List.of("a"), wheel.advance(3000L));
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  void shouldReplaceAndCancelDeadlines() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000L, 8, 0L);
+    wheel.schedule("a", 1000L);
+    wheel.schedule("a", 5000L);
+    wheel.schedule("b", 2000L);
+    wheel.cancel("b");
+
+    assertTrue(wheel.advance(4000L).isEmpty());
+    assertEquals(List.of("a"), wheel.advance(5000L));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void shouldFirePastDeadlinesOnNextTick() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000L, 8, 10_000L);
+    wheel.schedule("late", 0L);
+
+    assertEquals(List.of("late"), wheel.advance(11_000L));
+  }
+
+  @Test
+  void shouldKeepDeadlinesBeyondOneRevolution() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000L, 8, 0L);
+    wheel.schedule("near", 3000L);
+    wheel.schedule("far", 20_000L);
+
+    assertEquals(List.of("near"), wheel.advance(10_000L));
+    assertEquals(1, wheel.size());
+    assertTrue(wheel.advance(19_000L).isEmpty());
+    assertEquals(List.of("far"), wheel.advance(100_000L));
+  }
+}
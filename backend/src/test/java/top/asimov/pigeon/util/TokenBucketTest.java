@@ -0,0 +1,41 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void shouldAllowBurstThenQueueReservations() {
+    AtomicLong clock = new AtomicLong();
+    TokenBucket bucket = new TokenBucket(2.0D, 3, clock::get);
+
+    assertEquals(0L, bucket.reserve());
+    assertEquals(0L, bucket.reserve());
+    assertEquals(0L, bucket.reserve());
+    // 令牌用完后按预订顺序排队，每个间隔 1/速率
+    assertEquals(SECOND / 2, bucket.reserve());
+    assertEquals(SECOND, bucket.reserve());
+  }
+
+  @Test
+  void shouldRefillUpToCapacity() {
+    AtomicLong clock = new AtomicLong();
+    TokenBucket bucket = new TokenBucket(1.0D, 2, clock::get);
+    assertTrue(bucket.tryAcquire());
+    assertTrue(bucket.tryAcquire());
+    assertFalse(bucket.tryAcquire());
+
+    clock.addAndGet(10 * SECOND);
+    assertTrue(bucket.tryAcquire());
+    assertTrue(bucket.tryAcquire());
+    assertFalse(bucket.tryAcquire());
+  }
+}
@@ -0,0 +1,48 @@
+package top.asimov.pigeon.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import top.asimov.pigeon.model.enums.DownloadPhase;
+
+class YtDlpProgressParserTest {
+
+  @Test
+  void shouldParseDownloadProgressLine() {
+    YtDlpProgressParser.ProgressLine line = YtDlpProgressParser.parse(
+        "[pigeon-progress]download|downloading|1048576|4194304|NA|524288.5|6");
+
+    assertEquals(DownloadPhase.DOWNLOADING, line.phase());
+    assertEquals(1048576L, line.downloadedBytes());
+    assertEquals(4194304L, line.totalBytes());
+    assertEquals(524288L, line.speedBytesPerSecond());
+    assertEquals(6L, line.etaSeconds());
+  }
+
+  @Test
+  void shouldFallbackToEstimatedTotalForFragmentedDownloads() {
+    YtDlpProgressParser.ProgressLine line = YtDlpProgressParser.parse(
+        "[pigeon-progress]download|downloading|2048|NA|8192.7|NA|NA");
+
+    assertEquals(8192L, line.totalBytes());
+    assertNull(line.speedBytesPerSecond());
+    assertNull(line.etaSeconds());
+  }
+
+  @Test
+  void shouldParsePostProcessLine() {
+    YtDlpProgressParser.ProgressLine line = YtDlpProgressParser.parse(
+        "[pigeon-progress]postprocess|started|Merger");
+
+    assertEquals(DownloadPhase.POST_PROCESSING, line.phase());
+    assertEquals("Merger", line.postProcessor());
+  }
+
+  @Test
+  void shouldIgnoreRegularOutput() {
+    assertNull(YtDlpProgressParser.parse("[youtube] abc123: Downloading webpage"));
+    assertNull(YtDlpProgressParser.parse("[pigeon-progress]download|downloading"));
+    assertNull(YtDlpProgressParser.parse(null));
+  }
+}
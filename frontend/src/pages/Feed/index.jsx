@@ -63,6 +63,8 @@ import FeedHeader from '../../components/FeedHeader';
 // 需要自动轮询的节目状态常量（移到组件外部避免重复创建）
 const ACTIVE_STATUSES = ['PENDING', 'DOWNLOADING'];
 const BATCH_PAGE_SIZE = 15;
+// 进度接口中表示任务已结束的阶段，需要回源状态接口获取最终结果
+const FINISHED_PROGRESS_PHASES = ['COMPLETED', 'FAILED'];
 
 // 下载状态对应的多语言文案 key
 const DOWNLOAD_STATUS_LABEL_KEYS = {
@@ -618,26 +620,48 @@ const FeedDetail = () => {
     if (!hasActiveEpisodes()) return;
 
     try {
-      // 获取当前活跃状态的节目ID列表
-      const activeIds = episodes
-        .filter((episode) => ACTIVE_STATUSES.includes(episode.downloadStatus))
+      const downloadingIds = episodes
+        .filter((episode) => episode.downloadStatus === 'DOWNLOADING')
+        .map((episode) => episode.id);
+      const statusIds = episodes
+        .filter((episode) => episode.downloadStatus === 'PENDING')
         .map((episode) => episode.id);
 
-      if (activeIds.length === 0) return;
-
-      // 使用专门的API端点获取特定节目的状态
-      const res = await API.post('/api/episode/status', activeIds);
-      const { code, data } = res.data;
+      // 下载中的节目优先读取内存中的实时进度，不访问数据库
+      const progressById = {};
+      if (downloadingIds.length > 0) {
+        const progressRes = await API.post('/api/episode/progress', downloadingIds);
+        if (progressRes.data.code === 200) {
+          progressRes.data.data.forEach((progress) => {
+            progressById[progress.episodeId] = progress;
+          });
+        }
+        // 已结束或未被跟踪的节目回退到状态接口，拿到最终状态
+        downloadingIds.forEach((id) => {
+          const progress = progressById[id];
+          if (!progress || FINISHED_PROGRESS_PHASES.includes(progress.phase)) {
+            statusIds.push(id);
+          }
+        });
+      }
 
-      if (code !== 200) {
-        console.error('Failed to fetch episode status');
-        return;
+      let statusData = [];
+      if (statusIds.length > 0) {
+        // 使用专门的API端点获取特定节目的状态
+        const res = await API.post('/api/episode/status', statusIds);
+        const { code, data } = res.data;
+        if (code !== 200) {
+          console.error('Failed to fetch episode status');
+        } else {
+          statusData = data;
+        }
       }
 
       // 更新对应节目的状态，保持分页不变，只更新状态相关字段
       setEpisodes((prevEpisodes) =>
         prevEpisodes.map((episode) => {
-          const updatedEpisode = data.find((updated) => updated.id === episode.id);
+          const updatedEpisode = statusData.find((updated) => updated.id === episode.id);
+          const progress = progressById[episode.id];
           if (updatedEpisode) {
             // 只更新状态相关的字段，保持其他字段不变
             return {
@@ -645,8 +669,12 @@ const FeedDetail = () => {
               downloadStatus: updatedEpisode.downloadStatus,
               errorLog: updatedEpisode.errorLog,
               mediaType: updatedEpisode.mediaType,
+              downloadProgress: updatedEpisode.downloadStatus === 'DOWNLOADING' ? progress : null,
             };
           }
+          if (progress) {
+            return { ...episode, downloadProgress: progress };
+          }
           return episode;
         }),
       );
@@ -1116,6 +1144,15 @@ const FeedDetail = () => {
               {episodes.map((episode, index) => {
                 const statusKey =
                   DOWNLOAD_STATUS_LABEL_KEYS[episode.downloadStatus] || episode.downloadStatus;
+                const progressPercent =
+                  episode.downloadStatus === 'DOWNLOADING' &&
+                  episode.downloadProgress?.phase === 'DOWNLOADING'
+                    ? episode.downloadProgress.percent
+                    : null;
+                const statusLabel =
+                  progressPercent != null
+                    ? `${t(statusKey)} ${Math.floor(progressPercent)}%`
+                    : t(statusKey);
                 const shouldShowMediaTypeBadge =
                   episode.downloadStatus === 'COMPLETED' && episode.mediaType;
                 const shouldShowCoverStatusBadge =
@@ -1227,7 +1264,7 @@ const FeedDetail = () => {
                               size="xs"
                               radius="sm"
                             >
-                              {t(statusKey)}
+                              {statusLabel}
                             </Badge>
                           )}
                         </Box>
@@ -211,8 +211,26 @@ const createDefaultSystemConfig = () => ({
   s3SocketTimeoutSeconds: 1800,
   s3ReadTimeoutSeconds: 1800,
   s3PresignExpireHours: 72,
+  downloadConcurrency: 3,
+  youtubeDownloadConcurrency: null,
+  bilibiliDownloadConcurrency: null,
+  adaptiveDownloadConcurrency: false,
 });
 
+const formatDownloadConcurrencySummary = (systemConfig, t) => {
+  const parts = [String(systemConfig.downloadConcurrency ?? 3)];
+  if (systemConfig.youtubeDownloadConcurrency) {
+    parts.push(`YouTube ${systemConfig.youtubeDownloadConcurrency}`);
+  }
+  if (systemConfig.bilibiliDownloadConcurrency) {
+    parts.push(`Bilibili ${systemConfig.bilibiliDownloadConcurrency}`);
+  }
+  if (systemConfig.adaptiveDownloadConcurrency) {
+    parts.push(t('download_concurrency_adaptive_short', { defaultValue: 'adaptive' }));
+  }
+  return parts.join(' / ');
+};
+
 const createDefaultNotificationConfig = () => ({
   emailEnabled: false,
   emailHost: '',
@@ -312,6 +330,10 @@ const UserSetting = () => {
   const [dateFormat, setDateFormat] = useState(state.user?.dateFormat || DEFAULT_DATE_FORMAT);
   const [editBaseUrlOpened, { open: openEditBaseUrl, close: closeEditBaseUrl }] =
     useDisclosure(false);
+  const [
+    editDownloadConcurrencyOpened,
+    { open: openEditDownloadConcurrency, close: closeEditDownloadConcurrency },
+  ] = useDisclosure(false);
   const [editNotificationConfigOpened, { open: openEditNotificationConfig, close: closeEditNotificationConfig }] =
     useDisclosure(false);
   const [editProxyConfigOpened, { open: openEditProxyConfig, close: closeEditProxyConfig }] =
@@ -1136,6 +1158,10 @@ const UserSetting = () => {
     s3SocketTimeoutSeconds: toNullableNumber(systemConfig.s3SocketTimeoutSeconds),
     s3ReadTimeoutSeconds: toNullableNumber(systemConfig.s3ReadTimeoutSeconds),
     s3PresignExpireHours: toNullableNumber(systemConfig.s3PresignExpireHours),
+    downloadConcurrency: toNullableNumber(systemConfig.downloadConcurrency),
+    youtubeDownloadConcurrency: toNullableNumber(systemConfig.youtubeDownloadConcurrency),
+    bilibiliDownloadConcurrency: toNullableNumber(systemConfig.bilibiliDownloadConcurrency),
+    adaptiveDownloadConcurrency: Boolean(systemConfig.adaptiveDownloadConcurrency),
   });
 
   const buildNotificationConfigPayload = () => ({
@@ -1596,6 +1622,32 @@ const UserSetting = () => {
               </Group>
               <Divider hiddenFrom="sm" />
 
+              <Group>
+                <Text c="dimmed">
+                  {t('download_concurrency_label', { defaultValue: 'Download concurrency' })}:
+                </Text>
+                <ActionIcon
+                  variant="transparent"
+                  size="sm"
+                  aria-label="Edit Download Concurrency"
+                  onClick={openEditDownloadConcurrency}
+                  hiddenFrom="sm"
+                >
+                  <IconEdit size={18} />
+                </ActionIcon>
+                <Text>{formatDownloadConcurrencySummary(systemConfig, t)}</Text>
+                <ActionIcon
+                  variant="transparent"
+                  size="sm"
+                  aria-label="Edit Download Concurrency"
+                  onClick={openEditDownloadConcurrency}
+                  visibleFrom="sm"
+                >
+                  <IconEdit size={18} />
+                </ActionIcon>
+              </Group>
+              <Divider hiddenFrom="sm" />
+
               <Group>
                 <Text c="dimmed">{t('notification_label')}:</Text>
                 <ActionIcon
@@ -2212,6 +2264,14 @@ const UserSetting = () => {
                       : t('youtube_daily_limit_unlimited', { defaultValue: 'Unlimited' }),
                   })}
                 </Text>
+                {youtubeQuotaToday.savedUnits > 0 ? (
+                  <Text size="sm" c="dimmed">
+                    {t('youtube_quota_today_saved', {
+                      defaultValue: 'Saved by feed pre-check: {{saved}} units',
+                      saved: youtubeQuotaToday.savedUnits,
+                    })}
+                  </Text>
+                ) : null}
                 {youtubeQuotaToday.autoSyncBlocked ? (
                   <Text size="sm">
                     {t('youtube_quota_auto_sync_blocked', {
@@ -2235,6 +2295,95 @@ const UserSetting = () => {
         </Group>
       </Modal>
 
+      <Modal
+        opened={editDownloadConcurrencyOpened}
+        onClose={closeEditDownloadConcurrency}
+        title={t('download_concurrency_label', { defaultValue: 'Download concurrency' })}
+      >
+        <Stack>
+          <NumberInput
+            label={t('download_concurrency_total', { defaultValue: 'Max concurrent downloads' })}
+            min={1}
+            max={32}
+            allowDecimal={false}
+            value={systemConfig.downloadConcurrency ?? ''}
+            onChange={(value) =>
+              setSystemConfig((prev) => ({
+                ...prev,
+                downloadConcurrency: value,
+              }))
+            }
+          />
+          <NumberInput
+            label={t('download_concurrency_youtube', { defaultValue: 'YouTube limit' })}
+            placeholder={t('download_concurrency_source_placeholder', {
+              defaultValue: 'Empty = share the total limit',
+            })}
+            min={1}
+            max={Number(systemConfig.downloadConcurrency) || 32}
+            allowDecimal={false}
+            value={systemConfig.youtubeDownloadConcurrency ?? ''}
+            onChange={(value) =>
+              setSystemConfig((prev) => ({
+                ...prev,
+                youtubeDownloadConcurrency: value,
+              }))
+            }
+          />
+          <NumberInput
+            label={t('download_concurrency_bilibili', { defaultValue: 'Bilibili limit' })}
+            placeholder={t('download_concurrency_source_placeholder', {
+              defaultValue: 'Empty = share the total limit',
+            })}
+            min={1}
+            max={Number(systemConfig.downloadConcurrency) || 32}
+            allowDecimal={false}
+            value={systemConfig.bilibiliDownloadConcurrency ?? ''}
+            onChange={(value) =>
+              setSystemConfig((prev) => ({
+                ...prev,
+                bilibiliDownloadConcurrency: value,
+              }))
+            }
+          />
+          <Switch
+            label={t('download_concurrency_adaptive', { defaultValue: 'Adaptive concurrency' })}
+            description={t('download_concurrency_adaptive_hint', {
+              defaultValue:
+                'Automatically adjusts active downloads between 1 and the max based on throughput, failure rate and host load.',
+            })}
+            checked={Boolean(systemConfig.adaptiveDownloadConcurrency)}
+            onChange={(event) => {
+              const checked = event.currentTarget.checked;
+              setSystemConfig((prev) => ({
+                ...prev,
+                adaptiveDownloadConcurrency: checked,
+              }));
+            }}
+          />
+          <Group justify="flex-end">
+            <Button variant="default" onClick={closeEditDownloadConcurrency}>
+              {t('cancel')}
+            </Button>
+            <Button
+              loading={systemConfigSaving}
+              onClick={async () => {
+                const success = await saveSystemConfig(
+                  t('download_concurrency_saved', {
+                    defaultValue: 'Download concurrency saved.',
+                  }),
+                );
+                if (success) {
+                  closeEditDownloadConcurrency();
+                }
+              }}
+            >
+              {t('confirm')}
+            </Button>
+          </Group>
+        </Stack>
+      </Modal>
+
       <Modal
         opened={editBaseUrlOpened}
         onClose={closeEditBaseUrl}